@@ -4,6 +4,8 @@
  */
 public class DeadlineTask extends Task {
     private static final long serialVersionUID = 104430L;
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
     
     private final DukeDateTime deadlineTime;
 
@@ -49,6 +51,34 @@ public class DeadlineTask extends Task {
         return new DeadlineTask(description, deadlineTime, false);
     }
 
+    /**
+     * Returns the date-time by which this <code>Task</code> should be completed.
+     * 
+     * @return The date-time by which this <code>Task</code> should be completed
+     */
+    public DukeDateTime getDeadlineTime() {
+        return deadlineTime;
+    }
+
+    /**
+     * Returns whether the deadline has a date, so that it can be placed in time.
+     * 
+     * @return <code>true</code> if the deadline has a date
+     */
+    public boolean isDated() {
+        return deadlineTime != null && deadlineTime.getDate() != null;
+    }
+
+    /**
+     * Returns when this <code>Task</code> becomes overdue, which is the first minute after its deadline. Should only
+     * be used if the deadline is dated. A deadline without a time lasts until the end of its day.
+     * 
+     * @return The minute this <code>Task</code> becomes overdue, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     */
+    public long getDueEpochMinute() {
+        return DukeBinaryCodec.toEpochMinute(deadlineTime) + ((deadlineTime.getTime() == null) ? MINUTES_PER_DAY : 1);
+    }
+
     /**
      * Returns a String representation of this <code>Task</code>.
      * 
@@ -57,9 +87,9 @@ public class DeadlineTask extends Task {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format(TO_STRING_FORMAT, 'D', this.getStatusIcon(), this.description));
-        sb.append(String.format(" (by %s)", deadlineTime.toString()));
-        return sb.toString();
+        StringBuilder sb = startToString('D');
+        sb.append(" (by ");
+        deadlineTime.appendTo(sb);
+        return sb.append(')').toString();
     }
 }
@@ -88,12 +88,23 @@ public class DialogBox extends HBox {
 
         double finalHeight = minHeight;
 
-        int numberOfLines = text.split("\r\n|\r|\n").length;
+        //Counts the line breaks in place, rather than splitting a long listing into a String per line. As with
+        //splitting, line breaks at the very end do not count.
+        int textEnd = text.length();
+        while (textEnd > 0 && (text.charAt(textEnd - 1) == '\n' || text.charAt(textEnd - 1) == '\r')) {
+            textEnd--;
+        }
 
-        for (int i = 1; i < numberOfLines; i++) {
-            finalHeight += incrementHeight;
+        int numberOfLines = 1;
+        for (int i = 0; i < textEnd; i++) {
+            boolean isCarriageReturnOfPair = text.charAt(i) == '\r' && i + 1 < textEnd && text.charAt(i + 1) == '\n';
+            if ((text.charAt(i) == '\n' || text.charAt(i) == '\r') && !isCarriageReturnOfPair) {
+                numberOfLines++;
+            }
         }
 
+        finalHeight += incrementHeight * (numberOfLines - 1);
+
         dialog.setMinHeight(finalHeight);
     }
 
@@ -1,5 +1,15 @@
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
 
 /**
  * The class where the main method is located. Takes in user inputs, and processes the results of Duke's responses.
@@ -7,47 +17,102 @@ import java.io.IOException;
 public class Duke {
     // Class logic components
     private DukeSaveLoad dukeSaveLoad;
+    private DukePersistenceWriter persistenceWriter;
+    private DukeStartupLoader startupLoader;
+    private UserInputProcessor inputProcessor;
+
+    //Each list is null until the first command that uses it, which waits for it to be loaded
     private TaskList tasks;
     private NoteList notes;
     private boolean systemShouldShutdown = false;
 
+    //Given the summary of each script run in the background, or null if scripts are run before Duke replies
+    private BiConsumer<String, DukeImageChoice> scriptListener;
+
+    //The script running in the background and its thread, or null if none was started since the last command
+    private DukeScriptRunner backgroundScript;
+    private Thread backgroundScriptThread;
+
     /**
-     * Creates a new instance of Duke.
+     * Creates a new instance of Duke, saving its data in the working directory. The saved data is loaded in the
+     * background, so Duke is ready to greet the user at once.
      * 
      * @throws NullPointerException When the <code>pathname</code> in DukeSaveLoad is <code>null</code>
      * @throws IOException If an IOException occured during reading file or pathnames in DukeSaveLoad
-     * @throws FileNotFoundException If saveFile does not exist
-     * @throws ClassNotFoundException When <code>TaskList</code> class cannot be found
      */
-    public Duke() throws NullPointerException, IOException, FileNotFoundException, ClassNotFoundException {
-        dukeSaveLoad = new DukeSaveLoad();
-        tasks = dukeSaveLoad.attemptLoadTaskList();
-        notes = dukeSaveLoad.attemptLoadNoteList();
+    public Duke() throws NullPointerException, IOException {
+        this(new File(System.getProperty("user.dir")));
+    }
+
+    /**
+     * Creates a new instance of Duke, saving its data in the given directory. The saved data is loaded in the
+     * background, so Duke is ready to greet the user at once.
+     * 
+     * @param saveDirectory The directory holding the save files
+     * @throws NullPointerException When the <code>saveDirectory</code> is <code>null</code>
+     * @throws IOException If an IOException occured while creating the save files
+     */
+    public Duke(File saveDirectory) throws NullPointerException, IOException {
+        dukeSaveLoad = new DukeSaveLoad(saveDirectory);
+
+        startupLoader = new DukeStartupLoader(dukeSaveLoad);
+        startupLoader.start();
+
+        persistenceWriter = new DukePersistenceWriter(dukeSaveLoad);
+        persistenceWriter.start();
+
+        inputProcessor = new UserInputProcessor(persistenceWriter);
     }
 
     /**
-     * Returns Duke's reponse to the User. This method will change Duke's state.
+     * Returns Duke's reponse to the User. This method will change Duke's state. Changes are saved in the background,
+     * and are all saved before Duke exits. Waits for the lists the command uses to be loaded, if they are not yet.
      * 
      * @param inputString The User input string.
      * @return Duke's response to the user.
      * 
      * @throws FileNotFoundException If a save file does not exist and cannot be created, or cannot be opened.
-     * @throws IOException When an IOException occurs.
+     * @throws IOException When an IOException occurred while loading, or while saving earlier changes.
      * @throws SecurityException If a security manager exists and its checkWrite method denies write access to the file.
      */
     public String getResponse(String inputString) throws FileNotFoundException, IOException, SecurityException {
-        try {
-            DukeReply dukeReply = UserInputProcessor.processUserInput(inputString, tasks, notes);
+        //Telling what the command is only reads its keyword, and is done once for every check below
+        DukeCommandType commandType = DukeParsedCommand.identify(inputString);
 
-            if (dukeReply.shouldSaveTaskList) {
-                dukeSaveLoad.attemptSaveTaskList(tasks);
-            }
+        //The lists belong to a script running in the background until it finishes
+        if (isScriptRunning() && commandType != DukeCommandType.Bye) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            return DukeUi.ERROR_SCRIPT_RUNNING;
+        }
+
+        //A bye stops the script, so that its changes are saved before Duke exits
+        stopScript();
+
+        if (tasks == null && UserInputProcessor.needsTaskList(commandType)) {
+            tasks = startupLoader.awaitTaskList();
+        }
+
+        if (notes == null && UserInputProcessor.needsNoteList(commandType)) {
+            notes = startupLoader.awaitNoteList();
+        }
 
-            if (dukeReply.shouldSaveNoteList) {
-                dukeSaveLoad.attemptSaveNoteList(notes);
+        try {
+            if (commandType == DukeCommandType.Run) {
+                return processRunCommand(inputString);
             }
 
+            DukeReply dukeReply = inputProcessor.processUserInput(inputString, tasks, notes);
+
+            //Both lists' changes are saved in one commit
+            persistenceWriter.submitChanges(
+                dukeReply.shouldSaveTaskList ? tasks.drainChanges() : Collections.emptyList(),
+                dukeReply.shouldSaveNoteList ? notes.drainChanges() : Collections.emptyList());
+
             systemShouldShutdown = dukeReply.shouldExitLoop;
+            if (systemShouldShutdown) {
+                //Start writing straight away, rather than waiting out the durability window
+                persistenceWriter.requestFlush();
+            }
 
             return dukeReply.dukeReplyString;
         } catch (DukeException e) {
@@ -55,6 +120,165 @@ public class Duke {
         }
     }
 
+    /**
+     * Runs every line of a script as a command, saving their changes together rather than one by one. Waits for both
+     * lists to be loaded, if they are not yet, and until the changes are saved.
+     * 
+     * @param script The script, which is read to its end but not closed
+     * @param replyListener Given Duke's reply to each line that is run, along with its one-indexed line number
+     * @return The <code>DukeScriptRunner</code> that ran the script, holding its results
+     * @throws IOException When an IOException occurred while loading, reading the script, or saving.
+     */
+    public DukeScriptRunner runScript(BufferedReader script, ObjIntConsumer<String> replyListener)
+            throws IOException {
+        awaitLists();
+
+        DukeScriptRunner scriptRunner = new DukeScriptRunner(tasks, notes, persistenceWriter);
+        scriptRunner.run(script, replyListener);
+        return scriptRunner;
+    }
+
+    /**
+     * Has the scripts of later <code>run</code> commands run on a thread of their own, so that the thread handling
+     * the user's commands, such as the JavaFX application thread, is never held up by one. Duke replies to a
+     * <code>run</code> command straight away, and hands the summary of the script to the listener once it finishes,
+     * on the script's thread. Until then, every command but <code>bye</code> is turned away, and <code>bye</code>
+     * stops the script after the line it is running.
+     * 
+     * <p>Without a listener, as when Duke is run headless or benchmarked, a <code>run</code> command runs its script
+     * to its end before Duke replies with the summary.</p>
+     * 
+     * @param scriptListener Given the summary of each script, and the image of Duke to show with it
+     */
+    public void setScriptListener(BiConsumer<String, DukeImageChoice> scriptListener) {
+        this.scriptListener = scriptListener;
+    }
+
+    /**
+     * Runs the script named by a <code>run</code> command, and returns Duke's summary of it, or starts running it in
+     * the background if a script listener is set. The replies to the lines of the script are not shown one by one.
+     * 
+     * @param inputString The <code>run</code> command, followed by the path of the script
+     * @return Duke's summary of the script, or its reply to the script being started
+     * @throws DukeException If no path is given, or there is no script at it
+     * @throws IOException When an IOException occurred while reading the script, or saving.
+     */
+    private String processRunCommand(String inputString) throws DukeException, IOException {
+        String path = inputString.substring("run".length()).trim();
+        if (path.isEmpty()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, "run"));
+        }
+
+        BufferedReader script;
+        try {
+            script = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException | InvalidPathException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_SCRIPT_MISSING, path));
+        }
+
+        if (scriptListener != null) {
+            return startScript(script, path);
+        }
+
+        try (script) {
+            return runScript(script, (reply, lineNumber) -> { }).getSummary(path);
+        }
+    }
+
+    /**
+     * Starts running a script in the background, and hands its summary to the script listener once it finishes.
+     * Waits for both lists to be loaded, if they are not yet, but not for the script.
+     * 
+     * @param script The script, which is closed once it is run
+     * @param path The path of the script, as the user gave it
+     * @return Duke's reply to the script being started
+     * @throws IOException When an IOException occurred while loading.
+     */
+    private String startScript(BufferedReader script, String path) throws IOException {
+        try {
+            awaitLists();
+        } catch (IOException | RuntimeException e) {
+            script.close();
+            throw e;
+        }
+
+        DukeScriptRunner scriptRunner = new DukeScriptRunner(tasks, notes, persistenceWriter);
+        BiConsumer<String, DukeImageChoice> listener = scriptListener;
+        Thread scriptThread = new Thread(() -> {
+            String summary;
+            try (script) {
+                scriptRunner.run(script, (reply, lineNumber) -> { });
+                summary = scriptRunner.getSummary(path);
+            } catch (IOException | RuntimeException e) {
+                GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+                summary = String.format(DukeUi.ERROR_SCRIPT_FAILED, path, e.getMessage());
+            }
+
+            listener.accept(summary, GlobalDukeImageChoiceBuffer.getDukeImageChoice());
+        }, "Duke script");
+
+        backgroundScript = scriptRunner;
+        backgroundScriptThread = scriptThread;
+        scriptThread.start();
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+        return String.format(DukeUi.FEEDBACK_SCRIPT_STARTED, path);
+    }
+
+    /**
+     * Returns whether a script started by a <code>run</code> command is still running in the background.
+     * 
+     * @return <code>true</code> if a script is running in the background
+     */
+    private boolean isScriptRunning() {
+        return backgroundScriptThread != null && backgroundScriptThread.isAlive();
+    }
+
+    /**
+     * Stops the script running in the background, if any, after the line it is running, and waits until it has
+     * finished and its changes are saved.
+     */
+    private void stopScript() {
+        if (backgroundScriptThread == null) {
+            return;
+        }
+
+        backgroundScript.stop();
+
+        boolean isInterrupted = false;
+        while (backgroundScriptThread.isAlive()) {
+            try {
+                backgroundScriptThread.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        backgroundScript = null;
+        backgroundScriptThread = null;
+    }
+
+    /**
+     * Waits for both lists to be loaded, if they are not yet.
+     * 
+     * @throws IOException When an IOException occurred while loading.
+     */
+    private void awaitLists() throws IOException {
+        if (tasks == null) {
+            tasks = startupLoader.awaitTaskList();
+        }
+
+        if (notes == null) {
+            notes = startupLoader.awaitNoteList();
+        }
+    }
+
     /**
      * Returns Duke's hello message.
      * 
@@ -64,6 +288,29 @@ public class Duke {
         return DukeUi.GREET_HELLO;
     }
 
+    /**
+     * Waits until all the saved data is loaded, including every saved <code>Task</code> decoded and indexed in the
+     * background.
+     * 
+     * @throws IOException When an IOException occurred while loading.
+     */
+    public void awaitLoaded() throws IOException {
+        startupLoader.awaitPrewarm();
+    }
+
+    /**
+     * Stops any script running in the background after the line it is running, saves every change made so far, and
+     * stops saving in the background. Blocks until the changes are saved, and any snapshot being written in the
+     * background is finished.
+     * 
+     * @throws IOException When an IOException occurred while saving.
+     */
+    public void close() throws IOException {
+        stopScript();
+        persistenceWriter.close();
+        dukeSaveLoad.awaitRollups();
+    }
+
     /**
      * Returns whether the system should shutdown.
      * 
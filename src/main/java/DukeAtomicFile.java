@@ -0,0 +1,99 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A class that replaces files without ever leaving them half-written. A new version of a file is written to a
+ * temporary file next to it, forced to the disk, and then renamed over the old version, so a crash at any point leaves
+ * either the whole old version or the whole new version behind.
+ */
+public class DukeAtomicFile {
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Opens the temporary file that a new version of the given file is written to, emptying it if it already exists.
+     * 
+     * @param file The file to be replaced
+     * @return An open channel to the temporary file
+     * @throws IOException When an IOException occurs
+     */
+    public static FileChannel openTemporary(File file) throws IOException {
+        return FileChannel.open(getTemporaryFile(file).toPath(), StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Forces the temporary file to the disk, closes it, and renames it over the given file.
+     * 
+     * @param temporaryChannel The channel returned by <code>openTemporary</code>
+     * @param file The file to be replaced
+     * @throws IOException When an IOException occurs
+     */
+    public static void commitTemporary(FileChannel temporaryChannel, File file) throws IOException {
+        try {
+            temporaryChannel.force(true);
+        } finally {
+            temporaryChannel.close();
+        }
+
+        try {
+            Files.move(getTemporaryFile(file).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(getTemporaryFile(file).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        syncDirectory(file);
+    }
+
+    /**
+     * Replaces the given file with the given contents.
+     * 
+     * @param file The file to be replaced
+     * @param contents The new contents of the file
+     * @throws IOException When an IOException occurs
+     */
+    public static void write(File file, byte[] contents) throws IOException {
+        FileChannel channel = openTemporary(file);
+
+        try {
+            DukeBinaryCodec.writeFully(channel, 0, ByteBuffer.wrap(contents));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        commitTemporary(channel, file);
+    }
+
+    /**
+     * Forces the directory holding the given file to the disk, so that a file created or renamed in it survives a
+     * crash.
+     * 
+     * @param file A file in the directory
+     */
+    public static void syncDirectory(File file) {
+        File directory = file.getAbsoluteFile().getParentFile();
+
+        try (FileChannel directoryChannel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            //Some platforms, such as Windows, cannot open directories; their renames are durable on their own
+        }
+    }
+
+    /**
+     * Returns the temporary file that a new version of the given file is written to.
+     * 
+     * @param file The file to be replaced
+     * @return The temporary file
+     */
+    private static File getTemporaryFile(File file) {
+        return new File(file.getPath() + TEMPORARY_FILE_SUFFIX);
+    }
+}
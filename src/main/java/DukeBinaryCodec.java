@@ -0,0 +1,826 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A static class that encodes Duke's data in a compact binary format, and decodes it again without reflection.
+ * 
+ * <p>A <code>Task</code> is written as a single header byte, followed by its description as a length-prefixed UTF-8
+ * <code>String</code>, followed by its date-times as packed epoch-minutes. The header byte holds the type of the
+ * <code>Task</code> in its lowest two bits, whether each date and time is specified in the next four bits, and the
+ * completion status in its highest bit. All lengths, counts and epoch-minutes are written as variable-length
+ * integers, so that small values take up as few bytes as possible.</p>
+ */
+public class DukeBinaryCodec {
+    //Marks the start of every file written in this format. Spells "DUKE".
+    public static final int MAGIC_NUMBER = 0x44554B45;
+    public static final int FORMAT_VERSION = 1;
+
+    //The two bytes at the start of every file written by Java serialization
+    public static final int JAVA_SERIALIZATION_MAGIC_NUMBER = 0xACED;
+
+    public static final byte KIND_TASK_LIST = 1;
+    public static final byte KIND_NOTE_LIST = 2;
+    public static final byte KIND_JOURNAL = 3;
+    public static final byte KIND_PAGED_TASK_LIST = 4;
+    public static final byte KIND_CHECKED_NOTE_LIST = 5;
+    public static final byte KIND_COMPRESSED_TASK_LIST = 6;
+    public static final byte KIND_COMPRESSED_NOTE_LIST = 7;
+    public static final byte KIND_COMMITTED_JOURNAL = 8;
+    public static final byte KIND_STORE = 9;
+    public static final byte KIND_TASK_INDEX = 10;
+
+    //The number of notes grouped under each checksum
+    private static final int NOTES_PER_BLOCK = 64;
+
+    private static final int TYPE_TODO = 1;
+    private static final int TYPE_DEADLINE = 2;
+    private static final int TYPE_EVENT = 3;
+    private static final int TYPE_MASK = 0x03;
+
+    private static final int FIRST_DATE_FLAG = 0x04;
+    private static final int FIRST_TIME_FLAG = 0x08;
+    private static final int SECOND_DATE_FLAG = 0x10;
+    private static final int SECOND_TIME_FLAG = 0x20;
+    private static final int DONE_FLAG = 0x80;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Writes the header found at the start of every file in this format.
+     * 
+     * @param out The output to write to
+     * @param kind The kind of data stored in the file
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeFileHeader(DataOutput out, byte kind) throws IOException {
+        out.writeInt(MAGIC_NUMBER);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(kind);
+    }
+
+    /**
+     * Reads and checks the header found at the start of every file in this format.
+     * 
+     * @param in The buffer to read from
+     * @param kind The kind of data the file is expected to store
+     * @throws IllegalArgumentException If the header is missing, or is for a different version or kind of file
+     */
+    public static void readFileHeader(ByteBuffer in, byte kind) {
+        if (in.remaining() < 6 || in.getInt() != MAGIC_NUMBER) {
+            throw new IllegalArgumentException("Not a Duke file");
+        }
+
+        int version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported Duke file version " + version);
+        }
+
+        if (in.get() != kind) {
+            throw new IllegalArgumentException("Unexpected kind of Duke file");
+        }
+    }
+
+    /**
+     * Returns whether the buffer holds data written by Java serialization, as Duke's save files used to be.
+     * 
+     * @param in The buffer to check. Its position is left unchanged.
+     * @return <code>true</code> if the buffer starts with the Java serialization magic number
+     */
+    public static boolean isJavaSerialized(ByteBuffer in) {
+        return in.remaining() >= 2
+            && (in.getShort(in.position()) & 0xFFFF) == JAVA_SERIALIZATION_MAGIC_NUMBER;
+    }
+
+    /**
+     * Returns the kind of data stored in a file in this format, without checking the rest of its header.
+     * 
+     * @param in The buffer to check. Its position is left unchanged.
+     * @return The kind of the file, or -1 if the buffer does not start with a header in this format
+     */
+    public static int peekFileKind(ByteBuffer in) {
+        if (in.remaining() < 6 || in.getInt(in.position()) != MAGIC_NUMBER) {
+            return -1;
+        }
+
+        return in.get(in.position() + 5);
+    }
+
+    /**
+     * Writes a whole <code>TaskList</code>, including its generation.
+     * 
+     * @param out The output to write to
+     * @param tasks The <code>TaskList</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeTaskList(DataOutput out, TaskList tasks) throws IOException {
+        writeFileHeader(out, KIND_TASK_LIST);
+        writeVarLong(out, tasks.getGeneration());
+        writeVarLong(out, tasks.size());
+
+        for (Task task : tasks.snapshotIterable()) {
+            writeTask(out, task);
+        }
+    }
+
+    /**
+     * Reads a whole <code>TaskList</code> written by <code>writeTaskList</code>.
+     * 
+     * @param in The buffer to read from
+     * @return The <code>TaskList</code> read
+     * @throws IllegalArgumentException If the data is not a <code>TaskList</code> in this format
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static TaskList readTaskList(ByteBuffer in) {
+        readFileHeader(in, KIND_TASK_LIST);
+        long generation = readVarLong(in);
+        long size = readVarLong(in);
+
+        TaskList tasks = new TaskList();
+        for (long i = 0; i < size; i++) {
+            tasks.add(readTask(in));
+        }
+
+        tasks.restoreGeneration(generation);
+        return tasks;
+    }
+
+    /**
+     * Writes a whole <code>NoteList</code>, including its generation. The notes are written in checksummed blocks, so
+     * that the notes in intact blocks can still be read if the rest are damaged.
+     * 
+     * @param out The output to write to
+     * @param notes The <code>NoteList</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeNoteList(DataOutput out, NoteList notes) throws IOException {
+        writeNoteList(out, notes, false);
+    }
+
+    /**
+     * Writes a whole <code>NoteList</code>, including its generation, optionally compressing each block of notes with
+     * <code>deflate</code>. Each distinct note is written only once; a note written before is written instead as its
+     * first position in the list, negated and less one, in place of the length of a <code>String</code>.
+     * 
+     * @param out The output to write to
+     * @param notes The <code>NoteList</code> to be written
+     * @param isCompressed Whether each block of notes is compressed
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeNoteList(DataOutput out, NoteList notes, boolean isCompressed) throws IOException {
+        ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        DataOutputStream block = new DataOutputStream(blockBytes);
+
+        writeFileHeader(out, isCompressed ? KIND_COMPRESSED_NOTE_LIST : KIND_CHECKED_NOTE_LIST);
+        writeVarLong(block, notes.getGeneration());
+        writeVarLong(block, notes.size());
+        writeCheckedBlock(out, blockBytes);
+
+        //Every distinct note written so far, and the position in the list each handle was first written at
+        DukeStringPool writtenNotes = new DukeStringPool();
+        int[] firstPositions = new int[NOTES_PER_BLOCK];
+        int position = 0;
+
+        Iterator<String> noteIterator = notes.iterator();
+        while (noteIterator.hasNext()) {
+            blockBytes.reset();
+            ArrayList<String> blockNotes = new ArrayList<>(NOTES_PER_BLOCK);
+            while (noteIterator.hasNext() && blockNotes.size() < NOTES_PER_BLOCK) {
+                blockNotes.add(noteIterator.next());
+            }
+
+            writeVarLong(block, blockNotes.size());
+            for (String note : blockNotes) {
+                int noteHandle = writtenNotes.acquire(note);
+                if (writtenNotes.getReferenceCount(noteHandle) > 1) {
+                    writeVarLong(block, -1 - firstPositions[noteHandle]);
+                } else {
+                    if (noteHandle >= firstPositions.length) {
+                        firstPositions = Arrays.copyOf(firstPositions, firstPositions.length * 2);
+                    }
+                    firstPositions[noteHandle] = position;
+                    writeString(block, note);
+                }
+                position++;
+            }
+
+            if (isCompressed) {
+                byte[] uncompressedBlock = blockBytes.toByteArray();
+                blockBytes.reset();
+                writeVarLong(block, uncompressedBlock.length);
+                block.write(deflate(uncompressedBlock, uncompressedBlock.length));
+            }
+            writeCheckedBlock(out, blockBytes);
+        }
+    }
+
+    /**
+     * Reads a whole <code>NoteList</code> written by <code>writeNoteList</code>, or by older versions of it. Each
+     * damaged block of notes is replaced by a single note saying so, and the notes in every intact block are kept.
+     * 
+     * @param in The buffer to read from
+     * @return The <code>NoteList</code> read
+     * @throws IllegalArgumentException If the data is not a <code>NoteList</code> in this format, or its first block
+     *                                  is damaged
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static NoteList readNoteList(ByteBuffer in) {
+        if (peekFileKind(in) == KIND_NOTE_LIST) {
+            return readUncheckedNoteList(in);
+        }
+
+        boolean isCompressed = peekFileKind(in) == KIND_COMPRESSED_NOTE_LIST;
+        readFileHeader(in, isCompressed ? KIND_COMPRESSED_NOTE_LIST : KIND_CHECKED_NOTE_LIST);
+        ByteBuffer headerBlock = readCheckedBlock(in);
+        if (headerBlock == null) {
+            throw new IllegalArgumentException("Corrupted note list header");
+        }
+
+        long generation = readVarLong(headerBlock);
+        NoteList notes = new NoteList();
+
+        //Every note read so far by its position when written, or null where its block was damaged
+        ArrayList<String> notesRead = new ArrayList<>();
+
+        try {
+            while (in.hasRemaining()) {
+                ByteBuffer block = readCheckedBlock(in);
+                if (block == null) {
+                    notes.add("Forgive Me >__<"); //moe~<3
+                    notesRead.addAll(Collections.nCopies(NOTES_PER_BLOCK, null));
+                    continue;
+                }
+
+                if (isCompressed) {
+                    int uncompressedLength = (int) readVarLong(block);
+                    block = inflate(block, uncompressedLength);
+                }
+
+                long blockSize = readVarLong(block);
+                for (long i = 0; i < blockSize; i++) {
+                    String note = readNote(block, notesRead);
+                    notes.add(note);
+                    notesRead.add(note);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            //The rest of the file cannot be split into blocks
+            notes.add("Forgive Me >__<"); //moe~<3
+        }
+
+        notes.restoreGeneration(generation);
+        return notes;
+    }
+
+    /**
+     * Writes a block of data framed by its length and followed by its CRC32C checksum.
+     * 
+     * @param out The output to write to
+     * @param blockBytes The data in the block
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeCheckedBlock(DataOutput out, ByteArrayOutputStream blockBytes) throws IOException {
+        byte[] block = blockBytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(block);
+
+        out.writeInt(block.length);
+        out.write(block);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Reads a block written by <code>writeCheckedBlock</code>. A block that fails its checksum is skipped over, as
+     * long as its length can still be trusted.
+     * 
+     * @param in The buffer to read from
+     * @return The data in the block, or <code>null</code> if it failed its checksum
+     * @throws IllegalArgumentException If the length of the block is invalid
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static ByteBuffer readCheckedBlock(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining() - Integer.BYTES) {
+            throw new IllegalArgumentException("Invalid block length " + length);
+        }
+
+        ByteBuffer block = in.slice();
+        block.limit(length);
+        in.position(in.position() + length);
+
+        CRC32C crc = new CRC32C();
+        crc.update(block.duplicate());
+        return (in.getInt() == (int) crc.getValue()) ? block : null;
+    }
+
+    /**
+     * Returns the CRC32C checksum of part of a buffer.
+     * 
+     * @param buffer The buffer
+     * @param start The position of the first byte to be checksummed
+     * @param end The position after the last byte to be checksummed
+     * @return The checksum
+     */
+    public static int getChecksum(ByteBuffer buffer, int start, int end) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end).position(start);
+
+        CRC32C crc = new CRC32C();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads part of a file into a new buffer, stopping early if the file ends.
+     * 
+     * @param channel The file to read from
+     * @param position The position in the file to start reading at
+     * @param length The number of bytes to read
+     * @return A buffer holding the bytes read
+     * @throws IOException When an IOException occurs
+     */
+    public static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+            //Keep reading until the buffer is filled or the file ends
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes out all of a buffer into the file.
+     * 
+     * @param channel The file to write to
+     * @param position The position in the file to write at
+     * @param buffer The buffer to be written out, from its position to its limit
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeFully(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + length - buffer.remaining());
+        }
+    }
+
+    /**
+     * Compresses data with the Deflate algorithm from <code>java.util.zip</code>.
+     * 
+     * @param data The data to be compressed
+     * @param length The number of bytes at the start of <code>data</code> to compress
+     * @return The compressed data
+     */
+    public static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = new Deflater();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 16);
+        byte[] buffer = new byte[4096];
+
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+
+        deflater.end();
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decompresses data compressed by <code>deflate</code>.
+     * 
+     * @param compressed The buffer holding only the compressed data. Its position is moved to its limit.
+     * @param length The length of the data before it was compressed
+     * @return A buffer holding the decompressed data
+     * @throws IllegalArgumentException If the compressed data is malformed, or is not of the given length
+     */
+    public static ByteBuffer inflate(ByteBuffer compressed, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid uncompressed length " + length);
+        }
+
+        Inflater inflater = new Inflater();
+        byte[] data = new byte[length];
+
+        try {
+            inflater.setInput(compressed);
+            int inflatedLength = inflater.inflate(data);
+            if (!inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                //The data filled the buffer, but there is more of it
+                inflatedLength++;
+            }
+
+            if (inflatedLength != length || !inflater.finished()) {
+                throw new IllegalArgumentException("Compressed block is not of its recorded length");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Malformed compressed block", e);
+        } finally {
+            inflater.end();
+        }
+
+        return ByteBuffer.wrap(data);
+    }
+
+    /**
+     * Reads a single note written by <code>writeNoteList</code>, which may refer back to a note read before.
+     * 
+     * @param in The buffer to read from
+     * @param notesRead Every note read before, by its position when written
+     * @return The note read, or a placeholder if it refers back to a note that could not be read
+     * @throws IllegalArgumentException If the length of the note is invalid
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    private static String readNote(ByteBuffer in, List<String> notesRead) {
+        int start = in.position();
+        long length = readVarLong(in);
+        if (length >= 0) {
+            in.position(start);
+            return readString(in);
+        }
+
+        long firstPosition = -1 - length;
+        String note = (firstPosition < notesRead.size()) ? notesRead.get((int) firstPosition) : null;
+        return (note == null) ? "Forgive Me >__<" : note; //moe~<3
+    }
+
+    /**
+     * Reads a whole <code>NoteList</code> written before notes were checksummed.
+     * 
+     * @param in The buffer to read from
+     * @return The <code>NoteList</code> read
+     */
+    private static NoteList readUncheckedNoteList(ByteBuffer in) {
+        readFileHeader(in, KIND_NOTE_LIST);
+        long generation = readVarLong(in);
+        long size = readVarLong(in);
+
+        NoteList notes = new NoteList();
+        for (long i = 0; i < size; i++) {
+            notes.add(readString(in));
+        }
+
+        notes.restoreGeneration(generation);
+        return notes;
+    }
+
+    /**
+     * Writes a single <code>Task</code>.
+     * 
+     * @param out The output to write to
+     * @param task The <code>Task</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeTask(DataOutput out, Task task) throws IOException {
+        int header = getTaskHeader(task);
+
+        out.writeByte(header);
+        writeString(out, task.getDescription());
+        writeDateTime(out, getFirstDateTime(task));
+        writeDateTime(out, getSecondDateTime(task));
+    }
+
+    /**
+     * Reads a single <code>Task</code> written by <code>writeTask</code>.
+     * 
+     * @param in The buffer to read from
+     * @return The <code>Task</code> read
+     * @throws IllegalArgumentException If the data does not hold a <code>Task</code>
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static Task readTask(ByteBuffer in) {
+        int header = in.get() & 0xFF;
+        String description = readString(in);
+        long firstEpochMinute = hasDateTime(header, FIRST_DATE_FLAG, FIRST_TIME_FLAG) ? readVarLong(in) : 0;
+        long secondEpochMinute = hasDateTime(header, SECOND_DATE_FLAG, SECOND_TIME_FLAG) ? readVarLong(in) : 0;
+
+        return createTask(header, description, firstEpochMinute, secondEpochMinute);
+    }
+
+    /**
+     * Returns the header byte describing a <code>Task</code>, which holds its type, whether it is done, and which
+     * parts of its date-times are specified.
+     * 
+     * @param task The <code>Task</code> to be described
+     * @return The header byte, as an <code>int</code>
+     */
+    public static int getTaskHeader(Task task) {
+        int header;
+
+        if (task instanceof DeadlineTask) {
+            header = TYPE_DEADLINE;
+        } else if (task instanceof EventTask) {
+            header = TYPE_EVENT;
+        } else {
+            header = TYPE_TODO;
+        }
+
+        header |= getPresenceFlags(getFirstDateTime(task), FIRST_DATE_FLAG, FIRST_TIME_FLAG);
+        header |= getPresenceFlags(getSecondDateTime(task), SECOND_DATE_FLAG, SECOND_TIME_FLAG);
+        if (task.isDone()) {
+            header |= DONE_FLAG;
+        }
+
+        return header;
+    }
+
+    /**
+     * Returns a header byte from <code>getTaskHeader</code> with its done flag set or cleared.
+     * 
+     * @param header The header byte
+     * @param isDone Whether the <code>Task</code> it describes is done
+     * @return The header byte, as an <code>int</code>
+     */
+    public static int setTaskDone(int header, boolean isDone) {
+        return isDone ? header | DONE_FLAG : header & ~DONE_FLAG;
+    }
+
+    /**
+     * Returns whether a header byte from <code>getTaskHeader</code> describes a <code>DeadlineTask</code> whose
+     * deadline has a date, as <code>DeadlineTask.isDated</code> would.
+     * 
+     * @param header The header byte
+     * @return <code>true</code> if the header describes a dated <code>DeadlineTask</code>
+     */
+    public static boolean isDatedDeadline(int header) {
+        return (header & TYPE_MASK) == TYPE_DEADLINE && (header & FIRST_DATE_FLAG) != 0;
+    }
+
+    /**
+     * Returns when a dated <code>DeadlineTask</code> becomes overdue, as <code>DeadlineTask.getDueEpochMinute</code>
+     * would, from its header byte and packed deadline.
+     * 
+     * @param header The header byte, which must describe a dated <code>DeadlineTask</code>
+     * @param deadlineEpochMinute The packed deadline
+     * @return The minute the <code>DeadlineTask</code> becomes overdue
+     */
+    public static long getDueEpochMinute(int header, long deadlineEpochMinute) {
+        return deadlineEpochMinute + (((header & FIRST_TIME_FLAG) == 0) ? MINUTES_PER_DAY : 1);
+    }
+
+    /**
+     * Returns the first date-time of a <code>Task</code>, which is the deadline of a <code>DeadlineTask</code> or the
+     * start of an <code>EventTask</code>.
+     * 
+     * @param task The <code>Task</code>
+     * @return The first date-time, or <code>null</code> if this kind of <code>Task</code> has none
+     */
+    public static DukeDateTime getFirstDateTime(Task task) {
+        if (task instanceof DeadlineTask) {
+            return ((DeadlineTask) task).getDeadlineTime();
+        } else if (task instanceof EventTask) {
+            return ((EventTask) task).getEventDuration().getStartDateTime();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the second date-time of a <code>Task</code>, which is the end of an <code>EventTask</code>.
+     * 
+     * @param task The <code>Task</code>
+     * @return The second date-time, or <code>null</code> if this kind of <code>Task</code> has none
+     */
+    public static DukeDateTime getSecondDateTime(Task task) {
+        if (task instanceof EventTask) {
+            return ((EventTask) task).getEventDuration().getEndDateTime();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the epoch-minute packed form of a <code>DukeDateTime</code> that may be missing.
+     * 
+     * @param dateTime The <code>DukeDateTime</code>, which may be <code>null</code>
+     * @return The packed date-time, or 0 if nothing about it is specified
+     */
+    public static long packDateTime(DukeDateTime dateTime) {
+        return (dateTime == null || dateTime.isEmpty()) ? 0 : toEpochMinute(dateTime);
+    }
+
+    /**
+     * Creates a <code>Task</code> from its header byte, description and packed date-times. Date-times that the header
+     * marks as unspecified are ignored.
+     * 
+     * @param header The header byte from <code>getTaskHeader</code>
+     * @param description The description of the <code>Task</code>
+     * @param firstEpochMinute The packed first date-time
+     * @param secondEpochMinute The packed second date-time
+     * @return The <code>Task</code> created
+     * @throws IllegalArgumentException If the header holds an unknown type of <code>Task</code>
+     */
+    public static Task createTask(int header, String description, long firstEpochMinute, long secondEpochMinute) {
+        boolean isDone = (header & DONE_FLAG) != 0;
+
+        switch (header & TYPE_MASK) {
+        case TYPE_TODO:
+            return new ToDoTask(description, isDone);
+        case TYPE_DEADLINE:
+            DukeDateTime deadlineTime = unpackDateTime(firstEpochMinute, header, FIRST_DATE_FLAG, FIRST_TIME_FLAG);
+            return new DeadlineTask(description, deadlineTime, isDone);
+        case TYPE_EVENT:
+            DukeDateTime startDateTime = unpackDateTime(firstEpochMinute, header, FIRST_DATE_FLAG, FIRST_TIME_FLAG);
+            DukeDateTime endDateTime = unpackDateTime(secondEpochMinute, header, SECOND_DATE_FLAG, SECOND_TIME_FLAG);
+            return new EventTask(description, new DukeDuration(startDateTime, endDateTime), isDone);
+        default:
+            throw new IllegalArgumentException("Unknown task type " + (header & TYPE_MASK));
+        }
+    }
+
+    /**
+     * Writes a <code>String</code> as its length in bytes followed by its UTF-8 encoding.
+     * 
+     * @param out The output to write to
+     * @param string The <code>String</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeString(DataOutput out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a <code>String</code> written by <code>writeString</code>.
+     * 
+     * @param in The buffer to read from
+     * @return The <code>String</code> read
+     * @throws IllegalArgumentException If the length of the <code>String</code> is invalid
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static String readString(ByteBuffer in) {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a <code>long</code> using as few bytes as possible. Values closer to zero take up fewer bytes,
+     * whether they are positive or negative.
+     * 
+     * @param out The output to write to
+     * @param value The value to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        //Zig-zag encoding moves the sign bit to the lowest bit, so small negative values stay small
+        long remaining = (value << 1) ^ (value >> 63);
+
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Reads a <code>long</code> written by <code>writeVarLong</code>.
+     * 
+     * @param in The buffer to read from
+     * @return The value read
+     * @throws IllegalArgumentException If the value is longer than a <code>long</code>
+     * @throws java.nio.BufferUnderflowException If the data ends unexpectedly
+     */
+    public static long readVarLong(ByteBuffer in) {
+        long result = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            int nextByte = in.get();
+            result |= (long) (nextByte & 0x7F) << shift;
+
+            if ((nextByte & 0x80) == 0) {
+                return (result >>> 1) ^ -(result & 1);
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    /**
+     * Returns the epoch-minute packed form of a <code>DukeDateTime</code>. A date without a time is packed as the
+     * start of that day, and a time without a date is packed as its minute of the day.
+     * 
+     * @param dateTime The <code>DukeDateTime</code> to be packed
+     * @return The number of minutes since 1970-01-01 00:00, or the minute of the day if there is no date
+     */
+    public static long toEpochMinute(DukeDateTime dateTime) {
+        LocalDate date = dateTime.getDate();
+        LocalTime time = dateTime.getTime();
+        long epochMinute = (date == null) ? 0 : date.toEpochDay() * MINUTES_PER_DAY;
+
+        if (time != null) {
+            epochMinute += time.getHour() * 60 + time.getMinute();
+        }
+
+        return epochMinute;
+    }
+
+    /**
+     * Returns the <code>DukeDateTime</code> packed by <code>toEpochMinute</code>.
+     * 
+     * @param epochMinute The packed date-time
+     * @param hasDate Whether the packed date-time has a date
+     * @param hasTime Whether the packed date-time has a time
+     * @return The unpacked <code>DukeDateTime</code>
+     */
+    public static DukeDateTime fromEpochMinute(long epochMinute, boolean hasDate, boolean hasTime) {
+        LocalDate date = hasDate ? LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY)) : null;
+        LocalTime time = null;
+
+        if (hasTime) {
+            int minuteOfDay = (int) Math.floorMod(epochMinute, (long) MINUTES_PER_DAY);
+            time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+
+        return new DukeDateTime(date, time);
+    }
+
+    /**
+     * Returns the header flags for whichever of the date and time of a <code>DukeDateTime</code> are specified.
+     * 
+     * @param dateTime The <code>DukeDateTime</code>, which may be <code>null</code>
+     * @param dateFlag The flag to set if the date is specified
+     * @param timeFlag The flag to set if the time is specified
+     * @return The header flags
+     */
+    private static int getPresenceFlags(DukeDateTime dateTime, int dateFlag, int timeFlag) {
+        int flags = 0;
+
+        if (dateTime != null && dateTime.getDate() != null) {
+            flags |= dateFlag;
+        }
+
+        if (dateTime != null && dateTime.getTime() != null) {
+            flags |= timeFlag;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Writes a <code>DukeDateTime</code> as a packed epoch-minute, unless nothing about it is specified.
+     * 
+     * @param out The output to write to
+     * @param dateTime The <code>DukeDateTime</code> to be written, which may be <code>null</code>
+     * @throws IOException When an IOException occurs
+     */
+    private static void writeDateTime(DataOutput out, DukeDateTime dateTime) throws IOException {
+        if (dateTime != null && !dateTime.isEmpty()) {
+            writeVarLong(out, packDateTime(dateTime));
+        }
+    }
+
+    /**
+     * Returns whether the header marks any part of a date-time as specified.
+     * 
+     * @param header The header byte of a <code>Task</code>
+     * @param dateFlag The header flag marking whether the date is specified
+     * @param timeFlag The header flag marking whether the time is specified
+     * @return <code>true</code> if the date or time is specified
+     */
+    private static boolean hasDateTime(int header, int dateFlag, int timeFlag) {
+        return (header & (dateFlag | timeFlag)) != 0;
+    }
+
+    /**
+     * Unpacks a <code>DukeDateTime</code> using the parts of it that the header marks as specified.
+     * 
+     * @param epochMinute The packed date-time
+     * @param header The header byte of the <code>Task</code> being read
+     * @param dateFlag The header flag marking whether the date is specified
+     * @param timeFlag The header flag marking whether the time is specified
+     * @return The unpacked <code>DukeDateTime</code>
+     */
+    private static DukeDateTime unpackDateTime(long epochMinute, int header, int dateFlag, int timeFlag) {
+        if (!hasDateTime(header, dateFlag, timeFlag)) {
+            return new DukeDateTime(null, null);
+        }
+
+        return fromEpochMinute(epochMinute, (header & dateFlag) != 0, (header & timeFlag) != 0);
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * The types of commands that can be issued to Duke, told apart by the keyword each command starts with.
+ */
+public enum DukeCommandType {
+    Bye, List, More, Done, Undone, Delete, Nuke, Find, ToDo, Deadline, Event, Agenda, Upcoming, Overdue, NewNote,
+    DeleteNote, NoteList, NukeNote, Run, Import, Invalid
+}
@@ -0,0 +1,438 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A <code>TaskList</code> snapshot stored as blocks of <code>Tasks</code> compressed with Deflate, for save files
+ * that should take up as little space as possible. Only the header and the block index are read when the file is
+ * opened, and reading a <code>Task</code> decompresses the one block holding it.
+ * 
+ * <p>The file starts with a header of <code>HEADER_SIZE</code> bytes, holding the usual <code>DukeBinaryCodec</code>
+ * file header, the generation of the list, its number of records, its number of blocks, the position of the block
+ * index, and a checksum of the header itself. It is followed by the compressed blocks, each holding
+ * <code>RECORDS_PER_BLOCK</code> <code>Tasks</code> written by <code>DukeBinaryCodec.writeTask</code>, apart from the
+ * last which may hold fewer. The block index comes last, followed by its own checksum.</p>
+ * 
+ * <p>Each entry in the block index holds the position, compressed length, uncompressed length and CRC32C checksum of
+ * its block, and a filter of every byte, and every pair of neighbouring bytes, found in the UTF-8 descriptions of the
+ * block. A search for a term can skip every block whose filter lacks one of the byte pairs of the term, without
+ * decompressing it. A record whose block fails its checksum cannot be read, but every other record still can.</p>
+ */
+public class DukeCompressedTaskFile implements DukeTaskFile {
+    public static final int HEADER_SIZE = 48;
+    public static final int RECORDS_PER_BLOCK = 128;
+
+    private static final int GENERATION_POSITION = 8;
+    private static final int RECORD_COUNT_POSITION = 16;
+    private static final int BLOCK_COUNT_POSITION = 24;
+    private static final int INDEX_POSITION_POSITION = 32;
+    private static final int HEADER_CHECKSUM_POSITION = 40;
+
+    //The number of bits in the filter of each block, which must be a power of two
+    private static final int FILTER_BITS = 2048;
+    private static final int FILTER_SIZE = FILTER_BITS / Byte.SIZE;
+
+    private static final int INDEX_ENTRY_SIZE = 20 + FILTER_SIZE;
+    private static final int BLOCK_POSITION_OFFSET = 0;
+    private static final int COMPRESSED_LENGTH_OFFSET = 8;
+    private static final int UNCOMPRESSED_LENGTH_OFFSET = 12;
+    private static final int BLOCK_CHECKSUM_OFFSET = 16;
+    private static final int FILTER_OFFSET = 20;
+
+    private final MappedByteBuffer blocks;
+    private final ByteBuffer index;
+    private final long generation;
+    private final int recordCount;
+
+    //The last block decompressed, which is shared by every thread reading from the file
+    private volatile DecompressedBlock lastBlock;
+
+    //The filter bits of the last term searched for
+    private volatile TermFilter lastTermFilter;
+
+    /**
+     * Creates a new <code>DukeCompressedTaskFile</code> over the already mapped blocks and read index of a file.
+     * 
+     * @param blocks The mapped file, from its start to the block index
+     * @param index The block index
+     * @param generation The generation of the saved list
+     * @param recordCount The number of records
+     */
+    private DukeCompressedTaskFile(MappedByteBuffer blocks, ByteBuffer index, long generation, int recordCount) {
+        this.blocks = blocks;
+        this.index = index;
+        this.generation = generation;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Opens a file written by <code>write</code>. Only the header and the block index are read; the blocks are paged
+     * in by the operating system as they are read.
+     * 
+     * @param file The file to be opened
+     * @return The opened file
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the file is not a compressed <code>TaskList</code>, or its header or block
+     *                                  index is corrupted
+     */
+    public static DukeCompressedTaskFile open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return open(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Opens a compressed <code>TaskList</code> written by <code>write</code> into a segment of a larger file. The
+     * blocks stay mapped after the channel is closed.
+     * 
+     * @param channel The file holding the segment
+     * @param segmentStart The position in the file where the segment starts
+     * @param segmentLength The length of the segment
+     * @return The opened segment
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the segment is not a compressed <code>TaskList</code>, or its header or
+     *                                  block index is corrupted
+     */
+    public static DukeCompressedTaskFile open(FileChannel channel, long segmentStart, long segmentLength)
+            throws IOException {
+        ByteBuffer header = DukeBinaryCodec.readFully(channel, segmentStart,
+                                                      (int) Math.min(HEADER_SIZE, Math.max(segmentLength, 0)));
+
+        DukeBinaryCodec.readFileHeader(header, DukeBinaryCodec.KIND_COMPRESSED_TASK_LIST);
+        if (header.limit() < HEADER_SIZE
+            || header.getInt(HEADER_CHECKSUM_POSITION)
+               != DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION)) {
+            throw new IllegalArgumentException("Corrupted compressed task file header");
+        }
+
+        long generation = header.getLong(GENERATION_POSITION);
+        long recordCount = header.getLong(RECORD_COUNT_POSITION);
+        int blockCount = header.getInt(BLOCK_COUNT_POSITION);
+        long indexPosition = header.getLong(INDEX_POSITION_POSITION);
+        long indexLength = (long) blockCount * INDEX_ENTRY_SIZE;
+
+        if (recordCount < 0 || recordCount > Integer.MAX_VALUE || blockCount != getBlockCount(recordCount)
+            || indexPosition < HEADER_SIZE || indexPosition > Integer.MAX_VALUE
+            || indexPosition + indexLength + Integer.BYTES > segmentLength) {
+            throw new IllegalArgumentException("Corrupted compressed task file header");
+        }
+
+        ByteBuffer index = DukeBinaryCodec.readFully(channel, segmentStart + indexPosition,
+                                                     (int) indexLength + Integer.BYTES);
+        if (index.limit() < indexLength + Integer.BYTES
+            || index.getInt((int) indexLength) != DukeBinaryCodec.getChecksum(index, 0, (int) indexLength)) {
+            throw new IllegalArgumentException("Corrupted compressed task file index");
+        }
+        index.limit((int) indexLength);
+
+        MappedByteBuffer blocks = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, indexPosition);
+        return new DukeCompressedTaskFile(blocks, index, generation, (int) recordCount);
+    }
+
+    /**
+     * Writes a whole <code>TaskList</code> to a file in this format. The file is replaced through
+     * <code>DukeAtomicFile</code>, so a crash while writing leaves the old file intact. A file that is still mapped
+     * cannot be replaced on Windows.
+     * 
+     * @param file The file to be written
+     * @param tasks The <code>TaskList</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void write(File file, TaskList tasks) throws IOException {
+        FileChannel channel = DukeAtomicFile.openTemporary(file);
+
+        try {
+            write(channel, 0, tasks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        DukeAtomicFile.commitTemporary(channel, file);
+    }
+
+    /**
+     * Writes a whole <code>TaskList</code> in this format into a segment of a larger file, which is left open. The
+     * positions of the blocks are recorded relative to the start of the segment.
+     * 
+     * @param channel The file to write to
+     * @param segmentStart The position in the file to start the segment at
+     * @param tasks The <code>TaskList</code> to be written
+     * @return The length of the segment written
+     * @throws IOException When an IOException occurs
+     */
+    public static long write(FileChannel channel, long segmentStart, TaskList tasks) throws IOException {
+        int blockCount = (int) getBlockCount(tasks.size());
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE + Integer.BYTES);
+        ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        DataOutputStream block = new DataOutputStream(blockBytes);
+        byte[] filter = new byte[FILTER_SIZE];
+        long position = HEADER_SIZE;
+        int blockRecordCount = 0;
+
+        for (Task task : tasks.snapshotIterable()) {
+            DukeBinaryCodec.writeTask(block, task);
+            addToFilter(filter, task.getDescription().getBytes(StandardCharsets.UTF_8));
+
+            if (++blockRecordCount == RECORDS_PER_BLOCK) {
+                position += writeBlock(channel, segmentStart, position, blockBytes, filter, index);
+                blockRecordCount = 0;
+            }
+        }
+
+        if (blockRecordCount > 0) {
+            position += writeBlock(channel, segmentStart, position, blockBytes, filter, index);
+        }
+
+        index.putInt(DukeBinaryCodec.getChecksum(index, 0, index.position()));
+        index.flip();
+        DukeBinaryCodec.writeFully(channel, segmentStart + position, index);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(DukeBinaryCodec.MAGIC_NUMBER);
+        header.put((byte) DukeBinaryCodec.FORMAT_VERSION);
+        header.put(DukeBinaryCodec.KIND_COMPRESSED_TASK_LIST);
+        header.putLong(GENERATION_POSITION, tasks.getGeneration());
+        header.putLong(RECORD_COUNT_POSITION, tasks.size());
+        header.putInt(BLOCK_COUNT_POSITION, blockCount);
+        header.putLong(INDEX_POSITION_POSITION, position);
+        header.putInt(HEADER_CHECKSUM_POSITION, DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION));
+        header.rewind();
+        DukeBinaryCodec.writeFully(channel, segmentStart, header);
+
+        return position + index.capacity();
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public int size() {
+        return recordCount;
+    }
+
+    @Override
+    public Task readTask(int record) {
+        return getBlock(record / RECORDS_PER_BLOCK).tasks[record % RECORDS_PER_BLOCK];
+    }
+
+    @Override
+    public boolean mayContain(int record, String searchTerm) {
+        TermFilter termFilter = lastTermFilter;
+        if (termFilter == null || !termFilter.term.equals(searchTerm)) {
+            termFilter = new TermFilter(searchTerm);
+            lastTermFilter = termFilter;
+        }
+
+        int filterStart = (record / RECORDS_PER_BLOCK) * INDEX_ENTRY_SIZE + FILTER_OFFSET;
+        for (int bit : termFilter.bits) {
+            if ((index.get(filterStart + (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the decompressed <code>Tasks</code> of a block, decompressing it unless it was the last one read.
+     * 
+     * @param block The index of the block
+     * @return The decompressed block
+     * @throws IllegalArgumentException If the block is corrupted
+     */
+    private DecompressedBlock getBlock(int block) {
+        DecompressedBlock decompressedBlock = lastBlock;
+        if (decompressedBlock != null && decompressedBlock.block == block) {
+            return decompressedBlock;
+        }
+
+        int entryStart = block * INDEX_ENTRY_SIZE;
+        long blockPosition = index.getLong(entryStart + BLOCK_POSITION_OFFSET);
+        int compressedLength = index.getInt(entryStart + COMPRESSED_LENGTH_OFFSET);
+        int uncompressedLength = index.getInt(entryStart + UNCOMPRESSED_LENGTH_OFFSET);
+
+        if (blockPosition < HEADER_SIZE || compressedLength < 0
+            || blockPosition + compressedLength > blocks.capacity()) {
+            throw new IllegalArgumentException("Invalid position of block " + block);
+        }
+
+        ByteBuffer compressed = blocks.duplicate();
+        compressed.limit((int) blockPosition + compressedLength).position((int) blockPosition);
+        if (index.getInt(entryStart + BLOCK_CHECKSUM_OFFSET)
+            != DukeBinaryCodec.getChecksum(compressed, compressed.position(), compressed.limit())) {
+            throw new IllegalArgumentException("Checksum mismatch in block " + block);
+        }
+
+        ByteBuffer uncompressed = DukeBinaryCodec.inflate(compressed.slice(), uncompressedLength);
+        Task[] tasks = new Task[Math.min(RECORDS_PER_BLOCK, recordCount - block * RECORDS_PER_BLOCK)];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = DukeBinaryCodec.readTask(uncompressed);
+        }
+
+        decompressedBlock = new DecompressedBlock(block, tasks);
+        lastBlock = decompressedBlock;
+        return decompressedBlock;
+    }
+
+    /**
+     * Compresses the <code>Tasks</code> gathered for a block and writes them out, then adds an entry for the block
+     * to the index. The gathered <code>Tasks</code> and the filter are emptied for the next block.
+     * 
+     * @param channel The file to write to
+     * @param segmentStart The position in the file where the segment starts
+     * @param position The position in the segment to write the block at
+     * @param blockBytes The encoded <code>Tasks</code> of the block
+     * @param filter The filter of the descriptions in the block
+     * @param index The index to add the entry to
+     * @return The number of bytes written
+     * @throws IOException When an IOException occurs
+     */
+    private static int writeBlock(FileChannel channel, long segmentStart, long position,
+                                  ByteArrayOutputStream blockBytes, byte[] filter, ByteBuffer index)
+            throws IOException {
+        byte[] compressed = DukeBinaryCodec.deflate(blockBytes.toByteArray(), blockBytes.size());
+        ByteBuffer compressedBuffer = ByteBuffer.wrap(compressed);
+
+        index.putLong(position);
+        index.putInt(compressed.length);
+        index.putInt(blockBytes.size());
+        index.putInt(DukeBinaryCodec.getChecksum(compressedBuffer, 0, compressed.length));
+        index.put(filter);
+
+        DukeBinaryCodec.writeFully(channel, segmentStart + position, compressedBuffer);
+
+        blockBytes.reset();
+        Arrays.fill(filter, (byte) 0);
+        return compressed.length;
+    }
+
+    /**
+     * Adds every byte, and every pair of neighbouring bytes, of a description to the filter of its block.
+     * 
+     * @param filter The filter of the block
+     * @param description The UTF-8 encoded description
+     */
+    private static void addToFilter(byte[] filter, byte[] description) {
+        for (int i = 0; i < description.length; i++) {
+            setFilterBit(filter, getFilterBit(getByteKey(description, i)));
+
+            if (i > 0) {
+                setFilterBit(filter, getFilterBit(getPairKey(description, i)));
+            }
+        }
+    }
+
+    /**
+     * Sets a bit of a filter.
+     * 
+     * @param filter The filter
+     * @param bit The bit to be set
+     */
+    private static void setFilterBit(byte[] filter, int bit) {
+        filter[bit >>> 3] |= (byte) (1 << (bit & 7));
+    }
+
+    /**
+     * Returns the filter key of the byte at a position of some UTF-8 text.
+     * 
+     * @param text The UTF-8 text
+     * @param position The position of the byte
+     * @return The filter key
+     */
+    private static int getByteKey(byte[] text, int position) {
+        return 0x10000 | (text[position] & 0xFF);
+    }
+
+    /**
+     * Returns the filter key of the byte at a position of some UTF-8 text, paired with the byte before it.
+     * 
+     * @param text The UTF-8 text
+     * @param position The position of the second byte of the pair, which must not be the first
+     * @return The filter key
+     */
+    private static int getPairKey(byte[] text, int position) {
+        return ((text[position - 1] & 0xFF) << 8) | (text[position] & 0xFF);
+    }
+
+    /**
+     * Returns the filter bit of a filter key.
+     * 
+     * @param key The filter key
+     * @return The filter bit
+     */
+    private static int getFilterBit(int key) {
+        //Fibonacci hashing spreads the keys over the filter
+        return (key * 0x9E3779B1) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(FILTER_BITS));
+    }
+
+    /**
+     * Returns the number of blocks needed to hold the given number of records.
+     * 
+     * @param recordCount The number of records
+     * @return The number of blocks
+     */
+    private static long getBlockCount(long recordCount) {
+        return (recordCount + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+    }
+
+
+
+
+    /**
+     * The decompressed <code>Tasks</code> of a block.
+     */
+    private static class DecompressedBlock {
+        final int block;
+        final Task[] tasks;
+
+        /**
+         * Creates a new <code>DecompressedBlock</code>.
+         * 
+         * @param block The index of the block
+         * @param tasks The <code>Tasks</code> in the block
+         */
+        DecompressedBlock(int block, Task[] tasks) {
+            this.block = block;
+            this.tasks = tasks;
+        }
+    }
+
+    /**
+     * The filter bits that every block containing a term must have set.
+     */
+    private static class TermFilter {
+        final String term;
+        final int[] bits;
+
+        /**
+         * Creates a new <code>TermFilter</code> for a term. A block can only contain the term if it has every pair of
+         * neighbouring bytes of the term, or the single byte of a term one byte long. Every block can contain an
+         * empty term.
+         * 
+         * @param term The term to be searched for
+         */
+        TermFilter(String term) {
+            byte[] termBytes = term.getBytes(StandardCharsets.UTF_8);
+
+            this.term = term;
+            if (termBytes.length == 1) {
+                this.bits = new int[] { getFilterBit(getByteKey(termBytes, 0)) };
+            } else {
+                this.bits = new int[Math.max(termBytes.length - 1, 0)];
+                for (int i = 1; i < termBytes.length; i++) {
+                    bits[i - 1] = getFilterBit(getPairKey(termBytes, i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * A CSV file of <code>Tasks</code>, read a record at a time. Fields are separated by commas, and may be quoted with
+ * '"', in which case they can hold commas, line breaks and doubled quotes.
+ * 
+ * <p>The first record names the columns, which may come in any order, and are matched without regard to case. Only
+ * the description is needed:</p>
+ * <ul>
+ * <li><code>description</code> (or <code>title</code>, <code>summary</code>, <code>task</code>)</li>
+ * <li><code>type</code>: <code>todo</code>, <code>deadline</code> or <code>event</code>, or just their first letter.
+ *     Left out, a record with a start is an event, one with a due date is a deadline, and the rest are todos</li>
+ * <li><code>done</code> (or <code>completed</code>, <code>status</code>): <code>yes</code>, <code>true</code>,
+ *     <code>x</code>, <code>1</code>, <code>done</code> or <code>completed</code> if the task is done</li>
+ * <li><code>by</code> (or <code>due</code>, <code>deadline</code>): when a deadline is due</li>
+ * <li><code>at</code> (or <code>start</code>, <code>from</code>) and <code>end</code> (or <code>to</code>,
+ *     <code>until</code>): when an event starts and ends</li>
+ * </ul>
+ * <p>Dates and times are read by <code>DukeTaskImporter.parseDateTime</code>. Other columns are ignored.</p>
+ */
+public class DukeCsvTaskSource implements DukeTaskSource {
+    private static final String[] DESCRIPTION_COLUMNS = { "description", "title", "summary", "task" };
+    private static final String[] TYPE_COLUMNS = { "type" };
+    private static final String[] DONE_COLUMNS = { "done", "completed", "status" };
+    private static final String[] DUE_COLUMNS = { "by", "due", "deadline" };
+    private static final String[] START_COLUMNS = { "at", "start", "from" };
+    private static final String[] END_COLUMNS = { "end", "to", "until" };
+
+    private static final String[] DONE_VALUES = { "yes", "y", "true", "x", "1", "done", "completed", "\u2713" };
+
+    //Marks the start of a file saved as UTF-8 by some spreadsheets
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final int NO_CHARACTER = -2;
+
+    private final BufferedReader reader;
+    private final int descriptionColumn;
+    private final int typeColumn;
+    private final int doneColumn;
+    private final int dueColumn;
+    private final int startColumn;
+    private final int endColumn;
+
+    //The fields of the record read last, and the field being read, both reused for every record
+    private final ArrayList<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    //A character read ahead to look for a doubled quote, or NO_CHARACTER
+    private int peekedCharacter = NO_CHARACTER;
+
+    private int lineNumber = 0;
+    private int nextLineNumber = 1;
+
+    /**
+     * Creates a new <code>DukeCsvTaskSource</code>, reading the names of its columns.
+     * 
+     * @param reader The file, which is closed along with this source
+     * @param name The name of the file, to be shown if it cannot be read
+     * @throws IOException If the file cannot be read
+     * @throws DukeException If the file has no column for the descriptions of the <code>Tasks</code>
+     */
+    public DukeCsvTaskSource(BufferedReader reader, String name) throws IOException, DukeException {
+        this.reader = reader;
+
+        boolean hasHeader = readRecord();
+        this.descriptionColumn = hasHeader ? findColumn(DESCRIPTION_COLUMNS) : -1;
+        this.typeColumn = findColumn(TYPE_COLUMNS);
+        this.doneColumn = findColumn(DONE_COLUMNS);
+        this.dueColumn = findColumn(DUE_COLUMNS);
+        this.startColumn = findColumn(START_COLUMNS);
+        this.endColumn = findColumn(END_COLUMNS);
+
+        if (descriptionColumn < 0) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_IMPORT_NO_DESCRIPTION, name));
+        }
+    }
+
+    @Override
+    public Task next() throws IOException, DukeException {
+        if (!readRecord()) {
+            return null;
+        }
+
+        String description = getField(descriptionColumn).replace('\n', ' ').trim();
+        if (description.isEmpty()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(DukeUi.ERROR_NO_DESCRIPTION);
+        }
+
+        boolean isDone = isAnyOf(getField(doneColumn).trim(), DONE_VALUES);
+        String due = getField(dueColumn);
+        String start = getField(startColumn);
+
+        switch (getType(getField(typeColumn).trim(), due, start)) {
+        case ToDo:
+            return new ToDoTask(description, isDone);
+            //Fallthrough
+        case Deadline:
+            return new DeadlineTask(description, DukeTaskImporter.parseDateTime(due), isDone);
+            //Fallthrough
+        default:
+            return new EventTask(description, new DukeDuration(DukeTaskImporter.parseDateTime(start),
+                                 DukeTaskImporter.parseDateTime(getField(endColumn))), isDone);
+            //Fallthrough
+        }
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Returns the type of <code>Task</code> a record is, as named in its type column or else as told by which of its
+     * dates it has.
+     * 
+     * @param type The type column of the record
+     * @param due The due date of the record
+     * @param start The start of the record
+     * @return <code>ToDo</code>, <code>Deadline</code> or <code>Event</code>
+     * @throws DukeException If the type column names no type of <code>Task</code>
+     */
+    private static DukeCommandType getType(String type, String due, String start) throws DukeException {
+        if (type.isEmpty()) {
+            return !start.trim().isEmpty() ? DukeCommandType.Event
+                                           : !due.trim().isEmpty() ? DukeCommandType.Deadline : DukeCommandType.ToDo;
+        } else if (type.equalsIgnoreCase("t") || type.equalsIgnoreCase("todo")) {
+            return DukeCommandType.ToDo;
+        } else if (type.equalsIgnoreCase("d") || type.equalsIgnoreCase("deadline")) {
+            return DukeCommandType.Deadline;
+        } else if (type.equalsIgnoreCase("e") || type.equalsIgnoreCase("event")) {
+            return DukeCommandType.Event;
+        }
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+        throw new DukeException(String.format(DukeUi.ERROR_IMPORT_BAD_TYPE, type));
+    }
+
+    /**
+     * Returns whether a value is any of some words, compared without regard to case.
+     * 
+     * @param value The value
+     * @param words The words
+     * @return <code>true</code> if the value is one of the words
+     */
+    private static boolean isAnyOf(String value, String[] words) {
+        for (String word : words) {
+            if (value.equalsIgnoreCase(word)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the first column of the header named by any of some names.
+     * 
+     * @param names The names the column may go by
+     * @return The zero-indexed column, or <code>-1</code> if there is none
+     */
+    private int findColumn(String[] names) {
+        for (int column = 0; column < fields.size(); column++) {
+            String header = fields.get(column).trim();
+            if (column == 0 && !header.isEmpty() && header.charAt(0) == BYTE_ORDER_MARK) {
+                header = header.substring(1);
+            }
+
+            if (isAnyOf(header, names)) {
+                return column;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns a field of the record read last.
+     * 
+     * @param column The zero-indexed column of the field, or <code>-1</code>
+     * @return The field, or an empty <code>String</code> if the record has no such column
+     */
+    private String getField(int column) {
+        return (column >= 0 && column < fields.size()) ? fields.get(column) : "";
+    }
+
+    /**
+     * Reads the next record that is not blank into the fields.
+     * 
+     * @return <code>false</code> if there are no records left
+     * @throws IOException If the file cannot be read
+     */
+    private boolean readRecord() throws IOException {
+        while (true) {
+            fields.clear();
+            field.setLength(0);
+            lineNumber = nextLineNumber;
+
+            int c = read();
+            if (c < 0) {
+                return false;
+            }
+
+            boolean isQuoted = false;
+            for (; ; c = read()) {
+                if (c < 0 || (!isQuoted && c == '\n')) {
+                    nextLineNumber++;
+                    fields.add(field.toString());
+                    break;
+                } else if (c == '\r') {
+                    continue;
+                } else if (isQuoted && c == '"') {
+                    //A doubled quote stands for a quote, while a single one ends the quoted part
+                    if (peek() == '"') {
+                        field.append((char) read());
+                    } else {
+                        isQuoted = false;
+                    }
+                } else if (c == '"') {
+                    isQuoted = true;
+                } else if (!isQuoted && c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    nextLineNumber += (c == '\n') ? 1 : 0;
+                    field.append((char) c);
+                }
+            }
+
+            if (fields.size() > 1 || !fields.get(0).trim().isEmpty()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reads the next character of the file, including one read ahead by <code>peek</code>.
+     * 
+     * @return The character, or <code>-1</code> at the end of the file
+     * @throws IOException If the file cannot be read
+     */
+    private int read() throws IOException {
+        if (peekedCharacter != NO_CHARACTER) {
+            int c = peekedCharacter;
+            peekedCharacter = NO_CHARACTER;
+            return c;
+        }
+
+        return reader.read();
+    }
+
+    /**
+     * Returns the next character of the file without reading past it.
+     * 
+     * @return The character, or <code>-1</code> at the end of the file
+     * @throws IOException If the file cannot be read
+     */
+    private int peek() throws IOException {
+        if (peekedCharacter == NO_CHARACTER) {
+            peekedCharacter = reader.read();
+        }
+
+        return peekedCharacter;
+    }
+}
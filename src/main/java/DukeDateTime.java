@@ -22,6 +22,24 @@ public class DukeDateTime implements Serializable {
         this.time = time;
     }
 
+    /**
+     * Returns the date of this <code>DukeDateTime</code>.
+     * 
+     * @return The <code>LocalDate</code> of this <code>DukeDateTime</code>, or <code>null</code> if unspecified
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Returns the time of this <code>DukeDateTime</code>.
+     * 
+     * @return The <code>LocalTime</code> of this <code>DukeDateTime</code>, or <code>null</code> if unspecified
+     */
+    public LocalTime getTime() {
+        return time;
+    }
+
     /**
      * A check for whether an instance of a <code>DukeDateTime</code> actually encodes date-time data.
      * 
@@ -43,34 +61,60 @@ public class DukeDateTime implements Serializable {
     public String toString() {
         if (date == null && time == null) {
             return "Unspecified Time";
-        } else {
-            StringBuilder sb = new StringBuilder();
-            boolean dateExists = false;
+        }
 
-            //Prints the date
-            if (date != null) {
-                String dateString = date.toString();
-                sb.append(dateString.substring(8, 10));
-                sb.append("/");
-                sb.append(dateString.substring(5, 7));
-                sb.append("/");
-                sb.append(dateString.substring(0, 4));
+        StringBuilder sb = new StringBuilder(15);
+        appendTo(sb);
+        return sb.toString();
+    }
 
-                dateExists = true;
-            }
+    /**
+     * Appends the <code>String</code> representing this instance of <code>DukeDateTime</code>, as given by
+     * <code>toString</code>, to a <code>StringBuilder</code>. The digits are appended straight from the fields of the
+     * date and time, without creating their own <code>Strings</code> first.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     */
+    public void appendTo(StringBuilder sb) {
+        if (date == null && time == null) {
+            sb.append("Unspecified Time");
+            return;
+        }
 
-            //Prints the time
-            if (time != null) {
-                if (dateExists) {
-                    sb.append(" ");
-                }
+        //Appends the date
+        if (date != null) {
+            appendDigits(sb, date.getDayOfMonth(), 2);
+            sb.append('/');
+            appendDigits(sb, date.getMonthValue(), 2);
+            sb.append('/');
+            appendDigits(sb, date.getYear(), 4);
+        }
 
-                String timeString = time.toString();
-                sb.append(timeString.substring(0, 2));
-                sb.append(timeString.substring(3, 5));
+        //Appends the time
+        if (time != null) {
+            if (date != null) {
+                sb.append(' ');
             }
 
-            return sb.toString();
+            appendDigits(sb, time.getHour(), 2);
+            appendDigits(sb, time.getMinute(), 2);
+        }
+    }
+
+    /**
+     * Appends a number, padded with leading zeroes to a given number of digits.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param value The number, which must not be negative
+     * @param digits The least number of digits to append
+     */
+    private static void appendDigits(StringBuilder sb, int value, int digits) {
+        for (int limit = 10; digits > 1; digits--, limit *= 10) {
+            if (value < limit) {
+                sb.append('0');
+            }
         }
+
+        sb.append(value);
     }
 }
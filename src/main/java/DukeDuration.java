@@ -6,6 +6,8 @@ import java.io.Serializable;
 public class DukeDuration implements Serializable {
     private static final long serialVersionUID = 233556L;
 
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
     private final DukeDateTime startDateTime;
     private final DukeDateTime endDateTime;
 
@@ -20,6 +22,69 @@ public class DukeDuration implements Serializable {
         this.endDateTime = endDateTime;
     }
 
+    /**
+     * Returns the date and time at which the duration begins.
+     * 
+     * @return <code>DukeDateTime</code> containing the date and time at which the duration begins
+     */
+    public DukeDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    /**
+     * Returns the date and time at which the duration ends.
+     * 
+     * @return <code>DukeDateTime</code> containing the date and time at which the duration ends
+     */
+    public DukeDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    /**
+     * Returns whether the duration has a starting date, so that it can be placed in time.
+     * 
+     * @return <code>true</code> if the duration has a starting date
+     */
+    public boolean isScheduled() {
+        return startDateTime.getDate() != null;
+    }
+
+    /**
+     * Returns when the duration begins. Should only be used if the duration is scheduled.
+     * 
+     * @return The start of the duration, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     */
+    public long getStartEpochMinute() {
+        return DukeBinaryCodec.toEpochMinute(startDateTime);
+    }
+
+    /**
+     * Returns when the duration ends, which is the first minute after it. Should only be used if the duration is
+     * scheduled. An ending date without a time includes the whole of that day, and an ending time without a date is on
+     * the starting date, or the day after if it is not after the start. A duration without an end covers its starting
+     * minute, or the whole starting day if it has no starting time.
+     * 
+     * @return The end of the duration, packed by <code>DukeBinaryCodec.toEpochMinute</code>, which is always after its
+     *     start
+     */
+    public long getEndEpochMinute() {
+        long start = getStartEpochMinute();
+        long end;
+
+        if (endDateTime.getDate() != null) {
+            end = DukeBinaryCodec.toEpochMinute(endDateTime) + ((endDateTime.getTime() == null) ? MINUTES_PER_DAY : 0);
+        } else if (endDateTime.getTime() != null) {
+            end = Math.floorDiv(start, MINUTES_PER_DAY) * MINUTES_PER_DAY + DukeBinaryCodec.toEpochMinute(endDateTime);
+            if (end <= start) {
+                end += MINUTES_PER_DAY;
+            }
+        } else {
+            end = start + ((startDateTime.getTime() == null) ? MINUTES_PER_DAY : 1);
+        }
+
+        return Math.max(end, start + 1);
+    }
+
     /**
      * Generates a <code>String</code> representing this instance of <code>DukeDuration</code>. 
      * If both <code>startDateTime</code> and <code>endDateTime</code> are <code>null</code>, 
@@ -34,20 +99,34 @@ public class DukeDuration implements Serializable {
         if (startDateTime.isEmpty() && endDateTime.isEmpty()) {
             return "Unspecified Time";
         } else {
-            StringBuilder sb = new StringBuilder();
+            StringBuilder sb = new StringBuilder(34);
+            appendTo(sb);
+            return sb.toString();
+        }
+    }
 
-            //Prints the date and time when the event will start
-            if (!startDateTime.isEmpty()) {
-                sb.append(startDateTime.toString());
-            }
+    /**
+     * Appends the <code>String</code> representing this instance of <code>DukeDuration</code>, as given by
+     * <code>toString</code>, to a <code>StringBuilder</code>, without creating the <code>Strings</code> of its
+     * date-times first.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     */
+    public void appendTo(StringBuilder sb) {
+        if (startDateTime.isEmpty() && endDateTime.isEmpty()) {
+            sb.append("Unspecified Time");
+            return;
+        }
 
-            //Prints the date and time when the event will end
-            if (!endDateTime.isEmpty()) {
-                sb.append(" to ");
-                sb.append(endDateTime.toString());
-            }
-            
-            return sb.toString();
+        //Appends the date and time when the event will start
+        if (!startDateTime.isEmpty()) {
+            startDateTime.appendTo(sb);
+        }
+
+        //Appends the date and time when the event will end
+        if (!endDateTime.isEmpty()) {
+            sb.append(" to ");
+            endDateTime.appendTo(sb);
         }
     }
 }
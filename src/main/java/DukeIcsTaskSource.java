@@ -0,0 +1,232 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * An iCalendar (.ics) file of <code>Tasks</code>, read a component at a time. Each <code>VEVENT</code> becomes an
+ * <code>EventTask</code> from its <code>DTSTART</code> to its <code>DTEND</code>, and each <code>VTODO</code> a
+ * <code>DeadlineTask</code> due at its <code>DUE</code>, or a <code>ToDoTask</code> if it has none. The
+ * <code>SUMMARY</code> of a component is its description, and a <code>VTODO</code> with a <code>STATUS</code> of
+ * <code>COMPLETED</code> or a <code>COMPLETED</code> time is done.
+ * 
+ * <p>Times in UTC, written with a trailing 'Z', are converted to the system's time zone, since Duke keeps its times
+ * in local time. Other times are taken as written, whichever <code>TZID</code> they name. Every other component and
+ * property, including the alarms inside events, is skipped.</p>
+ */
+public class DukeIcsTaskSource implements DukeTaskSource {
+    private final BufferedReader reader;
+
+    //The next line of the file, read ahead to find the lines folded onto it, or null at the end of the file
+    private String nextLine;
+    private int nextLineNumber = 0;
+
+    //The line that the line unfolded last starts on, and the line that the component read last starts on
+    private int unfoldedLineNumber = 0;
+    private int lineNumber = 0;
+
+    /**
+     * Creates a new <code>DukeIcsTaskSource</code>.
+     * 
+     * @param reader The file, which is closed along with this source
+     * @throws IOException If the file cannot be read
+     */
+    public DukeIcsTaskSource(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        readNextLine();
+    }
+
+    @Override
+    public Task next() throws IOException, DukeException {
+        for (String line = readUnfoldedLine(); line != null; line = readUnfoldedLine()) {
+            boolean isEvent = line.equalsIgnoreCase("BEGIN:VEVENT");
+            if (!isEvent && !line.equalsIgnoreCase("BEGIN:VTODO")) {
+                continue;
+            }
+
+            lineNumber = unfoldedLineNumber;
+            String summary = "";
+            String start = "";
+            String end = "";
+            String due = "";
+            boolean isDone = false;
+
+            //Components nested in this one, such as alarms, are skipped over
+            int depth = 0;
+            for (line = readUnfoldedLine(); line != null; line = readUnfoldedLine()) {
+                int valueStart = getValueStart(line);
+                String name = getName(line, valueStart);
+                String value = (valueStart < line.length()) ? line.substring(valueStart + 1) : "";
+
+                if (name.equalsIgnoreCase("BEGIN")) {
+                    depth++;
+                } else if (name.equalsIgnoreCase("END") && depth-- == 0) {
+                    break;
+                } else if (depth > 0) {
+                    continue;
+                } else if (name.equalsIgnoreCase("SUMMARY")) {
+                    summary = unescape(value);
+                } else if (name.equalsIgnoreCase("DTSTART")) {
+                    start = value;
+                } else if (name.equalsIgnoreCase("DTEND")) {
+                    end = value;
+                } else if (name.equalsIgnoreCase("DUE")) {
+                    due = value;
+                } else if (name.equalsIgnoreCase("COMPLETED")
+                           || (name.equalsIgnoreCase("STATUS") && value.equalsIgnoreCase("COMPLETED"))) {
+                    isDone = true;
+                }
+            }
+
+            return createTask(isEvent, summary.trim(), start, end, due, isDone);
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Creates the <code>Task</code> for a component.
+     * 
+     * @param isEvent Whether the component is a <code>VEVENT</code>, rather than a <code>VTODO</code>
+     * @param description The summary of the component
+     * @param start The start of the component, as written in the file
+     * @param end The end of the component, as written in the file
+     * @param due When the component is due, as written in the file
+     * @param isDone Whether the component is done
+     * @return The <code>Task</code>
+     * @throws DukeException If the component has no summary, or a date or time is invalid
+     */
+    private static Task createTask(boolean isEvent, String description, String start, String end, String due,
+                                   boolean isDone) throws DukeException {
+        if (description.isEmpty()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(DukeUi.ERROR_NO_DESCRIPTION);
+        }
+
+        if (isEvent) {
+            return new EventTask(description, new DukeDuration(DukeTaskImporter.parseDateTime(start),
+                                                               DukeTaskImporter.parseDateTime(end)), isDone);
+        } else if (!due.isEmpty()) {
+            return new DeadlineTask(description, DukeTaskImporter.parseDateTime(due), isDone);
+        } else {
+            return new ToDoTask(description, isDone);
+        }
+    }
+
+    /**
+     * Returns where the value of a property starts, which is after the first ':' outside the quoted values of its
+     * parameters.
+     * 
+     * @param line The unfolded line holding the property
+     * @return The position of the ':', or the length of the line if there is none
+     */
+    private static int getValueStart(String line) {
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ':' && !isQuoted) {
+                return i;
+            }
+        }
+
+        return line.length();
+    }
+
+    /**
+     * Returns the name of a property, which comes before its parameters and its value.
+     * 
+     * @param line The unfolded line holding the property
+     * @param valueStart Where the value of the property starts
+     * @return The name of the property
+     */
+    private static String getName(String line, int valueStart) {
+        int parametersStart = line.indexOf(';');
+        return line.substring(0, (parametersStart >= 0 && parametersStart < valueStart) ? parametersStart
+                                                                                         : valueStart);
+    }
+
+    /**
+     * Undoes the escaping of a text value, in which '\' comes before commas, semicolons, line breaks written as 'n'
+     * and itself. Line breaks become spaces, so that a description stays on one line.
+     * 
+     * @param value The text value, as written in the file
+     * @return The text
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                sb.append((escaped == 'n' || escaped == 'N') ? ' ' : escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Reads the next line of the file as it was before it was folded, joining to it the lines after it that start
+     * with a space or tab.
+     * 
+     * @return The unfolded line, or <code>null</code> at the end of the file
+     * @throws IOException If the file cannot be read
+     */
+    private String readUnfoldedLine() throws IOException {
+        if (nextLine == null) {
+            return null;
+        }
+
+        String line = nextLine;
+        unfoldedLineNumber = nextLineNumber;
+        readNextLine();
+
+        if (nextLine == null || !isFolded(nextLine)) {
+            return line;
+        }
+
+        StringBuilder sb = new StringBuilder(line);
+        while (nextLine != null && isFolded(nextLine)) {
+            sb.append(nextLine, 1, nextLine.length());
+            readNextLine();
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns whether a line continues the line before it.
+     * 
+     * @param line The line
+     * @return <code>true</code> if the line starts with a space or tab
+     */
+    private static boolean isFolded(String line) {
+        return !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+    }
+
+    /**
+     * Reads the next line of the file ahead.
+     * 
+     * @throws IOException If the file cannot be read
+     */
+    private void readNextLine() throws IOException {
+        nextLine = reader.readLine();
+        nextLineNumber++;
+    }
+}
@@ -0,0 +1,306 @@
+import java.util.List;
+
+/**
+ * An interval tree over the times of <code>EventTasks</code>, kept up to date as they are added and deleted. Each
+ * interval is the time an event takes up, from its start up to but not including its end, as packed by
+ * <code>DukeDuration</code>, and belongs to a row of a <code>TaskList</code>.
+ * 
+ * <p>The intervals are kept in an AVL tree ordered by their starts and then their rows, and each node also records the
+ * latest end in its subtree. Finding the intervals that overlap a range of time skips every subtree that ends before
+ * the range or starts after it, so it takes O(log n + k) time to find k intervals.</p>
+ */
+public class DukeIntervalTree {
+    private Node root;
+    private int size = 0;
+
+    /**
+     * Adds an interval to the tree.
+     * 
+     * @param start The start of the interval, in epoch minutes
+     * @param end The end of the interval, which is not part of it
+     * @param row The row the interval belongs to
+     */
+    public void add(long start, long end, int row) {
+        root = insert(root, start, end, row);
+        size++;
+    }
+
+    /**
+     * Removes an interval from the tree.
+     * 
+     * @param start The start of the interval, in epoch minutes
+     * @param row The row the interval belongs to
+     */
+    public void remove(long start, int row) {
+        root = delete(root, start, row);
+    }
+
+    /**
+     * Removes every interval from the tree.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of intervals in the tree.
+     * 
+     * @return The number of intervals in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds every interval overlapping a range of time to a list, as its start and row.
+     * 
+     * @param from The start of the range, in epoch minutes
+     * @param to The end of the range, which is not part of it
+     * @param intervals The list to add the start and row of each overlapping interval to
+     */
+    public void findOverlapping(long from, long to, List<long[]> intervals) {
+        findOverlapping(root, from, to, Integer.MAX_VALUE, intervals);
+    }
+
+    /**
+     * Adds the first intervals overlapping a range of time to a list, in order of their starts and then their rows,
+     * as their starts and rows. Takes O(log n + k) time to find k intervals, however many more overlap the range.
+     * 
+     * @param from The start of the range, in epoch minutes
+     * @param to The end of the range, which is not part of it
+     * @param limit The most intervals the list should hold afterwards
+     * @param intervals The list to add the start and row of each overlapping interval to
+     */
+    public void findOverlapping(long from, long to, int limit, List<long[]> intervals) {
+        findOverlapping(root, from, to, limit, intervals);
+    }
+
+    /**
+     * Adds the intervals in a subtree overlapping a range of time to a list, in order, until it is full.
+     * 
+     * @param node The root of the subtree
+     * @param from The start of the range, in epoch minutes
+     * @param to The end of the range, which is not part of it
+     * @param limit The most intervals the list should hold afterwards
+     * @param intervals The list to add the start and row of each overlapping interval to
+     */
+    private static void findOverlapping(Node node, long from, long to, int limit, List<long[]> intervals) {
+        if (node == null || node.maxEnd <= from || intervals.size() >= limit) {
+            return;
+        }
+
+        findOverlapping(node.left, from, to, limit, intervals);
+
+        //Every interval to the right starts no earlier than this one
+        if (node.start < to && intervals.size() < limit) {
+            if (node.end > from) {
+                intervals.add(new long[] { node.start, node.row });
+            }
+
+            findOverlapping(node.right, from, to, limit, intervals);
+        }
+    }
+
+    /**
+     * Inserts an interval into a subtree.
+     * 
+     * @param node The root of the subtree
+     * @param start The start of the interval
+     * @param end The end of the interval
+     * @param row The row the interval belongs to
+     * @return The new root of the subtree
+     */
+    private static Node insert(Node node, long start, long end, int row) {
+        if (node == null) {
+            return new Node(start, end, row);
+        }
+
+        if (compare(start, row, node) < 0) {
+            node.left = insert(node.left, start, end, row);
+        } else {
+            node.right = insert(node.right, start, end, row);
+        }
+
+        return balance(node);
+    }
+
+    /**
+     * Deletes an interval from a subtree, if it is there.
+     * 
+     * @param node The root of the subtree
+     * @param start The start of the interval
+     * @param row The row the interval belongs to
+     * @return The new root of the subtree
+     */
+    private Node delete(Node node, long start, int row) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, row, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, row);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, row);
+        } else {
+            size--;
+
+            if (node.left == null || node.right == null) {
+                return (node.left == null) ? node.right : node.left;
+            }
+
+            //Replaces the node with the first interval after it, which is then deleted from the right instead
+            Node next = node.right;
+            while (next.left != null) {
+                next = next.left;
+            }
+
+            node.start = next.start;
+            node.end = next.end;
+            node.row = next.row;
+            node.right = deleteFirst(node.right);
+        }
+
+        return balance(node);
+    }
+
+    /**
+     * Deletes the first interval of a subtree.
+     * 
+     * @param node The root of the subtree
+     * @return The new root of the subtree
+     */
+    private static Node deleteFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+
+    /**
+     * Compares an interval with the one in a node, by their starts and then their rows.
+     * 
+     * @param start The start of the interval
+     * @param row The row the interval belongs to
+     * @param node The node
+     * @return A negative number, zero or a positive number as the interval is before, equal to or after the node's
+     */
+    private static int compare(long start, int row, Node node) {
+        return (start != node.start) ? Long.compare(start, node.start) : Integer.compare(row, node.row);
+    }
+
+    /**
+     * Rotates a node whose subtrees differ in height by two, and updates what it records.
+     * 
+     * @param node The node
+     * @return The new root of its subtree
+     */
+    private static Node balance(Node node) {
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        update(node);
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     * 
+     * @param node The root of the subtree
+     * @return The new root of the subtree
+     */
+    private static Node rotateLeft(Node node) {
+        Node newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates a subtree to the right.
+     * 
+     * @param node The root of the subtree
+     * @return The new root of the subtree
+     */
+    private static Node rotateRight(Node node) {
+        Node newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Recomputes the height and latest end of a node from its children.
+     * 
+     * @param node The node
+     */
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.end;
+
+        if (node.left != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+
+        if (node.right != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+
+    /**
+     * Returns the height of a subtree.
+     * 
+     * @param node The root of the subtree
+     * @return The height of the subtree, or <code>0</code> if it is empty
+     */
+    private static int height(Node node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * A single interval in the tree.
+     */
+    private static class Node {
+        long start;
+        long end;
+        int row;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        /**
+         * Creates a new leaf <code>Node</code>.
+         * 
+         * @param start The start of the interval
+         * @param end The end of the interval
+         * @param row The row the interval belongs to
+         */
+        Node(long start, long end, int row) {
+            this.start = start;
+            this.end = end;
+            this.row = row;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of the changes made to Duke's lists since their last snapshot was saved. Appending one compact
+ * record per change is much cheaper than rewriting the whole snapshot after every command. Entries are encoded with
+ * <code>DukeBinaryCodec</code>, and each is framed by its length and followed by its CRC32C checksum, so that an entry
+ * torn or damaged by a crash is recognised rather than misread. Every append is forced to the disk before it returns.
+ * 
+ * <p>Each append is a single commit, however many entries and lists it covers. It ends with a <code>Commit</code>
+ * entry, and entries that no <code>Commit</code> follows are discarded when the journal is read, so the changes in an
+ * append are either all kept or all lost. Journals written before commits were recorded hold a single list, and each
+ * of their entries stands on its own.</p>
+ */
+public class DukeJournal {
+    //Ends every append
+    private static final byte[] ENCODED_COMMIT = encode(Collections.singletonList(
+        new DukeJournalEntry(DukeJournalEntryType.Commit, 0, 0, 1, null, null)));
+
+    private final File journalFile;
+    private int entryCount = 0;
+
+    //Entries appended since the last Commit entry, which are only counted once they are committed
+    private int uncommittedEntryCount = 0;
+
+    /**
+     * Creates a new <code>DukeJournal</code> backed by the given file. The file is created when first appended to.
+     * 
+     * @param journalFile The file in which the journal entries are stored
+     */
+    public DukeJournal(File journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Returns the number of committed entries in the journal, as of the last <code>readEntries</code> or
+     * <code>append</code>, not counting the <code>Commit</code> entries themselves.
+     * 
+     * @return The number of entries in the journal
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Appends the given entries to the end of the journal, and commits them.
+     * 
+     * @param entries The entries to be appended, in the order they were made
+     * @throws IOException When an IOException occurs
+     */
+    public void append(List<DukeJournalEntry> entries) throws IOException {
+        appendEncoded(encode(entries), entries.size());
+    }
+
+    /**
+     * Appends entries that were already encoded by <code>encode</code> to the end of the journal, and commits them
+     * with a single forced write. If the append fails, whatever part of it was written is cut off again, so that the
+     * same entries can be appended again later without being hidden behind a torn commit.
+     * 
+     * @param encodedEntries The encoded entries, in the order they were made
+     * @param encodedEntryCount The number of entries encoded
+     * @throws IOException When an IOException occurs
+     */
+    public void appendEncoded(byte[] encodedEntries, int encodedEntryCount) throws IOException {
+        appendEncoded(encodedEntries, encodedEntryCount, true);
+    }
+
+    /**
+     * Appends entries that were already encoded by <code>encode</code> to the end of the journal, committing them
+     * along with any uncommitted entries before them, or leaving them uncommitted. Uncommitted entries are neither
+     * forced to the disk nor counted, and are discarded when the journal is read unless a later append commits them,
+     * so that a change too large to hold in memory can be appended in parts and still be kept or lost as a whole.
+     * 
+     * @param encodedEntries The encoded entries, in the order they were made
+     * @param encodedEntryCount The number of entries encoded, which may be zero when committing earlier entries
+     * @param isCommitted Whether to commit the entries
+     * @throws IOException When an IOException occurs
+     */
+    public void appendEncoded(byte[] encodedEntries, int encodedEntryCount, boolean isCommitted) throws IOException {
+        if (encodedEntryCount == 0 && !(isCommitted && uncommittedEntryCount > 0)) {
+            return;
+        }
+
+        boolean isNewJournal = !journalFile.exists() || journalFile.length() == 0;
+        long lengthBefore = isNewJournal ? 0 : journalFile.length();
+        FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true);
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+
+        try {
+            if (isNewJournal) {
+                DukeBinaryCodec.writeFileHeader(dataOutputStream, DukeBinaryCodec.KIND_COMMITTED_JOURNAL);
+            }
+
+            dataOutputStream.write(encodedEntries);
+            if (isCommitted) {
+                dataOutputStream.write(ENCODED_COMMIT);
+            }
+
+            dataOutputStream.flush();
+            if (isCommitted) {
+                fileOutputStream.getChannel().force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            cutOff(fileOutputStream, lengthBefore, e);
+            throw e;
+        }
+
+        dataOutputStream.close();
+        uncommittedEntryCount += encodedEntryCount;
+        if (isCommitted) {
+            entryCount += uncommittedEntryCount;
+            uncommittedEntryCount = 0;
+        }
+
+        if (isNewJournal) {
+            DukeAtomicFile.syncDirectory(journalFile);
+        }
+    }
+
+    /**
+     * Encodes entries in the form they are appended to the journal in. Encoding the entries as soon as the changes
+     * are made lets them be appended later, on another thread, without touching the list they were made to.
+     * 
+     * @param entries The entries to be encoded, in the order they were made
+     * @return The encoded entries
+     */
+    public static byte[] encode(List<DukeJournalEntry> entries) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+        DataOutputStream entryOutputStream = new DataOutputStream(entryBytes);
+        CRC32C crc = new CRC32C();
+
+        try {
+            for (DukeJournalEntry entry : entries) {
+                entryBytes.reset();
+                writeEntry(entryOutputStream, entry);
+
+                crc.reset();
+                crc.update(entryBytes.toByteArray());
+                DukeBinaryCodec.writeVarLong(dataOutputStream, entryBytes.size());
+                entryBytes.writeTo(dataOutputStream);
+                dataOutputStream.writeInt((int) crc.getValue());
+            }
+        } catch (IOException e) {
+            //Writing to memory never fails
+            throw new UncheckedIOException(e);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Reads every committed entry in the journal. Reading stops at the first entry that was only partially written,
+     * for example because Duke was shut down halfway through appending it, or that fails its checksum. Later entries
+     * may depend on that entry, so the whole commit holding it and everything after it are cut off the end of the
+     * file, which also keeps later appends readable. A journal that was not written in a known format is discarded
+     * entirely.
+     * 
+     * @return The committed entries in the journal, in the order they were appended
+     * @throws IOException When an IOException occurs
+     */
+    public List<DukeJournalEntry> readEntries() throws IOException {
+        List<DukeJournalEntry> entries = new ArrayList<>();
+
+        if (!journalFile.exists()) {
+            entryCount = 0;
+            return entries;
+        }
+
+        ByteBuffer journalBuffer = ByteBuffer.wrap(Files.readAllBytes(journalFile.toPath()));
+        int lastCommitEnd = 0;
+        int committedEntryCount = 0;
+
+        try {
+            //Every entry of a journal from before commits were recorded stands on its own
+            boolean isCommitted = DukeBinaryCodec.peekFileKind(journalBuffer) == DukeBinaryCodec.KIND_COMMITTED_JOURNAL;
+            DukeBinaryCodec.readFileHeader(journalBuffer,
+                                           isCommitted ? DukeBinaryCodec.KIND_COMMITTED_JOURNAL
+                                                       : DukeBinaryCodec.KIND_JOURNAL);
+            lastCommitEnd = journalBuffer.position();
+
+            while (journalBuffer.hasRemaining()) {
+                DukeJournalEntry entry = readCheckedEntry(journalBuffer);
+                if (entry.type != DukeJournalEntryType.Commit) {
+                    entries.add(entry);
+                }
+
+                if (!isCommitted || entry.type == DukeJournalEntryType.Commit) {
+                    lastCommitEnd = journalBuffer.position();
+                    committedEntryCount = entries.size();
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            //An entry was torn or damaged, so its commit and everything after it are discarded
+        }
+
+        if (lastCommitEnd < journalBuffer.limit()) {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(journalFile, "rw");
+            randomAccessFile.setLength(lastCommitEnd);
+            randomAccessFile.close();
+        }
+
+        entries.subList(committedEntryCount, entries.size()).clear();
+        entryCount = entries.size();
+        return entries;
+    }
+
+    /**
+     * Returns whether the journal has been written to and not cleared since.
+     * 
+     * @return <code>true</code> if the journal file exists
+     */
+    public boolean exists() {
+        return journalFile.exists();
+    }
+
+    /**
+     * Moves every entry in this journal to another, empty journal, leaving this journal empty. The move is a single
+     * rename, so a crash leaves the entries in exactly one of the two journals.
+     * 
+     * @param otherJournal The journal to move the entries to, which must not exist yet
+     * @throws IOException When an IOException occurs
+     */
+    public void moveTo(DukeJournal otherJournal) throws IOException {
+        Files.move(journalFile.toPath(), otherJournal.journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        DukeAtomicFile.syncDirectory(journalFile);
+
+        otherJournal.entryCount = entryCount;
+        entryCount = 0;
+    }
+
+    /**
+     * Deletes every entry in the journal. Should only be called once a snapshot containing them has been saved.
+     * 
+     * @throws IOException When an IOException occurs
+     */
+    public void clear() throws IOException {
+        Files.deleteIfExists(journalFile.toPath());
+        entryCount = 0;
+    }
+
+    /**
+     * Closes the journal after a failed append, and cuts it back to its length before the append.
+     * 
+     * @param fileOutputStream The stream the append was written through
+     * @param length The length of the journal before the append
+     * @param appendFailure The failure of the append, to which any failure here is added
+     */
+    private void cutOff(FileOutputStream fileOutputStream, long length, Exception appendFailure) {
+        try {
+            //The buffered part of the append is dropped rather than flushed
+            fileOutputStream.close();
+        } catch (IOException e) {
+            appendFailure.addSuppressed(e);
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(journalFile, "rw")) {
+            randomAccessFile.setLength(length);
+        } catch (IOException e) {
+            //Left in place, the torn commit and everything after it are cut off when the journal is next read
+            appendFailure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Writes a single entry to the stream.
+     * 
+     * @param out The stream to write to
+     * @param entry The entry to be written
+     * @throws IOException When an IOException occurs
+     */
+    private static void writeEntry(DataOutputStream out, DukeJournalEntry entry) throws IOException {
+        out.writeByte(entry.type.ordinal());
+        DukeBinaryCodec.writeVarLong(out, entry.generation);
+
+        switch (entry.type) {
+        case TaskAdded:
+            DukeBinaryCodec.writeTask(out, entry.task);
+            break;
+        case TaskDeleted:
+            //Fallthrough
+        case TaskMarkedAsDone:
+            //Fallthrough
+        case TaskMarkedUndone:
+            //Fallthrough
+        case NoteDeleted:
+            DukeBinaryCodec.writeVarLong(out, entry.index);
+            break;
+        case NoteAdded:
+            DukeBinaryCodec.writeString(out, entry.note);
+            break;
+        case TaskRangeDeleted:
+            //Fallthrough
+        case TaskRangeMarkedAsDone:
+            //Fallthrough
+        case TaskRangeMarkedUndone:
+            //Fallthrough
+        case NoteRangeDeleted:
+            DukeBinaryCodec.writeVarLong(out, entry.index);
+            DukeBinaryCodec.writeVarLong(out, entry.count);
+            break;
+        default:
+            //TasksCleared, NotesCleared and Commit carry no data
+            break;
+        }
+    }
+
+    /**
+     * Reads a single framed entry from the buffer, checking it against its checksum.
+     * 
+     * @param in The buffer to read from
+     * @return The entry read
+     * @throws IllegalArgumentException If the entry is malformed or fails its checksum
+     * @throws BufferUnderflowException If the buffer ends partway through the entry
+     */
+    private static DukeJournalEntry readCheckedEntry(ByteBuffer in) {
+        long length = DukeBinaryCodec.readVarLong(in);
+        if (length < 0 || length > in.remaining() - Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+
+        ByteBuffer entryBuffer = in.slice();
+        entryBuffer.limit((int) length);
+        in.position(in.position() + (int) length);
+
+        CRC32C crc = new CRC32C();
+        crc.update(entryBuffer.duplicate());
+        if (in.getInt() != (int) crc.getValue()) {
+            throw new IllegalArgumentException("Journal entry failed its checksum");
+        }
+
+        DukeJournalEntry entry = readEntry(entryBuffer);
+        if (entryBuffer.hasRemaining()) {
+            throw new IllegalArgumentException("Journal entry has trailing data");
+        }
+
+        return entry;
+    }
+
+    /**
+     * Reads a single entry from the buffer.
+     * 
+     * @param in The buffer to read from
+     * @return The entry read
+     * @throws IllegalArgumentException If the entry is malformed
+     * @throws BufferUnderflowException If the buffer ends partway through the entry
+     */
+    private static DukeJournalEntry readEntry(ByteBuffer in) {
+        int typeOrdinal = in.get() & 0xFF;
+        if (typeOrdinal >= DukeJournalEntryType.values().length) {
+            throw new IllegalArgumentException("Unknown journal entry type " + typeOrdinal);
+        }
+
+        DukeJournalEntryType type = DukeJournalEntryType.values()[typeOrdinal];
+        long generation = DukeBinaryCodec.readVarLong(in);
+
+        switch (type) {
+        case TaskAdded:
+            return new DukeJournalEntry(type, generation, 0, 1, DukeBinaryCodec.readTask(in), null);
+        case TaskDeleted:
+            //Fallthrough
+        case TaskMarkedAsDone:
+            //Fallthrough
+        case TaskMarkedUndone:
+            //Fallthrough
+        case NoteDeleted:
+            return new DukeJournalEntry(type, generation, (int) DukeBinaryCodec.readVarLong(in), 1, null, null);
+        case NoteAdded:
+            return new DukeJournalEntry(type, generation, 0, 1, null, DukeBinaryCodec.readString(in));
+        case TaskRangeDeleted:
+            //Fallthrough
+        case TaskRangeMarkedAsDone:
+            //Fallthrough
+        case TaskRangeMarkedUndone:
+            //Fallthrough
+        case NoteRangeDeleted:
+            int index = (int) DukeBinaryCodec.readVarLong(in);
+            int count = (int) DukeBinaryCodec.readVarLong(in);
+            return new DukeJournalEntry(type, generation, index, count, null, null);
+        default:
+            return new DukeJournalEntry(type, generation, 0, 1, null, null);
+        }
+    }
+}
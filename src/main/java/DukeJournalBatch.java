@@ -0,0 +1,93 @@
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of changes waiting to be appended to a <code>DukeJournal</code>. Changes are encoded as they are added, so
+ * that the batch never refers back to the list they were made to. The last change is held back unencoded while it
+ * could still be merged with the next one, so that a range of elements deleted or completed over several commands is
+ * still written as a single entry.
+ */
+public class DukeJournalBatch {
+    private final ByteArrayOutputStream encodedEntries = new ByteArrayOutputStream();
+    private int encodedEntryCount = 0;
+
+    //The last change added, if it could still be merged with the next one
+    private DukeJournalEntry openEntry;
+
+    /**
+     * Adds changes to the end of the batch.
+     * 
+     * @param changes The changes, in the order they were made
+     */
+    public void addAll(List<DukeJournalEntry> changes) {
+        for (DukeJournalEntry change : changes) {
+            DukeJournalEntry mergedEntry = (openEntry == null) ? null : openEntry.mergeWith(change);
+
+            if (mergedEntry != null) {
+                openEntry = mergedEntry;
+                continue;
+            }
+
+            encodeOpenEntry();
+            if (change.isMergeable()) {
+                openEntry = change;
+            } else {
+                append(DukeJournal.encode(Collections.singletonList(change)), 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the batch, after merging.
+     * 
+     * @return The number of entries in the batch
+     */
+    public int size() {
+        return encodedEntryCount + ((openEntry == null) ? 0 : 1);
+    }
+
+    /**
+     * Returns whether the batch is empty.
+     * 
+     * @return <code>true</code> if the batch is empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns every entry in the batch, encoded as by <code>DukeJournal.encode</code>, and empties the batch.
+     * 
+     * @return The encoded entries
+     */
+    public byte[] drainEncoded() {
+        encodeOpenEntry();
+
+        byte[] drainedEntries = encodedEntries.toByteArray();
+        encodedEntries.reset();
+        encodedEntryCount = 0;
+        return drainedEntries;
+    }
+
+    /**
+     * Encodes the held back entry, so that nothing more is merged into it.
+     */
+    private void encodeOpenEntry() {
+        if (openEntry != null) {
+            append(DukeJournal.encode(Collections.singletonList(openEntry)), 1);
+            openEntry = null;
+        }
+    }
+
+    /**
+     * Appends encoded entries to the batch.
+     * 
+     * @param entries The encoded entries
+     * @param entryCount The number of entries encoded
+     */
+    private void append(byte[] entries, int entryCount) {
+        encodedEntries.write(entries, 0, entries.length);
+        encodedEntryCount += entryCount;
+    }
+}
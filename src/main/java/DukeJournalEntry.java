@@ -0,0 +1,312 @@
+/**
+ * A class representing a single change made to a <code>TaskList</code> or a <code>NoteList</code>, as recorded in a
+ * <code>DukeJournal</code>. Deletions or status changes of neighbouring elements made one after another are merged
+ * into a single entry covering the whole range, so that the journal grows with the number of ranges changed rather
+ * than the number of elements.
+ */
+public class DukeJournalEntry {
+    public final DukeJournalEntryType type;
+    public final long generation;
+    public final int index;
+    public final int count;
+    public final Task task;
+    public final String note;
+
+    /**
+     * Creates a new <code>DukeJournalEntry</code>. Use the static factory methods instead where possible.
+     * 
+     * @param type The type of change recorded by this entry
+     * @param generation The generation of the list after this change was applied
+     * @param index The 1-based index affected by this change, or the first of the range affected, if any
+     * @param count The number of elements in the range affected by this change, if it affects a range
+     * @param task The <code>Task</code> added by this change, if any
+     * @param note The note added by this change, if any
+     */
+    public DukeJournalEntry(DukeJournalEntryType type, long generation, int index, int count, Task task,
+                            String note) {
+        this.type = type;
+        this.generation = generation;
+        this.index = index;
+        this.count = count;
+        this.task = task;
+        this.note = note;
+    }
+
+    /**
+     * Returns an entry recording that a <code>Task</code> was appended to a <code>TaskList</code>.
+     * 
+     * @param generation The generation of the <code>TaskList</code> after the change
+     * @param task The <code>Task</code> that was added
+     * @return The journal entry
+     */
+    public static DukeJournalEntry taskAdded(long generation, Task task) {
+        return new DukeJournalEntry(DukeJournalEntryType.TaskAdded, generation, 0, 1, task, null);
+    }
+
+    /**
+     * Returns an entry recording that a <code>Task</code> was deleted from a <code>TaskList</code>.
+     * 
+     * @param generation The generation of the <code>TaskList</code> after the change
+     * @param index The 1-based index of the deleted <code>Task</code>
+     * @return The journal entry
+     */
+    public static DukeJournalEntry taskDeleted(long generation, int index) {
+        return new DukeJournalEntry(DukeJournalEntryType.TaskDeleted, generation, index, 1, null, null);
+    }
+
+    /**
+     * Returns an entry recording that a <code>Task</code> in a <code>TaskList</code> was marked as done.
+     * 
+     * @param generation The generation of the <code>TaskList</code> after the change
+     * @param index The 1-based index of the completed <code>Task</code>
+     * @return The journal entry
+     */
+    public static DukeJournalEntry taskMarkedAsDone(long generation, int index) {
+        return new DukeJournalEntry(DukeJournalEntryType.TaskMarkedAsDone, generation, index, 1, null, null);
+    }
+
+    /**
+     * Returns an entry recording that a <code>Task</code> in a <code>TaskList</code> was marked as not done.
+     * 
+     * @param generation The generation of the <code>TaskList</code> after the change
+     * @param index The 1-based index of the <code>Task</code>
+     * @return The journal entry
+     */
+    public static DukeJournalEntry taskMarkedUndone(long generation, int index) {
+        return new DukeJournalEntry(DukeJournalEntryType.TaskMarkedUndone, generation, index, 1, null, null);
+    }
+
+    /**
+     * Returns an entry recording that a <code>TaskList</code> was emptied.
+     * 
+     * @param generation The generation of the <code>TaskList</code> after the change
+     * @return The journal entry
+     */
+    public static DukeJournalEntry tasksCleared(long generation) {
+        return new DukeJournalEntry(DukeJournalEntryType.TasksCleared, generation, 0, 1, null, null);
+    }
+
+    /**
+     * Returns an entry recording that a note was appended to a <code>NoteList</code>.
+     * 
+     * @param generation The generation of the <code>NoteList</code> after the change
+     * @param note The note that was added
+     * @return The journal entry
+     */
+    public static DukeJournalEntry noteAdded(long generation, String note) {
+        return new DukeJournalEntry(DukeJournalEntryType.NoteAdded, generation, 0, 1, null, note);
+    }
+
+    /**
+     * Returns an entry recording that a note was deleted from a <code>NoteList</code>.
+     * 
+     * @param generation The generation of the <code>NoteList</code> after the change
+     * @param index The 1-based index of the deleted note
+     * @return The journal entry
+     */
+    public static DukeJournalEntry noteDeleted(long generation, int index) {
+        return new DukeJournalEntry(DukeJournalEntryType.NoteDeleted, generation, index, 1, null, null);
+    }
+
+    /**
+     * Returns an entry recording that a <code>NoteList</code> was emptied.
+     * 
+     * @param generation The generation of the <code>NoteList</code> after the change
+     * @return The journal entry
+     */
+    public static DukeJournalEntry notesCleared(long generation) {
+        return new DukeJournalEntry(DukeJournalEntryType.NotesCleared, generation, 0, 1, null, null);
+    }
+
+    /**
+     * Returns a single entry recording both this change and the change made right after it to the same list, if they
+     * delete neighbouring elements or change their status in the same way.
+     * 
+     * @param next The change made right after this one
+     * @return The merged entry, or <code>null</code> if the two changes cannot be merged
+     */
+    public DukeJournalEntry mergeWith(DukeJournalEntry next) {
+        DukeJournalEntryType rangeType = getRangeType(type);
+
+        if (rangeType == null || rangeType != getRangeType(next.type) || next.count != 1
+            || next.generation != generation + 1) {
+            return null;
+        }
+
+        int mergedIndex = getMergedRangeIndex(rangeType, index, count, next.index);
+        return (mergedIndex < 0) ? null : new DukeJournalEntry(rangeType, next.generation, mergedIndex, count + 1, null,
+                                                               null);
+    }
+
+    /**
+     * Returns where a range of changes starts once the change made right after it is merged into it, if that change
+     * is to a neighbouring element.
+     * 
+     * @param rangeType The type of entry the range is recorded as
+     * @param index The 1-based index of the first element of the range
+     * @param count The number of elements in the range
+     * @param nextIndex The 1-based index of the element changed next
+     * @return The 1-based index of the first element of the merged range, or <code>-1</code> if the element changed
+     *     next does not neighbour the range
+     */
+    public static int getMergedRangeIndex(DukeJournalEntryType rangeType, int index, int count, int nextIndex) {
+        //A deleted range stays at the same index as it grows, since the elements after it shift down to fill it
+        boolean isDeletedRange = rangeType == DukeJournalEntryType.TaskRangeDeleted
+                                 || rangeType == DukeJournalEntryType.NoteRangeDeleted;
+        int nextIndexAfterRange = isDeletedRange ? index : index + count;
+
+        if (nextIndex == nextIndexAfterRange) {
+            return index;
+        } else if (nextIndex == index - 1) {
+            return index - 1;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns whether this entry could be merged with the change made right after it.
+     * 
+     * @return <code>true</code> if this entry deletes or completes elements
+     */
+    public boolean isMergeable() {
+        return getRangeType(type) != null;
+    }
+
+    /**
+     * Returns whether this entry records a change to a <code>TaskList</code>, rather than to a <code>NoteList</code>.
+     * 
+     * @return <code>true</code> if this entry records a change to a <code>TaskList</code>
+     */
+    public boolean isTaskListChange() {
+        switch (type) {
+        case TaskAdded:
+            //Fallthrough
+        case TaskDeleted:
+            //Fallthrough
+        case TaskMarkedAsDone:
+            //Fallthrough
+        case TasksCleared:
+            //Fallthrough
+        case TaskRangeDeleted:
+            //Fallthrough
+        case TaskRangeMarkedAsDone:
+            //Fallthrough
+        case TaskMarkedUndone:
+            //Fallthrough
+        case TaskRangeMarkedUndone:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Re-applies the change recorded by this entry to a <code>TaskList</code>, unless the list already contains it.
+     * 
+     * @param tasks The <code>TaskList</code> to apply this change to
+     * @throws DukeException If the recorded index does not exist in the list
+     */
+    public void applyTo(TaskList tasks) throws DukeException {
+        if (generation <= tasks.getGeneration()) {
+            return;
+        }
+
+        switch (type) {
+        case TaskAdded:
+            tasks.add(task);
+            break;
+        case TaskDeleted:
+            tasks.deleteAt(index);
+            break;
+        case TaskMarkedAsDone:
+            tasks.markAsDone(index);
+            break;
+        case TasksCleared:
+            tasks.deleteAllTasks();
+            break;
+        case TaskRangeDeleted:
+            for (int i = 0; i < count; i++) {
+                tasks.deleteAt(index);
+            }
+            break;
+        case TaskRangeMarkedAsDone:
+            for (int i = 0; i < count; i++) {
+                tasks.markAsDone(index + i);
+            }
+            break;
+        case TaskMarkedUndone:
+            tasks.markAsUndone(index);
+            break;
+        case TaskRangeMarkedUndone:
+            for (int i = 0; i < count; i++) {
+                tasks.markAsUndone(index + i);
+            }
+            break;
+        default:
+            assert false : "not a TaskList entry";
+            break;
+        }
+    }
+
+    /**
+     * Re-applies the change recorded by this entry to a <code>NoteList</code>, unless the list already contains it.
+     * 
+     * @param notes The <code>NoteList</code> to apply this change to
+     * @throws DukeException If the recorded index does not exist in the list
+     */
+    public void applyTo(NoteList notes) throws DukeException {
+        if (generation <= notes.getGeneration()) {
+            return;
+        }
+
+        switch (type) {
+        case NoteAdded:
+            notes.add(note);
+            break;
+        case NoteDeleted:
+            notes.deleteAt(index);
+            break;
+        case NotesCleared:
+            notes.deleteAllNotes();
+            break;
+        case NoteRangeDeleted:
+            for (int i = 0; i < count; i++) {
+                notes.deleteAt(index);
+            }
+            break;
+        default:
+            assert false : "not a NoteList entry";
+            break;
+        }
+    }
+
+    /**
+     * Returns the type of entry that a range of changes of a type is recorded as.
+     * 
+     * @param type The type of the changes
+     * @return The type of the range entry, or <code>null</code> if changes like this are not merged into ranges
+     */
+    public static DukeJournalEntryType getRangeType(DukeJournalEntryType type) {
+        switch (type) {
+        case TaskDeleted:
+            //Fallthrough
+        case TaskRangeDeleted:
+            return DukeJournalEntryType.TaskRangeDeleted;
+        case TaskMarkedAsDone:
+            //Fallthrough
+        case TaskRangeMarkedAsDone:
+            return DukeJournalEntryType.TaskRangeMarkedAsDone;
+        case TaskMarkedUndone:
+            //Fallthrough
+        case TaskRangeMarkedUndone:
+            return DukeJournalEntryType.TaskRangeMarkedUndone;
+        case NoteDeleted:
+            //Fallthrough
+        case NoteRangeDeleted:
+            return DukeJournalEntryType.NoteRangeDeleted;
+        default:
+            return null;
+        }
+    }
+}
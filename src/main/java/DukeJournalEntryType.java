@@ -0,0 +1,8 @@
+/**
+ * The types of changes that can be recorded in a <code>DukeJournal</code>. The order of the constants is part of the
+ * journal's file format, and new types should only be appended.
+ */
+public enum DukeJournalEntryType {
+    TaskAdded, TaskDeleted, TaskMarkedAsDone, TasksCleared, NoteAdded, NoteDeleted, NotesCleared,
+    TaskRangeDeleted, TaskRangeMarkedAsDone, NoteRangeDeleted, Commit, TaskMarkedUndone, TaskRangeMarkedUndone
+}
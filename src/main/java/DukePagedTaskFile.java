@@ -0,0 +1,385 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A <code>TaskList</code> snapshot stored as fixed-size records in a memory-mapped file, so that a saved list of any
+ * length can be opened without reading it into the heap. Each <code>Task</code> is only decoded when its record is
+ * read.
+ * 
+ * <p>The file starts with a header of <code>HEADER_SIZE</code> bytes, holding the usual <code>DukeBinaryCodec</code>
+ * file header, the generation of the list, its number of records, the length of its description heap, and a checksum
+ * of the header itself. It is followed by one record of <code>RECORD_SIZE</code> bytes per <code>Task</code>, in list
+ * order, then by the description heap, which holds the UTF-8 encoded descriptions back to back, and finally by a
+ * CRC32C checksum for every <code>BLOCK_SIZE</code> bytes of the records and of the heap. A record holds the header
+ * byte of its <code>Task</code>, the offset and length of its description in the heap, and its two packed
+ * date-times. Each distinct description is written to the heap only once, and the records of every
+ * <code>Task</code> with that description point at the same bytes.</p>
+ * 
+ * <p>A block is checked the first time a record in it is read. A record whose block, or whose description's blocks,
+ * fail their checksums cannot be read, but every other record still can.</p>
+ * 
+ * <p>Records may be read from several threads at once, since reading never moves the mapped buffers, and two
+ * threads checking the same block at once simply reach the same result.</p>
+ */
+public class DukePagedTaskFile implements DukeTaskFile {
+    public static final int HEADER_SIZE = 48;
+    public static final int RECORD_SIZE = 32;
+    public static final int BLOCK_SIZE = 4096;
+
+    private static final int GENERATION_POSITION = 8;
+    private static final int RECORD_COUNT_POSITION = 16;
+    private static final int HEAP_LENGTH_POSITION = 24;
+    private static final int HEADER_CHECKSUM_POSITION = 32;
+
+    private static final int TASK_HEADER_OFFSET = 0;
+    private static final int DESCRIPTION_LENGTH_OFFSET = 4;
+    private static final int DESCRIPTION_OFFSET_OFFSET = 8;
+    private static final int FIRST_DATE_TIME_OFFSET = 16;
+    private static final int SECOND_DATE_TIME_OFFSET = 24;
+
+    //The size of the buffers used to write each region of a new file, which must be a multiple of BLOCK_SIZE
+    private static final int WRITE_BUFFER_SIZE = 16 * BLOCK_SIZE;
+
+    private static final byte BLOCK_UNCHECKED = 0;
+    private static final byte BLOCK_INTACT = 1;
+    private static final byte BLOCK_CORRUPTED = 2;
+
+    private final MappedByteBuffer records;
+    private final MappedByteBuffer descriptionHeap;
+    private final MappedByteBuffer checksums;
+    private final long generation;
+    private final int recordCount;
+
+    //Whether each block has been checked yet, and what was found. Heap blocks follow the record blocks.
+    private final byte[] blockStates;
+    private final int recordBlockCount;
+
+    /**
+     * Creates a new <code>DukePagedTaskFile</code> over the already mapped regions of a file.
+     * 
+     * @param records The mapped records
+     * @param descriptionHeap The mapped description heap
+     * @param checksums The mapped checksums of the records and the heap
+     * @param generation The generation of the saved list
+     * @param recordCount The number of records
+     */
+    private DukePagedTaskFile(MappedByteBuffer records, MappedByteBuffer descriptionHeap, MappedByteBuffer checksums,
+                              long generation, int recordCount) {
+        this.records = records;
+        this.descriptionHeap = descriptionHeap;
+        this.checksums = checksums;
+        this.generation = generation;
+        this.recordCount = recordCount;
+        this.recordBlockCount = (int) getBlockCount(records.capacity());
+        this.blockStates = new byte[recordBlockCount + (int) getBlockCount(descriptionHeap.capacity())];
+    }
+
+    /**
+     * Maps a file written by <code>write</code>. Only the header is read; the records are paged in by the operating
+     * system as they are read.
+     * 
+     * @param file The file to be mapped
+     * @return The mapped file
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the file is not a paged <code>TaskList</code>, or its header is corrupted
+     */
+    public static DukePagedTaskFile open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return open(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Maps a paged <code>TaskList</code> written by <code>write</code> into a segment of a larger file. The mapping
+     * stays valid after the channel is closed.
+     * 
+     * @param channel The file holding the segment
+     * @param segmentStart The position in the file where the segment starts
+     * @param segmentLength The length of the segment
+     * @return The mapped segment
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the segment is not a paged <code>TaskList</code>, or its header is
+     *                                  corrupted
+     */
+    public static DukePagedTaskFile open(FileChannel channel, long segmentStart, long segmentLength)
+            throws IOException {
+        ByteBuffer header = DukeBinaryCodec.readFully(channel, segmentStart,
+                                                      (int) Math.min(HEADER_SIZE, Math.max(segmentLength, 0)));
+
+        DukeBinaryCodec.readFileHeader(header, DukeBinaryCodec.KIND_PAGED_TASK_LIST);
+        if (header.limit() < HEADER_SIZE
+            || header.getInt(HEADER_CHECKSUM_POSITION)
+               != DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION)) {
+            throw new IllegalArgumentException("Corrupted paged task file header");
+        }
+
+        long generation = header.getLong(GENERATION_POSITION);
+        long recordCount = header.getLong(RECORD_COUNT_POSITION);
+        long heapLength = header.getLong(HEAP_LENGTH_POSITION);
+        long recordsLength = recordCount * RECORD_SIZE;
+
+        if (recordCount < 0 || heapLength < 0 || recordsLength > Integer.MAX_VALUE
+            || heapLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupted paged task file header");
+        }
+
+        long checksumsLength = (getBlockCount(recordsLength) + getBlockCount(heapLength)) * Integer.BYTES;
+        if (HEADER_SIZE + recordsLength + heapLength + checksumsLength > segmentLength) {
+            throw new IllegalArgumentException("Truncated paged task file");
+        }
+
+        long recordsStart = segmentStart + HEADER_SIZE;
+        MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, recordsStart, recordsLength);
+        MappedByteBuffer descriptionHeap = channel.map(FileChannel.MapMode.READ_ONLY, recordsStart + recordsLength,
+                                                       heapLength);
+        MappedByteBuffer checksums = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                 recordsStart + recordsLength + heapLength, checksumsLength);
+
+        return new DukePagedTaskFile(records, descriptionHeap, checksums, generation, (int) recordCount);
+    }
+
+    /**
+     * Writes a whole <code>TaskList</code> to a file in this format. The file is replaced through
+     * <code>DukeAtomicFile</code>, so a crash while writing leaves the old file intact. A file that is still mapped
+     * cannot be replaced on Windows.
+     * 
+     * @param file The file to be written
+     * @param tasks The <code>TaskList</code> to be written
+     * @throws IOException When an IOException occurs
+     */
+    public static void write(File file, TaskList tasks) throws IOException {
+        FileChannel channel = DukeAtomicFile.openTemporary(file);
+
+        try {
+            write(channel, 0, tasks);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        DukeAtomicFile.commitTemporary(channel, file);
+    }
+
+    /**
+     * Writes a whole <code>TaskList</code> in this format into a segment of a larger file, which is left open.
+     * 
+     * @param channel The file to write to
+     * @param segmentStart The position in the file to start the segment at
+     * @param tasks The <code>TaskList</code> to be written
+     * @return The length of the segment written
+     * @throws IOException When an IOException occurs
+     */
+    public static long write(FileChannel channel, long segmentStart, TaskList tasks) throws IOException {
+        long recordsStart = segmentStart + HEADER_SIZE;
+        long recordsLength = (long) tasks.size() * RECORD_SIZE;
+        long heapLength = 0;
+        int[] recordChecksums = new int[(int) getBlockCount(recordsLength)];
+        int[] heapChecksums = new int[0];
+
+        ByteBuffer recordBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        ByteBuffer heapBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        long recordsWritten = 0;
+        long heapWritten = 0;
+
+        //Every distinct description written so far, and the offset in the heap each handle was written at
+        DukeStringPool writtenDescriptions = new DukeStringPool();
+        long[] descriptionOffsets = new long[16];
+
+        for (Task task : tasks.snapshotIterable()) {
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            int descriptionHandle = writtenDescriptions.acquire(description, 0, description.length);
+            boolean isWritten = writtenDescriptions.getReferenceCount(descriptionHandle) > 1;
+
+            if (!isWritten) {
+                if (descriptionHandle >= descriptionOffsets.length) {
+                    descriptionOffsets = Arrays.copyOf(descriptionOffsets, descriptionOffsets.length * 2);
+                }
+                descriptionOffsets[descriptionHandle] = heapLength;
+            }
+
+            if (recordBuffer.remaining() < RECORD_SIZE) {
+                recordsWritten += flush(channel, recordBuffer, recordsStart, recordsWritten, recordChecksums);
+            }
+
+            recordBuffer.put((byte) DukeBinaryCodec.getTaskHeader(task));
+            recordBuffer.put((byte) 0).putShort((short) 0);
+            recordBuffer.putInt(description.length);
+            recordBuffer.putLong(descriptionOffsets[descriptionHandle]);
+            recordBuffer.putLong(DukeBinaryCodec.packDateTime(DukeBinaryCodec.getFirstDateTime(task)));
+            recordBuffer.putLong(DukeBinaryCodec.packDateTime(DukeBinaryCodec.getSecondDateTime(task)));
+
+            if (isWritten) {
+                continue;
+            }
+
+            int written = 0;
+            while (written < description.length) {
+                if (!heapBuffer.hasRemaining()) {
+                    heapChecksums = growToFit(heapChecksums, heapWritten + WRITE_BUFFER_SIZE);
+                    heapWritten += flush(channel, heapBuffer, recordsStart + recordsLength, heapWritten,
+                                         heapChecksums);
+                }
+
+                int chunkLength = Math.min(heapBuffer.remaining(), description.length - written);
+                heapBuffer.put(description, written, chunkLength);
+                written += chunkLength;
+            }
+            heapLength += description.length;
+        }
+
+        flush(channel, recordBuffer, recordsStart, recordsWritten, recordChecksums);
+        heapChecksums = growToFit(heapChecksums, heapLength);
+        flush(channel, heapBuffer, recordsStart + recordsLength, heapWritten, heapChecksums);
+
+        ByteBuffer checksumTable = ByteBuffer.allocate((recordChecksums.length + heapChecksums.length)
+                                                       * Integer.BYTES);
+        checksumTable.asIntBuffer().put(recordChecksums).put(heapChecksums);
+        checksumTable.position(checksumTable.capacity());
+        flush(channel, checksumTable, recordsStart + recordsLength + heapLength, 0, null);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(DukeBinaryCodec.MAGIC_NUMBER);
+        header.put((byte) DukeBinaryCodec.FORMAT_VERSION);
+        header.put(DukeBinaryCodec.KIND_PAGED_TASK_LIST);
+        header.putLong(GENERATION_POSITION, tasks.getGeneration());
+        header.putLong(RECORD_COUNT_POSITION, tasks.size());
+        header.putLong(HEAP_LENGTH_POSITION, heapLength);
+        header.putInt(HEADER_CHECKSUM_POSITION, DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION));
+        header.position(HEADER_SIZE);
+        flush(channel, header, segmentStart, 0, null);
+
+        return HEADER_SIZE + recordsLength + heapLength + checksumTable.capacity();
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public int size() {
+        return recordCount;
+    }
+
+    @Override
+    public Task readTask(int record) {
+        int recordStart = record * RECORD_SIZE;
+        int header = records.get(recordStart + TASK_HEADER_OFFSET) & 0xFF;
+        int descriptionLength = records.getInt(recordStart + DESCRIPTION_LENGTH_OFFSET);
+        long descriptionOffset = records.getLong(recordStart + DESCRIPTION_OFFSET_OFFSET);
+
+        checkBlock(recordStart / BLOCK_SIZE);
+        if (descriptionLength < 0 || descriptionOffset < 0
+            || descriptionOffset + descriptionLength > descriptionHeap.capacity()) {
+            throw new IllegalArgumentException("Invalid description in record " + record);
+        }
+
+        for (long offset = descriptionOffset - descriptionOffset % BLOCK_SIZE;
+             offset < descriptionOffset + descriptionLength; offset += BLOCK_SIZE) {
+            checkBlock(recordBlockCount + (int) (offset / BLOCK_SIZE));
+        }
+
+        byte[] description = new byte[descriptionLength];
+        ByteBuffer heapView = descriptionHeap.duplicate();
+        heapView.position((int) descriptionOffset);
+        heapView.get(description);
+
+        return DukeBinaryCodec.createTask(header, new String(description, StandardCharsets.UTF_8),
+                                          records.getLong(recordStart + FIRST_DATE_TIME_OFFSET),
+                                          records.getLong(recordStart + SECOND_DATE_TIME_OFFSET));
+    }
+
+    /**
+     * Returns <code>true</code>, since this format keeps nothing about the descriptions beyond the descriptions.
+     * 
+     * @param record The zero-indexed position of the record in the file
+     * @param searchTerm The term to be searched for
+     * @return <code>true</code>
+     */
+    @Override
+    public boolean mayContain(int record, String searchTerm) {
+        return true;
+    }
+
+    /**
+     * Checks a block against its checksum, the first time the block is read.
+     * 
+     * @param block The index of the block, counting the record blocks and then the heap blocks
+     * @throws IllegalArgumentException If the block is corrupted
+     */
+    private void checkBlock(int block) {
+        if (blockStates[block] == BLOCK_UNCHECKED) {
+            boolean isRecordBlock = block < recordBlockCount;
+            ByteBuffer region = isRecordBlock ? records : descriptionHeap;
+            int blockStart = (isRecordBlock ? block : block - recordBlockCount) * BLOCK_SIZE;
+            int blockEnd = Math.min(blockStart + BLOCK_SIZE, region.capacity());
+
+            boolean isIntact = checksums.getInt(block * Integer.BYTES)
+                               == DukeBinaryCodec.getChecksum(region, blockStart, blockEnd);
+            blockStates[block] = isIntact ? BLOCK_INTACT : BLOCK_CORRUPTED;
+        }
+
+        if (blockStates[block] == BLOCK_CORRUPTED) {
+            throw new IllegalArgumentException("Checksum mismatch in block " + block);
+        }
+    }
+
+
+    /**
+     * Returns the number of blocks needed to hold the given number of bytes.
+     * 
+     * @param length The number of bytes
+     * @return The number of blocks
+     */
+    private static long getBlockCount(long length) {
+        return (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Returns an array of checksums long enough for a region of the given length.
+     * 
+     * @param checksums The current array of checksums
+     * @param length The length of the region
+     * @return The given array, or a longer copy of it
+     */
+    private static int[] growToFit(int[] checksums, long length) {
+        int blockCount = (int) getBlockCount(length);
+        return (blockCount <= checksums.length) ? checksums : Arrays.copyOf(checksums, blockCount);
+    }
+
+    /**
+     * Writes out everything in the buffer into a region of the file, and empties the buffer. The checksum of each
+     * block written is recorded, so the buffer must start at the start of a block.
+     * 
+     * @param channel The file to write to
+     * @param buffer The buffer to be written out
+     * @param regionStart The position in the file where the region starts
+     * @param regionOffset The position in the region to write at
+     * @param blockChecksums The checksums of the blocks in the region, or <code>null</code> if not needed
+     * @return The number of bytes written
+     * @throws IOException When an IOException occurs
+     */
+    private static int flush(FileChannel channel, ByteBuffer buffer, long regionStart, long regionOffset,
+                             int[] blockChecksums) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+
+        if (blockChecksums != null) {
+            for (int blockStart = 0; blockStart < length; blockStart += BLOCK_SIZE) {
+                int block = (int) ((regionOffset + blockStart) / BLOCK_SIZE);
+                int blockEnd = Math.min(blockStart + BLOCK_SIZE, length);
+                blockChecksums[block] = DukeBinaryCodec.getChecksum(buffer, blockStart, blockEnd);
+            }
+        }
+
+        DukeBinaryCodec.writeFully(channel, regionStart + regionOffset, buffer);
+        buffer.clear();
+        return length;
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Arrays;
+
+/**
+ * A command issued by the user, read in a single pass. The type of the command is found from its first letter and
+ * keyword, compared without regard to case and without creating a lower-cased copy of the command, and the command is
+ * split into its words, which are kept as offsets into it rather than as <code>Strings</code>.
+ * 
+ * <p>One <code>DukeParsedCommand</code> is meant to be reused for every command, so that reading a command allocates
+ * nothing: parsing a new command only overwrites the offsets of the last one, and numbers are read straight from
+ * the command. A word is only created as a <code>String</code> when it is asked for.</p>
+ */
+public class DukeParsedCommand {
+    private static final int INITIAL_CAPACITY = 8;
+
+    //The keyword of every command, in the order they are tried. A keyword that starts another comes after it, so that
+    //"deletenote" is not read as "delete"
+    private static final String[] KEYWORDS = {
+        "bye", "list", "done", "undone", "deletenote", "delete", "nukenote", "nuke", "find", "todo", "deadline",
+        "event", "agenda", "upcoming", "overdue", "notelist", "note", "more", "run", "import"
+    };
+    private static final DukeCommandType[] KEYWORD_TYPES = {
+        DukeCommandType.Bye, DukeCommandType.List, DukeCommandType.Done, DukeCommandType.Undone,
+        DukeCommandType.DeleteNote, DukeCommandType.Delete, DukeCommandType.NukeNote, DukeCommandType.Nuke,
+        DukeCommandType.Find, DukeCommandType.ToDo, DukeCommandType.Deadline, DukeCommandType.Event,
+        DukeCommandType.Agenda, DukeCommandType.Upcoming, DukeCommandType.Overdue, DukeCommandType.NoteList,
+        DukeCommandType.NewNote, DukeCommandType.More, DukeCommandType.Run, DukeCommandType.Import
+    };
+
+    //The positions in KEYWORDS of the keywords starting with each letter from 'a' to 'z', in the order they are tried
+    private static final int[][] KEYWORDS_BY_LETTER = new int[26][0];
+
+    static {
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            int letter = KEYWORDS[i].charAt(0) - 'a';
+            KEYWORDS_BY_LETTER[letter] = Arrays.copyOf(KEYWORDS_BY_LETTER[letter],
+                                                       KEYWORDS_BY_LETTER[letter].length + 1);
+            KEYWORDS_BY_LETTER[letter][KEYWORDS_BY_LETTER[letter].length - 1] = i;
+        }
+    }
+
+    private String input;
+    private DukeCommandType type = DukeCommandType.Invalid;
+
+    //Where each word of the command starts, and where it ends
+    private int[] wordStarts = new int[INITIAL_CAPACITY];
+    private int[] wordEnds = new int[INITIAL_CAPACITY];
+    private int wordCount = 0;
+
+    /**
+     * Reads a command, in place of the one read last. Reading the same <code>String</code> as last time does nothing.
+     * 
+     * @param input The user's input command
+     * @return This <code>DukeParsedCommand</code>
+     */
+    public DukeParsedCommand parse(String input) {
+        if (input == this.input) {
+            return this;
+        }
+
+        this.input = input;
+        this.type = identify(input);
+        this.wordCount = 0;
+
+        int i = 0;
+        while (i < input.length()) {
+            //Words are split by any run of whitespace, as String.trim would see it
+            while (i < input.length() && input.charAt(i) <= ' ') {
+                i++;
+            }
+
+            if (i == input.length()) {
+                break;
+            }
+
+            if (wordCount == wordStarts.length) {
+                wordStarts = Arrays.copyOf(wordStarts, wordCount * 2);
+                wordEnds = Arrays.copyOf(wordEnds, wordCount * 2);
+            }
+
+            wordStarts[wordCount] = i;
+            while (i < input.length() && input.charAt(i) > ' ') {
+                i++;
+            }
+            wordEnds[wordCount++] = i;
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the type of a command, which is that of the first keyword the command starts with, in any case.
+     * 
+     * @param input The user's input command
+     * @return The type of the command, or <code>Invalid</code> if it starts with no keyword
+     */
+    public static DukeCommandType identify(String input) {
+        if (input.isEmpty()) {
+            return DukeCommandType.Invalid;
+        }
+
+        int letter = Character.toLowerCase(input.charAt(0)) - 'a';
+        if (letter < 0 || letter >= KEYWORDS_BY_LETTER.length) {
+            return DukeCommandType.Invalid;
+        }
+
+        for (int i : KEYWORDS_BY_LETTER[letter]) {
+            if (input.regionMatches(true, 0, KEYWORDS[i], 0, KEYWORDS[i].length())) {
+                return KEYWORD_TYPES[i];
+            }
+        }
+
+        return DukeCommandType.Invalid;
+    }
+
+    /**
+     * Returns the type of the command.
+     * 
+     * @return The type of the command
+     */
+    public DukeCommandType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the command as the user gave it.
+     * 
+     * @return The user's input command
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Returns the number of words in the command, including its keyword.
+     * 
+     * @return The number of words
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Creates a word of the command as a <code>String</code>.
+     * 
+     * @param i The position of the word, which must exist, where the keyword is at <code>0</code>
+     * @return The word
+     */
+    public String getWord(int i) {
+        return input.substring(wordStarts[i], wordEnds[i]);
+    }
+
+    /**
+     * Reads a word of the command as a decimal number, as <code>Integer.parseInt</code> would, without creating the
+     * word.
+     * 
+     * @param i The position of the word, which must exist
+     * @return The number
+     * @throws NumberFormatException If the word is not a number
+     */
+    public int getWordAsInt(int i) {
+        return Integer.parseInt(input, wordStarts[i], wordEnds[i], 10);
+    }
+}
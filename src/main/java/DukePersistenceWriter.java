@@ -0,0 +1,388 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A background thread that saves the changes made to Duke's lists, so that the thread handling the user's commands
+ * never waits on the disk. Changes handed to the writer are held for a short while, so that a burst of commands is
+ * saved in a single write, and neighbouring deletions or completions among them are saved as a single entry.
+ * 
+ * <p>Held changes are written once the oldest of them has waited <code>maxDelayMillis</code>, or once
+ * <code>maxPendingChanges</code> of them have built up, whichever comes first. These bound how much could be lost if
+ * Duke is killed, and can be set through the system properties <code>duke.persistence.maxDelayMillis</code> and
+ * <code>duke.persistence.maxPendingChanges</code>. Every held change is written before Duke exits.</p>
+ * 
+ * <p>Each write is forced to the disk, which is by far its slowest part. Since every change held at the time is
+ * written together, as a single commit to the journal shared by both lists, all the commands and <code>flush</code>
+ * callers that are waiting share that one forced write, whichever lists their changes were made to.</p>
+ * 
+ * <p>Changes whose write failed are kept, and written again along with the next changes handed over, or by the next
+ * <code>flush</code>. The failure is reported once, to the next command handing over changes or to the
+ * <code>flush</code> caller waiting on the write, unless the changes are written before then.</p>
+ * 
+ * <p>A command making more changes than are worth holding in memory, such as an import, hands them over in parts
+ * through <code>submitPartialChanges</code>. Each part is written as soon as it is handed over, but left uncommitted,
+ * and the command's last changes, handed over through <code>submitChanges</code>, commit every part at once.</p>
+ */
+public class DukePersistenceWriter {
+    public static final String MAX_DELAY_MILLIS_PROPERTY = "duke.persistence.maxDelayMillis";
+    public static final String MAX_PENDING_CHANGES_PROPERTY = "duke.persistence.maxPendingChanges";
+
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 200;
+    private static final int DEFAULT_MAX_PENDING_CHANGES = 100;
+
+    private final DukeSaveLoad dukeSaveLoad;
+    private final long maxDelayNanos;
+    private final int maxPendingChanges;
+    private final Thread writerThread;
+
+    //Closes the writer if the JVM shuts down first, and is removed once the writer is closed
+    private final Thread shutdownHook;
+
+    //Guards every field below, and is notified whenever any of them changes
+    private final Object lock = new Object();
+
+    private final DukeJournalBatch pendingChanges = new DukeJournalBatch();
+    private long oldestPendingChangeTime;
+
+    //Batches of changes are numbered in the order they are handed over, so that flush knows when its batch is written
+    private long submittedBatchCount = 0;
+    private long writtenBatchCount = 0;
+
+    //The changes of a write that failed, to be written again ahead of the next changes, or null if there are none
+    private byte[] failedChanges;
+    private int failedChangeCount = 0;
+
+    //Whether partial changes were handed over that are not yet committed, and whether their commit is held
+    private boolean isCommitOpen = false;
+    private boolean isCommitPending = false;
+
+    private boolean isFlushRequested = false;
+    private boolean isClosed = false;
+
+    //The failure of the last write, if it failed and has not been reported yet
+    private Exception failure;
+
+    /**
+     * Creates a new <code>DukePersistenceWriter</code> using the durability window set in the system properties.
+     * 
+     * @param dukeSaveLoad The <code>DukeSaveLoad</code> to save the changes through
+     */
+    public DukePersistenceWriter(DukeSaveLoad dukeSaveLoad) {
+        this(dukeSaveLoad, Long.getLong(MAX_DELAY_MILLIS_PROPERTY, DEFAULT_MAX_DELAY_MILLIS),
+             Integer.getInteger(MAX_PENDING_CHANGES_PROPERTY, DEFAULT_MAX_PENDING_CHANGES));
+    }
+
+    /**
+     * Creates a new <code>DukePersistenceWriter</code> with the given durability window.
+     * 
+     * @param dukeSaveLoad The <code>DukeSaveLoad</code> to save the changes through
+     * @param maxDelayMillis The longest time a change is held before it is written
+     * @param maxPendingChanges The most changes that are held before they are written
+     */
+    public DukePersistenceWriter(DukeSaveLoad dukeSaveLoad, long maxDelayMillis, int maxPendingChanges) {
+        this.dukeSaveLoad = dukeSaveLoad;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxDelayMillis, 0));
+        this.maxPendingChanges = Math.max(maxPendingChanges, 1);
+        this.writerThread = new Thread(this::runWriter, "Duke persistence writer");
+        this.writerThread.setDaemon(true);
+        this.shutdownHook = new Thread(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "Duke persistence writer shutdown");
+    }
+
+    /**
+     * Starts the background thread. Held changes are also written if the JVM shuts down, such as through
+     * <code>System.exit</code>.
+     */
+    public void start() {
+        writerThread.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Hands over the changes made to Duke's lists by a command to be written in the background. The changes made to
+     * both lists are written in the same commit.
+     * 
+     * @param taskListChanges The changes made to the <code>TaskList</code>, in the order they were made
+     * @param noteListChanges The changes made to the <code>NoteList</code>, in the order they were made
+     * @throws IOException If an earlier write failed, and has not been reported yet. The changes are still kept, and
+     *     written along with the changes of the failed write
+     */
+    public void submitChanges(List<DukeJournalEntry> taskListChanges, List<DukeJournalEntry> noteListChanges)
+            throws IOException {
+        synchronized (lock) {
+            if (!taskListChanges.isEmpty() || !noteListChanges.isEmpty() || isCommitOpen) {
+                markChangesPending();
+                pendingChanges.addAll(taskListChanges);
+                pendingChanges.addAll(noteListChanges);
+
+                //Commits the partial changes handed over before, even if there are no more changes
+                isCommitPending = isCommitOpen;
+                isCommitOpen = false;
+                lock.notifyAll();
+            }
+
+            throwEarlierFailure();
+        }
+    }
+
+    /**
+     * Hands over part of the changes made to Duke's lists by a command that is still running, to be written straight
+     * away without being committed. The parts are committed along with the changes next handed over through
+     * <code>submitChanges</code>, so that they are all kept or all lost. Waits while an earlier part is still held,
+     * so that at most one part is held in memory at a time.
+     * 
+     * <p>A failed write is not reported here, since the command cannot act on it part way through. The changes are
+     * kept and written again, and the failure is reported by the <code>submitChanges</code> call ending the
+     * command, unless they are written before then.</p>
+     * 
+     * @param taskListChanges The changes made to the <code>TaskList</code>, in the order they were made
+     * @param noteListChanges The changes made to the <code>NoteList</code>, in the order they were made
+     */
+    public void submitPartialChanges(List<DukeJournalEntry> taskListChanges, List<DukeJournalEntry> noteListChanges) {
+        synchronized (lock) {
+            //Also writes any changes held from earlier commands on their own, so that their commit is not delayed
+            isFlushRequested = true;
+            lock.notifyAll();
+            while (hasPendingChanges() && writerThread.isAlive() && !isClosed) {
+                waitUninterruptibly();
+            }
+
+            isCommitOpen = true;
+            if (!taskListChanges.isEmpty() || !noteListChanges.isEmpty()) {
+                markChangesPending();
+                pendingChanges.addAll(taskListChanges);
+                pendingChanges.addAll(noteListChanges);
+                isFlushRequested = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Asks for every held change to be written now, without waiting for it to be written.
+     */
+    public void requestFlush() {
+        synchronized (lock) {
+            isFlushRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Writes every held change now, including those of a write that failed, and waits until it is written.
+     * 
+     * @throws IOException If the write failed, or an earlier write failed and has not been reported yet
+     */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            if (failedChanges != null && !hasPendingChanges()) {
+                //The failed changes are written again as a batch of their own
+                submittedBatchCount++;
+            }
+
+            long batchToWaitFor = submittedBatchCount;
+            isFlushRequested = true;
+            lock.notifyAll();
+
+            while (writtenBatchCount < batchToWaitFor && writerThread.isAlive()) {
+                waitUninterruptibly();
+            }
+
+            throwEarlierFailure();
+        }
+    }
+
+    /**
+     * Writes every held change, then stops the background thread. Does nothing if it was already closed.
+     * 
+     * @throws IOException If a write failed
+     */
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+
+            isClosed = true;
+            lock.notifyAll();
+        }
+
+        try {
+            //Otherwise every writer ever started would stay reachable through its hook until the JVM exits
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            //The JVM is already shutting down, possibly running the hook itself
+        }
+
+        boolean isInterrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (lock) {
+            throwEarlierFailure();
+        }
+    }
+
+    /**
+     * Repeatedly waits for held changes and writes them, until closed. Once closed, the changes of a write that
+     * failed are written again one last time.
+     */
+    private void runWriter() {
+        while (true) {
+            byte[] changes;
+            int changeCount;
+            boolean isCommitted;
+            long batchesBeingWritten;
+
+            synchronized (lock) {
+                while (!hasPendingChanges() && !isRetryRequested() && !isClosed) {
+                    waitUninterruptibly();
+                }
+
+                if (!hasPendingChanges() && failedChanges == null) {
+                    return;
+                }
+
+                //Hold the changes so that more can join them, until the durability window closes
+                while (!isClosed && !isFlushRequested && pendingChanges.size() < maxPendingChanges) {
+                    long remainingNanos = oldestPendingChangeTime + maxDelayNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remainingNanos);
+                    } catch (InterruptedException e) {
+                        //Only close stops the writer
+                    }
+                }
+
+                changeCount = failedChangeCount + pendingChanges.size();
+                changes = joinFailedChanges(pendingChanges.drainEncoded());
+                isCommitted = !isCommitOpen;
+                isCommitPending = false;
+                batchesBeingWritten = submittedBatchCount;
+
+                isFlushRequested = false;
+            }
+
+            Exception writeFailure = null;
+            try {
+                dukeSaveLoad.saveEncodedChanges(changes, changeCount, isCommitted);
+            } catch (IOException | RuntimeException e) {
+                writeFailure = e;
+            }
+
+            synchronized (lock) {
+                if (writeFailure != null) {
+                    //Nothing is lost yet, since the changes are written again with the next ones
+                    failedChanges = changes;
+                    failedChangeCount = changeCount;
+                }
+
+                //A write that succeeds makes up for any failure not yet reported
+                failure = writeFailure;
+                writtenBatchCount = batchesBeingWritten;
+                lock.notifyAll();
+
+                if (writeFailure != null && isClosed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the changes of the write that failed, if any, followed by newly held changes, and forgets the failed
+     * changes. Must be called while holding the lock.
+     * 
+     * @param newChanges The encoded changes drained from the held changes
+     * @return The encoded changes to be written
+     */
+    private byte[] joinFailedChanges(byte[] newChanges) {
+        if (failedChanges == null) {
+            return newChanges;
+        }
+
+        byte[] changes = Arrays.copyOf(failedChanges, failedChanges.length + newChanges.length);
+        System.arraycopy(newChanges, 0, changes, failedChanges.length, newChanges.length);
+        failedChanges = null;
+        failedChangeCount = 0;
+        return changes;
+    }
+
+    /**
+     * Returns whether the changes of a write that failed should be written again now, without waiting for more
+     * changes. Must be called while holding the lock.
+     * 
+     * @return <code>true</code> if a write failed and a flush was requested since
+     */
+    private boolean isRetryRequested() {
+        return failedChanges != null && isFlushRequested;
+    }
+
+    /**
+     * Returns whether any changes are being held, or a commit of partial changes. Must be called while holding the
+     * lock.
+     * 
+     * @return <code>true</code> if any changes or a commit are being held
+     */
+    private boolean hasPendingChanges() {
+        return !pendingChanges.isEmpty() || isCommitPending;
+    }
+
+    /**
+     * Notes that another batch of changes is being handed over. Must be called while holding the lock.
+     */
+    private void markChangesPending() {
+        if (!hasPendingChanges()) {
+            oldestPendingChangeTime = System.nanoTime();
+        }
+
+        submittedBatchCount++;
+    }
+
+    /**
+     * Throws the failure of the last write, if it failed and has not been reported yet, so that it is only reported
+     * once. Must be called while holding the lock.
+     * 
+     * @throws IOException If the last write failed
+     */
+    private void throwEarlierFailure() throws IOException {
+        Exception reportedFailure = failure;
+        failure = null;
+
+        if (reportedFailure instanceof IOException) {
+            throw (IOException) reportedFailure;
+        } else if (reportedFailure != null) {
+            throw new IOException("Duke could not save its data", reportedFailure);
+        }
+    }
+
+    /**
+     * Waits on the lock until notified or interrupted. Must be called while holding the lock.
+     */
+    private void waitUninterruptibly() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            //Waiting resumes, since held changes must still be written
+        }
+    }
+}
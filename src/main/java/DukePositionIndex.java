@@ -0,0 +1,206 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An order-statistics index over the rows of a list, telling which row is at each position of the list and at which
+ * position each row is. Rows are given out in ascending order and elements are only ever added at the end of the
+ * list, so the list is always in order of its rows, and the position of a row is simply the number of rows before it
+ * still in the list.
+ * 
+ * <p>Those numbers are kept in a Fenwick tree over the rows, in which each slot counts the rows still in the list in
+ * a range of rows ending at it. Finding the row at a position, finding the position of a row and removing a row then
+ * each take O(log n) time, rather than shifting every row after a removed one along an array. Removing many rows at
+ * once rebuilds the tree in a single O(n) pass instead, when that is cheaper.</p>
+ */
+public class DukePositionIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    //The Fenwick tree, where slot i counts the rows left in the list among the rows from i - (i & -i) up to i - 1
+    private int[] counts;
+    private BitSet rowsInList;
+    private int rowCount;
+    private int size;
+
+    /**
+     * Creates a new <code>DukePositionIndex</code> for an empty list.
+     */
+    public DukePositionIndex() {
+        this(0);
+    }
+
+    /**
+     * Creates a new <code>DukePositionIndex</code> for a list holding its first rows, in O(n) time.
+     * 
+     * @param rowCount The number of rows, all of which are in the list
+     */
+    public DukePositionIndex(int rowCount) {
+        this.counts = new int[Math.max(rowCount, INITIAL_CAPACITY) + 1];
+        this.rowsInList = new BitSet(rowCount);
+        this.rowCount = rowCount;
+        this.size = rowCount;
+
+        rowsInList.set(0, rowCount);
+        rebuild();
+    }
+
+    /**
+     * Adds the next row to the end of the list.
+     * 
+     * @return The row added, which is after every row given out before
+     */
+    public int addRow() {
+        if (rowCount + 1 >= counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+
+        //The new slot counts its own row and the rows left in the range before it that it covers
+        int slot = rowCount + 1;
+        counts[slot] = 1 + countBefore(slot - 1) - countBefore(slot - (slot & -slot));
+        rowsInList.set(rowCount);
+        size++;
+        return rowCount++;
+    }
+
+    /**
+     * Removes a row from the list, moving every row after it forward by one position.
+     * 
+     * @param row The row, which must be in the list
+     */
+    public void removeRow(int row) {
+        rowsInList.clear(row);
+        size--;
+
+        for (int slot = row + 1; slot <= rowCount; slot += slot & -slot) {
+            counts[slot]--;
+        }
+    }
+
+    /**
+     * Removes several rows from the list at once, moving every row after them forward. Each row is removed in
+     * O(log n) time as by <code>removeRow</code>, unless there are enough of them that rebuilding the tree in a single
+     * O(n) pass is cheaper.
+     * 
+     * @param removedRows The rows, which must all be in the list, without repeats
+     */
+    public void removeRows(int[] removedRows) {
+        int depth = 32 - Integer.numberOfLeadingZeros(rowCount);
+        if ((long) removedRows.length * depth < rowCount) {
+            for (int row : removedRows) {
+                removeRow(row);
+            }
+            return;
+        }
+
+        for (int row : removedRows) {
+            rowsInList.clear(row);
+        }
+        size -= removedRows.length;
+        Arrays.fill(counts, 0);
+        rebuild();
+    }
+
+    /**
+     * Removes every row from the list. Rows given out afterwards start again from <code>0</code>.
+     */
+    public void clear() {
+        counts = new int[INITIAL_CAPACITY + 1];
+        rowsInList = new BitSet();
+        rowCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the row at a position of the list.
+     * 
+     * @param position The zero-indexed position, which must be in the list
+     * @return The row at the position
+     */
+    public int getRow(int position) {
+        int slot = 0;
+        int rowsLeft = position + 1;
+
+        //Descends the tree, skipping every range that ends before the row
+        for (int step = Integer.highestOneBit(Math.max(rowCount, 1)); step > 0; step >>= 1) {
+            if (slot + step <= rowCount && counts[slot + step] < rowsLeft) {
+                slot += step;
+                rowsLeft -= counts[slot];
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * Returns the position of a row in the list.
+     * 
+     * @param row The row
+     * @return The zero-indexed position of the row, or <code>-1</code> if it is not in the list
+     */
+    public int getPosition(int row) {
+        if (row < 0 || !rowsInList.get(row)) {
+            return -1;
+        }
+
+        return countBefore(row);
+    }
+
+    /**
+     * Returns the first row in the list at or after a given row, so that the list can be walked in order.
+     * 
+     * @param row The row to start from
+     * @return The first row in the list at or after it, or <code>-1</code> if there is none
+     */
+    public int getNextRow(int row) {
+        return rowsInList.nextSetBit(row);
+    }
+
+    /**
+     * Returns the number of rows given out so far, which is one more than the last row.
+     * 
+     * @return The number of rows given out
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of rows in the list.
+     * 
+     * @return The number of rows in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fills in the empty tree from the rows in the list in O(n) time, adding the count of each slot to the slot
+     * covering it once the count is complete.
+     */
+    private void rebuild() {
+        for (int i = 1; i <= rowCount; i++) {
+            if (rowsInList.get(i - 1)) {
+                counts[i]++;
+            }
+
+            int parent = i + (i & -i);
+            if (parent <= rowCount) {
+                counts[parent] += counts[i];
+            }
+        }
+    }
+
+    /**
+     * Counts the rows in the list before a row.
+     * 
+     * @param row The row
+     * @return The number of rows in the list before it
+     */
+    private int countBefore(int row) {
+        int count = 0;
+        for (int slot = row; slot > 0; slot -= slot & -slot) {
+            count += counts[slot];
+        }
+
+        return count;
+    }
+}
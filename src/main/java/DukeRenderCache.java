@@ -0,0 +1,74 @@
+import java.util.Arrays;
+
+/**
+ * A cache of the lines shown for the rows of a <code>TaskList</code>, so that showing the same <code>Tasks</code>
+ * again does not create and format them again. Each row is kept in the one slot picked out by its lowest bits, over
+ * any row already kept there, so the cache never holds more than a fixed number of lines however long the list is,
+ * and finding a line takes no more than one comparison.
+ * 
+ * <p>A line is kept without the position of its <code>Task</code>, which changes whenever an earlier
+ * <code>Task</code> is deleted. The line of a row must be invalidated whenever the <code>Task</code> in it is
+ * changed or deleted.</p>
+ */
+public class DukeRenderCache {
+    private final int mask;
+
+    //Each slot holds one more than the row whose line it keeps, or 0 if it is empty
+    private final int[] keys;
+    private final String[] lines;
+
+    /**
+     * Creates a new, empty <code>DukeRenderCache</code>.
+     * 
+     * @param capacity The number of lines the cache can keep, which must be a power of two
+     */
+    public DukeRenderCache(int capacity) {
+        this.mask = capacity - 1;
+        this.keys = new int[capacity];
+        this.lines = new String[capacity];
+    }
+
+    /**
+     * Returns the line kept for a row.
+     * 
+     * @param row The row
+     * @return The line, or <code>null</code> if none is kept
+     */
+    public String get(int row) {
+        int slot = row & mask;
+        return (keys[slot] == row + 1) ? lines[slot] : null;
+    }
+
+    /**
+     * Keeps the line of a row, in place of the line of any other row sharing its slot.
+     * 
+     * @param row The row
+     * @param line The line
+     */
+    public void put(int row, String line) {
+        int slot = row & mask;
+        keys[slot] = row + 1;
+        lines[slot] = line;
+    }
+
+    /**
+     * Drops the line kept for a row, if there is one.
+     * 
+     * @param row The row
+     */
+    public void invalidate(int row) {
+        int slot = row & mask;
+        if (keys[slot] == row + 1) {
+            keys[slot] = 0;
+            lines[slot] = null;
+        }
+    }
+
+    /**
+     * Drops every line kept.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(lines, null);
+    }
+}
@@ -2,22 +2,97 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InvalidClassException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * A class that handles saving and loading of Duke's data to and from the disk.
+ * A class that handles saving and loading of Duke's data to and from the disk. Both lists are saved together in a
+ * single <code>DukeStoreFile</code> snapshot, plus a single journal of the changes made to either list since that
+ * snapshot, so that saving costs as much as the change rather than the lists. The changes made by a command, or by a
+ * burst of commands, are appended together as one commit, so that a single forced write saves them whichever lists
+ * they touch. Once the journal grows too long it is sealed, a new journal is started, and the sealed journal is
+ * rolled into a new snapshot on a background thread. Loading replays the sealed journal, if any, and then the current
+ * one over the snapshot; the generation numbers in the entries make replaying an entry the snapshot already holds
+ * harmless. Both are written in the binary format of <code>DukeBinaryCodec</code>. The <code>TaskList</code> segment
+ * of the snapshot is mapped into memory rather than read, so that even a very long list loads at once.
+ * 
+ * <p>A <code>DukeTaskIndex</code> of the <code>TaskList</code> segment is saved next to the snapshot whenever the
+ * snapshot is written, and is mapped along with it when the <code>TaskList</code> is loaded. An index that is
+ * missing, damaged, or left behind by an older snapshot is not used, and is rebuilt by
+ * <code>rebuildSavedTaskIndex</code> in the background instead.</p>
+ * 
+ * <p>Save files written by older versions of Duke, which kept each list in a snapshot and journal of its own, are
+ * moved into the store the first time they are loaded, and then deleted.</p>
+ * 
+ * <p>Setting the system property <code>duke.storage.compressed</code> to <code>true</code> saves smaller snapshots
+ * instead, for save directories on slow or shared disks. The <code>TaskList</code> is then saved as a
+ * <code>DukeCompressedTaskFile</code>, and each block of the <code>NoteList</code> is compressed. Snapshots in
+ * either form are loaded whatever the property is set to.</p>
+ * 
+ * <p>Each snapshot is written through <code>DukeAtomicFile</code> to a file of its own, numbered one higher than the
+ * last, and loading reads the highest-numbered one. A file that is still mapped by a loaded list cannot be replaced
+ * or deleted on Windows, so a snapshot is never written over, and older snapshots are deleted once they can be.
+ * Journal appends are forced to the disk, so a crash never leaves a half-written save behind. Everything is
+ * checksummed, and a damaged part of a save is replaced by a "Forgive Me" placeholder while every intact part is
+ * kept.</p>
  */
 public class DukeSaveLoad {
+    public static final String COMPRESSED_PROPERTY = "duke.storage.compressed";
+
+    private static final String STORE_FILE_NAME = "Duke.store";
+    private static final String JOURNAL_FILE_NAME = "Duke.journal";
+    private static final String INDEX_FILE_NAME = "Duke.index";
+    private static final String SEALED_JOURNAL_SUFFIX = ".sealed";
+
+    //Save files written by older versions of Duke, which are moved into the store
     private static final String TASKLIST_FILE_NAME = "TaskList.tl";
     private static final String NOTELIST_FILE_NAME = "NoteList.nl";
-    
+    private static final String TASKLIST_JOURNAL_FILE_NAME = "TaskList.tlj";
+    private static final String NOTELIST_JOURNAL_FILE_NAME = "NoteList.nlj";
+
+    //The number of journal entries after which the journal is sealed and rolled into a new snapshot
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 1000;
+
+    //The number of bytes needed to tell which format a save file is in
+    private static final int FILE_START_LENGTH = 6;
+
+    private final File saveDirectory;
+    private final DukeJournal journal;
+    private final DukeJournal sealedJournal;
     private final File taskListSaveFile;
     private final File noteListSaveFile;
+    private final File[] legacyJournalFiles;
+    private final boolean isCompressed;
+
+    //Guards loading and replacing the store, and every field below
+    private final Object storeLock = new Object();
+
+    //The store and journal entries read for the lists being loaded, shared so that both lists are loaded from the
+    //same saved data, and the journal is read before anything more is appended to it
+    private DukeStoreFile loadedStore;
+    private long loadedStoreNumber = -1;
+    private List<DukeJournalEntry> loadedEntries;
+    private boolean isLoadedStoreCorrupted = false;
+    private boolean isTaskListLoaded = false;
+    private boolean isNoteListLoaded = false;
+
+    //The generation of the newest index saved by this DukeSaveLoad, so that an index of an older snapshot never
+    //replaces it
+    private long savedIndexGeneration = -1;
+
+    //The background thread rolling the sealed journal into a new snapshot, if running, and the failure of the last
+    //rollup, if it failed
+    private volatile Thread rollup;
+    private volatile Exception rollupFailure;
 
     /**
      * Creates a new <code>DukeSaveLoad</code> with a reference to a saveFile in the same directory.
@@ -26,46 +101,548 @@ public class DukeSaveLoad {
      * @throws IOException If an IOException occured
      */
     public DukeSaveLoad() throws NullPointerException, IOException {
-        this.taskListSaveFile = new File(System.getProperty("user.dir") + "/" + TASKLIST_FILE_NAME);
-        this.noteListSaveFile = new File(System.getProperty("user.dir") + "/" + NOTELIST_FILE_NAME);
+        this(new File(System.getProperty("user.dir")));
+    }
 
-        if (!taskListSaveFile.exists()) {
-            taskListSaveFile.createNewFile();
+    /**
+     * Creates a new <code>DukeSaveLoad</code> with a reference to save files in the given directory. The files are
+     * created when first saved to.
+     * 
+     * @param saveDirectory The directory holding the save files
+     * @throws NullPointerException When the <code>saveDirectory</code> is <code>null</code>
+     * @throws IOException If an IOException occured
+     */
+    public DukeSaveLoad(File saveDirectory) throws NullPointerException, IOException {
+        this.saveDirectory = saveDirectory;
+        this.journal = new DukeJournal(new File(saveDirectory, JOURNAL_FILE_NAME));
+        this.sealedJournal = new DukeJournal(new File(saveDirectory, JOURNAL_FILE_NAME + SEALED_JOURNAL_SUFFIX));
+        this.taskListSaveFile = new File(saveDirectory, TASKLIST_FILE_NAME);
+        this.noteListSaveFile = new File(saveDirectory, NOTELIST_FILE_NAME);
+        this.legacyJournalFiles = new File[] {
+            new File(saveDirectory, TASKLIST_JOURNAL_FILE_NAME),
+            new File(saveDirectory, NOTELIST_JOURNAL_FILE_NAME),
+            new File(saveDirectory, TASKLIST_JOURNAL_FILE_NAME + SEALED_JOURNAL_SUFFIX),
+            new File(saveDirectory, NOTELIST_JOURNAL_FILE_NAME + SEALED_JOURNAL_SUFFIX)
+        };
+        this.isCompressed = Boolean.getBoolean(COMPRESSED_PROPERTY);
+    }
+
+    /**
+     * Attempts to save the changes made to both lists since they were last saved. The changes are appended to the
+     * journal as a single commit, unless the journal has grown long enough that it is compacted into a new snapshot
+     * instead.
+     * 
+     * @param tasks The <code>TaskList</code> we aim to save
+     * @param notes The <code>NoteList</code> we aim to save
+     * @throws FileNotFoundException If a save file does not exist and cannot be created, or cannot be opened
+     * @throws IOException When an IOException occurs
+     * @throws SecurityException If a security manager exists and its <code>checkWrite</code> method denies
+     *                           write access to the file
+     */
+    public void attemptSave(TaskList tasks, NoteList notes)
+            throws FileNotFoundException, IOException, SecurityException {
+        List<DukeJournalEntry> changes = new ArrayList<>(tasks.drainChanges());
+        changes.addAll(notes.drainChanges());
+
+        if (journal.getEntryCount() + changes.size() > JOURNAL_COMPACTION_THRESHOLD) {
+            //A rollup finishing later would replace this newer snapshot with an older one
+            awaitRollup(rollup);
+            synchronized (storeLock) {
+                saveStore(tasks, notes);
+            }
+            journal.clear();
+            sealedJournal.clear();
+        } else {
+            journal.append(changes);
         }
+    }
 
-        if (!noteListSaveFile.exists()) {
-            noteListSaveFile.createNewFile();
+    /**
+     * Saves changes to either list that were already encoded by <code>DukeJournal.encode</code>, so that the lists
+     * themselves are not needed. The changes are appended as a single commit, with a single forced write. Once the
+     * journal has grown long enough, it is sealed and rolled into a new snapshot in the background, built from the
+     * saved data alone. Meant to be called from a background thread while the lists are still in use.
+     * 
+     * @param encodedChanges The encoded changes, in the order they were made
+     * @param changeCount The number of changes encoded
+     * @throws IOException When an IOException occurs
+     */
+    public void saveEncodedChanges(byte[] encodedChanges, int changeCount) throws IOException {
+        saveEncodedChanges(encodedChanges, changeCount, true);
+    }
+
+    /**
+     * Saves changes to either list that were already encoded by <code>DukeJournal.encode</code>, committing them
+     * along with any uncommitted changes saved before them, or leaving them uncommitted to be committed by a later
+     * call. Uncommitted changes are not forced to the disk, and are lost if Duke stops before they are committed.
+     * 
+     * @param encodedChanges The encoded changes, in the order they were made
+     * @param changeCount The number of changes encoded, which may be zero when committing earlier changes
+     * @param isCommitted Whether to commit the changes
+     * @throws IOException When an IOException occurs
+     */
+    public void saveEncodedChanges(byte[] encodedChanges, int changeCount, boolean isCommitted) throws IOException {
+        //A failed rollup leaves the sealed journal in place, so appending to the live journal is still safe
+        journal.appendEncoded(encodedChanges, changeCount, isCommitted);
+
+        //The journal is only sealed between commits, so that a commit is never split across two journals
+        if (isCommitted && journal.getEntryCount() > JOURNAL_COMPACTION_THRESHOLD) {
+            startRollup();
         }
     }
 
     /**
-     * Attempts to serialize and save the <code>TaskList</code>.
+     * Seals the journal and starts rolling it into a new snapshot in the background, unless a rollup is already
+     * running. A journal left sealed by an earlier run of Duke, or by a rollup that failed, is rolled up first,
+     * before another is sealed.
      * 
-     * @param tasks The <code>TaskList</code> we aim to serialize and save
-     * @throws FileNotFoundException If saveFile does not exist and cannot be created, or cannot be opened
      * @throws IOException When an IOException occurs
-     * @throws SecurityException If a security manager exists and its <code>checkWrite</code> method denies 
-     *                           write access to the file
      */
-    public void attemptSaveTaskList(TaskList tasks) throws FileNotFoundException, IOException, SecurityException {
-        FileOutputStream fileOutputStream = new FileOutputStream(taskListSaveFile);
-        ObjectOutputStream objOutputStream = new ObjectOutputStream(fileOutputStream);
+    private synchronized void startRollup() throws IOException {
+        if (rollup != null && rollup.isAlive()) {
+            return;
+        }
+
+        rollupFailure = null;
+
+        if (!sealedJournal.exists()) {
+            journal.moveTo(sealedJournal);
+        }
 
-        objOutputStream.writeObject(tasks);
+        rollup = new Thread(() -> {
+            try {
+                synchronized (storeLock) {
+                    long storeNumber = findStoreNumber();
+                    DukeStoreFile store = null;
+                    boolean isStoreCorrupted = false;
 
-        objOutputStream.close();
-        fileOutputStream.close();
+                    try {
+                        store = (storeNumber >= 0) ? DukeStoreFile.open(getStoreFile(storeNumber)) : null;
+                    } catch (BufferUnderflowException | IllegalArgumentException e) {
+                        isStoreCorrupted = true;
+                    }
+
+                    try {
+                        List<DukeJournalEntry> sealedEntries = sealedJournal.readEntries();
+                        TaskList rolledUpTaskList = readStoredTaskList(store, isStoreCorrupted);
+                        NoteList rolledUpNoteList = readStoredNoteList(store, isStoreCorrupted);
+                        replay(sealedEntries, rolledUpTaskList);
+                        replay(sealedEntries, rolledUpNoteList);
+                        saveStore(rolledUpTaskList, rolledUpNoteList);
+                    } finally {
+                        if (store != null) {
+                            store.close();
+                        }
+                    }
+
+                    sealedJournal.clear();
+                }
+            } catch (IOException | RuntimeException e) {
+                //The sealed journal is kept, so nothing is lost, and the rollup is retried once the journal is next
+                //long enough, or by the next run of Duke
+                e.printStackTrace();
+                rollupFailure = e;
+            }
+        }, "Duke rollup");
+        rollup.setDaemon(true);
+        rollup.start();
     }
 
     /**
-     * Attempts to generate a <code>TaskList</code> by reading saved data.
+     * Attempts to generate a <code>TaskList</code> by reading the saved snapshot and replaying the journals over it.
      * 
      * @return A <code>TaskList</code> generated from saved data, or an empty <code>TaskList</code> otherwise
-     * @throws FileNotFoundException If taskListSaveFile does not exist and cannot be created, or cannot be opened
+     * @throws FileNotFoundException If a save file does not exist and cannot be created, or cannot be opened
      * @throws IOException When I/O error occurs when reading Stream header
      * @throws ClassNotFoundException When <code>TaskList</code> class cannot be found
      */
     public TaskList attemptLoadTaskList() throws FileNotFoundException, IOException, ClassNotFoundException {
+        synchronized (storeLock) {
+            if (isTaskListLoaded) {
+                //The saved data may have changed since it was read
+                releaseLoadedStore();
+            }
+
+            loadStore();
+            TaskList tasks = readStoredTaskList(loadedStore, isLoadedStoreCorrupted);
+            loadSavedTaskIndex(tasks);
+            replay(loadedEntries, tasks);
+
+            isTaskListLoaded = true;
+            if (isNoteListLoaded) {
+                releaseLoadedStore();
+            }
+
+            //Replayed changes are already in the journal
+            tasks.drainChanges();
+            return tasks;
+        }
+    }
+
+    /**
+     * Attempts to generate a <code>NoteList</code> by reading the saved snapshot and replaying the journals over it.
+     * 
+     * @return A <code>NoteList</code> generated from saved data, or an empty <code>NoteList</code> otherwise
+     * @throws FileNotFoundException If a save file does not exist and cannot be created, or cannot be opened
+     * @throws IOException When I/O error occurs when reading Stream header
+     * @throws ClassNotFoundException When <code>NoteList</code> class cannot be found
+     */
+    public NoteList attemptLoadNoteList() throws FileNotFoundException, IOException, ClassNotFoundException {
+        synchronized (storeLock) {
+            if (isNoteListLoaded) {
+                //The saved data may have changed since it was read
+                releaseLoadedStore();
+            }
+
+            loadStore();
+            NoteList notes = readStoredNoteList(loadedStore, isLoadedStoreCorrupted);
+            replay(loadedEntries, notes);
+
+            isNoteListLoaded = true;
+            if (isTaskListLoaded) {
+                releaseLoadedStore();
+            }
+
+            //Replayed changes are already in the journal
+            notes.drainChanges();
+            return notes;
+        }
+    }
+
+    /**
+     * Builds and saves the index of the snapshot a <code>TaskList</code> was loaded from, if it could not be loaded
+     * along with the <code>TaskList</code>, and gives it to the <code>TaskList</code>. Meant to be called from a
+     * background thread while the list is in use, once its saved <code>Tasks</code> have been decoded ahead of time.
+     * 
+     * @param tasks The <code>TaskList</code> loaded by <code>attemptLoadTaskList</code>
+     * @throws IOException When an IOException occurs
+     */
+    public void rebuildSavedTaskIndex(TaskList tasks) throws IOException {
+        if (!tasks.needsSavedTaskIndex()) {
+            return;
+        }
+
+        DukeTaskIndex index = tasks.buildSavedTaskIndex();
+        if (index == null || !tasks.useSavedTaskIndex(index)) {
+            //The list was emptied in the meantime
+            return;
+        }
+
+        synchronized (storeLock) {
+            long storeNumber = findStoreNumber();
+            if (storeNumber >= 0 && index.getGeneration() > savedIndexGeneration) {
+                index.write(getIndexFile(storeNumber));
+                savedIndexGeneration = index.getGeneration();
+            }
+        }
+    }
+
+    /**
+     * Writes both lists to a new store file as a new snapshot, along with the index of the <code>TaskList</code>, and
+     * then deletes the older snapshots. Must be called while holding the store lock.
+     * 
+     * @param tasks The <code>TaskList</code> to be saved
+     * @param notes The <code>NoteList</code> to be saved
+     * @throws IOException When an IOException occurs
+     */
+    private void saveStore(TaskList tasks, NoteList notes) throws IOException {
+        long storeNumber = findStoreNumber() + 1;
+        DukeStoreFile.write(getStoreFile(storeNumber), tasks, notes, isCompressed);
+
+        DukeTaskIndex index = DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable());
+        index.write(getIndexFile(storeNumber));
+        savedIndexGeneration = index.getGeneration();
+
+        deleteOlderSnapshots(storeNumber);
+    }
+
+    /**
+     * Returns the number of the newest store file in the save directory.
+     * 
+     * @return The number of the newest store file, or -1 if there is none
+     */
+    private long findStoreNumber() {
+        String[] fileNames = saveDirectory.list();
+        long storeNumber = -1;
+
+        for (String fileName : (fileNames == null) ? new String[0] : fileNames) {
+            storeNumber = Math.max(storeNumber, getSnapshotNumber(fileName, STORE_FILE_NAME));
+        }
+
+        return storeNumber;
+    }
+
+    /**
+     * Deletes the store and index files older than the given store file. A file that cannot be deleted yet, such as
+     * one still mapped by a loaded list on Windows, is left to be deleted along with the next snapshot, or by the next
+     * run of Duke.
+     * 
+     * @param storeNumber The number of the newest store file
+     */
+    private void deleteOlderSnapshots(long storeNumber) {
+        String[] fileNames = saveDirectory.list();
+
+        for (String fileName : (fileNames == null) ? new String[0] : fileNames) {
+            long snapshotNumber = Math.max(getSnapshotNumber(fileName, STORE_FILE_NAME),
+                                           getSnapshotNumber(fileName, INDEX_FILE_NAME));
+            if (snapshotNumber >= 0 && snapshotNumber < storeNumber) {
+                new File(saveDirectory, fileName).delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the store file with the given number. The first store file keeps the name of the store, and each later
+     * one has its number appended.
+     * 
+     * @param storeNumber The number of the store file
+     * @return The store file
+     */
+    private File getStoreFile(long storeNumber) {
+        return new File(saveDirectory, (storeNumber == 0) ? STORE_FILE_NAME : STORE_FILE_NAME + "." + storeNumber);
+    }
+
+    /**
+     * Returns the file holding the index of the store file with the given number.
+     * 
+     * @param storeNumber The number of the store file
+     * @return The index file
+     */
+    private File getIndexFile(long storeNumber) {
+        return new File(saveDirectory, (storeNumber == 0) ? INDEX_FILE_NAME : INDEX_FILE_NAME + "." + storeNumber);
+    }
+
+    /**
+     * Returns the number of a store or index file from its name.
+     * 
+     * @param fileName The name of the file
+     * @param baseName The name of the first file of its kind
+     * @return The number of the file, or -1 if it is not a file of that kind
+     */
+    private static long getSnapshotNumber(String fileName, String baseName) {
+        if (fileName.equals(baseName)) {
+            return 0;
+        }
+
+        if (!fileName.startsWith(baseName + ".")) {
+            return -1;
+        }
+
+        try {
+            long number = Long.parseLong(fileName.substring(baseName.length() + 1));
+            return (number > 0) ? number : -1;
+        } catch (NumberFormatException e) {
+            //Not a numbered file, such as the temporary file of one being written
+            return -1;
+        }
+    }
+
+    /**
+     * Gives a <code>TaskList</code> loaded from the store the saved index of its snapshot, if there is one that is
+     * intact and was built from that snapshot.
+     * 
+     * @param tasks The <code>TaskList</code> read from the store
+     * @throws IOException When an IOException occurs
+     */
+    private void loadSavedTaskIndex(TaskList tasks) throws IOException {
+        File indexFile = getIndexFile(loadedStoreNumber);
+        if (!tasks.needsSavedTaskIndex() || loadedStoreNumber < 0 || !indexFile.exists()) {
+            return;
+        }
+
+        try {
+            tasks.useSavedTaskIndex(DukeTaskIndex.open(indexFile));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            //Index was corrupted, so it is rebuilt instead
+        }
+    }
+
+    /**
+     * Opens the store and reads both journals, unless they were already read for the other list. Save files written
+     * by older versions of Duke are moved into the store first. Must be called while holding the store lock.
+     * 
+     * @throws IOException When an IOException occurs
+     * @throws ClassNotFoundException When a list saved by an older version of Duke cannot be read
+     */
+    private void loadStore() throws IOException, ClassNotFoundException {
+        if (loadedEntries != null) {
+            return;
+        }
+
+        migrateLegacySaveFiles();
+        loadedStoreNumber = findStoreNumber();
+        deleteOlderSnapshots(loadedStoreNumber);
+
+        try {
+            loadedStore = (loadedStoreNumber >= 0) ? DukeStoreFile.open(getStoreFile(loadedStoreNumber)) : null;
+            isLoadedStoreCorrupted = false;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            //Store was corrupted
+            loadedStore = null;
+            isLoadedStoreCorrupted = true;
+        }
+
+        loadedEntries = new ArrayList<>(sealedJournal.readEntries());
+        loadedEntries.addAll(journal.readEntries());
+    }
+
+    /**
+     * Closes the store read by <code>loadStore</code>, so that it is read again for the next list loaded. Must be
+     * called while holding the store lock.
+     * 
+     * @throws IOException When an IOException occurs
+     */
+    private void releaseLoadedStore() throws IOException {
+        if (loadedStore != null) {
+            loadedStore.close();
+        }
+
+        loadedStore = null;
+        loadedStoreNumber = -1;
+        loadedEntries = null;
+        isTaskListLoaded = false;
+        isNoteListLoaded = false;
+    }
+
+    /**
+     * Opens the <code>TaskList</code> saved in the store.
+     * 
+     * @param store The opened store, or <code>null</code> if there is none
+     * @param isStoreCorrupted Whether the store exists but could not be opened
+     * @return The saved <code>TaskList</code>, or an empty <code>TaskList</code> if nothing was saved
+     * @throws IOException When an IOException occurs
+     */
+    private static TaskList readStoredTaskList(DukeStoreFile store, boolean isStoreCorrupted) throws IOException {
+        try {
+            if (isStoreCorrupted) {
+                throw new IllegalArgumentException("Corrupted store header");
+            }
+
+            return (store == null) ? new TaskList() : store.readTaskList();
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            //Save file was corrupted
+            TaskList tasks = new TaskList();
+            tasks.add(new ToDoTask("Forgive Me >__<"));
+            tasks.drainChanges();
+            return tasks; //moe~<3
+        }
+    }
+
+    /**
+     * Reads the <code>NoteList</code> saved in the store.
+     * 
+     * @param store The opened store, or <code>null</code> if there is none
+     * @param isStoreCorrupted Whether the store exists but could not be opened
+     * @return The saved <code>NoteList</code>, or an empty <code>NoteList</code> if nothing was saved
+     * @throws IOException When an IOException occurs
+     */
+    private static NoteList readStoredNoteList(DukeStoreFile store, boolean isStoreCorrupted) throws IOException {
+        try {
+            if (isStoreCorrupted) {
+                throw new IllegalArgumentException("Corrupted store header");
+            }
+
+            return (store == null) ? new NoteList() : store.readNoteList();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            //Save file was corrupted
+            NoteList notes = new NoteList();
+            notes.add("Forgive Me >__<");
+            notes.drainChanges();
+            return notes; //moe~<3
+        }
+    }
+
+    /**
+     * Moves the lists saved by an older version of Duke into the store, along with the changes in their journals, and
+     * then deletes the old save files. A crash partway through leaves the old save files in place, to be moved again,
+     * or leaves the store written, in which case the old save files are only deleted. Must be called while holding
+     * the store lock.
+     * 
+     * @throws IOException When an IOException occurs
+     * @throws ClassNotFoundException When a list saved by an older version of Duke cannot be read
+     */
+    private void migrateLegacySaveFiles() throws IOException, ClassNotFoundException {
+        List<File> legacyFiles = new ArrayList<>(Arrays.asList(legacyJournalFiles));
+        legacyFiles.add(taskListSaveFile);
+        legacyFiles.add(noteListSaveFile);
+
+        if (legacyFiles.stream().noneMatch(File::exists)) {
+            return;
+        }
+
+        if (findStoreNumber() < 0) {
+            TaskList tasks = loadLegacyTaskListSnapshot();
+            replay(new DukeJournal(legacyJournalFiles[2]).readEntries(), tasks);
+            replay(new DukeJournal(legacyJournalFiles[0]).readEntries(), tasks);
+
+            NoteList notes = loadLegacyNoteListSnapshot();
+            replay(new DukeJournal(legacyJournalFiles[3]).readEntries(), notes);
+            replay(new DukeJournal(legacyJournalFiles[1]).readEntries(), notes);
+
+            saveStore(tasks, notes);
+        }
+
+        for (File legacyFile : legacyFiles) {
+            //A file that cannot be deleted yet, such as one still mapped on Windows, is deleted by a later run
+            legacyFile.delete();
+        }
+    }
+
+    /**
+     * Attempts to generate a <code>TaskList</code> from a snapshot saved by an older version of Duke, in any of the
+     * formats it was saved in.
+     * 
+     * @return A <code>TaskList</code> generated from the snapshot, or an empty <code>TaskList</code> otherwise
+     * @throws FileNotFoundException If taskListSaveFile cannot be opened
+     * @throws IOException When I/O error occurs when reading the snapshot
+     * @throws ClassNotFoundException When <code>TaskList</code> class cannot be found
+     */
+    private TaskList loadLegacyTaskListSnapshot() throws FileNotFoundException, IOException, ClassNotFoundException {
+        if (!taskListSaveFile.exists()) {
+            return new TaskList();
+        }
+
+        ByteBuffer snapshot = readFileStart(taskListSaveFile);
+
+        if (!snapshot.hasRemaining()) {
+            //Initialising save data
+            return new TaskList();
+        }
+
+        if (DukeBinaryCodec.isJavaSerialized(snapshot)) {
+            return importJavaSerializedTaskList();
+        }
+
+        try {
+            if (DukeBinaryCodec.peekFileKind(snapshot) == DukeBinaryCodec.KIND_TASK_LIST) {
+                //Save data from before tasks were paged
+                return DukeBinaryCodec.readTaskList(ByteBuffer.wrap(Files.readAllBytes(taskListSaveFile.toPath())));
+            }
+
+            if (DukeBinaryCodec.peekFileKind(snapshot) == DukeBinaryCodec.KIND_COMPRESSED_TASK_LIST) {
+                return new TaskList(DukeCompressedTaskFile.open(taskListSaveFile));
+            }
+
+            return new TaskList(DukePagedTaskFile.open(taskListSaveFile));
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            //Save file was corrupted
+            TaskList tasks = new TaskList();
+            tasks.add(new ToDoTask("Forgive Me >__<"));
+            tasks.drainChanges();
+            return tasks; //moe~<3
+        }
+    }
+
+    /**
+     * Attempts to generate a <code>TaskList</code> from a snapshot saved by an older version of Duke through Java
+     * serialization.
+     * 
+     * @return A <code>TaskList</code> generated from the snapshot, or an empty <code>TaskList</code> otherwise
+     * @throws FileNotFoundException If taskListSaveFile does not exist and cannot be created, or cannot be opened
+     * @throws IOException When I/O error occurs when reading Stream header
+     * @throws ClassNotFoundException When <code>TaskList</code> class cannot be found
+     */
+    private TaskList importJavaSerializedTaskList() throws FileNotFoundException, IOException, ClassNotFoundException {
         try {
             FileInputStream fileInputStream = new FileInputStream(taskListSaveFile);
             ObjectInputStream objectInputStream = new ObjectInputStream(fileInputStream);
@@ -80,6 +657,7 @@ public class DukeSaveLoad {
             //Save file was corrupted
             TaskList tasks = new TaskList();
             tasks.add(new ToDoTask("Forgive Me >__<"));
+            tasks.drainChanges();
             return tasks; //moe~<3
         } catch (EOFException e) {
             //Initialising save data
@@ -91,33 +669,51 @@ public class DukeSaveLoad {
     }
 
     /**
-     * Attempts to serialize and save the <code>NoteList</code>.
+     * Attempts to generate a <code>NoteList</code> from a snapshot saved by an older version of Duke, in any of the
+     * formats it was saved in.
      * 
-     * @param notes The <code>NoteList</code> we aim to serialize and save
-     * @throws FileNotFoundException If noteListSaveFile does not exist and cannot be created, or cannot be opened
-     * @throws IOException When an IOException occurs
-     * @throws SecurityException If a security manager exists and its <code>checkWrite</code> method denies 
-     *                           write access to the file
+     * @return A <code>NoteList</code> generated from the snapshot, or an empty <code>NoteList</code> otherwise
+     * @throws FileNotFoundException If noteListSaveFile cannot be opened
+     * @throws IOException When I/O error occurs when reading the snapshot
+     * @throws ClassNotFoundException When <code>NoteList</code> class cannot be found
      */
-    public void attemptSaveNoteList(NoteList notes) throws FileNotFoundException, IOException, SecurityException {
-        FileOutputStream fileOutputStream = new FileOutputStream(noteListSaveFile);
-        ObjectOutputStream objOutputStream = new ObjectOutputStream(fileOutputStream);
+    private NoteList loadLegacyNoteListSnapshot() throws FileNotFoundException, IOException, ClassNotFoundException {
+        if (!noteListSaveFile.exists()) {
+            return new NoteList();
+        }
+
+        ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(noteListSaveFile.toPath()));
+
+        if (!snapshot.hasRemaining()) {
+            //Initialising save data
+            return new NoteList();
+        }
 
-        objOutputStream.writeObject(notes);
+        if (DukeBinaryCodec.isJavaSerialized(snapshot)) {
+            return importJavaSerializedNoteList();
+        }
 
-        objOutputStream.close();
-        fileOutputStream.close();
+        try {
+            return DukeBinaryCodec.readNoteList(snapshot);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            //Save file was corrupted
+            NoteList notes = new NoteList();
+            notes.add("Forgive Me >__<");
+            notes.drainChanges();
+            return notes; //moe~<3
+        }
     }
 
     /**
-     * Attempts to generate a <code>TaskList</code> by reading saved data.
+     * Attempts to generate a <code>NoteList</code> from a snapshot saved by an older version of Duke through Java
+     * serialization.
      * 
-     * @return A <code>TaskList</code> generated from saved data, or an empty <code>TaskList</code> otherwise
+     * @return A <code>NoteList</code> generated from the snapshot, or an empty <code>NoteList</code> otherwise
      * @throws FileNotFoundException If noteListSaveFile does not exist and cannot be created, or cannot be opened
      * @throws IOException When I/O error occurs when reading Stream header
      * @throws ClassNotFoundException When <code>NoteList</code> class cannot be found
      */
-    public NoteList attemptLoadNoteList() throws FileNotFoundException, IOException, ClassNotFoundException {
+    private NoteList importJavaSerializedNoteList() throws FileNotFoundException, IOException, ClassNotFoundException {
         try {
             FileInputStream fileInputStream = new FileInputStream(noteListSaveFile);
             ObjectInputStream objectInputStream = new ObjectInputStream(fileInputStream);
@@ -132,6 +728,7 @@ public class DukeSaveLoad {
             //Save file was corrupted
             NoteList notes = new NoteList();
             notes.add("Forgive Me >__<");
+            notes.drainChanges();
             return notes; //moe~<3
         } catch (EOFException e) {
             //Initialising save data
@@ -141,4 +738,107 @@ public class DukeSaveLoad {
             return new NoteList();
         }
     }
+
+    /**
+     * Reads just enough of the start of a save file to tell which format it is in.
+     * 
+     * @param saveFile The save file to read
+     * @return The start of the save file, which is empty if the file is
+     * @throws IOException When an IOException occurs
+     */
+    private static ByteBuffer readFileStart(File saveFile) throws IOException {
+        byte[] fileStart = new byte[FILE_START_LENGTH];
+
+        FileInputStream fileInputStream = new FileInputStream(saveFile);
+        int length = fileInputStream.readNBytes(fileStart, 0, FILE_START_LENGTH);
+        fileInputStream.close();
+
+        return ByteBuffer.wrap(fileStart, 0, length);
+    }
+
+    /**
+     * Waits for every background rollup to finish.
+     * 
+     * @throws IOException If the last rollup failed
+     */
+    public void awaitRollups() throws IOException {
+        awaitRollup(rollup);
+        throwRollupFailure();
+    }
+
+    /**
+     * Waits for a background rollup to finish.
+     * 
+     * @param rollup The rollup thread, which may be <code>null</code>
+     */
+    private static void awaitRollup(Thread rollup) {
+        boolean isInterrupted = false;
+
+        while (rollup != null && rollup.isAlive()) {
+            try {
+                rollup.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Throws the failure of the last background rollup, if it failed.
+     * 
+     * @throws IOException If the last rollup failed
+     */
+    private void throwRollupFailure() throws IOException {
+        Exception failure = rollupFailure;
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException("Duke could not roll up its journal", failure);
+        }
+    }
+
+    /**
+     * Replays the journal entries for a <code>TaskList</code> over it, skipping those it already holds.
+     * 
+     * @param entries The journal entries for either list, in the order they were made
+     * @param tasks The <code>TaskList</code> to replay the entries over
+     */
+    private static void replay(List<DukeJournalEntry> entries, TaskList tasks) {
+        for (DukeJournalEntry entry : entries) {
+            if (!entry.isTaskListChange()) {
+                continue;
+            }
+
+            try {
+                entry.applyTo(tasks);
+            } catch (DukeException e) {
+                //The entry no longer fits the snapshot, so it is skipped
+            }
+        }
+    }
+
+    /**
+     * Replays the journal entries for a <code>NoteList</code> over it, skipping those it already holds.
+     * 
+     * @param entries The journal entries for either list, in the order they were made
+     * @param notes The <code>NoteList</code> to replay the entries over
+     */
+    private static void replay(List<DukeJournalEntry> entries, NoteList notes) {
+        for (DukeJournalEntry entry : entries) {
+            if (entry.isTaskListChange()) {
+                continue;
+            }
+
+            try {
+                entry.applyTo(notes);
+            } catch (DukeException e) {
+                //The entry no longer fits the snapshot, so it is skipped
+            }
+        }
+    }
 }
@@ -0,0 +1,230 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Runs a script of commands, one to a line, through <code>UserInputProcessor</code> as if the user had typed them,
+ * and saves their changes together. Scripts are read a line at a time, so even a script of many thousands of lines
+ * is never held in memory whole.
+ * 
+ * <p>Typing commands one by one saves each of them on its own, whereas the changes made by a script are only handed
+ * to the <code>DukePersistenceWriter</code> at its end, to be saved in a single commit. A script can also be saved
+ * every <code>checkpointLines</code> lines, so that less of it is lost if Duke is killed while running it, which can
+ * be set through the system property <code>duke.script.checkpointLines</code>.</p>
+ * 
+ * <p>Blank lines, and lines starting with '#', are skipped. A line that fails does not stop the script, but is
+ * listed in its summary. A <code>bye</code> ends the script, but not Duke. A script running on another thread can be
+ * stopped through <code>stop</code>, and the lines run before then are still saved.</p>
+ */
+public class DukeScriptRunner {
+    public static final String CHECKPOINT_LINES_PROPERTY = "duke.script.checkpointLines";
+
+    //Saving only at the end of a script
+    private static final int DEFAULT_CHECKPOINT_LINES = 0;
+
+    //The most failed lines listed in the summary of a script
+    private static final int MAX_ERRORS_SHOWN = 20;
+
+    private final TaskList tasks;
+    private final NoteList notes;
+    private final DukePersistenceWriter persistenceWriter;
+    private final int checkpointLines;
+
+    //A script pages through its own listings, leaving those of the user's commands where they were
+    private final UserInputProcessor inputProcessor;
+
+    private int lineCount = 0;
+    private int errorCount = 0;
+    private int saveCount = 0;
+    private int byeLineNumber = 0;
+    private int stoppedLineNumber = 0;
+    private long elapsedNanos = 0;
+    private final StringBuilder shownErrors = new StringBuilder();
+
+    //Set by another thread to stop the script after the line being run
+    private volatile boolean isStopRequested = false;
+
+    /**
+     * Creates a new <code>DukeScriptRunner</code> saving at the checkpoint interval set in the system properties.
+     * 
+     * @param tasks The <code>TaskList</code> the script works on
+     * @param notes The <code>NoteList</code> the script works on
+     * @param persistenceWriter The <code>DukePersistenceWriter</code> to save the changes through
+     */
+    public DukeScriptRunner(TaskList tasks, NoteList notes, DukePersistenceWriter persistenceWriter) {
+        this(tasks, notes, persistenceWriter,
+             Integer.getInteger(CHECKPOINT_LINES_PROPERTY, DEFAULT_CHECKPOINT_LINES));
+    }
+
+    /**
+     * Creates a new <code>DukeScriptRunner</code>.
+     * 
+     * @param tasks The <code>TaskList</code> the script works on
+     * @param notes The <code>NoteList</code> the script works on
+     * @param persistenceWriter The <code>DukePersistenceWriter</code> to save the changes through
+     * @param checkpointLines The number of lines run between saves, or <code>0</code> to save only at the end
+     */
+    public DukeScriptRunner(TaskList tasks, NoteList notes, DukePersistenceWriter persistenceWriter,
+                            int checkpointLines) {
+        this.tasks = tasks;
+        this.notes = notes;
+        this.persistenceWriter = persistenceWriter;
+        this.checkpointLines = Math.max(checkpointLines, 0);
+        this.inputProcessor = new UserInputProcessor(persistenceWriter);
+    }
+
+    /**
+     * Runs every line of a script, and waits until their changes are saved. The changes made before a line that
+     * could not be read are still saved.
+     * 
+     * @param script The script, which is read to its end but not closed
+     * @param replyListener Given Duke's reply to each line that is run, along with its one-indexed line number
+     * @throws IOException If the script cannot be read, or the changes cannot be saved
+     */
+    public void run(BufferedReader script, ObjIntConsumer<String> replyListener) throws IOException {
+        long start = System.nanoTime();
+        int linesSinceCheckpoint = 0;
+        int lineNumber = 0;
+
+        try {
+            for (String line = script.readLine(); line != null; line = script.readLine()) {
+                if (isStopRequested) {
+                    stoppedLineNumber = lineNumber;
+                    break;
+                }
+
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                boolean shouldExit = false;
+                String reply;
+                try {
+                    DukeReply dukeReply = inputProcessor.processUserInput(line, tasks, notes);
+                    shouldExit = dukeReply.shouldExitLoop;
+                    reply = dukeReply.dukeReplyString;
+                } catch (DukeException e) {
+                    reply = e.getMessage();
+                    addError(lineNumber, reply);
+                }
+
+                lineCount++;
+                replyListener.accept(reply, lineNumber);
+
+                if (shouldExit) {
+                    byeLineNumber = lineNumber;
+                    break;
+                }
+
+                if (checkpointLines > 0 && ++linesSinceCheckpoint >= checkpointLines) {
+                    save();
+                    linesSinceCheckpoint = 0;
+                }
+            }
+        } finally {
+            save();
+            elapsedNanos = System.nanoTime() - start;
+        }
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice((errorCount == 0) ? DukeImageChoice.Wink
+                                                                         : DukeImageChoice.Sweat);
+    }
+
+    /**
+     * Asks the script to stop after the line being run, from another thread. The changes of the lines run are still
+     * saved before <code>run</code> returns.
+     */
+    public void stop() {
+        isStopRequested = true;
+    }
+
+    /**
+     * Returns the number of lines run, leaving out those skipped.
+     * 
+     * @return The number of lines run
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the number of lines that failed.
+     * 
+     * @return The number of lines that failed
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the number of lines run each second, counting the time taken to save them.
+     * 
+     * @return The number of lines run each second
+     */
+    public long getLinesPerSecond() {
+        return (elapsedNanos == 0) ? lineCount : (long) (lineCount * 1e9 / elapsedNanos);
+    }
+
+    /**
+     * Returns Duke's reply to the script as a whole, telling how many lines were run and how quickly, and listing
+     * the first lines that failed.
+     * 
+     * @param scriptName The name of the script, as the user gave it
+     * @return The summary of the script
+     */
+    public String getSummary(String scriptName) {
+        StringBuilder sb = new StringBuilder(String.format(DukeUi.FEEDBACK_SCRIPT, lineCount, scriptName,
+                                                           elapsedNanos / 1_000_000, getLinesPerSecond(),
+                                                           saveCount));
+
+        if (byeLineNumber > 0) {
+            sb.append(String.format(DukeUi.FEEDBACK_SCRIPT_BYE, byeLineNumber));
+        }
+
+        if (stoppedLineNumber > 0) {
+            sb.append(String.format(DukeUi.FEEDBACK_SCRIPT_STOPPED, stoppedLineNumber));
+        }
+
+        if (errorCount > 0) {
+            String errors = (errorCount > MAX_ERRORS_SHOWN)
+                            ? shownErrors + String.format(DukeUi.FEEDBACK_SCRIPT_MORE_ERRORS,
+                                                          errorCount - MAX_ERRORS_SHOWN)
+                            : shownErrors.substring(0, shownErrors.length() - 1);
+            sb.append(String.format(DukeUi.FEEDBACK_SCRIPT_ERRORS, errorCount, errors));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Counts a line that failed, keeping its message if it is among the first to fail.
+     * 
+     * @param lineNumber The one-indexed line number
+     * @param message Duke's reply to the line
+     */
+    private void addError(int lineNumber, String message) {
+        if (++errorCount <= MAX_ERRORS_SHOWN) {
+            shownErrors.append(String.format(DukeUi.FEEDBACK_SCRIPT_ERROR_LINE, lineNumber, message));
+        }
+    }
+
+    /**
+     * Hands every change made since the last save to the <code>DukePersistenceWriter</code> as one batch, and waits
+     * until it is written.
+     * 
+     * @throws IOException If the changes cannot be saved
+     */
+    private void save() throws IOException {
+        List<DukeJournalEntry> taskListChanges = tasks.drainChanges();
+        List<DukeJournalEntry> noteListChanges = notes.drainChanges();
+        if (taskListChanges.isEmpty() && noteListChanges.isEmpty()) {
+            return;
+        }
+
+        persistenceWriter.submitChanges(taskListChanges, noteListChanges);
+        persistenceWriter.flush();
+        saveCount++;
+    }
+}
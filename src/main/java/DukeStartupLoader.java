@@ -0,0 +1,181 @@
+import java.io.IOException;
+
+/**
+ * Loads Duke's saved lists on background threads, so that Duke can greet the user before any of its data is read.
+ * The <code>TaskList</code> and the <code>NoteList</code> are loaded on threads of their own, and each is handed over
+ * as soon as it is loaded, so a command only waits for the list it uses.
+ * 
+ * <p>Once the <code>TaskList</code> is handed over, its thread carries on decoding the saved <code>Tasks</code> in
+ * chunks of <code>PREWARM_CHUNK_SIZE</code>, so that listing or searching them later does not have to, and then
+ * rebuilds the index of the saved <code>Tasks</code> if it could not be loaded. Commands never wait for this, since
+ * a <code>Task</code> that has not been decoded yet is read on the spot, and searching works without the index.</p>
+ */
+public class DukeStartupLoader {
+    private static final int PREWARM_CHUNK_SIZE = 4096;
+
+    private final DukeSaveLoad dukeSaveLoad;
+    private final Thread taskListLoader;
+    private final Thread noteListLoader;
+
+    //Guards every field below, and is notified whenever any of them changes
+    private final Object lock = new Object();
+
+    private TaskList tasks;
+    private NoteList notes;
+    private Exception taskListFailure;
+    private Exception noteListFailure;
+    private boolean isPrewarmed = false;
+
+    /**
+     * Creates a new <code>DukeStartupLoader</code>.
+     * 
+     * @param dukeSaveLoad The <code>DukeSaveLoad</code> to load the lists through
+     */
+    public DukeStartupLoader(DukeSaveLoad dukeSaveLoad) {
+        this.dukeSaveLoad = dukeSaveLoad;
+        this.taskListLoader = new Thread(this::loadTaskList, "Duke TaskList loader");
+        this.taskListLoader.setDaemon(true);
+        this.noteListLoader = new Thread(this::loadNoteList, "Duke NoteList loader");
+        this.noteListLoader.setDaemon(true);
+    }
+
+    /**
+     * Starts loading both lists in the background.
+     */
+    public void start() {
+        taskListLoader.start();
+        noteListLoader.start();
+    }
+
+    /**
+     * Returns the <code>TaskList</code>, waiting for it to be loaded if needed. Its <code>Tasks</code> may still be
+     * decoded in the background.
+     * 
+     * @return The loaded <code>TaskList</code>
+     * @throws IOException If the <code>TaskList</code> could not be loaded
+     */
+    public TaskList awaitTaskList() throws IOException {
+        synchronized (lock) {
+            while (tasks == null && taskListFailure == null) {
+                waitUninterruptibly();
+            }
+
+            throwFailure(taskListFailure);
+            return tasks;
+        }
+    }
+
+    /**
+     * Returns the <code>NoteList</code>, waiting for it to be loaded if needed.
+     * 
+     * @return The loaded <code>NoteList</code>
+     * @throws IOException If the <code>NoteList</code> could not be loaded
+     */
+    public NoteList awaitNoteList() throws IOException {
+        synchronized (lock) {
+            while (notes == null && noteListFailure == null) {
+                waitUninterruptibly();
+            }
+
+            throwFailure(noteListFailure);
+            return notes;
+        }
+    }
+
+    /**
+     * Waits until both lists are loaded, and every saved <code>Task</code> has been decoded and indexed.
+     * 
+     * @throws IOException If either list could not be loaded
+     */
+    public void awaitPrewarm() throws IOException {
+        awaitNoteList();
+        awaitTaskList();
+
+        synchronized (lock) {
+            while (!isPrewarmed) {
+                waitUninterruptibly();
+            }
+        }
+    }
+
+    /**
+     * Loads the <code>TaskList</code>, hands it over, and then decodes and indexes its saved <code>Tasks</code>.
+     */
+    private void loadTaskList() {
+        TaskList loadedTasks;
+
+        try {
+            loadedTasks = dukeSaveLoad.attemptLoadTaskList();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            synchronized (lock) {
+                taskListFailure = e;
+                lock.notifyAll();
+            }
+            return;
+        }
+
+        synchronized (lock) {
+            tasks = loadedTasks;
+            lock.notifyAll();
+        }
+
+        try {
+            while (loadedTasks.prewarmNextChunk(PREWARM_CHUNK_SIZE)) {
+                //Each chunk is published to the list as soon as it is decoded
+            }
+
+            dukeSaveLoad.rebuildSavedTaskIndex(loadedTasks);
+        } catch (IOException e) {
+            //The index only speeds up searching, so Duke carries on without saving it, and tries again next time
+        } finally {
+            synchronized (lock) {
+                isPrewarmed = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Loads the <code>NoteList</code> and hands it over.
+     */
+    private void loadNoteList() {
+        try {
+            NoteList loadedNotes = dukeSaveLoad.attemptLoadNoteList();
+
+            synchronized (lock) {
+                notes = loadedNotes;
+                lock.notifyAll();
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            synchronized (lock) {
+                noteListFailure = e;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Throws the failure to load a list, if there was one.
+     * 
+     * @param failure The failure, which may be <code>null</code>
+     * @throws IOException If there was a failure
+     */
+    private static void throwFailure(Exception failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException("Duke could not load its data", failure);
+        }
+    }
+
+    /**
+     * Waits on the lock until notified or interrupted. Must be called while holding the lock.
+     */
+    private void waitUninterruptibly() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            //Waiting resumes, since there is nothing to go on with until the list is loaded
+        }
+    }
+}
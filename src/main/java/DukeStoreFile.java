@@ -0,0 +1,185 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A single file holding a snapshot of both of Duke's lists, so that they are always saved together. Replacing the
+ * file through <code>DukeAtomicFile</code> replaces both snapshots at once, and loading either list opens the one
+ * file.
+ * 
+ * <p>The file starts with a header of <code>HEADER_SIZE</code> bytes, holding the usual <code>DukeBinaryCodec</code>
+ * file header, the position and length of the tasks segment, the position and length of the notes segment, and a
+ * checksum of the header itself. The tasks segment holds a <code>DukePagedTaskFile</code> or a
+ * <code>DukeCompressedTaskFile</code>, so that its <code>Tasks</code> are still read as they are needed. The notes
+ * segment holds the blocks written by <code>DukeBinaryCodec.writeNoteList</code>. Each segment starts with its own
+ * file header, which tells which of these forms it is in.</p>
+ * 
+ * <p>An opened store keeps the file open until it is closed, so both lists are read from the same version of the
+ * file even if a newer one replaces it in the meantime.</p>
+ */
+public class DukeStoreFile {
+    public static final int HEADER_SIZE = 48;
+
+    private static final int TASK_SEGMENT_START_POSITION = 8;
+    private static final int TASK_SEGMENT_LENGTH_POSITION = 16;
+    private static final int NOTE_SEGMENT_START_POSITION = 24;
+    private static final int NOTE_SEGMENT_LENGTH_POSITION = 32;
+    private static final int HEADER_CHECKSUM_POSITION = 40;
+
+    //The number of bytes needed to tell which form a segment is in
+    private static final int SEGMENT_START_LENGTH = 6;
+
+    private final FileChannel channel;
+    private final long taskSegmentStart;
+    private final long taskSegmentLength;
+    private final long noteSegmentStart;
+    private final long noteSegmentLength;
+
+    /**
+     * Creates a new <code>DukeStoreFile</code> over the segments of an open file.
+     * 
+     * @param channel The open file
+     * @param taskSegmentStart The position of the tasks segment
+     * @param taskSegmentLength The length of the tasks segment
+     * @param noteSegmentStart The position of the notes segment
+     * @param noteSegmentLength The length of the notes segment
+     */
+    private DukeStoreFile(FileChannel channel, long taskSegmentStart, long taskSegmentLength, long noteSegmentStart,
+                          long noteSegmentLength) {
+        this.channel = channel;
+        this.taskSegmentStart = taskSegmentStart;
+        this.taskSegmentLength = taskSegmentLength;
+        this.noteSegmentStart = noteSegmentStart;
+        this.noteSegmentLength = noteSegmentLength;
+    }
+
+    /**
+     * Opens a file written by <code>write</code>. Only the header is read.
+     * 
+     * @param file The file to be opened
+     * @return The opened file, which must be closed once both lists are read
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the file is not a store, or its header is corrupted
+     */
+    public static DukeStoreFile open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = DukeBinaryCodec.readFully(channel, 0, HEADER_SIZE);
+
+            DukeBinaryCodec.readFileHeader(header, DukeBinaryCodec.KIND_STORE);
+            if (header.limit() < HEADER_SIZE
+                || header.getInt(HEADER_CHECKSUM_POSITION)
+                   != DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION)) {
+                throw new IllegalArgumentException("Corrupted store header");
+            }
+
+            long taskSegmentStart = header.getLong(TASK_SEGMENT_START_POSITION);
+            long taskSegmentLength = header.getLong(TASK_SEGMENT_LENGTH_POSITION);
+            long noteSegmentStart = header.getLong(NOTE_SEGMENT_START_POSITION);
+            long noteSegmentLength = header.getLong(NOTE_SEGMENT_LENGTH_POSITION);
+
+            if (taskSegmentStart < HEADER_SIZE || taskSegmentLength < 0 || noteSegmentStart < HEADER_SIZE
+                || noteSegmentLength < 0 || noteSegmentLength > Integer.MAX_VALUE
+                || taskSegmentStart + taskSegmentLength > channel.size()
+                || noteSegmentStart + noteSegmentLength > channel.size()) {
+                throw new IllegalArgumentException("Corrupted store header");
+            }
+
+            return new DukeStoreFile(channel, taskSegmentStart, taskSegmentLength, noteSegmentStart,
+                                     noteSegmentLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes both lists to a file in this format. The file is replaced through <code>DukeAtomicFile</code>, so a crash
+     * while writing leaves the old file intact. A file that is still mapped cannot be replaced on Windows, so
+     * <code>DukeSaveLoad</code> writes each snapshot to a new file instead.
+     * 
+     * @param file The file to be written
+     * @param tasks The <code>TaskList</code> to be written
+     * @param notes The <code>NoteList</code> to be written
+     * @param isCompressed Whether the segments are compressed
+     * @throws IOException When an IOException occurs
+     */
+    public static void write(File file, TaskList tasks, NoteList notes, boolean isCompressed) throws IOException {
+        FileChannel channel = DukeAtomicFile.openTemporary(file);
+
+        try {
+            long taskSegmentLength = isCompressed ? DukeCompressedTaskFile.write(channel, HEADER_SIZE, tasks)
+                                                  : DukePagedTaskFile.write(channel, HEADER_SIZE, tasks);
+
+            ByteArrayOutputStream noteBytes = new ByteArrayOutputStream();
+            DukeBinaryCodec.writeNoteList(new DataOutputStream(noteBytes), notes, isCompressed);
+            long noteSegmentStart = HEADER_SIZE + taskSegmentLength;
+            DukeBinaryCodec.writeFully(channel, noteSegmentStart, ByteBuffer.wrap(noteBytes.toByteArray()));
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(DukeBinaryCodec.MAGIC_NUMBER);
+            header.put((byte) DukeBinaryCodec.FORMAT_VERSION);
+            header.put(DukeBinaryCodec.KIND_STORE);
+            header.putLong(TASK_SEGMENT_START_POSITION, HEADER_SIZE);
+            header.putLong(TASK_SEGMENT_LENGTH_POSITION, taskSegmentLength);
+            header.putLong(NOTE_SEGMENT_START_POSITION, noteSegmentStart);
+            header.putLong(NOTE_SEGMENT_LENGTH_POSITION, noteBytes.size());
+            header.putInt(HEADER_CHECKSUM_POSITION, DukeBinaryCodec.getChecksum(header, 0, HEADER_CHECKSUM_POSITION));
+            header.rewind();
+            DukeBinaryCodec.writeFully(channel, 0, header);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        DukeAtomicFile.commitTemporary(channel, file);
+    }
+
+    /**
+     * Opens the <code>TaskList</code> saved in the tasks segment. Its <code>Tasks</code> are read as they are needed.
+     * 
+     * @return The saved <code>TaskList</code>
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the tasks segment is corrupted
+     */
+    public TaskList readTaskList() throws IOException {
+        ByteBuffer segmentStart = DukeBinaryCodec.readFully(channel, taskSegmentStart,
+                                            (int) Math.min(SEGMENT_START_LENGTH, taskSegmentLength));
+
+        if (DukeBinaryCodec.peekFileKind(segmentStart) == DukeBinaryCodec.KIND_COMPRESSED_TASK_LIST) {
+            return new TaskList(DukeCompressedTaskFile.open(channel, taskSegmentStart, taskSegmentLength));
+        }
+
+        return new TaskList(DukePagedTaskFile.open(channel, taskSegmentStart, taskSegmentLength));
+    }
+
+    /**
+     * Reads the <code>NoteList</code> saved in the notes segment, keeping the notes in every intact block.
+     * 
+     * @return The saved <code>NoteList</code>
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the first block of the notes segment is corrupted
+     * @throws java.nio.BufferUnderflowException If the notes segment ends unexpectedly
+     */
+    public NoteList readNoteList() throws IOException {
+        ByteBuffer noteSegment = DukeBinaryCodec.readFully(channel, noteSegmentStart, (int) noteSegmentLength);
+        return DukeBinaryCodec.readNoteList(noteSegment);
+    }
+
+    /**
+     * Closes the file. <code>Tasks</code> are still read from the <code>TaskList</code> read from it.
+     * 
+     * @throws IOException When an IOException occurs
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+
+
+}
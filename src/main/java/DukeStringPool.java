@@ -0,0 +1,325 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A pool of strings held as UTF-8 bytes, in which every distinct string is kept only once however many times it is
+ * added. Adding a string gives out a handle to it, and counts one more reference to it; releasing the handle counts
+ * one fewer, and once no reference is left the string is dropped from the pool. Users often add many
+ * <code>Tasks</code> and notes with the same text, such as "standup" or "weekly review", which then share one copy.
+ * 
+ * <p>Handles are looked up by the bytes of their strings in an open addressing hash table of plain <code>int</code>
+ * handles, so no boxed keys are ever made. The bytes of every string lie one after another in a single
+ * <code>byte[]</code>, and the bytes of dropped strings are only cleared out once they outnumber the bytes still in
+ * use. The handles of dropped strings are given out again to new strings.</p>
+ */
+public class DukeStringPool {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_BYTES_CAPACITY = 256;
+
+    //Marks a slot of the table that held a handle since dropped, so that the handles after it can still be found
+    private static final int REMOVED_SLOT = -1;
+
+    //Where the bytes of each handle lie, and how many references to it are left. A count of 0 marks a free handle.
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] referenceCounts = new int[INITIAL_CAPACITY];
+    private int handleCount = 0;
+    private int stringCount = 0;
+
+    //Handles that have been dropped, to be given out again
+    private int[] freeHandles = new int[INITIAL_CAPACITY];
+    private int freeHandleCount = 0;
+
+    //Each slot holds one more than a handle, 0 if it is empty, or REMOVED_SLOT
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int usedSlots = 0;
+
+    private byte[] bytes = new byte[INITIAL_BYTES_CAPACITY];
+    private int size = 0;
+    private int unusedBytes = 0;
+
+    /**
+     * Adds a reference to a string, putting it in the pool if it is not already there.
+     * 
+     * @param string The string
+     * @return The handle of the string
+     */
+    public int acquire(String string) {
+        byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+        return acquire(stringBytes, 0, stringBytes.length);
+    }
+
+    /**
+     * Adds a reference to a string held in another pool, without creating the string.
+     * 
+     * @param source The pool holding the string
+     * @param handle The handle of the string in that pool
+     * @return The handle of the string in this pool
+     */
+    public int acquire(DukeStringPool source, int handle) {
+        return acquire(source.bytes, source.starts[handle], source.lengths[handle]);
+    }
+
+    /**
+     * Adds a reference to a string given by its UTF-8 bytes, putting it in the pool if it is not already there.
+     * 
+     * @param source The bytes holding the string
+     * @param start The start of the string in them
+     * @param length The length of the string, in bytes
+     * @return The handle of the string
+     */
+    public int acquire(byte[] source, int start, int length) {
+        int slot = findSlot(source, start, length);
+        if (table[slot] > 0) {
+            referenceCounts[table[slot] - 1]++;
+            return table[slot] - 1;
+        }
+
+        int handle = (freeHandleCount > 0) ? freeHandles[--freeHandleCount] : handleCount++;
+        if (handle >= starts.length) {
+            int capacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            referenceCounts = Arrays.copyOf(referenceCounts, capacity);
+        }
+
+        starts[handle] = append(source, start, length);
+        lengths[handle] = length;
+        referenceCounts[handle] = 1;
+        stringCount++;
+
+        if (table[slot] == 0) {
+            usedSlots++;
+        }
+        table[slot] = handle + 1;
+
+        if (usedSlots * 2 > table.length) {
+            rehash();
+        }
+
+        return handle;
+    }
+
+    /**
+     * Removes a reference to a string, dropping it from the pool if no reference to it is left.
+     * 
+     * @param handle The handle of the string, which must still be held
+     */
+    public void release(int handle) {
+        if (--referenceCounts[handle] > 0) {
+            return;
+        }
+
+        table[findSlot(bytes, starts[handle], lengths[handle])] = REMOVED_SLOT;
+        unusedBytes += lengths[handle];
+        stringCount--;
+
+        if (freeHandleCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeHandleCount * 2);
+        }
+        freeHandles[freeHandleCount++] = handle;
+    }
+
+    /**
+     * Drops every string from the pool.
+     */
+    public void clear() {
+        starts = new int[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        referenceCounts = new int[INITIAL_CAPACITY];
+        handleCount = 0;
+        stringCount = 0;
+        freeHandles = new int[INITIAL_CAPACITY];
+        freeHandleCount = 0;
+        table = new int[INITIAL_CAPACITY * 2];
+        usedSlots = 0;
+        bytes = new byte[INITIAL_BYTES_CAPACITY];
+        size = 0;
+        unusedBytes = 0;
+    }
+
+    /**
+     * Creates the string held under a handle. Each call creates a new <code>String</code>, which is not kept.
+     * 
+     * @param handle The handle of the string, which must still be held
+     * @return The string
+     */
+    public String getString(int handle) {
+        return new String(bytes, starts[handle], lengths[handle], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of references left to a string.
+     * 
+     * @param handle The handle of the string
+     * @return The number of references, or <code>0</code> if the string has been dropped
+     */
+    public int getReferenceCount(int handle) {
+        return referenceCounts[handle];
+    }
+
+    /**
+     * Returns the number of distinct strings in the pool.
+     * 
+     * @return The number of distinct strings
+     */
+    public int size() {
+        return stringCount;
+    }
+
+    /**
+     * Returns the number of bytes taken up by the distinct strings in the pool.
+     * 
+     * @return The number of bytes in use
+     */
+    public int getByteCount() {
+        return size - unusedBytes;
+    }
+
+    /**
+     * Returns whether a string contains a search term, as <code>Task.descriptionContainsTerm</code> would, by
+     * comparing their UTF-8 bytes without creating the string.
+     * 
+     * @param handle The handle of the string, which must still be held
+     * @param searchTerm The UTF-8 bytes of the search term
+     * @return <code>true</code> if the string contains the search term
+     */
+    public boolean contains(int handle, byte[] searchTerm) {
+        int start = starts[handle];
+        int lastStart = start + lengths[handle] - searchTerm.length;
+
+        for (int from = start; from <= lastStart; from++) {
+            int matched = 0;
+            while (matched < searchTerm.length && bytes[from + matched] == searchTerm[matched]) {
+                matched++;
+            }
+
+            if (matched == searchTerm.length) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the slot of the table holding the handle of a string, or the slot its handle would be put in, which is
+     * the first slot that is empty or held a dropped handle.
+     * 
+     * @param source The bytes holding the string
+     * @param start The start of the string in them
+     * @param length The length of the string, in bytes
+     * @return The slot
+     */
+    private int findSlot(byte[] source, int start, int length) {
+        int mask = table.length - 1;
+        int slot = getHash(source, start, length) & mask;
+        int firstRemovedSlot = -1;
+
+        while (table[slot] != 0) {
+            if (table[slot] == REMOVED_SLOT) {
+                firstRemovedSlot = (firstRemovedSlot < 0) ? slot : firstRemovedSlot;
+            } else if (isEqual(table[slot] - 1, source, start, length)) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return (firstRemovedSlot < 0) ? slot : firstRemovedSlot;
+    }
+
+    /**
+     * Returns whether the string held under a handle has the given bytes.
+     * 
+     * @param handle The handle
+     * @param source The bytes holding the other string
+     * @param start The start of the other string in them
+     * @param length The length of the other string, in bytes
+     * @return <code>true</code> if the bytes are the same
+     */
+    private boolean isEqual(int handle, byte[] source, int start, int length) {
+        return lengths[handle] == length
+               && Arrays.equals(bytes, starts[handle], starts[handle] + length, source, start, start + length);
+    }
+
+    /**
+     * Returns the hash of the bytes of a string.
+     * 
+     * @param source The bytes holding the string
+     * @param start The start of the string in them
+     * @param length The length of the string, in bytes
+     * @return The hash
+     */
+    private static int getHash(byte[] source, int start, int length) {
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + source[i];
+        }
+
+        //Spreads the hash, so that strings differing only in their last bytes still land far apart
+        return hash * 0x9E3779B9 ^ (hash >>> 16);
+    }
+
+    /**
+     * Puts the handle of every string still held into a table sized for them, leaving out the slots of dropped
+     * handles.
+     */
+    private void rehash() {
+        int capacity = Integer.highestOneBit(Math.max(stringCount, INITIAL_CAPACITY)) * 4;
+        table = new int[capacity];
+        usedSlots = 0;
+
+        for (int handle = 0; handle < handleCount; handle++) {
+            if (referenceCounts[handle] > 0) {
+                table[findSlot(bytes, starts[handle], lengths[handle])] = handle + 1;
+                usedSlots++;
+            }
+        }
+    }
+
+    /**
+     * Appends the bytes of a string, first clearing out the bytes of dropped strings if they have come to outnumber
+     * those in use.
+     * 
+     * @param source The bytes holding the string
+     * @param start The start of the string in them
+     * @param length The length of the string, in bytes
+     * @return The start of the string in the pool
+     */
+    private int append(byte[] source, int start, int length) {
+        if (unusedBytes > INITIAL_BYTES_CAPACITY && unusedBytes * 2 > size) {
+            compact();
+        }
+
+        if (size + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+        }
+
+        System.arraycopy(source, start, bytes, size, length);
+        size += length;
+        return size - length;
+    }
+
+    /**
+     * Moves the bytes of the strings still held to the front of the pool, in order of their handles.
+     */
+    private void compact() {
+        byte[] compactedBytes = new byte[Math.max(size - unusedBytes, INITIAL_BYTES_CAPACITY)];
+        int compactedSize = 0;
+
+        for (int handle = 0; handle < handleCount; handle++) {
+            if (referenceCounts[handle] == 0) {
+                continue;
+            }
+
+            System.arraycopy(bytes, starts[handle], compactedBytes, compactedSize, lengths[handle]);
+            starts[handle] = compactedSize;
+            compactedSize += lengths[handle];
+        }
+
+        bytes = compactedBytes;
+        size = compactedSize;
+        unusedBytes = 0;
+    }
+}
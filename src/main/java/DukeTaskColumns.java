@@ -0,0 +1,249 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The <code>Tasks</code> in the rows of a <code>TaskList</code>, kept in columns rather than as objects. Each row
+ * holds the header byte of its <code>Task</code> from <code>DukeBinaryCodec.getTaskHeader</code> without its done
+ * flag, whether the <code>Task</code> is done as a bit of a <code>BitSet</code>, its two date-times packed into
+ * epoch minutes, and the handle of its description in a <code>DukeStringPool</code>, so that rows with the same
+ * description share one copy of it. A row holding no <code>Task</code> has a header of <code>0</code>, which no
+ * <code>Task</code> has.
+ * 
+ * <p>No <code>Task</code> object is kept for any row. <code>getTask</code> creates a short-lived one from the columns
+ * whenever a <code>Task</code> has to be shown, so that each <code>Task</code> only takes up a few bytes besides its
+ * description, and holding many of them makes no work for the garbage collector. Searching descriptions and marking
+ * <code>Tasks</code> as done work on the columns directly.</p>
+ * 
+ * <p>The columns may start from any row, so that a <code>TaskList</code> can keep chunks of its rows apart. A
+ * description that is replaced or removed is released from the pool, which drops it once no row holds it.</p>
+ */
+public class DukeTaskColumns {
+    private static final int INITIAL_CAPACITY = 10;
+
+    private final int firstRow;
+
+    private byte[] headers;
+    private long[] firstEpochMinutes;
+    private long[] secondEpochMinutes;
+    private int[] descriptionHandles;
+    private BitSet doneRows = new BitSet();
+
+    //The descriptions of every row, each distinct one held once
+    private DukeStringPool descriptions = new DukeStringPool();
+
+    /**
+     * Creates a new, empty <code>DukeTaskColumns</code> starting from the first row.
+     */
+    public DukeTaskColumns() {
+        this(0, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty <code>DukeTaskColumns</code> starting from a given row, with room for some rows after it.
+     * 
+     * @param firstRow The first row the columns can hold
+     * @param capacity The number of rows to make room for
+     */
+    public DukeTaskColumns(int firstRow, int capacity) {
+        this.firstRow = firstRow;
+        this.headers = new byte[capacity];
+        this.firstEpochMinutes = new long[capacity];
+        this.secondEpochMinutes = new long[capacity];
+        this.descriptionHandles = new int[capacity];
+    }
+
+    /**
+     * Puts a <code>Task</code> in a row, replacing any <code>Task</code> already there.
+     * 
+     * @param row The row, which must not be before the first row of the columns
+     * @param task The <code>Task</code>
+     */
+    public void set(int row, Task task) {
+        int i = toSlot(row);
+        ensureCapacity(i);
+
+        //The new description is acquired first, so that one shared with the replaced Task is not dropped meanwhile
+        int descriptionHandle = descriptions.acquire(task.getDescription());
+        releaseSlot(i);
+
+        int header = DukeBinaryCodec.getTaskHeader(task);
+        headers[i] = (byte) DukeBinaryCodec.setTaskDone(header, false);
+        firstEpochMinutes[i] = DukeBinaryCodec.packDateTime(DukeBinaryCodec.getFirstDateTime(task));
+        secondEpochMinutes[i] = DukeBinaryCodec.packDateTime(DukeBinaryCodec.getSecondDateTime(task));
+        doneRows.set(i, task.isDone());
+        descriptionHandles[i] = descriptionHandle;
+    }
+
+    /**
+     * Copies the <code>Task</code> in a row of other columns into the same row of these, without creating the
+     * <code>Task</code>.
+     * 
+     * @param row The row
+     * @param source The columns holding the row
+     */
+    public void copyRow(int row, DukeTaskColumns source) {
+        int i = toSlot(row);
+        int j = source.toSlot(row);
+        ensureCapacity(i);
+
+        int descriptionHandle = descriptions.acquire(source.descriptions, source.descriptionHandles[j]);
+        releaseSlot(i);
+
+        headers[i] = source.headers[j];
+        firstEpochMinutes[i] = source.firstEpochMinutes[j];
+        secondEpochMinutes[i] = source.secondEpochMinutes[j];
+        doneRows.set(i, source.doneRows.get(j));
+        descriptionHandles[i] = descriptionHandle;
+    }
+
+    /**
+     * Removes the <code>Task</code> in a row, if there is one.
+     * 
+     * @param row The row
+     */
+    public void remove(int row) {
+        if (!contains(row)) {
+            return;
+        }
+
+        int i = toSlot(row);
+        releaseSlot(i);
+        doneRows.clear(i);
+    }
+
+    /**
+     * Removes every <code>Task</code>, leaving the columns empty.
+     */
+    public void clear() {
+        Arrays.fill(headers, (byte) 0);
+        doneRows.clear();
+        descriptions.clear();
+    }
+
+    /**
+     * Returns whether a row holds a <code>Task</code>.
+     * 
+     * @param row The row
+     * @return <code>true</code> if the row holds a <code>Task</code>
+     */
+    public boolean contains(int row) {
+        int i = row - firstRow;
+        return i >= 0 && i < headers.length && headers[i] != 0;
+    }
+
+    /**
+     * Creates the <code>Task</code> held in a row. Each call creates a new <code>Task</code>, which is not kept.
+     * 
+     * @param row The row, which must hold a <code>Task</code>
+     * @return The <code>Task</code> in the row
+     */
+    public Task getTask(int row) {
+        int i = toSlot(row);
+        return DukeBinaryCodec.createTask(DukeBinaryCodec.setTaskDone(headers[i] & 0xFF, doneRows.get(i)),
+                                          descriptions.getString(descriptionHandles[i]), firstEpochMinutes[i],
+                                          secondEpochMinutes[i]);
+    }
+
+    /**
+     * Returns whether the <code>Task</code> in a row is done.
+     * 
+     * @param row The row, which must hold a <code>Task</code>
+     * @return <code>true</code> if the <code>Task</code> is done
+     */
+    public boolean isDone(int row) {
+        return doneRows.get(toSlot(row));
+    }
+
+    /**
+     * Marks the <code>Task</code> in a row as done or not done, in place.
+     * 
+     * @param row The row, which must hold a <code>Task</code>
+     * @param isDone Whether the <code>Task</code> is done
+     */
+    public void setDone(int row, boolean isDone) {
+        doneRows.set(toSlot(row), isDone);
+    }
+
+    /**
+     * Returns whether the <code>Task</code> in a row is a <code>DeadlineTask</code> whose deadline has a date.
+     * 
+     * @param row The row, which must hold a <code>Task</code>
+     * @return <code>true</code> if the <code>Task</code> is a dated <code>DeadlineTask</code>
+     */
+    public boolean isDatedDeadline(int row) {
+        return DukeBinaryCodec.isDatedDeadline(headers[toSlot(row)]);
+    }
+
+    /**
+     * Returns when the dated <code>DeadlineTask</code> in a row becomes overdue, without creating it.
+     * 
+     * @param row The row, which must hold a dated <code>DeadlineTask</code>
+     * @return The minute the <code>DeadlineTask</code> becomes overdue, packed by
+     *     <code>DukeBinaryCodec.toEpochMinute</code>
+     */
+    public long getDueEpochMinute(int row) {
+        int i = toSlot(row);
+        return DukeBinaryCodec.getDueEpochMinute(headers[i], firstEpochMinutes[i]);
+    }
+
+    /**
+     * Returns whether the description of the <code>Task</code> in a row contains a search term, as
+     * <code>Task.descriptionContainsTerm</code> would, by comparing their UTF-8 bytes without creating the
+     * <code>Task</code>.
+     * 
+     * @param row The row, which must hold a <code>Task</code>
+     * @param searchTerm The UTF-8 bytes of the search term
+     * @return <code>true</code> if the description contains the search term
+     */
+    public boolean descriptionContains(int row, byte[] searchTerm) {
+        return descriptions.contains(descriptionHandles[toSlot(row)], searchTerm);
+    }
+
+    /**
+     * Returns the pool holding the descriptions of every row.
+     * 
+     * @return The pool of descriptions
+     */
+    public DukeStringPool getDescriptionPool() {
+        return descriptions;
+    }
+
+    /**
+     * Returns the position of a row among the slots of the columns.
+     * 
+     * @param row The row
+     * @return The slot of the row
+     */
+    private int toSlot(int row) {
+        return row - firstRow;
+    }
+
+    /**
+     * Makes room for a slot in every column.
+     * 
+     * @param slot The slot
+     */
+    private void ensureCapacity(int slot) {
+        if (slot < headers.length) {
+            return;
+        }
+
+        int capacity = Math.max(headers.length * 2, slot + 1);
+        headers = Arrays.copyOf(headers, capacity);
+        firstEpochMinutes = Arrays.copyOf(firstEpochMinutes, capacity);
+        secondEpochMinutes = Arrays.copyOf(secondEpochMinutes, capacity);
+        descriptionHandles = Arrays.copyOf(descriptionHandles, capacity);
+    }
+
+    /**
+     * Empties a slot, releasing its description if it holds one.
+     * 
+     * @param slot The slot
+     */
+    private void releaseSlot(int slot) {
+        if (headers[slot] != 0) {
+            descriptions.release(descriptionHandles[slot]);
+            headers[slot] = 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * A saved <code>TaskList</code> snapshot whose <code>Tasks</code> can be read one at a time, in any order, without
+ * reading the rest of the file. Records may be read from several threads at once.
+ */
+public interface DukeTaskFile {
+    /**
+     * Returns the generation of the saved list.
+     * 
+     * @return The generation of the saved list
+     */
+    long getGeneration();
+
+    /**
+     * Returns the number of records in the file.
+     * 
+     * @return The number of records in the file
+     */
+    int size();
+
+    /**
+     * Decodes the <code>Task</code> stored in a record.
+     * 
+     * @param record The zero-indexed position of the record in the file
+     * @return The <code>Task</code> stored in the record
+     * @throws IllegalArgumentException If the record is corrupted
+     */
+    Task readTask(int record);
+
+    /**
+     * Returns whether the description of the <code>Task</code> stored in a record could contain a term, judging only
+     * by what the file knows without decoding the record. Never returns <code>false</code> for a record that does
+     * contain the term.
+     * 
+     * @param record The zero-indexed position of the record in the file
+     * @param searchTerm The term to be searched for
+     * @return <code>false</code> if the record certainly does not contain the term
+     */
+    boolean mayContain(int record, String searchTerm);
+}
@@ -0,0 +1,406 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Imports the <code>Tasks</code> of another planner into a <code>TaskList</code>, from a CSV or iCalendar file.
+ * 
+ * <p>The file is read an entry at a time by a <code>DukeTaskSource</code>, which makes each entry into a
+ * <code>Task</code> directly, and the <code>Tasks</code> are added to the list a batch at a time. Only one batch is
+ * held besides the list, however long the file is. An entry that cannot be made into a <code>Task</code> is skipped,
+ * and listed in the summary of the import.</p>
+ * 
+ * <p>Given a <code>DukePersistenceWriter</code>, the changes made by each full batch are handed over to it once the
+ * next batch is full, rather than held by the list until the import ends. They are saved uncommitted, and committed
+ * along with the last batch once the changes of the import are handed over as usual, so the import is still saved
+ * as a whole or not at all.</p>
+ */
+public class DukeTaskImporter {
+    //The number of Tasks added to the list at a time
+    private static final int BATCH_SIZE = 1024;
+
+    //The most skipped entries listed in the summary of an import
+    private static final int MAX_ERRORS_SHOWN = 20;
+
+    private static final String ICS_EXTENSION = ".ics";
+
+    private final TaskList tasks;
+    private final DukePersistenceWriter persistenceWriter;
+    private final Task[] batch = new Task[BATCH_SIZE];
+
+    private int importedCount = 0;
+    private int errorCount = 0;
+    private boolean isComplete = true;
+    private int stoppedLineNumber = 0;
+    private String stoppedMessage;
+    private long elapsedNanos = 0;
+    private final StringBuilder shownErrors = new StringBuilder();
+
+    /**
+     * Creates a new <code>DukeTaskImporter</code> leaving the changes of the import to be handed over once it ends.
+     * 
+     * @param tasks The <code>TaskList</code> to add the <code>Tasks</code> to
+     */
+    public DukeTaskImporter(TaskList tasks) {
+        this(tasks, null);
+    }
+
+    /**
+     * Creates a new <code>DukeTaskImporter</code> handing the changes of each full batch over to be saved as it is
+     * added.
+     * 
+     * @param tasks The <code>TaskList</code> to add the <code>Tasks</code> to
+     * @param persistenceWriter The <code>DukePersistenceWriter</code> to hand the changes over to, or
+     *     <code>null</code> to leave them to be handed over once the import ends
+     */
+    public DukeTaskImporter(TaskList tasks, DukePersistenceWriter persistenceWriter) {
+        this.tasks = tasks;
+        this.persistenceWriter = persistenceWriter;
+    }
+
+    /**
+     * Opens a file of <code>Tasks</code>, read as iCalendar if its name ends in ".ics", and as CSV otherwise.
+     * 
+     * @param path The path of the file
+     * @return The <code>DukeTaskSource</code> reading the file
+     * @throws IOException If the file cannot be opened or read
+     * @throws DukeException If the file is CSV with no column for the descriptions of the <code>Tasks</code>
+     */
+    public static DukeTaskSource open(Path path) throws IOException, DukeException {
+        BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        String name = path.getFileName().toString();
+
+        try {
+            return name.regionMatches(true, name.length() - ICS_EXTENSION.length(), ICS_EXTENSION, 0,
+                                      ICS_EXTENSION.length())
+                   ? new DukeIcsTaskSource(reader)
+                   : new DukeCsvTaskSource(reader, name);
+        } catch (IOException | DukeException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds every <code>Task</code> read from a <code>DukeTaskSource</code> to the list, and closes it. If the file
+     * cannot be read to its end, the <code>Tasks</code> read before then are still added, and the summary tells
+     * where reading stopped.
+     * 
+     * @param source The <code>DukeTaskSource</code>
+     */
+    public void importFrom(DukeTaskSource source) {
+        long start = System.nanoTime();
+        int batchCount = 0;
+
+        try (source) {
+            while (true) {
+                Task task;
+                try {
+                    task = source.next();
+                } catch (DukeException e) {
+                    addError(source.getLineNumber(), e.getMessage());
+                    continue;
+                }
+
+                if (task == null) {
+                    break;
+                }
+
+                batch[batchCount++] = task;
+                if (batchCount == BATCH_SIZE) {
+                    //The changes of the batch before are handed over only now, so that those of the last batch are
+                    //always left in the list, to commit the import whenever its changes are next handed over
+                    if (persistenceWriter != null) {
+                        persistenceWriter.submitPartialChanges(tasks.drainChanges(), Collections.emptyList());
+                    }
+
+                    addBatch(batchCount);
+                    batchCount = 0;
+                }
+            }
+        } catch (IOException e) {
+            //The line number alone cannot tell, since reading can stop before the first line
+            isComplete = false;
+            stoppedLineNumber = source.getLineNumber();
+            stoppedMessage = e.getMessage();
+        } finally {
+            addBatch(batchCount);
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the number of <code>Tasks</code> added to the list.
+     * 
+     * @return The number of <code>Tasks</code> added
+     */
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    /**
+     * Returns the number of entries skipped, leaving out any that could not be read at all.
+     * 
+     * @return The number of entries skipped
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns whether the file could be read to its end.
+     * 
+     * @return <code>true</code> if the file was read to its end
+     */
+    public boolean isComplete() {
+        return isComplete;
+    }
+
+    /**
+     * Returns Duke's reply to the import as a whole, telling how many <code>Tasks</code> were added and how quickly,
+     * and listing the first entries that were skipped.
+     * 
+     * @param fileName The name of the file, as the user gave it
+     * @return The summary of the import
+     */
+    public String getSummary(String fileName) {
+        StringBuilder sb = new StringBuilder(String.format(DukeUi.FEEDBACK_IMPORT, importedCount, fileName,
+                                                           elapsedNanos / 1_000_000, tasks.size()));
+
+        if (errorCount > 0) {
+            String errors = (errorCount > MAX_ERRORS_SHOWN)
+                            ? shownErrors + String.format(DukeUi.FEEDBACK_CHANGED_MORE,
+                                                          errorCount - MAX_ERRORS_SHOWN)
+                            : shownErrors.substring(0, shownErrors.length() - 1);
+            sb.append(String.format(DukeUi.FEEDBACK_IMPORT_ERRORS, errorCount, errors));
+        }
+
+        if (!isComplete()) {
+            sb.append(String.format(DukeUi.FEEDBACK_IMPORT_STOPPED, stoppedLineNumber, stoppedMessage));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Generates a <code>DukeDateTime</code> from a date and time in a file of <code>Tasks</code>. Dates and times in
+     * the ISO 8601 forms written by other planners, such as "2019-12-02 18:00" or "20191202T180000Z", are read
+     * directly, ignoring any seconds, and anything else is read as in a command, such as "2/12/2019 1800". A time
+     * given in UTC or with an offset is converted to the system's time zone, since Duke keeps its times in local
+     * time.
+     * 
+     * @param text The date and time
+     * @return The <code>DukeDateTime</code>, which is empty if the text is blank
+     * @throws DukeException If the text holds no valid date or time
+     */
+    public static DukeDateTime parseDateTime(String text) throws DukeException {
+        String trimmedText = text.trim();
+        if (trimmedText.isEmpty()) {
+            return new DukeDateTime(null, null);
+        }
+
+        DukeDateTime isoDateTime = parseIsoDateTime(trimmedText);
+        if (isoDateTime != null) {
+            return isoDateTime;
+        }
+
+        DukeDateTime dateTime = TextToTaskTranslator.translateDateTime(trimmedText);
+        if (dateTime.isEmpty()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_IMPORT_BAD_DATE, trimmedText));
+        }
+
+        return dateTime;
+    }
+
+    /**
+     * Reads a date, optionally followed by a time, written in an ISO 8601 form: "yyyy-MM-dd" or "yyyyMMdd", then
+     * 'T' or a space and "HH:mm" or "HHmm". Seconds after the minutes are ignored. A time followed by 'Z', or by an
+     * offset such as "+08:00" or "-0500", is converted from that offset to the system's time zone, and is otherwise
+     * taken as local time.
+     * 
+     * @param text The trimmed text holding the date and time
+     * @return The <code>DukeDateTime</code>, or <code>null</code> if the text is not in an ISO 8601 form
+     * @throws DukeException If the text is in an ISO 8601 form, but the date or time is invalid
+     */
+    private static DukeDateTime parseIsoDateTime(String text) throws DukeException {
+        int length = text.length();
+        boolean hasSeparators = length > 4 && text.charAt(4) == '-';
+        int monthStart = hasSeparators ? 5 : 4;
+        int dayStart = monthStart + (hasSeparators ? 3 : 2);
+        int dateEnd = dayStart + 2;
+        if (!isDigits(text, 0, 4) || !isDigits(text, monthStart, monthStart + 2) || !isDigits(text, dayStart, dateEnd)
+            || (hasSeparators && text.charAt(dayStart - 1) != '-')) {
+            return null;
+        }
+
+        boolean hasTime = dateEnd < length;
+        int hourStart = dateEnd + 1;
+        int minuteStart = (hourStart + 2 < length && text.charAt(hourStart + 2) == ':') ? hourStart + 3 : hourStart + 2;
+        if (hasTime && (!isTimeSeparator(text.charAt(dateEnd)) || !isDigits(text, hourStart, hourStart + 2)
+                        || !isDigits(text, minuteStart, minuteStart + 2))) {
+            return null;
+        }
+
+        try {
+            LocalDate date = LocalDate.of(parseDigits(text, 0, 4), parseDigits(text, monthStart, monthStart + 2),
+                                          parseDigits(text, dayStart, dateEnd));
+            LocalTime time = hasTime ? LocalTime.of(parseDigits(text, hourStart, hourStart + 2),
+                                                    parseDigits(text, minuteStart, minuteStart + 2))
+                                     : null;
+
+            ZoneOffset offset = hasTime ? parseOffset(text, skipSeconds(text, minuteStart + 2)) : null;
+            if (offset != null) {
+                ZonedDateTime localDateTime = date.atTime(time).atOffset(offset)
+                                                  .atZoneSameInstant(ZoneId.systemDefault());
+                date = localDateTime.toLocalDate();
+                time = localDateTime.toLocalTime();
+            }
+
+            return new DukeDateTime(date, time);
+        } catch (DateTimeException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_IMPORT_BAD_DATE, text));
+        }
+    }
+
+    /**
+     * Skips over the seconds written after the minutes of a time, as ":ss" or "ss", along with any fraction of them.
+     * 
+     * @param text The text holding the time
+     * @param from Where the minutes end
+     * @return Where the seconds end, which is <code>from</code> if there are none
+     */
+    private static int skipSeconds(String text, int from) {
+        int secondsEnd = from;
+        if (isDigits(text, from, from + 2)) {
+            secondsEnd = from + 2;
+        } else if (isDigits(text, from + 1, from + 3) && text.charAt(from) == ':') {
+            secondsEnd = from + 3;
+        } else {
+            return from;
+        }
+
+        if (secondsEnd < text.length() && (text.charAt(secondsEnd) == '.' || text.charAt(secondsEnd) == ',')) {
+            do {
+                secondsEnd++;
+            } while (isDigits(text, secondsEnd, secondsEnd + 1));
+        }
+
+        return secondsEnd;
+    }
+
+    /**
+     * Reads the offset from UTC written after a time, as 'Z' for UTC itself, or as "+HH:mm", "+HHmm" or "+HH", with
+     * '-' for offsets behind UTC.
+     * 
+     * @param text The text holding the time
+     * @param from Where the time ends
+     * @return The offset, or <code>null</code> if none is written there
+     * @throws DateTimeException If the offset is out of range
+     */
+    private static ZoneOffset parseOffset(String text, int from) {
+        if (from >= text.length()) {
+            return null;
+        }
+
+        char sign = text.charAt(from);
+        if (sign == 'Z' || sign == 'z') {
+            return ZoneOffset.UTC;
+        } else if ((sign != '+' && sign != '-') || !isDigits(text, from + 1, from + 3)) {
+            return null;
+        }
+
+        int minuteStart = (from + 3 < text.length() && text.charAt(from + 3) == ':') ? from + 4 : from + 3;
+        int hours = parseDigits(text, from + 1, from + 3);
+        int minutes = isDigits(text, minuteStart, minuteStart + 2) ? parseDigits(text, minuteStart, minuteStart + 2)
+                                                                    : 0;
+        return (sign == '-') ? ZoneOffset.ofHoursMinutes(-hours, -minutes) : ZoneOffset.ofHoursMinutes(hours, minutes);
+    }
+
+    /**
+     * Returns whether part of a <code>String</code> is all ASCII digits.
+     * 
+     * @param text The <code>String</code>
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return <code>true</code> if the part lies within the <code>String</code> and is all digits
+     */
+    private static boolean isDigits(String text, int from, int to) {
+        if (to > text.length()) {
+            return false;
+        }
+
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number written in part of a <code>String</code> that is all ASCII digits.
+     * 
+     * @param text The <code>String</code>
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The number
+     */
+    private static int parseDigits(String text, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            number = number * 10 + (text.charAt(i) - '0');
+        }
+
+        return number;
+    }
+
+    /**
+     * Returns whether a character separates a date from its time, which is 'T' or a space.
+     * 
+     * @param c The character
+     * @return <code>true</code> if the character separates a date from its time
+     */
+    private static boolean isTimeSeparator(char c) {
+        return c == 'T' || c == 't' || c == ' ';
+    }
+
+    /**
+     * Adds the <code>Tasks</code> at the start of the batch to the list, and clears them from the batch.
+     * 
+     * @param count The number of <code>Tasks</code> in the batch
+     */
+    private void addBatch(int count) {
+        if (count == 0) {
+            return;
+        }
+
+        tasks.addAll(batch, count);
+        Arrays.fill(batch, 0, count, null);
+        importedCount += count;
+    }
+
+    /**
+     * Counts an entry that was skipped, keeping its message if it is among the first to be skipped.
+     * 
+     * @param lineNumber The one-indexed line number the entry starts on
+     * @param message Why the entry was skipped
+     */
+    private void addError(int lineNumber, String message) {
+        if (++errorCount <= MAX_ERRORS_SHOWN) {
+            shownErrors.append(String.format(DukeUi.FEEDBACK_IMPORT_ERROR_LINE, lineNumber, message));
+        }
+    }
+}
@@ -0,0 +1,770 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary indexes over the <code>Tasks</code> saved in a <code>DukeTaskFile</code>, so that searching a saved list
+ * does not have to decode every <code>Task</code> in it. The trigram index maps every trigram of the descriptions, as
+ * <code>DukeTrigramIndex</code> packs them, to the records whose description holds it. The deadline index lists the
+ * records of every <code>DeadlineTask</code> with a dated deadline, in order of their deadlines, and the pending
+ * deadline index lists those that were not done, in order of when they become overdue. The event index holds
+ * the time taken up by every scheduled <code>EventTask</code>, as an interval tree. The token index maps every token of
+ * the descriptions, as <code>DukeTokenIndex</code> normalises them, to the records holding it.
+ * 
+ * <p>An index is built for one snapshot, and records the generation and number of records of the snapshot it was
+ * built from, so that an index left behind by an older snapshot is recognised rather than trusted. The saved
+ * <code>Tasks</code> of a snapshot never change their descriptions or deadlines, so an index stays valid for as long
+ * as the snapshot is in use, whatever is done to the list opened from it. Only the pending deadline index can fall
+ * behind, as <code>Tasks</code> are marked as done, so those are skipped over by the list.</p>
+ * 
+ * <p>The file starts with a header of <code>HEADER_SIZE</code> bytes, holding the usual <code>DukeBinaryCodec</code>
+ * file header, the generation and record count of the snapshot, the size of each section, a checksum of the sections
+ * and a checksum of the header itself. It is followed by the trigram table, which holds an entry for every trigram in
+ * ascending order, then by the record numbers of every trigram back to back, then by the deadline table and the
+ * pending deadline table, then by the event table, then by the token table, which holds an entry for every token in
+ * order of its UTF-8 encoding, and the record numbers of every token, and finally by the UTF-8 encoded tokens
+ * themselves. A saved index is mapped into memory and searched in place, rather than read.</p>
+ * 
+ * <p>The event table holds the events in order of their starts and then their records. It is read as a balanced
+ * binary tree whose root is the middle entry, and whose subtrees are the entries before and after it, so each entry
+ * also records the latest end among the entries of its subtree. Finding the events overlapping a range of time then
+ * takes O(log n + k) time for k events, as in a <code>DukeIntervalTree</code>.</p>
+ */
+public class DukeTaskIndex {
+    public static final int HEADER_SIZE = 64;
+
+    private static final int GENERATION_POSITION = 8;
+    private static final int RECORD_COUNT_POSITION = 16;
+    private static final int TRIGRAM_COUNT_POSITION = 20;
+    private static final int TRIGRAM_POSTING_COUNT_POSITION = 24;
+    private static final int DEADLINE_COUNT_POSITION = 28;
+    private static final int TOKEN_COUNT_POSITION = 32;
+    private static final int TOKEN_POSTING_COUNT_POSITION = 36;
+    private static final int TOKEN_HEAP_LENGTH_POSITION = 40;
+    private static final int EVENT_COUNT_POSITION = 44;
+    private static final int PENDING_DEADLINE_COUNT_POSITION = 48;
+    private static final int CONTENT_CHECKSUM_POSITION = 52;
+    private static final int HEADER_CHECKSUM_POSITION = 56;
+
+    //Each trigram entry holds the packed trigram, then the first and number of its record numbers
+    private static final int TRIGRAM_ENTRY_SIZE = 16;
+
+    //Each deadline entry holds the packed deadline, then the record number. Each pending deadline entry is laid out
+    //the same way, but holds the minute the deadline becomes overdue instead
+    private static final int DEADLINE_ENTRY_SIZE = 12;
+
+    //Each event entry holds the start and end of the event, the latest end in its subtree, then the record number
+    private static final int EVENT_ENTRY_SIZE = 28;
+
+    //Each token entry holds the offset and length of the token, then the first and number of its record numbers
+    private static final int TOKEN_ENTRY_SIZE = 16;
+
+    private final ByteBuffer index;
+    private final long generation;
+    private final int recordCount;
+    private final int trigramCount;
+    private final int trigramPostingsStart;
+    private final int deadlineCount;
+    private final int deadlinesStart;
+    private final int pendingDeadlineCount;
+    private final int pendingDeadlinesStart;
+    private final int eventCount;
+    private final int eventsStart;
+    private final int tokenCount;
+    private final int tokenTableStart;
+    private final int tokenPostingsStart;
+    private final int tokenHeapStart;
+
+    /**
+     * Creates a new <code>DukeTaskIndex</code> over a whole index, whose header has already been checked.
+     * 
+     * @param index The index, from the start of its header
+     */
+    private DukeTaskIndex(ByteBuffer index) {
+        this.index = index;
+        this.generation = index.getLong(GENERATION_POSITION);
+        this.recordCount = index.getInt(RECORD_COUNT_POSITION);
+        this.trigramCount = index.getInt(TRIGRAM_COUNT_POSITION);
+        this.trigramPostingsStart = HEADER_SIZE + trigramCount * TRIGRAM_ENTRY_SIZE;
+        this.deadlineCount = index.getInt(DEADLINE_COUNT_POSITION);
+        this.deadlinesStart = trigramPostingsStart + index.getInt(TRIGRAM_POSTING_COUNT_POSITION) * Integer.BYTES;
+        this.tokenCount = index.getInt(TOKEN_COUNT_POSITION);
+        this.eventCount = index.getInt(EVENT_COUNT_POSITION);
+        this.pendingDeadlineCount = index.getInt(PENDING_DEADLINE_COUNT_POSITION);
+        this.pendingDeadlinesStart = deadlinesStart + deadlineCount * DEADLINE_ENTRY_SIZE;
+        this.eventsStart = pendingDeadlinesStart + pendingDeadlineCount * DEADLINE_ENTRY_SIZE;
+        this.tokenTableStart = eventsStart + eventCount * EVENT_ENTRY_SIZE;
+        this.tokenPostingsStart = tokenTableStart + tokenCount * TOKEN_ENTRY_SIZE;
+        this.tokenHeapStart = tokenPostingsStart + index.getInt(TOKEN_POSTING_COUNT_POSITION) * Integer.BYTES;
+    }
+
+    /**
+     * Builds the index of a snapshot in memory.
+     * 
+     * @param generation The generation of the snapshot
+     * @param tasks The <code>Tasks</code> saved in the snapshot, in the order of their records
+     * @return The index
+     */
+    public static DukeTaskIndex build(long generation, Iterable<Task> tasks) {
+        DukeTrigramIndex trigramIndex = new DukeTrigramIndex();
+        Map<String, PostingList> tokenPostingLists = new HashMap<>();
+        List<DeadlineEntry> deadlines = new ArrayList<>();
+        List<DeadlineEntry> pendingDeadlines = new ArrayList<>();
+        List<EventEntry> events = new ArrayList<>();
+        int recordCount = 0;
+
+        for (Task task : tasks) {
+            trigramIndex.add(recordCount, task.getDescription());
+
+            for (String token : DukeTokenIndex.getTokens(task.getDescription())) {
+                tokenPostingLists.computeIfAbsent(token, PostingList::new).add(recordCount);
+            }
+
+            if (task instanceof DeadlineTask && ((DeadlineTask) task).isDated()) {
+                DeadlineTask deadlineTask = (DeadlineTask) task;
+                deadlines.add(new DeadlineEntry(DukeBinaryCodec.toEpochMinute(deadlineTask.getDeadlineTime()),
+                                                recordCount));
+
+                if (!task.isDone()) {
+                    pendingDeadlines.add(new DeadlineEntry(deadlineTask.getDueEpochMinute(), recordCount));
+                }
+            }
+
+            if (task instanceof EventTask && ((EventTask) task).getEventDuration().isScheduled()) {
+                DukeDuration eventDuration = ((EventTask) task).getEventDuration();
+                events.add(new EventEntry(eventDuration.getStartEpochMinute(), eventDuration.getEndEpochMinute(),
+                                          recordCount));
+            }
+
+            recordCount++;
+        }
+
+        long[] trigrams = trigramIndex.getTrigrams();
+        PostingList[] tokens = tokenPostingLists.values().toArray(new PostingList[0]);
+        Arrays.sort(tokens, (first, second) -> Arrays.compareUnsigned(first.token, second.token));
+        Comparator<DeadlineEntry> deadlineOrder = Comparator.comparingLong((DeadlineEntry entry) -> entry.epochMinute)
+                                                            .thenComparingInt(entry -> entry.record);
+        deadlines.sort(deadlineOrder);
+        pendingDeadlines.sort(deadlineOrder);
+        events.sort((first, second) -> (first.start != second.start) ? Long.compare(first.start, second.start)
+                                                                      : Integer.compare(first.record, second.record));
+        setLatestEnds(events, 0, events.size());
+
+        int trigramPostingCount = 0;
+        for (long trigram : trigrams) {
+            trigramPostingCount += trigramIndex.getRowCount(trigram);
+        }
+
+        int tokenPostingCount = 0;
+        int tokenHeapLength = 0;
+        for (PostingList token : tokens) {
+            tokenPostingCount += token.count;
+            tokenHeapLength += token.token.length;
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(HEADER_SIZE + trigrams.length * TRIGRAM_ENTRY_SIZE
+                                               + trigramPostingCount * Integer.BYTES
+                                               + (deadlines.size() + pendingDeadlines.size()) * DEADLINE_ENTRY_SIZE
+                                               + events.size() * EVENT_ENTRY_SIZE
+                                               + tokens.length * TOKEN_ENTRY_SIZE + tokenPostingCount * Integer.BYTES
+                                               + tokenHeapLength);
+        index.position(HEADER_SIZE);
+
+        int firstPosting = 0;
+        for (long trigram : trigrams) {
+            index.putLong(trigram).putInt(firstPosting).putInt(trigramIndex.getRowCount(trigram));
+            firstPosting += trigramIndex.getRowCount(trigram);
+        }
+
+        for (long trigram : trigrams) {
+            for (int i = 0; i < trigramIndex.getRowCount(trigram); i++) {
+                index.putInt(trigramIndex.getRow(trigram, i));
+            }
+        }
+
+        for (DeadlineEntry deadline : deadlines) {
+            index.putLong(deadline.epochMinute).putInt(deadline.record);
+        }
+
+        for (DeadlineEntry deadline : pendingDeadlines) {
+            index.putLong(deadline.epochMinute).putInt(deadline.record);
+        }
+
+        for (EventEntry event : events) {
+            index.putLong(event.start).putLong(event.end).putLong(event.latestEnd).putInt(event.record);
+        }
+
+        firstPosting = 0;
+        int tokenOffset = 0;
+        for (PostingList token : tokens) {
+            index.putInt(tokenOffset).putInt(token.token.length).putInt(firstPosting).putInt(token.count);
+            firstPosting += token.count;
+            tokenOffset += token.token.length;
+        }
+
+        for (PostingList token : tokens) {
+            for (int i = 0; i < token.count; i++) {
+                index.putInt(token.records[i]);
+            }
+        }
+
+        for (PostingList token : tokens) {
+            index.put(token.token);
+        }
+
+        index.putInt(0, DukeBinaryCodec.MAGIC_NUMBER);
+        index.put(4, (byte) DukeBinaryCodec.FORMAT_VERSION);
+        index.put(5, DukeBinaryCodec.KIND_TASK_INDEX);
+        index.putLong(GENERATION_POSITION, generation);
+        index.putInt(RECORD_COUNT_POSITION, recordCount);
+        index.putInt(TRIGRAM_COUNT_POSITION, trigrams.length);
+        index.putInt(TRIGRAM_POSTING_COUNT_POSITION, trigramPostingCount);
+        index.putInt(DEADLINE_COUNT_POSITION, deadlines.size());
+        index.putInt(TOKEN_COUNT_POSITION, tokens.length);
+        index.putInt(TOKEN_POSTING_COUNT_POSITION, tokenPostingCount);
+        index.putInt(TOKEN_HEAP_LENGTH_POSITION, tokenHeapLength);
+        index.putInt(EVENT_COUNT_POSITION, events.size());
+        index.putInt(PENDING_DEADLINE_COUNT_POSITION, pendingDeadlines.size());
+        index.putInt(CONTENT_CHECKSUM_POSITION, DukeBinaryCodec.getChecksum(index, HEADER_SIZE, index.capacity()));
+        index.putInt(HEADER_CHECKSUM_POSITION, DukeBinaryCodec.getChecksum(index, 0, HEADER_CHECKSUM_POSITION));
+        index.clear();
+
+        return new DukeTaskIndex(index);
+    }
+
+    /**
+     * Maps an index saved by <code>write</code>. The whole index is checked against its checksums, but nothing is
+     * read into the heap.
+     * 
+     * @param file The file to be mapped
+     * @return The mapped index
+     * @throws IOException When an IOException occurs
+     * @throws IllegalArgumentException If the file is not an index, or is corrupted
+     */
+    public static DukeTaskIndex open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Corrupted task index");
+            }
+
+            //The mapping stays valid after the channel is closed
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            DukeBinaryCodec.readFileHeader(index.duplicate(), DukeBinaryCodec.KIND_TASK_INDEX);
+            int headerChecksum = DukeBinaryCodec.getChecksum(index, 0, HEADER_CHECKSUM_POSITION);
+            if (index.getInt(HEADER_CHECKSUM_POSITION) != headerChecksum) {
+                throw new IllegalArgumentException("Corrupted task index header");
+            }
+
+            long expectedLength = HEADER_SIZE + (long) index.getInt(TRIGRAM_COUNT_POSITION) * TRIGRAM_ENTRY_SIZE
+                                  + (long) index.getInt(TRIGRAM_POSTING_COUNT_POSITION) * Integer.BYTES
+                                  + (long) index.getInt(DEADLINE_COUNT_POSITION) * DEADLINE_ENTRY_SIZE
+                                  + (long) index.getInt(PENDING_DEADLINE_COUNT_POSITION) * DEADLINE_ENTRY_SIZE
+                                  + (long) index.getInt(EVENT_COUNT_POSITION) * EVENT_ENTRY_SIZE
+                                  + (long) index.getInt(TOKEN_COUNT_POSITION) * TOKEN_ENTRY_SIZE
+                                  + (long) index.getInt(TOKEN_POSTING_COUNT_POSITION) * Integer.BYTES
+                                  + index.getInt(TOKEN_HEAP_LENGTH_POSITION);
+            if (index.getInt(RECORD_COUNT_POSITION) < 0 || index.getInt(TRIGRAM_COUNT_POSITION) < 0
+                || index.getInt(TRIGRAM_POSTING_COUNT_POSITION) < 0 || index.getInt(DEADLINE_COUNT_POSITION) < 0
+                || index.getInt(TOKEN_COUNT_POSITION) < 0 || index.getInt(TOKEN_POSTING_COUNT_POSITION) < 0
+                || index.getInt(TOKEN_HEAP_LENGTH_POSITION) < 0 || index.getInt(EVENT_COUNT_POSITION) < 0
+                || index.getInt(PENDING_DEADLINE_COUNT_POSITION) < 0
+                || expectedLength != channel.size()
+                || index.getInt(CONTENT_CHECKSUM_POSITION)
+                   != DukeBinaryCodec.getChecksum(index, HEADER_SIZE, index.capacity())) {
+                throw new IllegalArgumentException("Corrupted task index");
+            }
+
+            return new DukeTaskIndex(index);
+        }
+    }
+
+    /**
+     * Saves this index to a file, replacing it through <code>DukeAtomicFile</code>.
+     * 
+     * @param file The file to be written
+     * @throws IOException When an IOException occurs
+     */
+    public void write(File file) throws IOException {
+        byte[] contents = new byte[index.capacity()];
+        index.duplicate().get(contents);
+        DukeAtomicFile.write(file, contents);
+    }
+
+    /**
+     * Returns the generation of the snapshot this index was built from.
+     * 
+     * @return The generation of the snapshot
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of records in the snapshot this index was built from.
+     * 
+     * @return The number of records in the snapshot
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the records whose descriptions could contain a search term, judging by the trigrams they hold. Every
+     * record that does contain the search term is among them, but a record may also be among them without containing
+     * it.
+     * 
+     * @param searchTerm The term to be searched for
+     * @return The records that could contain the search term, or <code>null</code> if it is too short to have a
+     *     trigram
+     */
+    public BitSet getCandidates(String searchTerm) {
+        long[] searchTrigrams = DukeTrigramIndex.getTrigrams(searchTerm);
+        if (searchTrigrams.length == 0) {
+            return null;
+        }
+
+        int[] entries = new int[searchTrigrams.length];
+        int rarest = 0;
+        for (int i = 0; i < searchTrigrams.length; i++) {
+            entries[i] = findTrigram(searchTrigrams[i]);
+            if (entries[i] < 0) {
+                return new BitSet(recordCount);
+            }
+
+            if (getPostingCount(entries[i]) < getPostingCount(entries[rarest])) {
+                rarest = i;
+            }
+        }
+
+        BitSet candidates = new BitSet(recordCount);
+        int rarestFirstPosting = getFirstPosting(entries[rarest], trigramPostingsStart);
+        for (int i = 0; i < getPostingCount(entries[rarest]); i++) {
+            int record = index.getInt(rarestFirstPosting + i * Integer.BYTES);
+            boolean isCandidate = true;
+
+            for (int j = 0; j < entries.length && isCandidate; j++) {
+                isCandidate = postingsContain(getFirstPosting(entries[j], trigramPostingsStart),
+                                              getPostingCount(entries[j]), record);
+            }
+
+            if (isCandidate) {
+                candidates.set(record);
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Returns the position of a token in the token table.
+     * 
+     * @param token The token, normalised as <code>DukeTokenIndex</code> does
+     * @return The position of the token, or <code>-1</code> if no record holds it
+     */
+    public int findToken(String token) {
+        byte[] pattern = token.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = tokenCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = tokenTableStart + middle * TOKEN_ENTRY_SIZE;
+            int comparison = compareToHeap(tokenHeapStart + index.getInt(entry), index.getInt(entry + Integer.BYTES),
+                                           pattern);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of records holding a token.
+     * 
+     * @param token The position of the token in the token table
+     * @return The number of records holding the token
+     */
+    public int getTokenRecordCount(int token) {
+        return getPostingCount(tokenTableStart + token * TOKEN_ENTRY_SIZE);
+    }
+
+    /**
+     * Returns one of the records holding a token, in ascending order of records.
+     * 
+     * @param token The position of the token in the token table
+     * @param i The position of the record among those holding the token
+     * @return The record
+     */
+    public int getTokenRecord(int token, int i) {
+        int firstPosting = getFirstPosting(tokenTableStart + token * TOKEN_ENTRY_SIZE, tokenPostingsStart);
+        return index.getInt(firstPosting + i * Integer.BYTES);
+    }
+
+    /**
+     * Returns whether a record holds a token.
+     * 
+     * @param token The position of the token in the token table
+     * @param record The record
+     * @return <code>true</code> if the record holds the token
+     */
+    public boolean tokenContainsRecord(int token, int record) {
+        int entry = tokenTableStart + token * TOKEN_ENTRY_SIZE;
+        return postingsContain(getFirstPosting(entry, tokenPostingsStart), getPostingCount(entry), record);
+    }
+
+    /**
+     * Returns the number of entries in the deadline index.
+     * 
+     * @return The number of entries in the deadline index
+     */
+    public int getDeadlineCount() {
+        return deadlineCount;
+    }
+
+    /**
+     * Returns the position in the deadline index of the first deadline at or after a given time.
+     * 
+     * @param epochMinute The time, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @return The position of the first deadline at or after the time, or <code>getDeadlineCount</code> if none is
+     */
+    public int findFirstDeadline(long epochMinute) {
+        return findFirstEntry(deadlinesStart, deadlineCount, epochMinute);
+    }
+
+    /**
+     * Returns a deadline in the deadline index.
+     * 
+     * @param position The position in the deadline index
+     * @return The deadline, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     */
+    public long getDeadlineEpochMinute(int position) {
+        return index.getLong(deadlinesStart + position * DEADLINE_ENTRY_SIZE);
+    }
+
+    /**
+     * Returns the record of the <code>DeadlineTask</code> at a position in the deadline index.
+     * 
+     * @param position The position in the deadline index
+     * @return The record of the <code>DeadlineTask</code>
+     */
+    public int getDeadlineRecord(int position) {
+        return index.getInt(deadlinesStart + position * DEADLINE_ENTRY_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Returns the number of entries in the pending deadline index.
+     * 
+     * @return The number of entries in the pending deadline index
+     */
+    public int getPendingDeadlineCount() {
+        return pendingDeadlineCount;
+    }
+
+    /**
+     * Returns the position in the pending deadline index of the first deadline to become overdue at or after a given
+     * time.
+     * 
+     * @param epochMinute The time, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @return The position of the first deadline to become overdue at or after the time, or
+     *     <code>getPendingDeadlineCount</code> if none does
+     */
+    public int findFirstPendingDeadline(long epochMinute) {
+        return findFirstEntry(pendingDeadlinesStart, pendingDeadlineCount, epochMinute);
+    }
+
+    /**
+     * Returns when a deadline in the pending deadline index becomes overdue.
+     * 
+     * @param position The position in the pending deadline index
+     * @return The minute the deadline becomes overdue, as given by <code>DeadlineTask.getDueEpochMinute</code>
+     */
+    public long getPendingDeadlineDueEpochMinute(int position) {
+        return index.getLong(pendingDeadlinesStart + position * DEADLINE_ENTRY_SIZE);
+    }
+
+    /**
+     * Returns the record of the <code>DeadlineTask</code> at a position in the pending deadline index.
+     * 
+     * @param position The position in the pending deadline index
+     * @return The record of the <code>DeadlineTask</code>
+     */
+    public int getPendingDeadlineRecord(int position) {
+        return index.getInt(pendingDeadlinesStart + position * DEADLINE_ENTRY_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Adds every event overlapping a range of time to a list, as its start and record.
+     * 
+     * @param from The start of the range, in epoch minutes
+     * @param to The end of the range, which is not part of it
+     * @param events The list to add the start and record of each overlapping event to
+     */
+    public void findOverlappingEvents(long from, long to, List<long[]> events) {
+        findOverlappingEvents(0, eventCount, from, to, events);
+    }
+
+    /**
+     * Adds every event in a subtree of the event table overlapping a range of time to a list.
+     * 
+     * @param low The position of the first entry of the subtree
+     * @param high The position after the last entry of the subtree
+     * @param from The start of the range, in epoch minutes
+     * @param to The end of the range, which is not part of it
+     * @param events The list to add the start and record of each overlapping event to
+     */
+    private void findOverlappingEvents(int low, int high, long from, long to, List<long[]> events) {
+        if (low >= high) {
+            return;
+        }
+
+        int middle = (low + high) >>> 1;
+        int entry = eventsStart + middle * EVENT_ENTRY_SIZE;
+        if (index.getLong(entry + 2 * Long.BYTES) <= from) {
+            return;
+        }
+
+        findOverlappingEvents(low, middle, from, to, events);
+
+        //Every event after this one starts no earlier
+        long start = index.getLong(entry);
+        if (start < to) {
+            if (index.getLong(entry + Long.BYTES) > from) {
+                events.add(new long[] { start, index.getInt(entry + 3 * Long.BYTES) });
+            }
+
+            findOverlappingEvents(middle + 1, high, from, to, events);
+        }
+    }
+
+    /**
+     * Records in each event gathered for the event table the latest end in its subtree.
+     * 
+     * @param events The events, in order of their starts and then their records
+     * @param low The position of the first event of the subtree
+     * @param high The position after the last event of the subtree
+     * @return The latest end in the subtree, or <code>Long.MIN_VALUE</code> if it is empty
+     */
+    private static long setLatestEnds(List<EventEntry> events, int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+
+        int middle = (low + high) >>> 1;
+        EventEntry event = events.get(middle);
+        event.latestEnd = Math.max(event.end, Math.max(setLatestEnds(events, low, middle),
+                                                       setLatestEnds(events, middle + 1, high)));
+        return event.latestEnd;
+    }
+
+    /**
+     * Returns the position in a deadline table of the first entry at or after a given time.
+     * 
+     * @param tableStart The position in the index of the table
+     * @param entryCount The number of entries in the table
+     * @param epochMinute The time, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @return The position of the first entry at or after the time, or <code>entryCount</code> if none is
+     */
+    private int findFirstEntry(int tableStart, int entryCount, long epochMinute) {
+        int low = 0;
+        int high = entryCount;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getLong(tableStart + middle * DEADLINE_ENTRY_SIZE) < epochMinute) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the entry of a trigram in the trigram table.
+     * 
+     * @param trigram The trigram, packed by <code>DukeTrigramIndex</code>
+     * @return The position in the index of the entry, or <code>-1</code> if no record holds the trigram
+     */
+    private int findTrigram(long trigram) {
+        int low = 0;
+        int high = trigramCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * TRIGRAM_ENTRY_SIZE;
+            long middleTrigram = index.getLong(entry);
+
+            if (middleTrigram < trigram) {
+                low = middle + 1;
+            } else if (middleTrigram > trigram) {
+                high = middle - 1;
+            } else {
+                return entry;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the position in the index of the first record number of a trigram or token. Both kinds of entry end
+     * with the first and number of their record numbers.
+     * 
+     * @param entry The position in the index of the entry
+     * @param postingsStart The position in the index of the record numbers of its kind of entry
+     * @return The position of its first record number
+     */
+    private int getFirstPosting(int entry, int postingsStart) {
+        return postingsStart + index.getInt(entry + 2 * Integer.BYTES) * Integer.BYTES;
+    }
+
+    /**
+     * Returns the number of records holding a trigram or token.
+     * 
+     * @param entry The position in the index of the entry
+     * @return The number of its record numbers
+     */
+    private int getPostingCount(int entry) {
+        return index.getInt(entry + 3 * Integer.BYTES);
+    }
+
+    /**
+     * Returns whether ascending record numbers in the index hold a record.
+     * 
+     * @param firstPosting The position in the index of the first record number
+     * @param postingCount The number of record numbers
+     * @param record The record
+     * @return <code>true</code> if the record numbers hold the record
+     */
+    private boolean postingsContain(int firstPosting, int postingCount, int record) {
+        int low = 0;
+        int high = postingCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleRecord = index.getInt(firstPosting + middle * Integer.BYTES);
+
+            if (middleRecord < record) {
+                low = middle + 1;
+            } else if (middleRecord > record) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Compares UTF-8 encoded text in the index with a pattern, byte by unsigned byte.
+     * 
+     * @param start The position of the text in the index
+     * @param length The length of the text
+     * @param pattern The UTF-8 encoded pattern
+     * @return A negative number, zero or a positive number as the text is before, equal to or after the pattern
+     */
+    private int compareToHeap(int start, int length, byte[] pattern) {
+        for (int i = 0; i < length && i < pattern.length; i++) {
+            int comparison = Byte.toUnsignedInt(index.get(start + i)) - Byte.toUnsignedInt(pattern[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return length - pattern.length;
+    }
+
+
+    /**
+     * The records holding a single token, gathered while an index is built.
+     */
+    private static class PostingList {
+        final byte[] token;
+        int[] records = new int[1];
+        int count = 0;
+
+        /**
+         * Creates a new, empty <code>PostingList</code> for a token.
+         * 
+         * @param token The token
+         */
+        PostingList(String token) {
+            this.token = token.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Adds a record to the end of the list. Records must be added in ascending order.
+         * 
+         * @param record The record holding the token
+         */
+        void add(int record) {
+            if (count == records.length) {
+                records = Arrays.copyOf(records, count * 2);
+            }
+
+            records[count++] = record;
+        }
+    }
+
+    /**
+     * The time taken up by a single event, gathered while an index is built.
+     */
+    private static class EventEntry {
+        final long start;
+        final long end;
+        final int record;
+        long latestEnd;
+
+        /**
+         * Creates a new <code>EventEntry</code>.
+         * 
+         * @param start The start of the event, in epoch minutes
+         * @param end The end of the event, which is not part of it
+         * @param record The record of the <code>EventTask</code>
+         */
+        EventEntry(long start, long end, int record) {
+            this.start = start;
+            this.end = end;
+            this.record = record;
+        }
+    }
+
+    /**
+     * The deadline of a single record, gathered while an index is built.
+     */
+    private static class DeadlineEntry {
+        final long epochMinute;
+        final int record;
+
+        /**
+         * Creates a new <code>DeadlineEntry</code>.
+         * 
+         * @param epochMinute The deadline, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+         * @param record The record of the <code>DeadlineTask</code>
+         */
+        DeadlineEntry(long epochMinute, int record) {
+            this.epochMinute = epochMinute;
+            this.record = record;
+        }
+    }
+}
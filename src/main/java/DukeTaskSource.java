@@ -0,0 +1,26 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A file of <code>Tasks</code> from another planner, read one entry at a time, so that only the entry being read is
+ * ever held in memory however long the file is. Each entry is made into a <code>Task</code> directly, without going
+ * through the commands a user would type.
+ */
+public interface DukeTaskSource extends Closeable {
+    /**
+     * Reads the next entry of the file as a <code>Task</code>. An entry that cannot be made into a <code>Task</code>
+     * is skipped over, so that reading can carry on with the entry after it.
+     * 
+     * @return The <code>Task</code>, or <code>null</code> if there are no entries left
+     * @throws IOException If the file cannot be read
+     * @throws DukeException If the entry cannot be made into a <code>Task</code>
+     */
+    Task next() throws IOException, DukeException;
+
+    /**
+     * Returns the line of the file that the entry read last starts on.
+     * 
+     * @return The one-indexed line number
+     */
+    int getLineNumber();
+}
@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An inverted index from the tokens of <code>Task</code> descriptions to the rows of the <code>Tasks</code> holding
+ * them, kept up to date as <code>Tasks</code> are added and deleted. A token is a run of letters and digits, compared
+ * without regard to case, so "Read-Book" holds the tokens "read" and "book".
+ * 
+ * <p>Rows must be added in ascending order, as a <code>TaskList</code> gives them out, so that the rows of every
+ * token stay sorted and can be searched without sorting them first. A removed row is only cleared out of the rows of a
+ * token once half of them have been removed, so that removing a row does not shift every row after it each time.</p>
+ */
+public class DukeTokenIndex {
+    //The words of a search that join the tokens around them, rather than being searched for
+    public static final String QUERY_AND = "AND";
+    public static final String QUERY_OR = "OR";
+
+    private final HashMap<String, Postings> postings = new HashMap<>();
+
+    //Every row removed from the index, which may still be listed under some of its tokens
+    private final BitSet removedRows = new BitSet();
+
+    /**
+     * Adds the tokens of a <code>Task</code> to the index.
+     * 
+     * @param row The row of the <code>Task</code>, which must be after every row already in the index
+     * @param description The description of the <code>Task</code>
+     */
+    public void add(int row, String description) {
+        for (String token : getTokens(description)) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(row);
+        }
+    }
+
+    /**
+     * Removes the tokens of a deleted <code>Task</code> from the index.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @param description The description of the <code>Task</code>
+     */
+    public void remove(int row, String description) {
+        removedRows.set(row);
+
+        for (String token : getTokens(description)) {
+            Postings rows = postings.get(token);
+            if (rows == null) {
+                continue;
+            }
+
+            rows.removedCount++;
+            if (rows.removedCount * 2 > rows.count) {
+                rows.clearRemoved(removedRows);
+                if (rows.count == 0) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every row from the index.
+     */
+    public void clear() {
+        postings.clear();
+        removedRows.clear();
+    }
+
+    /**
+     * Returns the number of rows listed under a token, which may include some that have been removed.
+     * 
+     * @param token The normalised token
+     * @return The number of rows listed under the token
+     */
+    public int getRowCount(String token) {
+        Postings rows = postings.get(token);
+        return (rows == null) ? 0 : rows.count;
+    }
+
+    /**
+     * Returns one of the rows listed under a token, in ascending order of rows. The row may have been removed.
+     * 
+     * @param token The normalised token
+     * @param i The position of the row among those holding the token
+     * @return The row
+     */
+    public int getRow(String token, int i) {
+        return postings.get(token).rows[i];
+    }
+
+    /**
+     * Returns whether a row holds a token.
+     * 
+     * @param token The normalised token
+     * @param row The row
+     * @return <code>true</code> if the row holds the token
+     */
+    public boolean containsRow(String token, int row) {
+        Postings rows = postings.get(token);
+        return rows != null && !removedRows.get(row) && Arrays.binarySearch(rows.rows, 0, rows.count, row) >= 0;
+    }
+
+    /**
+     * Returns the tokens of a description, each only once.
+     * 
+     * @param description The description
+     * @return The normalised tokens, in the order they first appear
+     */
+    public static List<String> getTokens(String description) {
+        List<String> tokens = new ArrayList<>();
+        int tokenStart = -1;
+
+        for (int i = 0; i <= description.length(); ) {
+            int codePoint = (i == description.length()) ? ' ' : description.codePointAt(i);
+            boolean isTokenEnd = !Character.isLetterOrDigit(codePoint);
+
+            if (isTokenEnd && tokenStart >= 0) {
+                String token = description.substring(tokenStart, i).toLowerCase(Locale.ROOT);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                tokenStart = -1;
+            } else if (!isTokenEnd && tokenStart < 0) {
+                tokenStart = i;
+            }
+
+            i += Character.charCount(codePoint);
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Parses a search made of tokens joined by <code>QUERY_AND</code> and <code>QUERY_OR</code>. Tokens next to each
+     * other are joined as if by <code>QUERY_AND</code>, which binds more tightly than <code>QUERY_OR</code>, so the
+     * search is returned as a list of alternatives, each of which is a list of tokens that must all be held.
+     * 
+     * @param searchTerm The search
+     * @return The alternatives of the search
+     */
+    public static List<List<String>> parseQuery(String searchTerm) {
+        String[] words = searchTerm.trim().split("\\s+");
+        List<List<String>> alternatives = new ArrayList<>();
+        List<String> alternative = new ArrayList<>();
+
+        for (String word : words) {
+            if (word.equals(QUERY_OR)) {
+                if (!alternative.isEmpty()) {
+                    alternatives.add(alternative);
+                }
+                alternative = new ArrayList<>();
+            } else if (!word.equals(QUERY_AND)) {
+                for (String token : getTokens(word)) {
+                    if (!alternative.contains(token)) {
+                        alternative.add(token);
+                    }
+                }
+            }
+        }
+
+        if (!alternative.isEmpty()) {
+            alternatives.add(alternative);
+        }
+
+        return alternatives;
+    }
+
+    /**
+     * Returns whether a description matches a parsed search, without using any index.
+     * 
+     * @param description The description
+     * @param alternatives The search, as parsed by <code>parseQuery</code>
+     * @return <code>true</code> if the description holds every token of any alternative
+     */
+    public static boolean matchesQuery(String description, List<List<String>> alternatives) {
+        List<String> tokens = getTokens(description);
+
+        for (List<String> alternative : alternatives) {
+            if (tokens.containsAll(alternative)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The rows holding a single token, in ascending order.
+     */
+    private static class Postings {
+        int[] rows = new int[1];
+        int count = 0;
+
+        //The number of rows in the list that have been removed since it was last cleared out
+        int removedCount = 0;
+
+        /**
+         * Adds a row to the end of the list.
+         * 
+         * @param row The row, which must be after every row already in the list
+         */
+        void add(int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+
+            rows[count++] = row;
+        }
+
+        /**
+         * Clears every removed row out of the list.
+         * 
+         * @param removedRows The rows that have been removed
+         */
+        void clearRemoved(BitSet removedRows) {
+            int keptCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (!removedRows.get(rows[i])) {
+                    rows[keptCount++] = rows[i];
+                }
+            }
+
+            count = keptCount;
+            removedCount = 0;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An index from every trigram of <code>Task</code> descriptions, which is every run of three characters in them, to
+ * the rows of the <code>Tasks</code> holding it. A description can only contain a search term of three or more
+ * characters if it holds every trigram of the search term, so the index narrows a search down to a few candidates,
+ * which are then checked with <code>Task.descriptionContainsTerm</code> as before.
+ * 
+ * <p>Each trigram is packed into a <code>long</code>, and the rows of each trigram are kept in a plain
+ * <code>int[]</code>, in an open addressing hash table, so no boxed keys or rows are ever made. Rows must be added
+ * in ascending order, as a <code>TaskList</code> gives them out, so that the rows of every trigram stay sorted. As in
+ * a <code>DukeTokenIndex</code>, a removed row is only cleared out of the rows of a trigram once half of them have
+ * been removed.</p>
+ */
+public class DukeTrigramIndex {
+    public static final int TRIGRAM_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    //Set on every packed trigram, so that an empty slot of the table can be told apart
+    private static final long TRIGRAM_MARKER = 1L << 48;
+
+    private long[] trigrams = new long[INITIAL_CAPACITY];
+    private int[][] rows = new int[INITIAL_CAPACITY][];
+    private int[] rowCounts = new int[INITIAL_CAPACITY];
+    private int[] removedCounts = new int[INITIAL_CAPACITY];
+    private int usedSlots = 0;
+
+    //Every row removed from the index, which may still be listed under some of its trigrams
+    private BitSet removedRows = new BitSet();
+
+    /**
+     * Adds the trigrams of a <code>Task</code> to the index.
+     * 
+     * @param row The row of the <code>Task</code>, which must be after every row already in the index
+     * @param description The description of the <code>Task</code>
+     */
+    public void add(int row, String description) {
+        for (long trigram : getTrigrams(description)) {
+            int slot = findSlot(trigram);
+            if (trigrams[slot] == 0) {
+                trigrams[slot] = trigram;
+                rows[slot] = new int[1];
+                usedSlots++;
+            }
+
+            if (rowCounts[slot] == rows[slot].length) {
+                rows[slot] = Arrays.copyOf(rows[slot], rowCounts[slot] * 2);
+            }
+
+            rows[slot][rowCounts[slot]++] = row;
+
+            if (usedSlots * 2 > trigrams.length) {
+                resize();
+            }
+        }
+    }
+
+    /**
+     * Removes the trigrams of a deleted <code>Task</code> from the index.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @param description The description of the <code>Task</code>
+     */
+    public void remove(int row, String description) {
+        removedRows.set(row);
+
+        for (long trigram : getTrigrams(description)) {
+            int slot = findSlot(trigram);
+            if (trigrams[slot] == 0) {
+                continue;
+            }
+
+            //An emptied slot keeps its trigram, so that the trigrams after it can still be found
+            removedCounts[slot]++;
+            if (removedCounts[slot] * 2 > rowCounts[slot]) {
+                clearRemoved(slot);
+            }
+        }
+    }
+
+    /**
+     * Removes every row from the index.
+     */
+    public void clear() {
+        trigrams = new long[INITIAL_CAPACITY];
+        rows = new int[INITIAL_CAPACITY][];
+        rowCounts = new int[INITIAL_CAPACITY];
+        removedCounts = new int[INITIAL_CAPACITY];
+        usedSlots = 0;
+        removedRows = new BitSet();
+    }
+
+    /**
+     * Returns every trigram listing a row, in ascending order.
+     * 
+     * @return The packed trigrams
+     */
+    public long[] getTrigrams() {
+        long[] heldTrigrams = new long[usedSlots];
+        int count = 0;
+
+        for (int slot = 0; slot < trigrams.length; slot++) {
+            if (trigrams[slot] != 0 && rowCounts[slot] > 0) {
+                heldTrigrams[count++] = trigrams[slot];
+            }
+        }
+
+        heldTrigrams = Arrays.copyOf(heldTrigrams, count);
+        Arrays.sort(heldTrigrams);
+        return heldTrigrams;
+    }
+
+    /**
+     * Returns the number of rows listed under a trigram, which may include some that have been removed.
+     * 
+     * @param trigram The packed trigram
+     * @return The number of rows listed under the trigram
+     */
+    public int getRowCount(long trigram) {
+        int slot = findSlot(trigram);
+        return (trigrams[slot] == 0) ? 0 : rowCounts[slot];
+    }
+
+    /**
+     * Returns one of the rows listed under a trigram, in ascending order of rows. The row may have been removed.
+     * 
+     * @param trigram The packed trigram
+     * @param i The position of the row among those holding the trigram
+     * @return The row
+     */
+    public int getRow(long trigram, int i) {
+        return rows[findSlot(trigram)][i];
+    }
+
+    /**
+     * Returns the rows whose descriptions could contain a search term, judging by the trigrams they hold. Every row
+     * that does contain the search term is among them, but a row may also be among them without containing it.
+     * 
+     * @param searchTerm The term to be searched for
+     * @return The rows that could contain the search term, or <code>null</code> if it is too short to have a trigram
+     */
+    public BitSet getCandidates(String searchTerm) {
+        long[] searchTrigrams = getTrigrams(searchTerm);
+        if (searchTrigrams.length == 0) {
+            return null;
+        }
+
+        int[] slots = new int[searchTrigrams.length];
+        int rarest = 0;
+        for (int i = 0; i < searchTrigrams.length; i++) {
+            slots[i] = findSlot(searchTrigrams[i]);
+            if (trigrams[slots[i]] == 0) {
+                return new BitSet();
+            }
+
+            if (rowCounts[slots[i]] < rowCounts[slots[rarest]]) {
+                rarest = i;
+            }
+        }
+
+        BitSet candidates = new BitSet();
+        for (int i = 0; i < rowCounts[slots[rarest]]; i++) {
+            int row = rows[slots[rarest]][i];
+            boolean isCandidate = !removedRows.get(row);
+
+            for (int j = 0; j < slots.length && isCandidate; j++) {
+                isCandidate = Arrays.binarySearch(rows[slots[j]], 0, rowCounts[slots[j]], row) >= 0;
+            }
+
+            if (isCandidate) {
+                candidates.set(row);
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Returns the distinct trigrams of a piece of text.
+     * 
+     * @param text The text
+     * @return The packed trigrams, in ascending order, or none if the text is too short to have a trigram
+     */
+    public static long[] getTrigrams(String text) {
+        if (text.length() < TRIGRAM_LENGTH) {
+            return new long[0];
+        }
+
+        long[] textTrigrams = new long[text.length() - TRIGRAM_LENGTH + 1];
+        for (int i = 0; i < textTrigrams.length; i++) {
+            textTrigrams[i] = TRIGRAM_MARKER | ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16)
+                              | text.charAt(i + 2);
+        }
+
+        Arrays.sort(textTrigrams);
+
+        int count = 0;
+        for (int i = 0; i < textTrigrams.length; i++) {
+            if (count == 0 || textTrigrams[i] != textTrigrams[count - 1]) {
+                textTrigrams[count++] = textTrigrams[i];
+            }
+        }
+
+        return Arrays.copyOf(textTrigrams, count);
+    }
+
+    /**
+     * Returns the slot of the table holding a trigram, or the empty slot it would be put in.
+     * 
+     * @param trigram The packed trigram
+     * @return The slot
+     */
+    private int findSlot(long trigram) {
+        int mask = trigrams.length - 1;
+        int slot = Long.hashCode(trigram * 0x9E3779B97F4A7C15L) & mask;
+
+        while (trigrams[slot] != 0 && trigrams[slot] != trigram) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Clears every removed row out of the rows of a trigram.
+     * 
+     * @param slot The slot of the trigram
+     */
+    private void clearRemoved(int slot) {
+        int keptCount = 0;
+        for (int i = 0; i < rowCounts[slot]; i++) {
+            if (!removedRows.get(rows[slot][i])) {
+                rows[slot][keptCount++] = rows[slot][i];
+            }
+        }
+
+        rowCounts[slot] = keptCount;
+        removedCounts[slot] = 0;
+    }
+
+    /**
+     * Doubles the size of the table, leaving out the trigrams no row holds any more.
+     */
+    private void resize() {
+        long[] oldTrigrams = trigrams;
+        int[][] oldRows = rows;
+        int[] oldRowCounts = rowCounts;
+        int[] oldRemovedCounts = removedCounts;
+
+        trigrams = new long[oldTrigrams.length * 2];
+        rows = new int[trigrams.length][];
+        rowCounts = new int[trigrams.length];
+        removedCounts = new int[trigrams.length];
+        usedSlots = 0;
+
+        for (int slot = 0; slot < oldTrigrams.length; slot++) {
+            if (oldTrigrams[slot] != 0 && oldRowCounts[slot] > 0) {
+                int newSlot = findSlot(oldTrigrams[slot]);
+                trigrams[newSlot] = oldTrigrams[slot];
+                rows[newSlot] = oldRows[slot];
+                rowCounts[newSlot] = oldRowCounts[slot];
+                removedCounts[newSlot] = oldRemovedCounts[slot];
+                usedSlots++;
+            }
+        }
+    }
+}
@@ -19,9 +19,24 @@ public class DukeUi {
     public static final String FEEDBACK_TASK_DONE
         = "Good job! I've marked this task as done:\n  %s";
 
+    public static final String FEEDBACK_TASK_UNDONE
+        = "No worries! I've marked this task as not done yet:\n  %s";
+
     public static final String FEEDBACK_TASK_DELETE
         = "No problem! I've deleted the task:\n %s\nYou've got %d task(s) on your list.";
 
+    public static final String FEEDBACK_TASKS_DONE
+        = "Good job! I've marked these %d tasks as done:\n%s";
+
+    public static final String FEEDBACK_TASKS_UNDONE
+        = "No worries! I've marked these %d tasks as not done yet:\n%s";
+
+    public static final String FEEDBACK_TASKS_DELETE
+        = "No problem! I've deleted these %d tasks:\n%s\nYou've got %d task(s) on your list.";
+
+    public static final String FEEDBACK_CHANGED_MORE
+        = "...and %d more.";
+
     public static final String FEEDBACK_NUKE
         = "Boom! I've deleted all of your tasks!";
 
@@ -31,6 +46,36 @@ public class DukeUi {
     public static final String FEEDBACK_FIND_NOTHING
         = "It's absolutely nothing!";
 
+    public static final String FEEDBACK_AGENDA
+        = "Here's what's happening at %s:\n%s";
+
+    public static final String FEEDBACK_AGENDA_NOTHING
+        = "Your schedule's clear at %s! Time to relax~";
+
+    public static final String FEEDBACK_EVENT_CLASH
+        = "\nHeads up! It clashes with:\n%s";
+
+    public static final String FEEDBACK_UPCOMING
+        = "Here's what's due next:\n%s";
+
+    public static final String FEEDBACK_UPCOMING_NOTHING
+        = "Nothing's due! Not even homework!";
+
+    public static final String FEEDBACK_OVERDUE
+        = "Uh oh... These are overdue:\n%s";
+
+    public static final String FEEDBACK_OVERDUE_NOTHING
+        = "Nothing's overdue! You're on top of things~";
+
+    public static final String FEEDBACK_PAGE
+        = "(Page %d of %d, showing %d to %d of %d.)";
+
+    public static final String FEEDBACK_PAGE_MORE
+        = "\nType 'more' to see the next page!";
+
+    public static final String FEEDBACK_NO_MORE
+        = "That's everything! There's nothing more to show.";
+
     //User Feedback - Note Messages
     public static final String FEEDBACK_NOTE_ADDED
         = "Gotcha! I've added a new note:\n %s\nYou've got %d note(s) on your list.";
@@ -41,8 +86,46 @@ public class DukeUi {
     public static final String FEEDBACK_NOTE_DELETE
         = "No problem! I've deleted the note:\n %s\nYou've got %d note(s) on your list.";
 
+    public static final String FEEDBACK_NOTES_DELETE
+        = "No problem! I've deleted these %d notes:\n%s\nYou've got %d note(s) on your list.";
+
     public static final String FEEDBACK_NUKE_NOTE
         = "Boom! I've deleted all your notes!";
+
+    //User Feedback - Script Messages
+    public static final String FEEDBACK_SCRIPT
+        = "All done! I ran %d line(s) from %s in %d ms, at %d lines per second,\nand saved everything %d time(s).";
+
+    public static final String FEEDBACK_SCRIPT_BYE
+        = "\n(I stopped at the 'bye' on line %d.)";
+
+    public static final String FEEDBACK_SCRIPT_STOPPED
+        = "\n(I stopped after line %d, since you said bye.)";
+
+    public static final String FEEDBACK_SCRIPT_STARTED
+        = "On it! I'm running %s in the background, and I'll tell you once it's done.";
+
+    public static final String FEEDBACK_SCRIPT_ERRORS
+        = "\n%d line(s) didn't work out:\n%s";
+
+    public static final String FEEDBACK_SCRIPT_ERROR_LINE
+        = "Line %d: %s\n";
+
+    public static final String FEEDBACK_SCRIPT_MORE_ERRORS
+        = "...and %d more.";
+
+    //User Feedback - Import Messages
+    public static final String FEEDBACK_IMPORT
+        = "Moving in! I've imported %d task(s) from %s in %d ms.\nYou've got %d task(s) on your list.";
+
+    public static final String FEEDBACK_IMPORT_ERRORS
+        = "\nI skipped %d entry(s) that didn't work out:\n%s";
+
+    public static final String FEEDBACK_IMPORT_ERROR_LINE
+        = "Line %d: %s\n";
+
+    public static final String FEEDBACK_IMPORT_STOPPED
+        = "\nI couldn't read past line %d, though: %s";
     
     //Error Messages
     public static final String ERROR_UNDECIPHERABLE_MESSAGE
@@ -62,6 +145,12 @@ public class DukeUi {
     
     public static final String ERROR_LIST_INDEX_BIG
         = "Oh! The fabled '%d' on the list!\n(It's fabled so it doesn't exist)...";
+
+    public static final String ERROR_BACKWARDS_RANGE
+        = "'%s' goes backwards! Ranges go from small to big, like 3-90.";
+
+    public static final String ERROR_PAGE_BIG
+        = "Page %d? Your list only fills %d page(s)!";
     
     public static final String ERROR_DAY_ZERO
         = "When I enter the mirror time dimension,\nI also count days starting from zero.";
@@ -80,4 +169,31 @@ public class DukeUi {
     
     public static final String ERROR_NO_DESCRIPTION
         = "Keep your secrets. I'll keep my list clean.";
+
+    public static final String ERROR_SCRIPT_MISSING
+        = "I looked everywhere, but there's no script at '%s'!";
+
+    public static final String ERROR_IMPORT_MISSING
+        = "I looked everywhere, but there's no file at '%s'!";
+
+    public static final String ERROR_IMPORT_UNREADABLE
+        = "I couldn't read '%s': %s";
+
+    public static final String ERROR_IMPORT_NO_DESCRIPTION
+        = "Which column of '%s' says what the tasks are? I need one called 'description'.";
+
+    public static final String ERROR_IMPORT_BAD_TYPE
+        = "'%s'? I only know todos, deadlines and events.";
+
+    public static final String ERROR_IMPORT_BAD_DATE
+        = "'%s' doesn't look like any date I know.";
+
+    public static final String ERROR_SCRIPT_NESTED
+        = "A script running a script? That's a bit too much inception for me.";
+
+    public static final String ERROR_SCRIPT_RUNNING
+        = "Hold on, I'm still running a script! Say bye if you want me to stop it.";
+
+    public static final String ERROR_SCRIPT_FAILED
+        = "I couldn't finish running '%s': %s";
 }
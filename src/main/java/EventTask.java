@@ -52,6 +52,15 @@ public class EventTask extends Task {
         return new EventTask(description, eventDuration, false);
     }
 
+    /**
+     * Returns the duration over which the event will take place.
+     * 
+     * @return The duration over which the event will take place
+     */
+    public DukeDuration getEventDuration() {
+        return eventDuration;
+    }
+
     /**
      * Returns the <code>String</code> representation of this <code>Task</code>.
      * 
@@ -60,9 +69,9 @@ public class EventTask extends Task {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format(TO_STRING_FORMAT, 'E', this.getStatusIcon(), this.description));
-        sb.append(String.format(" (at %s)", eventDuration.toString()));
-        return sb.toString();
+        StringBuilder sb = startToString('E');
+        sb.append(" (at ");
+        eventDuration.appendTo(sb);
+        return sb.append(')').toString();
     }
 }
@@ -1,8 +1,12 @@
 /**
  * A buffer where details about what the next image of Duke to be displayed should be.
+ * 
+ * <p>Each thread has a buffer of its own, so that a script running in the background never changes the image shown
+ * for the user's own commands.</p>
  */
 public class GlobalDukeImageChoiceBuffer {
-    private static DukeImageChoice dukeImageChoice = DukeImageChoice.Neutral;
+    private static final ThreadLocal<DukeImageChoice> dukeImageChoice
+        = ThreadLocal.withInitial(() -> DukeImageChoice.Neutral);
 
     /**
      * Returns the next image of Duke to be displayed.
@@ -10,7 +14,7 @@ public class GlobalDukeImageChoiceBuffer {
      * @return The next image of Duke to be displayed.
      */
     public static DukeImageChoice getDukeImageChoice() {
-        return dukeImageChoice;
+        return dukeImageChoice.get();
     }
 
     /**
@@ -19,6 +23,6 @@ public class GlobalDukeImageChoiceBuffer {
      * @param nextImageToBeDisplayed The next image of Duke to be displayed.
      */
     public static void setDukeImageChoice(DukeImageChoice nextImageToBeDisplayed) {
-        dukeImageChoice = nextImageToBeDisplayed;
+        dukeImageChoice.set(nextImageToBeDisplayed);
     }
 }
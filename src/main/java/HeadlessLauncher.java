@@ -0,0 +1,55 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Runs a script through Duke without the GUI, printing Duke's reply to each line and then its summary of the
+ * script, and saving in the working directory as the GUI does. Exits with status 1 if any line of the script failed.
+ * 
+ * <p>Usage: <code>HeadlessLauncher &lt;script&gt; [checkpointLines]</code>, where a script of <code>-</code> is read
+ * from standard input, and <code>checkpointLines</code> is the number of lines run between saves.</p>
+ */
+public class HeadlessLauncher {
+    private static final String USAGE = "Usage: HeadlessLauncher <script> [checkpointLines]";
+    private static final String STANDARD_INPUT = "-";
+
+    /**
+     * The main method, called when a script is run without the GUI.
+     * 
+     * @param args The path of the script, or <code>-</code>, and optionally the number of lines run between saves
+     * @throws IOException If the script cannot be read, or Duke's data cannot be loaded or saved
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length > 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        if (args.length == 2) {
+            System.setProperty(DukeScriptRunner.CHECKPOINT_LINES_PROPERTY, args[1]);
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out,
+                                                                                    StandardCharsets.UTF_8)));
+        Duke duke = new Duke();
+        DukeScriptRunner scriptRunner;
+
+        try (BufferedReader script = STANDARD_INPUT.equals(args[0])
+                                     ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                                     : Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            scriptRunner = duke.runScript(script, (reply, lineNumber) -> out.println(lineNumber + ": " + reply));
+        } finally {
+            duke.close();
+        }
+
+        out.println(scriptRunner.getSummary(args[0]));
+        out.flush();
+        System.exit((scriptRunner.getErrorCount() == 0) ? 0 : 1);
+    }
+}
@@ -2,6 +2,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
@@ -62,13 +63,20 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Sets the reference to Duke.
+     * Sets the reference to Duke, and has Duke greet the user at once. Duke's saved data is still loading in the
+     * background, and the first command that needs it waits for it. Scripts are run in the background, and their
+     * summaries are shown once they finish.
      * 
      * @param d The instance of Duke whose reference is to be passed to the MainWindow
      */
     public void setDuke(Duke d) {
         duke = d;
 
+        //The summary arrives on the script's thread, and is shown on the JavaFX application thread
+        duke.setScriptListener((summary, imageChoice) -> Platform.runLater(() ->
+            dialogContainer.getChildren().add(DialogBox.getDukeDialog(summary, chooseDukeImage(imageChoice)))
+        ));
+
         //Makes Duke say hi
         String dukeGreetingMessage = duke.sayHi();
         dialogContainer.getChildren().add(
@@ -90,7 +98,7 @@ public class MainWindow extends AnchorPane {
         String input = userInput.getText();
         String response = duke.getResponse(input);
 
-        Image dukeImageInstance = chooseDukeImage();
+        Image dukeImageInstance = chooseDukeImage(GlobalDukeImageChoiceBuffer.getDukeImageChoice());
 
         dialogContainer.getChildren().addAll(
             DialogBox.getUserDialog(input, userImage),
@@ -128,10 +136,11 @@ public class MainWindow extends AnchorPane {
     /**
      * Returns the image of Duke to be displayed.
      * 
+     * @param dukeImageChoice The choice of image, as set in the <code>GlobalDukeImageChoiceBuffer</code>
      * @return The image of Duke to be displayed.
      */
-    private Image chooseDukeImage() {
-        switch (GlobalDukeImageChoiceBuffer.getDukeImageChoice()) {
+    private Image chooseDukeImage(DukeImageChoice dukeImageChoice) {
+        switch (dukeImageChoice) {
         case Neutral:
             return dukeNeutral;
             //Fallthrough
@@ -1,13 +1,47 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * A class representing a list of <code>Notes</code>.
+ * 
+ * <p>As in a <code>TaskList</code>, each note is given a row, and the order of the list is kept by a
+ * <code>DukePositionIndex</code> of the row at each position, so that deleting a note takes O(log n) time rather than
+ * shifting every note after it. Each row holds the handle of its note in a <code>DukeStringPool</code>, so that notes
+ * with the same text share one copy of it.</p>
  */
-public class NoteList implements Serializable {
+public class NoteList implements Serializable, Iterable<String> {
     private static final long serialVersionUID = 142752L;
 
-    private ArrayList<String> notes = new ArrayList<>();
+    //Serialized as older versions of Duke did, so that their save files can still be imported
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("notes", ArrayList.class),
+        new ObjectStreamField("generation", long.class)
+    };
+
+    private static final int INITIAL_CAPACITY = 10;
+
+    //The handle of the note in each row still in the list
+    private transient int[] rows = new int[INITIAL_CAPACITY];
+
+    //The text of every note, each distinct one held once
+    private transient DukeStringPool pool = new DukeStringPool();
+
+    //The row of the note at each position of the list
+    private transient DukePositionIndex order = new DukePositionIndex();
+
+    //The number of changes ever made to this list, used to tell which journal entries a snapshot already contains
+    private long generation = 0;
+
+    //Changes made since the last call to drainChanges, waiting to be written to the journal
+    private transient ArrayList<DukeJournalEntry> pendingChanges;
     
     /**
      * Adds a note to the <code>NoteList</code>.
@@ -15,7 +49,12 @@ public class NoteList implements Serializable {
      * @param note The note to be added to this <code>NoteList</code>
      */
     public void add(String note) {
-        notes.add(note);
+        if (order.getRowCount() >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(rows.length * 2, INITIAL_CAPACITY));
+        }
+
+        rows[order.addRow()] = pool.acquire(note);
+        recordChange(DukeJournalEntry.noteAdded(++generation, note));
     }
 
     /**
@@ -30,16 +69,48 @@ public class NoteList implements Serializable {
 
         checkIndexExists(realIndex);
 
-        String deletedNote = notes.get(realIndex);
-        notes.remove(realIndex);
+        int deletedRow = order.getRow(realIndex);
+        String deletedNote = pool.getString(rows[deletedRow]);
+        pool.release(rows[deletedRow]);
+        order.removeRow(deletedRow);
+        recordChange(DukeJournalEntry.noteDeleted(++generation, index));
         return deletedNote;
     }
 
+    /**
+     * Deletes the notes at several indexes at once, as the indexes were before any of them is deleted. As in
+     * <code>TaskList.deleteAt</code>, every row is found before the order of the list is updated in a single pass.
+     * 
+     * @param indexes The indexes of the notes, in ascending order without repeats
+     * @throws DukeException If any of the indexes does not exist in the list, in which case nothing is deleted
+     */
+    public void deleteAt(int[] indexes) throws DukeException {
+        if (indexes.length > 0) {
+            checkIndexExists(indexes[0] - 1);
+            checkIndexExists(indexes[indexes.length - 1] - 1);
+        }
+
+        int[] deletedRows = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            deletedRows[i] = (i > 0 && indexes[i] == indexes[i - 1] + 1) ? order.getNextRow(deletedRows[i - 1] + 1)
+                                                                         : order.getRow(indexes[i] - 1);
+            pool.release(rows[deletedRows[i]]);
+
+            //Each index is recorded as it stands once the notes before it are deleted
+            recordChange(DukeJournalEntry.noteDeleted(++generation, indexes[i] - i));
+        }
+
+        order.removeRows(deletedRows);
+    }
+
     /**
      * Deletes all the elements in this list, leaving it empty.
      */
     public void deleteAllNotes() {
-        notes = new ArrayList<String>();
+        rows = new int[INITIAL_CAPACITY];
+        pool.clear();
+        order.clear();
+        recordChange(DukeJournalEntry.notesCleared(++generation));
     }
 
     /**
@@ -48,7 +119,7 @@ public class NoteList implements Serializable {
      * @return <code>true</code> if the list is empty and <code>false</code> otherwise
      */
     public boolean isEmpty() {
-        return notes.isEmpty();
+        return order.size() == 0;
     }
 
     /**
@@ -57,7 +128,38 @@ public class NoteList implements Serializable {
      * @return The number of elements in the list
      */
     public int size() {
-        return notes.size();
+        return order.size();
+    }
+
+    /**
+     * Returns the generation of this list, which is the number of changes that have been made to it.
+     * 
+     * @return The generation of this list
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sets the generation of this list. Should only be used when restoring a list from saved data, after which the
+     * changes made while restoring it are forgotten.
+     * 
+     * @param generation The generation of the saved list
+     */
+    public void restoreGeneration(long generation) {
+        this.generation = generation;
+        pendingChanges = null;
+    }
+
+    /**
+     * Returns the changes made to this list since the last call to this method, and forgets them.
+     * 
+     * @return The changes made to this list, in the order they were made
+     */
+    public List<DukeJournalEntry> drainChanges() {
+        List<DukeJournalEntry> changes = (pendingChanges == null) ? new ArrayList<>() : pendingChanges;
+        pendingChanges = null;
+        return changes;
     }
 
     /**
@@ -68,14 +170,130 @@ public class NoteList implements Serializable {
      */
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        int iterator = 1;
+        appendPage(sb, 0, order.size());
+        return sb.toString();
+    }
+
+    /**
+     * Appends to a <code>StringBuilder</code> one line of "X.Note" for each note on a page of this list. The row of
+     * the first note is found in O(log n) time, and only the notes on the page are read, however long the list is.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param from The zero-indexed position of the first note on the page
+     * @param count The most notes to append
+     */
+    public void appendPage(StringBuilder sb, int from, int count) {
+        int end = Math.min(from + count, order.size());
+        int row = (from < end) ? order.getRow(from) : -1;
 
-        for (String n : notes) {
-            //For each note n, print out one line of "X.[<Status>] Description"
-            sb.append(String.format("%d.%s\n", iterator++, n.toString()));
+        for (int position = from; position < end; position++, row = order.getNextRow(row + 1)) {
+            sb.append(position + 1).append('.').append(pool.getString(rows[row])).append('\n');
         }
+    }
 
-        return sb.toString();
+    /**
+     * Appends to a <code>StringBuilder</code> one line of "X.Note" for each note at some positions, in the order
+     * given.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param positions The one-indexed positions of the notes, which must all exist
+     * @param from The first of the positions to append
+     * @param count The most notes to append
+     */
+    public void appendPositions(StringBuilder sb, int[] positions, int from, int count) {
+        for (int i = from; i < Math.min(from + count, positions.length); i++) {
+            int row = order.getRow(positions[i] - 1);
+            sb.append(positions[i]).append('.').append(pool.getString(rows[row])).append('\n');
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements of this list, in order. The iterator cannot be used to remove elements.
+     * 
+     * @return An iterator over the elements of this list
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int nextRow = order.getNextRow(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextRow >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int row = nextRow;
+                nextRow = order.getNextRow(row + 1);
+                return pool.getString(rows[row]);
+            }
+        };
+    }
+
+    /**
+     * Remembers a change made to this list until it is drained. A change to the range of elements next to the one
+     * changed last is merged into the same entry.
+     * 
+     * @param change The change made to this list
+     */
+    private void recordChange(DukeJournalEntry change) {
+        if (pendingChanges == null) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        int lastIndex = pendingChanges.size() - 1;
+        DukeJournalEntry mergedChange = (lastIndex < 0) ? null : pendingChanges.get(lastIndex).mergeWith(change);
+
+        if (mergedChange != null) {
+            pendingChanges.set(lastIndex, mergedChange);
+        } else {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * Saves this list in the same form as older versions of Duke did.
+     * 
+     * @param out The stream to save to
+     * @throws IOException When an IOException occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ArrayList<String> notes = new ArrayList<>(size());
+        for (String note : this) {
+            notes.add(note);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("notes", notes);
+        fields.put("generation", generation);
+        out.writeFields();
+    }
+
+    /**
+     * Restores a list saved through Java serialization, including those saved by older versions of Duke.
+     * 
+     * @param in The stream to restore from
+     * @throws IOException When an IOException occurs
+     * @throws ClassNotFoundException When a saved class cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        ArrayList<String> notes = (ArrayList<String>) fields.get("notes", null);
+
+        generation = fields.get("generation", 0L);
+        pool = new DukeStringPool();
+        order = new DukePositionIndex((notes == null) ? 0 : notes.size());
+        rows = new int[Math.max(order.getRowCount(), INITIAL_CAPACITY)];
+
+        for (int row = 0; row < order.getRowCount(); row++) {
+            rows[row] = pool.acquire(notes.get(row));
+        }
     }
 
     /**
@@ -89,7 +307,7 @@ public class NoteList implements Serializable {
             throw new DukeException(DukeUi.ERROR_LIST_INDEX_SMALL);
         }
 
-        if (realIndex >= notes.size()) {
+        if (realIndex >= order.size()) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
             throw new DukeException(String.format(DukeUi.ERROR_LIST_INDEX_BIG, realIndex + 1));
         }
@@ -14,8 +14,6 @@ public abstract class Task implements Serializable {
     protected static final char UNICODE_TICK = 'O';
     protected static final char UNICODE_CROSS = 'X';
 
-    protected static final String TO_STRING_FORMAT = "[%c][%c] %s";
-
     protected String description;
     protected boolean isDone;
 
@@ -33,6 +31,24 @@ public abstract class Task implements Serializable {
      */
     public abstract Task getTaskMarkedUndone();
 
+    /**
+     * Returns the description of this <code>Task</code>.
+     * 
+     * @return The description of this <code>Task</code>
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns whether this <code>Task</code> has been completed.
+     * 
+     * @return <code>true</code> if this <code>Task</code> is done and <code>false</code> otherwise
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Returns the unicode icon for whether the <code>Task</code> is done.
      * 
@@ -42,6 +58,20 @@ public abstract class Task implements Serializable {
         return isDone ? UNICODE_TICK : UNICODE_CROSS;
     }
 
+    /**
+     * Starts the <code>String</code> representation of this <code>Task</code>, as "[<Type>][<Status>] Description".
+     * Appended piece by piece rather than through <code>String.format</code>, which would parse a format string for
+     * every <code>Task</code> shown.
+     * 
+     * @param typeIcon The icon for the type of this <code>Task</code>
+     * @return A <code>StringBuilder</code> holding the start of the representation, to which more can be appended
+     */
+    protected StringBuilder startToString(char typeIcon) {
+        StringBuilder sb = new StringBuilder(description.length() + 48);
+        sb.append('[').append(typeIcon).append("][").append(getStatusIcon()).append("] ").append(description);
+        return sb;
+    }
+
     /**
      * Returns whether the description contains the <code>searchTerm</code>.
      * 
@@ -1,13 +1,105 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
- * A class representing a list of <code>Tasks</code>.
+ * A class representing a list of <code>Tasks</code>, which are read from its paged file only as they are needed.
  */
-public class TaskList implements Serializable {
+public class TaskList implements Serializable, Iterable<Task> {
     private static final long serialVersionUID = 163417L;
-    
-    private ArrayList<Task> tasks = new ArrayList<>();
+
+    //Serialized as older versions of Duke did, so that their save files can still be imported
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("tasks", ArrayList.class),
+        new ObjectStreamField("generation", long.class)
+    };
+
+    //The number of saved rows decoded together by prewarmNextChunk into one DukeTaskColumns
+    private static final int DECODED_CHUNK_SIZE = 4096;
+
+    //The number of rows whose lines are kept by renderedLines, and the longest page whose text is kept whole
+    private static final int RENDER_CACHE_SIZE = 4096;
+    private static final int MAX_RENDERED_PAGE_LENGTH = 1 << 23;
+
+    //The Task in each row that has been added, changed or read from the paged file, but not in rows that have been
+    //deleted or are still as they were saved
+    private transient DukeTaskColumns rows = new DukeTaskColumns();
+
+    //The row of the Task at each position of the list, which only ever increases along the list since rows are given
+    //out in order and Tasks are only added at the end
+    private transient DukePositionIndex order = new DukePositionIndex();
+
+    //The saved snapshot that the Tasks in the rows below its size are read from, or null if there is none
+    private transient DukeTaskFile pagedFile;
+
+    //The Tasks decoded ahead of time from the paged file and its index, or null if there is no paged file
+    private transient volatile SavedRows savedRows;
+
+    //The tokens, trigrams and event times of the Tasks in every row after those saved in the paged file
+    private transient DukeTokenIndex addedTokens = new DukeTokenIndex();
+    private transient DukeTrigramIndex addedTrigrams = new DukeTrigramIndex();
+    private transient DukeIntervalTree addedEvents = new DukeIntervalTree();
+
+    //The dated deadlines not done yet in every row after those saved in the paged file, and in saved rows that were
+    //done when saved, each kept as the single minute it becomes overdue
+    private transient DukeIntervalTree addedPendingDeadlines = new DukeIntervalTree();
+
+    //The saved rows that have been marked as done or not done since, and so are not as done as they were saved
+    private transient BitSet savedDoneChanges = new BitSet();
+
+    //The number of changes ever made to this list, used to tell which journal entries a snapshot already contains
+    private long generation = 0;
+
+    //The number of changes made to this list since it was created or read, which keys renderedPage
+    private transient long modificationCount = 0;
+
+    //The lines last shown for some rows, each without its position, dropped when the Task in the row changes
+    private transient DukeRenderCache renderedLines = new DukeRenderCache(RENDER_CACHE_SIZE);
+
+    //The text of the page last appended by appendPage, which is still the text of that page until the list changes
+    private transient String renderedPage;
+    private transient int renderedPageFrom;
+    private transient int renderedPageCount;
+    private transient long renderedPageModificationCount = -1;
+
+    //Changes made since the last call to drainChanges, waiting to be written to the journal
+    private transient ArrayList<DukeJournalEntry> pendingChanges;
+
+    //The range of neighbouring deletions or status changes made last, which is kept apart from pendingChanges until a
+    //different change is made, so that growing it allocates nothing. Its type is that of its first change, or null
+    //if there is no such range
+    private transient DukeJournalEntryType openRangeType;
+    private transient int openRangeIndex;
+    private transient int openRangeCount;
+    private transient long openRangeGeneration;
+
+    /**
+     * Creates a new, empty <code>TaskList</code>.
+     */
+    public TaskList() {
+    }
+
+    /**
+     * Creates a new <code>TaskList</code> holding the <code>Tasks</code> saved in a paged file. The
+     * <code>Tasks</code> are read from the file as they are needed.
+     * 
+     * @param pagedFile The saved snapshot of the list
+     */
+    public TaskList(DukeTaskFile pagedFile) {
+        this.pagedFile = pagedFile;
+        this.generation = pagedFile.getGeneration();
+        this.order = new DukePositionIndex(pagedFile.size());
+        this.savedRows = new SavedRows(pagedFile);
+    }
 
     /**
      * Adds a <code>Task</code> to the <code>TaskList</code>.
@@ -15,7 +107,36 @@ public class TaskList implements Serializable {
      * @param task The <code>Task</code> to be added to this <code>TaskList</code>
      */
     public void add(Task task) {
-        tasks.add(task);
+        append(task);
+        modificationCount++;
+    }
+
+    /**
+     * Adds a batch of <code>Tasks</code> to the end of the <code>TaskList</code> as a single change.
+     * 
+     * @param batch The <code>Tasks</code> to be added, which are not kept in the array
+     * @param count The number of <code>Tasks</code> at the start of the array to be added
+     */
+    public void addAll(Task[] batch, int count) {
+        for (int i = 0; i < count; i++) {
+            append(batch[i]);
+        }
+        modificationCount++;
+    }
+
+    /**
+     * Adds a <code>Task</code> to the end of the list in a new row, indexing it and journalling it.
+     * 
+     * @param task The <code>Task</code>
+     */
+    private void append(Task task) {
+        int row = order.addRow();
+        addedTokens.add(row, task.getDescription());
+        addedTrigrams.add(row, task.getDescription());
+        addEventTime(row, task);
+        addPendingDeadline(row, task);
+        rows.set(row, task);
+        recordChange(DukeJournalEntry.taskAdded(++generation, task));
     }
 
     /**
@@ -30,32 +151,275 @@ public class TaskList implements Serializable {
 
         checkIndexExists(realIndex);
 
-        Task deletedTask = tasks.get(realIndex);
-        tasks.remove(realIndex);
+        int deletedRow = order.getRow(realIndex);
+        Task deletedTask = getRow(deletedRow);
+        forgetRow(deletedRow, deletedTask);
+        order.removeRow(deletedRow);
+        modificationCount++;
+        recordRangeChange(DukeJournalEntryType.TaskDeleted, ++generation, index);
         return deletedTask;
     }
 
+    /**
+     * Deletes the <code>Tasks</code> at several indexes, as the indexes were before any of them is deleted.
+     * 
+     * @param indexes The indexes of the <code>Tasks</code>, in ascending order without repeats
+     * @throws DukeException If any of the indexes does not exist in the list, in which case nothing is deleted
+     */
+    public void deleteAt(int[] indexes) throws DukeException {
+        checkIndexesExist(indexes);
+
+        int[] deletedRows = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            deletedRows[i] = (i > 0 && indexes[i] == indexes[i - 1] + 1) ? order.getNextRow(deletedRows[i - 1] + 1)
+                                                                         : order.getRow(indexes[i] - 1);
+        }
+
+        for (int i = 0; i < indexes.length; i++) {
+            forgetRow(deletedRows[i], null);
+
+            //Each index is recorded as it stands once the Tasks before it are deleted
+            recordRangeChange(DukeJournalEntryType.TaskDeleted, ++generation, indexes[i] - i);
+        }
+
+        order.removeRows(deletedRows);
+        modificationCount++;
+    }
+
+    /**
+     * Drops a row about to be deleted from the columns, the render cache and the indexes of added rows.
+     * 
+     * @param row The row
+     * @param task The <code>Task</code> in the row, or <code>null</code> to create it only if it is needed
+     */
+    private void forgetRow(int row, Task task) {
+        if (row >= getSavedRowCount()) {
+            task = (task == null) ? getRow(row) : task;
+            addedTokens.remove(row, task.getDescription());
+            addedTrigrams.remove(row, task.getDescription());
+            if (isScheduledEvent(task)) {
+                addedEvents.remove(((EventTask) task).getEventDuration().getStartEpochMinute(), row);
+            }
+            removePendingDeadline(row, task);
+        } else if (savedDoneChanges.get(row)) {
+            removePendingDeadline(row, (task == null) ? getRow(row) : task);
+        }
+
+        rows.remove(row);
+        renderedLines.invalidate(row);
+    }
+
     /**
      * Deletes all the elements in this list, leaving it empty.
      */
     public void deleteAllTasks() {
-        tasks = new ArrayList<Task>();
+        rows = new DukeTaskColumns();
+        order.clear();
+        pagedFile = null;
+        savedRows = null;
+        addedTokens.clear();
+        addedTrigrams.clear();
+        addedEvents.clear();
+        addedPendingDeadlines.clear();
+        savedDoneChanges.clear();
+        renderedLines.clear();
+        modificationCount++;
+        recordChange(DukeJournalEntry.tasksCleared(++generation));
     }
     
     /**
-     * Marks the <code>Task</code> at the specified index as done.
+     * Marks the <code>Task</code> at the specified index as done, in place, allocating nothing.
      * 
      * @param index The index at which a <code>Task</code> in the list will be marked as done
-     * @return The <code>Task</code> marked as done
      * @throws DukeException If the chosen index does not exist in the list
      */
-    public Task markAsDone(int index) throws DukeException {
+    public void markAsDone(int index) throws DukeException {
+        setDone(index, true);
+        recordRangeChange(DukeJournalEntryType.TaskMarkedAsDone, ++generation, index);
+    }
+
+    /**
+     * Marks the <code>Task</code> at the specified index as not done, in place, allocating nothing.
+     * 
+     * @param index The index at which a <code>Task</code> in the list will be marked as not done
+     * @throws DukeException If the chosen index does not exist in the list
+     */
+    public void markAsUndone(int index) throws DukeException {
+        setDone(index, false);
+        recordRangeChange(DukeJournalEntryType.TaskMarkedUndone, ++generation, index);
+    }
+
+    /**
+     * Marks the <code>Tasks</code> at several indexes as done. Neighbouring indexes are journalled as one range.
+     * 
+     * @param indexes The indexes of the <code>Tasks</code>, in ascending order without repeats
+     * @throws DukeException If any of the indexes does not exist in the list, in which case nothing is marked
+     */
+    public void markAsDone(int[] indexes) throws DukeException {
+        checkIndexesExist(indexes);
+        for (int index : indexes) {
+            markAsDone(index);
+        }
+    }
+
+    /**
+     * Marks the <code>Tasks</code> at several indexes as not done. Neighbouring indexes are journalled as one range.
+     * 
+     * @param indexes The indexes of the <code>Tasks</code>, in ascending order without repeats
+     * @throws DukeException If any of the indexes does not exist in the list, in which case nothing is marked
+     */
+    public void markAsUndone(int[] indexes) throws DukeException {
+        checkIndexesExist(indexes);
+        for (int index : indexes) {
+            markAsUndone(index);
+        }
+    }
+
+    /**
+     * Sets whether the <code>Task</code> at the specified index is done.
+     * 
+     * @param index The index of the <code>Task</code>
+     * @param isDone Whether the <code>Task</code> is done
+     * @throws DukeException If the chosen index does not exist in the list
+     */
+    private void setDone(int index, boolean isDone) throws DukeException {
         int realIndex = index - 1;
 
         checkIndexExists(realIndex);
 
-        tasks.set(realIndex, tasks.get(realIndex).getTaskMarkedAsDone());
-        return tasks.get(realIndex);
+        int row = order.getRow(realIndex);
+        DukeTaskColumns columns = getColumnsOf(row);
+        if (columns.isDone(row) == isDone) {
+            return;
+        }
+
+        //A saved Task decoded ahead of time is copied out first, since the decoded chunks are never changed
+        if (columns != rows) {
+            rows.copyRow(row, columns);
+        }
+
+        boolean isSavedRow = row < getSavedRowCount();
+        boolean wasDoneWhenSaved = isSavedRow && (rows.isDone(row) != savedDoneChanges.get(row));
+        rows.setDone(row, isDone);
+        if (isSavedRow) {
+            savedDoneChanges.flip(row);
+        }
+
+        renderedLines.invalidate(row);
+        modificationCount++;
+
+        //Added deadlines, and saved ones that were done when saved, are only pending deadlines while not done
+        if (rows.isDatedDeadline(row) && (!isSavedRow || wasDoneWhenSaved)) {
+            long dueEpochMinute = rows.getDueEpochMinute(row);
+            if (isDone) {
+                addedPendingDeadlines.remove(dueEpochMinute, row);
+            } else {
+                addedPendingDeadlines.add(dueEpochMinute, dueEpochMinute + 1, row);
+            }
+        }
+    }
+
+    /**
+     * Returns the <code>Task</code> at the specified index, created afresh from the list.
+     * 
+     * @param index The index of the <code>Task</code>
+     * @return The <code>Task</code> at the index
+     * @throws DukeException If the chosen index does not exist in the list
+     */
+    public Task getTaskAt(int index) throws DukeException {
+        int realIndex = index - 1;
+
+        checkIndexExists(realIndex);
+
+        return getRow(order.getRow(realIndex));
+    }
+
+    /**
+     * Decodes the next chunk of the saved <code>Tasks</code> ahead of time, from one background thread at a time.
+     * 
+     * @param chunkSize The most <code>Tasks</code> to decode
+     * @return <code>true</code> if there are saved <code>Tasks</code> left to decode
+     */
+    public boolean prewarmNextChunk(int chunkSize) {
+        SavedRows saved = savedRows;
+        if (saved == null) {
+            return false;
+        }
+
+        int start = saved.decodedCount;
+        int end = start;
+        while (end < saved.rowCount && end - start < chunkSize) {
+            int chunkEnd = Math.min(end + DECODED_CHUNK_SIZE, saved.rowCount);
+            DukeTaskColumns chunk = new DukeTaskColumns(end, chunkEnd - end);
+            for (int row = end; row < chunkEnd; row++) {
+                chunk.set(row, decodeRow(saved.pagedFile, row));
+            }
+
+            //Publishes the chunk, since the decoded chunks are only read below the count
+            saved.chunks[end / DECODED_CHUNK_SIZE] = chunk;
+            saved.decodedCount = chunkEnd;
+            end = chunkEnd;
+        }
+
+        return end < saved.rowCount;
+    }
+
+    /**
+     * Returns whether this list was opened from a paged file that has not been given an index yet.
+     * 
+     * @return <code>true</code> if the list would use an index of its paged file
+     */
+    public boolean needsSavedTaskIndex() {
+        SavedRows saved = savedRows;
+        return saved != null && saved.index == null;
+    }
+
+    /**
+     * Builds an index of the saved <code>Tasks</code>, from the thread calling <code>prewarmNextChunk</code>.
+     * 
+     * @return The index of the paged file, or <code>null</code> if the list was not opened from one
+     */
+    public DukeTaskIndex buildSavedTaskIndex() {
+        SavedRows saved = savedRows;
+        if (saved == null) {
+            return null;
+        }
+
+        return DukeTaskIndex.build(saved.pagedFile.getGeneration(), () -> new Iterator<Task>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < saved.rowCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                DukeTaskColumns chunk = saved.getDecodedChunk(row);
+                return (chunk != null) ? chunk.getTask(row++) : decodeRow(saved.pagedFile, row++);
+            }
+        });
+    }
+
+    /**
+     * Narrows down later searches of the saved <code>Tasks</code> with an index of the paged file.
+     * 
+     * @param index The index
+     * @return <code>true</code> if the index is of the paged file, and is used
+     */
+    public boolean useSavedTaskIndex(DukeTaskIndex index) {
+        SavedRows saved = savedRows;
+        if (saved == null || index.getGeneration() != saved.pagedFile.getGeneration()
+            || index.getRecordCount() != saved.rowCount) {
+            return false;
+        }
+
+        saved.index = index;
+        return true;
     }
 
     /**
@@ -64,7 +428,7 @@ public class TaskList implements Serializable {
      * @return <code>true</code> if the list is empty and <code>false</code> otherwise
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return order.size() == 0;
     }
 
     /**
@@ -73,35 +437,401 @@ public class TaskList implements Serializable {
      * @return The number of elements in the list
      */
     public int size() {
-        return tasks.size();
+        return order.size();
+    }
+
+    /**
+     * Returns the generation of this list, which is the number of changes that have been made to it.
+     * 
+     * @return The generation of this list
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sets the generation of this list, when restoring it from saved data.
+     * 
+     * @param generation The generation of the saved list
+     */
+    public void restoreGeneration(long generation) {
+        this.generation = generation;
+        pendingChanges = null;
+        openRangeType = null;
     }
 
     /**
-     * Returns as a list the Tasks containing the searchTerm.
+     * Returns the changes made to this list since the last call to this method, and forgets them.
+     * 
+     * @return The changes made to this list, in the order they were made
+     */
+    public List<DukeJournalEntry> drainChanges() {
+        closeOpenRange();
+        List<DukeJournalEntry> changes = (pendingChanges == null) ? new ArrayList<>() : pendingChanges;
+        pendingChanges = null;
+        return changes;
+    }
+
+    /**
+     * Returns as a list the Tasks containing the searchTerm, as found by <code>getMatchingPositions</code>.
      * 
      * @param searchTerm The term to match for in the description
      * @return The <code>String</code> representation of a list of tasks whose description contains the 
      * <code>searchTerm</code>
      */
     public String getMatchingTasksAsString(String searchTerm) {
-        StringBuilder sb = new StringBuilder();
-        int iterator = 1;
+        int[] positions = getMatchingPositions(searchTerm);
+        return (positions.length == 0) ? DukeUi.FEEDBACK_FIND_NOTHING : getTasksAtPositionsAsString(positions);
+    }
+
+    /**
+     * Returns the positions of the Tasks containing the searchTerm, checking only those the indexes propose.
+     * 
+     * @param searchTerm The term to match for in the description
+     * @return The one-indexed positions of the tasks whose description contains the <code>searchTerm</code>, in
+     *     ascending order
+     */
+    public int[] getMatchingPositions(String searchTerm) {
+        BitSet matches = new BitSet();
+        BitSet candidates = getCandidates(searchTerm);
+        byte[] searchBytes = searchTerm.getBytes(StandardCharsets.UTF_8);
+
+        if (candidates != null) {
+            for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                int position = getPositionOfRow(row);
+                if (position >= 0 && getColumnsOf(row).descriptionContains(row, searchBytes)) {
+                    matches.set(position);
+                }
+            }
+
+            return toPositions(matches);
+        }
+
+        int position = 0;
+        for (int row = order.getNextRow(0); row >= 0; row = order.getNextRow(row + 1), position++) {
+            if (!rows.contains(row) && !pagedFile.mayContain(row, searchTerm)) {
+                continue;
+            }
+
+            if (getColumnsOf(row).descriptionContains(row, searchBytes)) {
+                matches.set(position);
+            }
+        }
+
+        return toPositions(matches);
+    }
+
+    /**
+     * Returns as a list the Tasks matching a search of whole words, as found by <code>getPositionsMatchingQuery</code>.
+     * 
+     * @param query The words to search for, joined by <code>AND</code> and <code>OR</code>
+     * @return The <code>String</code> representation of a list of tasks whose description holds the words
+     */
+    public String getTasksMatchingQueryAsString(String query) {
+        int[] positions = getPositionsMatchingQuery(query);
+        return (positions.length == 0) ? DukeUi.FEEDBACK_FIND_NOTHING : getTasksAtPositionsAsString(positions);
+    }
 
-        for (Task t : tasks) {
-            //For each Task t, print out one line of "X.[<Status>] Description", if it matches the search term
-            if (t.descriptionContainsTerm(searchTerm)) {
-                sb.append(String.format("%d.%s\n", iterator, t.toString()));
+    /**
+     * Returns the positions of the Tasks holding the words of a search, as parsed by <code>parseQuery</code>.
+     * 
+     * @param query The words to search for, joined by <code>AND</code> and <code>OR</code>
+     * @return The one-indexed positions of the matching tasks, in ascending order
+     */
+    public int[] getPositionsMatchingQuery(String query) {
+        return getPositionsMatchingQuery(DukeTokenIndex.parseQuery(query));
+    }
+
+    /**
+     * Returns the positions of the Tasks holding the tokens of any alternative of a parsed search.
+     * 
+     * @param alternatives The search, as parsed by <code>DukeTokenIndex.parseQuery</code>
+     * @return The one-indexed positions of the matching tasks, in ascending order
+     */
+    private int[] getPositionsMatchingQuery(List<List<String>> alternatives) {
+        BitSet matches = new BitSet();
+        SavedRows saved = savedRows;
+
+        if (saved != null && saved.index == null) {
+            int position = 0;
+            for (int row = order.getNextRow(0); row >= 0; row = order.getNextRow(row + 1), position++) {
+                if (DukeTokenIndex.matchesQuery(getRow(row).getDescription(), alternatives)) {
+                    matches.set(position);
+                }
             }
-            iterator++;
+
+            return toPositions(matches);
         }
 
-        //If there's no matches found, feedback to the user
-        String retval = sb.toString();
-        if (retval.isEmpty()) {
-            retval = DukeUi.FEEDBACK_FIND_NOTHING;
+        DukeTaskIndex index = (saved == null) ? null : saved.index;
+        BitSet matchingRows = new BitSet(order.getRowCount());
+
+        for (List<String> tokens : alternatives) {
+            addRowsHoldingAll(tokens, index, matchingRows);
         }
 
-        return retval;
+        for (int row = matchingRows.nextSetBit(0); row >= 0; row = matchingRows.nextSetBit(row + 1)) {
+            int position = getPositionOfRow(row);
+            if (position >= 0) {
+                matches.set(position);
+            }
+        }
+
+        return toPositions(matches);
+    }
+
+    /**
+     * Returns the rows that could contain a search term, including rows that have been deleted.
+     * 
+     * @param searchTerm The term to be searched for
+     * @return The rows that could contain the search term, or <code>null</code> if the indexes cannot narrow them
+     *     down
+     */
+    private BitSet getCandidates(String searchTerm) {
+        SavedRows saved = savedRows;
+        BitSet candidates = addedTrigrams.getCandidates(searchTerm);
+        if (candidates == null || saved == null) {
+            return candidates;
+        }
+
+        BitSet savedCandidates = (saved.index == null) ? null : saved.index.getCandidates(searchTerm);
+        if (savedCandidates == null) {
+            return null;
+        }
+
+        //The saved rows and the added rows never overlap
+        candidates.or(savedCandidates);
+        return candidates;
+    }
+
+    /**
+     * Adds every row holding all of some tokens to a set of rows, including rows that have been deleted.
+     * 
+     * @param tokens The normalised tokens
+     * @param index The index of the paged file, or <code>null</code> if there is no paged file
+     * @param matchingRows The set of rows to add to
+     */
+    private void addRowsHoldingAll(List<String> tokens, DukeTaskIndex index, BitSet matchingRows) {
+        int savedRowCount = getSavedRowCount();
+        int[] savedTokens = new int[tokens.size()];
+        int rarest = 0;
+        int rarestSavedCount = 0;
+        int rarestCount = Integer.MAX_VALUE;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            savedTokens[i] = (index == null) ? -1 : index.findToken(tokens.get(i));
+            int savedCount = (savedTokens[i] < 0) ? 0 : index.getTokenRecordCount(savedTokens[i]);
+            int count = savedCount + addedTokens.getRowCount(tokens.get(i));
+
+            if (count < rarestCount) {
+                rarest = i;
+                rarestSavedCount = savedCount;
+                rarestCount = count;
+            }
+        }
+
+        for (int i = 0; i < rarestCount; i++) {
+            //The saved rows come before every added row
+            int row = (i < rarestSavedCount) ? index.getTokenRecord(savedTokens[rarest], i)
+                                             : addedTokens.getRow(tokens.get(rarest), i - rarestSavedCount);
+            boolean isMatch = true;
+
+            for (int j = 0; j < tokens.size() && isMatch; j++) {
+                if (j == rarest) {
+                    continue;
+                }
+
+                isMatch = (row < savedRowCount)
+                          ? savedTokens[j] >= 0 && index.tokenContainsRecord(savedTokens[j], row)
+                          : addedTokens.containsRow(tokens.get(j), row);
+            }
+
+            if (isMatch) {
+                matchingRows.set(row);
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of the <code>DeadlineTasks</code> due in a range of time, in order of their deadlines.
+     * 
+     * @param fromEpochMinute The start of the range, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @param toEpochMinute The end of the range, which is not part of it
+     * @return The one-indexed positions of the <code>DeadlineTasks</code>, ordered by deadline and then position
+     */
+    public int[] getDeadlinePositions(long fromEpochMinute, long toEpochMinute) {
+        SavedRows saved = savedRows;
+        DukeTaskIndex index = (saved == null) ? null : saved.index;
+        int indexedRowCount = (index == null) ? 0 : saved.rowCount;
+        List<long[]> deadlines = new ArrayList<>();
+
+        if (index != null) {
+            for (int i = index.findFirstDeadline(fromEpochMinute);
+                 i < index.getDeadlineCount() && index.getDeadlineEpochMinute(i) < toEpochMinute; i++) {
+                int position = getPositionOfRow(index.getDeadlineRecord(i));
+                if (position >= 0) {
+                    deadlines.add(new long[] { index.getDeadlineEpochMinute(i), position });
+                }
+            }
+        }
+
+        for (int row = order.getNextRow(indexedRowCount); row >= 0; row = order.getNextRow(row + 1)) {
+            Task t = getRow(row);
+            if (!(t instanceof DeadlineTask)) {
+                continue;
+            }
+
+            DukeDateTime deadlineTime = ((DeadlineTask) t).getDeadlineTime();
+            if (deadlineTime == null || deadlineTime.getDate() == null) {
+                continue;
+            }
+
+            long epochMinute = DukeBinaryCodec.toEpochMinute(deadlineTime);
+            if (epochMinute >= fromEpochMinute && epochMinute < toEpochMinute) {
+                deadlines.add(new long[] { epochMinute, getPositionOfRow(row) });
+            }
+        }
+
+        deadlines.sort((first, second) -> (first[0] != second[0]) ? Long.compare(first[0], second[0])
+                                                                  : Long.compare(first[1], second[1]));
+
+        int[] positions = new int[deadlines.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (int) deadlines.get(i)[1] + 1;
+        }
+
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the <code>EventTasks</code> taking up any time in a range, in order of their starts.
+     * 
+     * @param fromEpochMinute The start of the range, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @param toEpochMinute The end of the range, which is not part of it
+     * @return The one-indexed positions of the <code>EventTasks</code>, ordered by start and then position
+     */
+    public int[] getEventPositions(long fromEpochMinute, long toEpochMinute) {
+        SavedRows saved = savedRows;
+        List<long[]> events = new ArrayList<>();
+
+        if (saved != null && saved.index != null) {
+            saved.index.findOverlappingEvents(fromEpochMinute, toEpochMinute, events);
+        } else if (saved != null) {
+            for (int row = 0; row < saved.rowCount; row++) {
+                Task t = (getPositionOfRow(row) < 0) ? null : getRow(row);
+                if (!isScheduledEvent(t)) {
+                    continue;
+                }
+
+                DukeDuration eventDuration = ((EventTask) t).getEventDuration();
+                if (eventDuration.getStartEpochMinute() < toEpochMinute
+                    && eventDuration.getEndEpochMinute() > fromEpochMinute) {
+                    events.add(new long[] { eventDuration.getStartEpochMinute(), row });
+                }
+            }
+        }
+
+        addedEvents.findOverlapping(fromEpochMinute, toEpochMinute, events);
+
+        List<long[]> liveEvents = new ArrayList<>(events.size());
+        for (long[] event : events) {
+            int position = getPositionOfRow((int) event[1]);
+            if (position >= 0) {
+                liveEvents.add(new long[] { event[0], position });
+            }
+        }
+
+        liveEvents.sort((first, second) -> (first[0] != second[0]) ? Long.compare(first[0], second[0])
+                                                                    : Long.compare(first[1], second[1]));
+
+        int[] positions = new int[liveEvents.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (int) liveEvents.get(i)[1] + 1;
+        }
+
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the first <code>DeadlineTasks</code> not done yet that become overdue after a given
+     * time, in order of when they become overdue.
+     * 
+     * @param nowEpochMinute The time, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @param count The most positions to return
+     * @return The one-indexed positions of the <code>DeadlineTasks</code>, ordered by when they become overdue and then
+     *     by position
+     */
+    public int[] getUpcomingDeadlinePositions(long nowEpochMinute, int count) {
+        return getPendingDeadlinePositions(nowEpochMinute + 1, Long.MAX_VALUE, count);
+    }
+
+    /**
+     * Returns the positions of the <code>DeadlineTasks</code> not done yet that are overdue at a given time, in order
+     * of when they became overdue.
+     * 
+     * @param nowEpochMinute The time, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @return The one-indexed positions of the <code>DeadlineTasks</code>, ordered by when they became overdue and then
+     *     by position
+     */
+    public int[] getOverdueDeadlinePositions(long nowEpochMinute) {
+        return getPendingDeadlinePositions(Long.MIN_VALUE, nowEpochMinute + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns as a list the <code>Tasks</code> at some positions, in the order given.
+     * 
+     * @param positions The one-indexed positions of the <code>Tasks</code>, which must all exist
+     * @return The <code>String</code> representation of a list of the <code>Tasks</code>, each marked by its position
+     */
+    public String getTasksAtPositionsAsString(int[] positions) {
+        StringBuilder sb = new StringBuilder();
+        appendPositions(sb, positions, 0, positions.length);
+        return sb.toString();
+    }
+
+    /**
+     * Appends to a <code>StringBuilder</code> the lines of the <code>Tasks</code> at some of the given positions.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param positions The one-indexed positions of the <code>Tasks</code>, which must all exist
+     * @param from The first of the positions to append
+     * @param count The most positions to append
+     */
+    public void appendPositions(StringBuilder sb, int[] positions, int from, int count) {
+        for (int i = from; i < Math.min(from + count, positions.length); i++) {
+            appendLine(sb, positions[i] - 1, order.getRow(positions[i] - 1));
+        }
+    }
+
+    /**
+     * Appends to a <code>StringBuilder</code> one line of "X.[<Status>] Description" for each <code>Task</code> on a
+     * page of this list.
+     * 
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param from The zero-indexed position of the first <code>Task</code> on the page
+     * @param count The most <code>Tasks</code> to append
+     */
+    public void appendPage(StringBuilder sb, int from, int count) {
+        if (renderedPageModificationCount == modificationCount && renderedPageFrom == from
+            && renderedPageCount == count) {
+            sb.append(renderedPage);
+            return;
+        }
+
+        int start = sb.length();
+        int end = Math.min(from + count, order.size());
+        int row = (from < end) ? order.getRow(from) : -1;
+
+        for (int position = from; position < end; position++, row = order.getNextRow(row + 1)) {
+            appendLine(sb, position, row);
+        }
+
+        if (sb.length() - start <= MAX_RENDERED_PAGE_LENGTH) {
+            renderedPage = sb.substring(start);
+            renderedPageFrom = from;
+            renderedPageCount = count;
+            renderedPageModificationCount = modificationCount;
+        }
     }
 
     /**
@@ -113,14 +843,392 @@ public class TaskList implements Serializable {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        int iterator = 1;
+        appendPage(sb, 0, order.size());
+        return sb.toString();
+    }
+
+    /**
+     * Returns an iterator over the elements of this list, in order. The iterator cannot be used to remove elements.
+     * 
+     * @return An iterator over the elements of this list
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new TaskIterator(true);
+    }
+
+    /**
+     * Returns the elements of this list in order, without keeping the <code>Tasks</code> read in memory.
+     * 
+     * @return The elements of this list
+     */
+    public Iterable<Task> snapshotIterable() {
+        return () -> new TaskIterator(false);
+    }
 
-        for (Task t : tasks) {
-            //For each Task t, print out one line of "X.[<Status>] Description"
-            sb.append(String.format("%d.%s\n", iterator++, t.toString()));
+    /**
+     * Remembers a change made to this list until it is drained.
+     * 
+     * @param change The change made to this list
+     */
+    private void recordChange(DukeJournalEntry change) {
+        closeOpenRange();
+        if (pendingChanges == null) {
+            pendingChanges = new ArrayList<>();
         }
 
-        return sb.toString();
+        pendingChanges.add(change);
+    }
+
+    /**
+     * Remembers a deletion or status change made to this list until it is drained.
+     * 
+     * @param type The type of the change
+     * @param changeGeneration The generation of this list after the change
+     * @param index The 1-based index of the element changed
+     */
+    private void recordRangeChange(DukeJournalEntryType type, long changeGeneration, int index) {
+        DukeJournalEntryType rangeType = DukeJournalEntry.getRangeType(type);
+
+        if (openRangeType != null && DukeJournalEntry.getRangeType(openRangeType) == rangeType
+            && changeGeneration == openRangeGeneration + 1) {
+            int mergedIndex = DukeJournalEntry.getMergedRangeIndex(rangeType, openRangeIndex, openRangeCount, index);
+            if (mergedIndex >= 0) {
+                openRangeIndex = mergedIndex;
+                openRangeCount++;
+                openRangeGeneration = changeGeneration;
+                return;
+            }
+        }
+
+        closeOpenRange();
+        openRangeType = type;
+        openRangeIndex = index;
+        openRangeCount = 1;
+        openRangeGeneration = changeGeneration;
+    }
+
+    /**
+     * Adds the range of changes made last, if there is one, to the changes waiting to be drained.
+     */
+    private void closeOpenRange() {
+        if (openRangeType == null) {
+            return;
+        }
+
+        DukeJournalEntryType type = (openRangeCount == 1) ? openRangeType
+                                                          : DukeJournalEntry.getRangeType(openRangeType);
+        if (pendingChanges == null) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        pendingChanges.add(new DukeJournalEntry(type, openRangeGeneration, openRangeIndex, openRangeCount, null,
+                                                null));
+        openRangeType = null;
+    }
+
+    /**
+     * Appends one line of "X.[<Status>] Description" for a <code>Task</code>, creating the <code>Task</code> only if
+     * the line of its row is not kept already.
+     * 
+     * @param sb The lines so far
+     * @param position The zero-indexed position of the <code>Task</code>
+     * @param row The row of the <code>Task</code>
+     */
+    private void appendLine(StringBuilder sb, int position, int row) {
+        String line = renderedLines.get(row);
+        if (line == null) {
+            line = getRow(row).toString();
+            renderedLines.put(row, line);
+        }
+
+        sb.append(position + 1).append('.').append(line).append('\n');
+    }
+
+    /**
+     * Returns the one-indexed positions of the set bits of a <code>BitSet</code> of zero-indexed positions.
+     * 
+     * @param matches The zero-indexed positions
+     * @return The one-indexed positions, in ascending order
+     */
+    private static int[] toPositions(BitSet matches) {
+        return matches.stream().map(position -> position + 1).toArray();
+    }
+
+    /**
+     * Adds the time taken up by a <code>Task</code> to the interval tree of added rows, if it is a scheduled
+     * <code>EventTask</code>.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @param task The <code>Task</code>
+     */
+    private void addEventTime(int row, Task task) {
+        if (isScheduledEvent(task)) {
+            DukeDuration eventDuration = ((EventTask) task).getEventDuration();
+            addedEvents.add(eventDuration.getStartEpochMinute(), eventDuration.getEndEpochMinute(), row);
+        }
+    }
+
+    /**
+     * Returns the positions of the first <code>DeadlineTasks</code> not done yet that become overdue in a range of
+     * time.
+     * 
+     * @param fromEpochMinute The start of the range, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     * @param toEpochMinute The end of the range, which is not part of it
+     * @param count The most positions to return
+     * @return The one-indexed positions of the <code>DeadlineTasks</code>, ordered by when they become overdue and then
+     *     by position
+     */
+    private int[] getPendingDeadlinePositions(long fromEpochMinute, long toEpochMinute, int count) {
+        SavedRows saved = savedRows;
+        List<long[]> deadlines = new ArrayList<>();
+        int scannedRowCount = 0;
+
+        if (saved != null && saved.index != null) {
+            DukeTaskIndex index = saved.index;
+
+            for (int i = index.findFirstPendingDeadline(fromEpochMinute); i < index.getPendingDeadlineCount()
+                 && index.getPendingDeadlineDueEpochMinute(i) < toEpochMinute && deadlines.size() < count; i++) {
+                int row = index.getPendingDeadlineRecord(i);
+
+                //A saved Task that has not been changed is still as it was saved, so is not done
+                if (getPositionOfRow(row) >= 0 && (!rows.contains(row) || !rows.isDone(row))) {
+                    deadlines.add(new long[] { index.getPendingDeadlineDueEpochMinute(i), row });
+                }
+            }
+        } else if (saved != null) {
+            for (int row = 0; row < saved.rowCount; row++) {
+                Task t = (getPositionOfRow(row) < 0) ? null : getRow(row);
+                if (!isPendingDeadline(t)) {
+                    continue;
+                }
+
+                long dueEpochMinute = ((DeadlineTask) t).getDueEpochMinute();
+                if (dueEpochMinute >= fromEpochMinute && dueEpochMinute < toEpochMinute) {
+                    deadlines.add(new long[] { dueEpochMinute, row });
+                }
+            }
+
+            scannedRowCount = saved.rowCount;
+        }
+
+        //Added deadlines are removed as soon as they are done, so the first of them are all needed at most. Saved rows
+        //among them have already been found if every saved row was scanned
+        List<long[]> addedDeadlines = new ArrayList<>();
+        addedPendingDeadlines.findOverlapping(fromEpochMinute, toEpochMinute, count, addedDeadlines);
+        for (long[] deadline : addedDeadlines) {
+            if (deadline[1] >= scannedRowCount) {
+                deadlines.add(deadline);
+            }
+        }
+
+        List<long[]> pendingDeadlines = new ArrayList<>(deadlines.size());
+        for (long[] deadline : deadlines) {
+            pendingDeadlines.add(new long[] { deadline[0], getPositionOfRow((int) deadline[1]) });
+        }
+
+        pendingDeadlines.sort((first, second) -> (first[0] != second[0]) ? Long.compare(first[0], second[0])
+                                                                          : Long.compare(first[1], second[1]));
+
+        int[] positions = new int[Math.min(pendingDeadlines.size(), count)];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (int) pendingDeadlines.get(i)[1] + 1;
+        }
+
+        return positions;
+    }
+
+    /**
+     * Adds a <code>Task</code> to the pending deadlines of added rows, if it is a dated <code>DeadlineTask</code>
+     * that is not done yet.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @param task The <code>Task</code>
+     */
+    private void addPendingDeadline(int row, Task task) {
+        if (isPendingDeadline(task)) {
+            long dueEpochMinute = ((DeadlineTask) task).getDueEpochMinute();
+            addedPendingDeadlines.add(dueEpochMinute, dueEpochMinute + 1, row);
+        }
+    }
+
+    /**
+     * Removes a <code>Task</code> from the pending deadlines kept in the tree, if it is among them.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @param task The <code>Task</code>
+     */
+    private void removePendingDeadline(int row, Task task) {
+        if (isPendingDeadline(task)) {
+            addedPendingDeadlines.remove(((DeadlineTask) task).getDueEpochMinute(), row);
+        }
+    }
+
+    /**
+     * Returns whether a <code>Task</code> is a <code>DeadlineTask</code> with a dated deadline that is not done yet.
+     * 
+     * @param task The <code>Task</code>
+     * @return <code>true</code> if the <code>Task</code> is a pending <code>DeadlineTask</code>
+     */
+    private static boolean isPendingDeadline(Task task) {
+        return task instanceof DeadlineTask && ((DeadlineTask) task).isDated() && !task.isDone();
+    }
+
+    /**
+     * Returns whether a <code>Task</code> is an <code>EventTask</code> that can be placed in time.
+     * 
+     * @param task The <code>Task</code>
+     * @return <code>true</code> if the <code>Task</code> is a scheduled <code>EventTask</code>
+     */
+    private static boolean isScheduledEvent(Task task) {
+        return task instanceof EventTask && ((EventTask) task).getEventDuration().isScheduled();
+    }
+
+    /**
+     * Returns the position of a row in the list.
+     * 
+     * @param row The row
+     * @return The zero-indexed position of the row, or a negative number if the row has been deleted
+     */
+    private int getPositionOfRow(int row) {
+        return order.getPosition(row);
+    }
+
+    /**
+     * Returns the number of rows saved in the paged file, which come before every row added since.
+     * 
+     * @return The number of saved rows, or <code>0</code> if there is no paged file
+     */
+    private int getSavedRowCount() {
+        SavedRows saved = savedRows;
+        return (saved == null) ? 0 : saved.rowCount;
+    }
+
+    /**
+     * Creates the <code>Task</code> in a row, reading it from the paged file and keeping it if needed.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @return The <code>Task</code> in the row
+     */
+    private Task getRow(int row) {
+        return getColumnsOf(row).getTask(row);
+    }
+
+    /**
+     * Returns the columns holding a row, reading it from the paged file if it has not been decoded yet.
+     * 
+     * @param row The row
+     * @return The columns holding the row
+     */
+    private DukeTaskColumns getColumnsOf(int row) {
+        if (rows.contains(row)) {
+            return rows;
+        }
+
+        SavedRows saved = savedRows;
+        DukeTaskColumns chunk = (saved == null) ? null : saved.getDecodedChunk(row);
+        if (chunk != null) {
+            return chunk;
+        }
+
+        rows.set(row, decodeRow(pagedFile, row));
+        return rows;
+    }
+
+    /**
+     * Creates the <code>Task</code> in a row without keeping it, reading it from the paged file if needed.
+     * 
+     * @param row The row of the <code>Task</code>
+     * @return The <code>Task</code> in the row
+     */
+    private Task readRow(int row) {
+        if (rows.contains(row)) {
+            return rows.getTask(row);
+        }
+
+        SavedRows saved = savedRows;
+        DukeTaskColumns chunk = (saved == null) ? null : saved.getDecodedChunk(row);
+        return (chunk != null) ? chunk.getTask(row) : decodeRow(pagedFile, row);
+    }
+
+    /**
+     * Decodes the <code>Task</code> in a row of a paged file.
+     * 
+     * @param file The paged file
+     * @param row The row of the <code>Task</code>, which must have been saved in the paged file
+     * @return The <code>Task</code> saved in the row
+     */
+    private static Task decodeRow(DukeTaskFile file, int row) {
+        try {
+            return file.readTask(row);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            //Save file was corrupted
+            return new ToDoTask("Forgive Me >__<"); //moe~<3
+        }
+    }
+
+    /**
+     * Saves this list in the same form as older versions of Duke did.
+     * 
+     * @param out The stream to save to
+     * @throws IOException When an IOException occurs
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>(size());
+        for (Task task : snapshotIterable()) {
+            tasks.add(task);
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("tasks", tasks);
+        fields.put("generation", generation);
+        out.writeFields();
+    }
+
+    /**
+     * Restores a list saved through Java serialization, including those saved by older versions of Duke.
+     * 
+     * @param in The stream to restore from
+     * @throws IOException When an IOException occurs
+     * @throws ClassNotFoundException When a saved class cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        ArrayList<Task> tasks = (ArrayList<Task>) fields.get("tasks", null);
+
+        generation = fields.get("generation", 0L);
+        tasks = (tasks == null) ? new ArrayList<>() : tasks;
+        rows = new DukeTaskColumns();
+        order = new DukePositionIndex(tasks.size());
+        addedTokens = new DukeTokenIndex();
+        addedTrigrams = new DukeTrigramIndex();
+        addedEvents = new DukeIntervalTree();
+        addedPendingDeadlines = new DukeIntervalTree();
+        savedDoneChanges = new BitSet();
+        renderedLines = new DukeRenderCache(RENDER_CACHE_SIZE);
+        renderedPageModificationCount = -1;
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            rows.set(i, task);
+            addedTokens.add(i, task.getDescription());
+            addedTrigrams.add(i, task.getDescription());
+            addEventTime(i, task);
+            addPendingDeadline(i, task);
+        }
+    }
+
+    /**
+     * Checks if all of the specified indexes exist, which only needs the first and last of them to be checked.
+     * 
+     * @param indexes The one-indexed values, in ascending order
+     */
+    private void checkIndexesExist(int[] indexes) throws DukeException {
+        if (indexes.length > 0) {
+            checkIndexExists(indexes[0] - 1);
+            checkIndexExists(indexes[indexes.length - 1] - 1);
+        }
     }
 
     /**
@@ -134,10 +1242,79 @@ public class TaskList implements Serializable {
             throw new DukeException(DukeUi.ERROR_LIST_INDEX_SMALL);
         }
 
-        if (realIndex >= tasks.size()) {
+        if (realIndex >= order.size()) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
             throw new DukeException(
                 String.format(DukeUi.ERROR_LIST_INDEX_BIG, realIndex + 1));
         }
     }
+
+    /**
+     * The <code>Tasks</code> decoded ahead of time from a paged file, and the index of the file once there is one.
+     */
+    private static class SavedRows {
+        final DukeTaskFile pagedFile;
+        final int rowCount;
+        final DukeTaskColumns[] chunks;
+        volatile int decodedCount = 0;
+        volatile DukeTaskIndex index;
+
+        /**
+         * Creates a new, empty <code>SavedRows</code> for a paged file.
+         * 
+         * @param pagedFile The paged file the <code>Tasks</code> are decoded from
+         */
+        SavedRows(DukeTaskFile pagedFile) {
+            this.pagedFile = pagedFile;
+            this.rowCount = pagedFile.size();
+            this.chunks = new DukeTaskColumns[(rowCount + DECODED_CHUNK_SIZE - 1) / DECODED_CHUNK_SIZE];
+        }
+
+        /**
+         * Returns the decoded chunk holding a row, if it has been decoded.
+         * 
+         * @param row The row
+         * @return The decoded chunk holding the row, or <code>null</code> if it has not been decoded
+         */
+        DukeTaskColumns getDecodedChunk(int row) {
+            return (row < decodedCount) ? chunks[row / DECODED_CHUNK_SIZE] : null;
+        }
+    }
+
+    /**
+     * An iterator over the positions of this list, in order.
+     */
+    private class TaskIterator implements Iterator<Task> {
+        private final boolean shouldKeepTasks;
+        private int nextRow = order.getNextRow(0);
+
+        /**
+         * Creates a new <code>TaskIterator</code> starting at the first position.
+         * 
+         * @param shouldKeepTasks Whether <code>Tasks</code> read from the paged file are kept in memory
+         */
+        TaskIterator(boolean shouldKeepTasks) {
+            this.shouldKeepTasks = shouldKeepTasks;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRow >= 0;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int row = nextRow;
+            nextRow = order.getNextRow(row + 1);
+            if (shouldKeepTasks) {
+                return getRow(row);
+            }
+
+            return readRow(row);
+        }
+    }
 }
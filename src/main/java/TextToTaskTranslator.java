@@ -1,18 +1,21 @@
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A static class that generates Tasks based on the user's input.
+ * 
+ * <p>Dates and times are found by scanning the characters of the user's input in place, rather than by matching
+ * regular expressions against pieces split off from it, so that reading them creates no <code>Strings</code>. The
+ * scanners find just what the regular expressions they replace found: the first date in the format "dd/mm/yyyy" or
+ * "d/m/yy", as <code>\b\d{1,2}/\d{1,2}/(\d{2}|\d{4})\b</code> would, and the first time in the format "hhmm"
+ * that does not follow a '/', as <code>(?&lt;!/)\d{4}\b</code> would, so that it does not clash with the 4 digits for
+ * the year of a date.</p>
  */
 public class TextToTaskTranslator {
-    /*A Pattern for the format "dd/mm/yyyy" or "d/m/yy"
-      (Day and Month have either 1 or 2 digits, Year has either 2 or 4 digits)*/
-    private static final Pattern DATE_FORMAT_PATTERN = Pattern.compile("\\b\\d{1,2}\\/\\d{1,2}\\/(\\d{2}|\\d{4})\\b");
-
-    //A Pattern for the format "hhmm". Will not clash with the 4 digits for year in DATE_FORMAT_PATTERN
-    private static final Pattern TIME_FORMAT_PATTERN = Pattern.compile("(?<!\\/)\\d{4}\\b");
+    //The words parting the description of a Task from its time, and the start of a duration from its end
+    private static final String DEADLINE_SEPARATOR = "/by";
+    private static final String EVENT_SEPARATOR = "/at";
+    private static final String DURATION_SEPARATOR = "to";
 
     private static final int [] DAYS_EACH_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
     private static final int DAYS_IN_LEAP_MONTH = 29;
@@ -39,22 +42,25 @@ public class TextToTaskTranslator {
      * @throws DukeException The user's input command is incomplete, lacks a description or includes an invalid date.
      */
     public static Task translateDeadlineTask(String userInputString) throws DukeException {
-        String withoutCommand = userInputString.substring(8).trim();
+        int from = skipWhitespace(userInputString, 8, userInputString.length());
+        int to = trimEnd(userInputString, from, userInputString.length());
+        int separator = indexOf(userInputString, DEADLINE_SEPARATOR, from, to);
 
-        if (!withoutCommand.equals("") && withoutCommand.contains("/by")) {
-            String [] splitString = withoutCommand.split("/by");
+        if (from < to && separator >= 0) {
+            int pieceCount = countPieces(userInputString, DEADLINE_SEPARATOR, from, to);
 
-            checkDescriptionExists(splitString);
-            String description = splitString[0].trim();
+            checkDescriptionExists(pieceCount);
+            String description = trimmedSubstring(userInputString, from, separator);
 
             LocalDate deadlineDate = null;
             LocalTime deadlineTime = null;
 
-            if (splitString.length == 2) {
-                String timeSpecifications = splitString[1];
+            if (pieceCount == 2) {
+                int specificationsStart = separator + DEADLINE_SEPARATOR.length();
+                int specificationsEnd = getPieceEnd(userInputString, DEADLINE_SEPARATOR, specificationsStart, to);
 
-                deadlineDate = extractDateFromString(timeSpecifications);
-                deadlineTime = extractTimeFromString(timeSpecifications);
+                deadlineDate = extractDateFromString(userInputString, specificationsStart, specificationsEnd);
+                deadlineTime = extractTimeFromString(userInputString, specificationsStart, specificationsEnd);
             }
 
             return new DeadlineTask(description, new DukeDateTime(deadlineDate, deadlineTime));
@@ -72,47 +78,98 @@ public class TextToTaskTranslator {
      * @throws DukeException The user's input command is incomplete, lacks a description or includes an invalid date
      */
     public static Task translateEventTask(String userInputString) throws DukeException {
-        String withoutCommand = userInputString.substring(5).trim();
+        int from = skipWhitespace(userInputString, 5, userInputString.length());
+        int to = trimEnd(userInputString, from, userInputString.length());
+        int separator = indexOf(userInputString, EVENT_SEPARATOR, from, to);
 
-        if (!withoutCommand.equals("") && withoutCommand.contains("/at")) {
-            String [] splitString = withoutCommand.split("/at");
+        if (from < to && separator >= 0) {
+            int pieceCount = countPieces(userInputString, EVENT_SEPARATOR, from, to);
 
-            checkDescriptionExists(splitString);
-            String description = splitString[0].trim();
+            checkDescriptionExists(pieceCount);
+            String description = trimmedSubstring(userInputString, from, separator);
 
-            LocalDate startDate = null;
-            LocalTime startTime = null;
-            LocalDate endDate = null;
-            LocalTime endTime = null;
+            //Without exactly one piece after the description, the event has no time
+            int specificationsStart = (pieceCount == 2) ? separator + EVENT_SEPARATOR.length() : to;
+            int specificationsEnd = getPieceEnd(userInputString, EVENT_SEPARATOR, specificationsStart, to);
+            DukeDuration eventDuration = translateDuration(userInputString, specificationsStart, specificationsEnd);
+            return new EventTask(description, eventDuration);
+        } else {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(
+                String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, "event"));
+        }
+    }
 
-            if (splitString.length == 2) {
-                boolean bothStartAndEndDateExist
-                    = splitString[1].contains("to") && !splitString[1].endsWith("to");
+    /**
+     * Generates the range of time asked for by an <code>agenda</code> command from the user's input. The range is
+     * given in the same way as the time of an event, and covers the same time an event at that time would.
+     * 
+     * @return The range of time, which is always scheduled
+     * @throws DukeException The user's input command lacks a starting date or includes an invalid date
+     */
+    public static DukeDuration translateAgendaDuration(String userInputString) throws DukeException {
+        int from = skipWhitespace(userInputString, 6, userInputString.length());
+        int to = trimEnd(userInputString, from, userInputString.length());
+        DukeDuration agendaDuration = translateDuration(userInputString, from, to);
 
-                if (bothStartAndEndDateExist) {
-                    String [] timeSpecifications = splitString[1].split("to");
+        if (!agendaDuration.isScheduled()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(
+                String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, "agenda"));
+        }
 
-                    startDate = extractDateFromString(timeSpecifications[0]);
-                    startTime = extractTimeFromString(timeSpecifications[0]);
-                    endDate = extractDateFromString(timeSpecifications[1]);
-                    endTime = extractTimeFromString(timeSpecifications[1]);
-                } else {
-                    String timeSpecifications = splitString[1];
+        return agendaDuration;
+    }
 
-                    startDate = extractDateFromString(timeSpecifications);
-                    startTime = extractTimeFromString(timeSpecifications);
-                }
-            }
+    /**
+     * Generates a <code>DukeDateTime</code> from text holding a date, a time or both, written as in a command, such
+     * as "2/12/2019 1800".
+     * 
+     * @param text The text holding the date and time
+     * @return The <code>DukeDateTime</code>, which is empty if the text holds neither a date nor a time
+     * @throws DukeException If the date or time is invalid
+     */
+    public static DukeDateTime translateDateTime(String text) throws DukeException {
+        return new DukeDateTime(extractDateFromString(text, 0, text.length()),
+                                extractTimeFromString(text, 0, text.length()));
+    }
 
-            DukeDateTime startDateTime = new DukeDateTime(startDate, startTime);
-            DukeDateTime endDateTime = new DukeDateTime(endDate, endTime);
-            DukeDuration eventDuration = new DukeDuration(startDateTime, endDateTime);
-            return new EventTask(description, eventDuration);
+    /**
+     * Generates a <code>DukeDuration</code> from a start, optionally followed by "to" and an end. Each of them may
+     * have a date, a time or both.
+     * 
+     * @param input The <code>String</code> that contains timing specifications
+     * @param from The start of the timing specifications in the input
+     * @param to The end of the timing specifications in the input
+     * @return The <code>DukeDuration</code>, whose parts are empty where they are not given
+     * @throws DukeException If an input date or time is invalid
+     */
+    private static DukeDuration translateDuration(String input, int from, int to) throws DukeException {
+        LocalDate startDate = null;
+        LocalTime startTime = null;
+        LocalDate endDate = null;
+        LocalTime endTime = null;
+
+        int separator = indexOf(input, DURATION_SEPARATOR, from, to);
+        boolean bothStartAndEndDateExist
+            = separator >= 0 && !input.startsWith(DURATION_SEPARATOR, to - DURATION_SEPARATOR.length());
+
+        if (bothStartAndEndDateExist) {
+            int endFrom = separator + DURATION_SEPARATOR.length();
+            int endTo = getPieceEnd(input, DURATION_SEPARATOR, endFrom, to);
+
+            startDate = extractDateFromString(input, from, separator);
+            startTime = extractTimeFromString(input, from, separator);
+            endDate = extractDateFromString(input, endFrom, endTo);
+            endTime = extractTimeFromString(input, endFrom, endTo);
         } else {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
-            throw new DukeException(
-                String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, "event"));
+            startDate = extractDateFromString(input, from, to);
+            startTime = extractTimeFromString(input, from, to);
         }
+
+        DukeDateTime startDateTime = new DukeDateTime(startDate, startTime);
+        DukeDateTime endDateTime = new DukeDateTime(endDate, endTime);
+        return new DukeDuration(startDateTime, endDateTime);
     }
     
     /**
@@ -120,58 +177,273 @@ public class TextToTaskTranslator {
      *     and converts it into a <code>LocalDate</code>. Days and months can also be input with 1 digit, 
      *     while the year can be input with 2 digits. 
      * 
-     * @param timeSpecifications The <code>String</code> that contain timing specifications
+     * @param input The <code>String</code> that contains timing specifications
+     * @param from The start of the timing specifications in the input
+     * @param to The end of the timing specifications in the input
      * @return The <code>LocalDate</code> extracted from the input argument
      * @throws DukeException If the input date is invalid
      */
-    private static LocalDate extractDateFromString(String timeSpecifications) throws DukeException {
-        Matcher dateFormatMatcher = DATE_FORMAT_PATTERN.matcher(timeSpecifications);
-        LocalDate deadlineDate = null;
-                
-        if (dateFormatMatcher.find()) {
-            String dateOnly = timeSpecifications.substring(dateFormatMatcher.start(), dateFormatMatcher.end());
-            String [] values = dateOnly.split("/");
-
-            int day = Integer.parseInt(values[0]);
-            int month = Integer.parseInt(values[1]);
-            int year = Integer.parseInt(values[2]);
+    private static LocalDate extractDateFromString(String input, int from, int to) throws DukeException {
+        for (int start = from; start < to; start++) {
+            //A date must start a word
+            if (!isDigit(input, start, to) || (start > from && isWordCharacter(input.charAt(start - 1)))) {
+                continue;
+            }
+
+            int dayEnd = getDateFieldEnd(input, start, to);
+            int monthEnd = (dayEnd < 0) ? -1 : getDateFieldEnd(input, dayEnd + 1, to);
+            int yearEnd = (monthEnd < 0) ? -1 : getYearEnd(input, monthEnd + 1, to);
+            if (yearEnd < 0) {
+                continue;
+            }
+
+            int day = parseDigits(input, start, dayEnd);
+            int month = parseDigits(input, dayEnd + 1, monthEnd);
+            int year = parseDigits(input, monthEnd + 1, yearEnd);
 
             if (year < 100) {
                 year += 2000;
             }
 
             checkDateCorrect(day, month, year);
-                
 
-            deadlineDate = LocalDate.of(year, month, day);
+            return LocalDate.of(year, month, day);
         }
 
-        return deadlineDate;
+        return null;
     }
 
-
     /**
      * Locates the first instance of a miltary time format String and converts it to a <code>LocalTime</code>.
      * 
-     * @param timeSpecifications The <code>String</code> that containing timing specifications
+     * @param input The <code>String</code> that contains timing specifications
+     * @param from The start of the timing specifications in the input
+     * @param to The end of the timing specifications in the input
      * @return The <code>LocalTime</code> extracted from the input argument
      * @throws DukeException If the input time is invalid
      */
-    private static LocalTime extractTimeFromString(String timeSpecifications) throws DukeException {
-        Matcher timeFormatMatcher = TIME_FORMAT_PATTERN.matcher(timeSpecifications);
-        LocalTime deadlineTime = null;
+    private static LocalTime extractTimeFromString(String input, int from, int to) throws DukeException {
+        for (int start = from; start + 4 <= to; start++) {
+            //A time must not follow a '/', and must end a word
+            boolean isTime = (start == from || input.charAt(start - 1) != '/') && isDigit(input, start, to)
+                             && isDigit(input, start + 1, to) && isDigit(input, start + 2, to)
+                             && isDigit(input, start + 3, to) && isWordEnd(input, start + 4, to);
+            if (!isTime) {
+                continue;
+            }
 
-        if (timeFormatMatcher.find()) {
-            String timeOnly = timeSpecifications.substring(timeFormatMatcher.start(), timeFormatMatcher.end());
-            int hour = Integer.parseInt(timeOnly.substring(0, 2));
-            int minute = Integer.parseInt(timeOnly.substring(2, 4));
+            int hour = parseDigits(input, start, start + 2);
+            int minute = parseDigits(input, start + 2, start + 4);
 
             checkTimeCorrect(hour, minute);
-    
-            deadlineTime = LocalTime.of(hour, minute);
+
+            return LocalTime.of(hour, minute);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns where the day or month of a date ends, which is at the '/' after its 1 or 2 digits.
+     * 
+     * @param input The <code>String</code> holding the date
+     * @param start The start of the day or month
+     * @param to The end of the timing specifications in the input
+     * @return The position of the '/' after the day or month, or <code>-1</code> if there is no day or month there
+     */
+    private static int getDateFieldEnd(String input, int start, int to) {
+        if (!isDigit(input, start, to)) {
+            return -1;
+        } else if (isDigit(input, start + 1, to)) {
+            return (start + 2 < to && input.charAt(start + 2) == '/') ? start + 2 : -1;
+        } else {
+            return (start + 1 < to && input.charAt(start + 1) == '/') ? start + 1 : -1;
+        }
+    }
+
+    /**
+     * Returns where the year of a date ends, after 2 digits or else 4 digits ending a word.
+     * 
+     * @param input The <code>String</code> holding the date
+     * @param start The start of the year
+     * @param to The end of the timing specifications in the input
+     * @return The end of the year, or <code>-1</code> if there is no year there
+     */
+    private static int getYearEnd(String input, int start, int to) {
+        if (!isDigit(input, start, to) || !isDigit(input, start + 1, to)) {
+            return -1;
+        } else if (isWordEnd(input, start + 2, to)) {
+            return start + 2;
+        } else if (isDigit(input, start + 2, to) && isDigit(input, start + 3, to) && isWordEnd(input, start + 4, to)) {
+            return start + 4;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns whether a character of the input is a digit from 0 to 9.
+     * 
+     * @param input The input
+     * @param i The position of the character
+     * @param to The end of the part of the input being read, past which there are no characters
+     * @return <code>true</code> if there is a digit at the position
+     */
+    private static boolean isDigit(String input, int i, int to) {
+        return i < to && input.charAt(i) >= '0' && input.charAt(i) <= '9';
+    }
+
+    /**
+     * Returns whether a word of the input ends at a position, which is when no letter, digit or underscore is there.
+     * 
+     * @param input The input
+     * @param i The position
+     * @param to The end of the part of the input being read, past which there are no characters
+     * @return <code>true</code> if a word cannot go on at the position
+     */
+    private static boolean isWordEnd(String input, int i, int to) {
+        return i >= to || !isWordCharacter(input.charAt(i));
+    }
+
+    /**
+     * Returns whether a character can be part of a word, as the word boundary <code>\b</code> of a regular
+     * expression sees it.
+     * 
+     * @param c The character
+     * @return <code>true</code> if the character is a letter, digit or underscore
+     */
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Reads a run of digits of the input as a number.
+     * 
+     * @param input The input
+     * @param from The first digit
+     * @param to The end of the digits
+     * @return The number
+     */
+    private static int parseDigits(String input, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (input.charAt(i) - '0');
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns where the first whitespace-free character of a part of the input is, as <code>String.trim</code> would
+     * see it.
+     * 
+     * @param input The input
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The position of the first character that is not whitespace, or <code>to</code> if there is none
+     */
+    private static int skipWhitespace(String input, int from, int to) {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
+        }
+
+        return from;
+    }
+
+    /**
+     * Returns where a part of the input ends once its trailing whitespace is left out, as <code>String.trim</code>
+     * would see it.
+     * 
+     * @param input The input
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The end of the part without its trailing whitespace
+     */
+    private static int trimEnd(String input, int from, int to) {
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
+
+        return to;
+    }
+
+    /**
+     * Creates a part of the input as a <code>String</code>, without its leading and trailing whitespace.
+     * 
+     * @param input The input
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The trimmed part
+     */
+    private static String trimmedSubstring(String input, int from, int to) {
+        int start = skipWhitespace(input, from, to);
+        return input.substring(start, trimEnd(input, start, to));
+    }
+
+    /**
+     * Returns where a separator first lies wholly within a part of the input.
+     * 
+     * @param input The input
+     * @param separator The separator
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The start of the separator, or <code>-1</code> if it is not in the part
+     */
+    private static int indexOf(String input, String separator, int from, int to) {
+        int i = input.indexOf(separator, from);
+        return (i >= 0 && i + separator.length() <= to) ? i : -1;
+    }
+
+    /**
+     * Returns where a piece of the input split around a separator ends, which is at the next separator or at the end
+     * of the part being split.
+     * 
+     * @param input The input
+     * @param separator The separator
+     * @param from The start of the piece
+     * @param to The end of the part being split
+     * @return The end of the piece
+     */
+    private static int getPieceEnd(String input, String separator, int from, int to) {
+        int next = indexOf(input, separator, from, to);
+        return (next < 0) ? to : next;
+    }
+
+    /**
+     * Returns how many pieces <code>String.split</code> would split a part of the input into around a separator,
+     * which leaves out every empty piece at the end, without creating the pieces.
+     * 
+     * @param input The input
+     * @param separator The separator, which must not overlap itself
+     * @param from The start of the part
+     * @param to The end of the part
+     * @return The number of pieces
+     */
+    private static int countPieces(String input, String separator, int from, int to) {
+        int pieceCount = 1;
+        for (int i = indexOf(input, separator, from, to); i >= 0;
+             i = indexOf(input, separator, i + separator.length(), to)) {
+            pieceCount++;
+        }
+
+        if (pieceCount == 1) {
+            return 1;
+        }
+
+        //Leaves out the empty pieces at the end, each of which ends where a separator starts or at the end
+        int pieceEnd = to;
+        while (pieceCount > 0) {
+            int pieceStart = (pieceCount == 1) ? from : input.lastIndexOf(separator, pieceEnd - separator.length())
+                                                        + separator.length();
+            if (pieceStart < pieceEnd) {
+                break;
+            }
+
+            pieceCount--;
+            pieceEnd = pieceStart - separator.length();
         }
 
-        return deadlineTime;
+        return pieceCount;
     }
 
     /**
@@ -281,11 +553,11 @@ public class TextToTaskTranslator {
      * Checks if the Description is a non-empty <code>String</code>
      *     and throws a new <code>DukeException</code> otherwise.
      * 
-     * @param splitString The <code>String</code> array that contains at index 0 the <code>Task</code> description
-     * @throws DukeException If the <code>String</code> array has length 0
+     * @param pieceCount The number of pieces the user's input splits into, the first of which is the description
+     * @throws DukeException If the user's input splits into no pieces
      */
-    private static void checkDescriptionExists(String [] splitString) throws DukeException {
-        if (splitString.length == 0) {
+    private static void checkDescriptionExists(int pieceCount) throws DukeException {
+        if (pieceCount == 0) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Pout);
             throw new DukeException(DukeUi.ERROR_NO_DESCRIPTION);
         }
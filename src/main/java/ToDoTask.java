@@ -53,6 +53,6 @@ public class ToDoTask extends Task {
      */
     @Override
     public String toString() {
-        return String.format(TO_STRING_FORMAT, 'T', this.getStatusIcon(), this.description);
+        return startToString('T').toString();
     }
 }
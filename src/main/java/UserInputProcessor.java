@@ -1,7 +1,62 @@
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+
 /**
- * A static class that processes the user's inputs and returns Duke's reponses to the Duke main class.
+ * A class that processes the user's inputs and returns Duke's reponses to the Duke main class.
+ * 
+ * <p>Each <code>Duke</code> has a <code>UserInputProcessor</code> of its own, which remembers the listing being
+ * paged through by <code>more</code> commands, and reuses its buffers from one command to the next. A
+ * <code>UserInputProcessor</code> is meant to be used by one thread at a time.</p>
  */
 public class UserInputProcessor {
+    //The number of deadlines shown by an upcoming command that does not say how many
+    private static final int DEFAULT_UPCOMING_COUNT = 5;
+
+    //The number of entries shown on each page of a list command that does not say how many
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    //The most Tasks or notes listed by the reply to a command changing many of them at once
+    private static final int MAX_CHANGED_SHOWN = 20;
+
+    //Begins a find command searching for whole words joined by AND and OR, rather than for the text as typed
+    private static final String FIND_WORDS_FLAG = "/words";
+
+    //Reused to render every page, so that showing a page only allocates the reply itself
+    private final StringBuilder pageBuilder = new StringBuilder();
+
+    //The listing whose pages are being shown, continued by a more command, or null if there is none
+    private PageCursor pageCursor;
+
+    //Reused to read every command, so that telling what a command is allocates nothing
+    private final DukeParsedCommand command = new DukeParsedCommand();
+
+    //Saves the changes of an import as it is read, or null if they are only handed over once the import ends
+    private final DukePersistenceWriter persistenceWriter;
+
+    /**
+     * Creates a new <code>UserInputProcessor</code> whose commands leave every change to be handed over once they
+     * end.
+     */
+    public UserInputProcessor() {
+        this(null);
+    }
+
+    /**
+     * Creates a new <code>UserInputProcessor</code> whose imports hand their changes over to be saved a batch at a
+     * time while they run, rather than holding every imported <code>Task</code>'s change until they end.
+     * 
+     * @param persistenceWriter The <code>DukePersistenceWriter</code> the changes are otherwise handed over to
+     */
+    public UserInputProcessor(DukePersistenceWriter persistenceWriter) {
+        this.persistenceWriter = persistenceWriter;
+    }
+
     /**
      * Takes in the user's input, identifies the type of command it is and calls upon the relevant "process" method in
      * order to generate a <code>DukeReply</code>.
@@ -9,21 +64,29 @@ public class UserInputProcessor {
      * @return A <code>DukeReply</code> to be processed by the Duke main class in its <code>run</code> method
      * @throws DukeException If the user's inputs are in the wrong format, or otherwise cannot be read by Duke
      */
-    public static DukeReply processUserInput(String userInputString, 
-                                             TaskList tasks,
-                                             NoteList notes) throws DukeException {
-        switch (identifyUserInputType(userInputString)) {
+    public DukeReply processUserInput(String userInputString, 
+                                      TaskList tasks,
+                                      NoteList notes) throws DukeException {
+        DukeParsedCommand parsedCommand = command.parse(userInputString);
+
+        switch (parsedCommand.getType()) {
         case Bye:
             return processByeCase();
             //Fallthrough
         case List:
-            return processListCase(tasks);
+            return processListCase(parsedCommand, tasks);
+            //Fallthrough
+        case More:
+            return processMoreCase(tasks, notes);
             //Fallthrough
         case Done:
-            return processDoneCase(userInputString, tasks);
+            return processDoneCase(parsedCommand, tasks);
+            //Fallthrough
+        case Undone:
+            return processUndoneCase(parsedCommand, tasks);
             //Fallthrough
         case Delete:
-            return processDeleteCase(userInputString, tasks);            
+            return processDeleteCase(parsedCommand, tasks);            
             //Fallthrough
         case Nuke:
             return processNukeCase(userInputString, tasks);
@@ -40,18 +103,35 @@ public class UserInputProcessor {
         case Event:
             return processEventCase(userInputString, tasks);
             //Fallthrough
+        case Agenda:
+            return processAgendaCase(userInputString, tasks);
+            //Fallthrough
+        case Upcoming:
+            return processUpcomingCase(parsedCommand, tasks);
+            //Fallthrough
+        case Overdue:
+            return processOverdueCase(tasks);
+            //Fallthrough
         case NewNote:
             return processNoteCase(userInputString, notes);
             //Fallthrough
         case DeleteNote:
-            return processDeleteNoteCase(userInputString, notes);
+            return processDeleteNoteCase(parsedCommand, notes);
             //Fallthrough
         case NoteList:
-            return processNoteListCase(userInputString, notes);
+            return processNoteListCase(parsedCommand, notes);
             //Fallthrough
         case NukeNote:
             return processNukeNoteCase(userInputString, notes);
             //Fallthrough
+        case Run:
+            //Scripts are run by Duke itself, so a script reaching here was run from another script
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(DukeUi.ERROR_SCRIPT_NESTED);
+            //Fallthrough
+        case Import:
+            return processImportCase(userInputString, tasks);
+            //Fallthrough
         case Invalid:
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
             throw new DukeException(DukeUi.ERROR_UNDECIPHERABLE_MESSAGE);
@@ -64,46 +144,88 @@ public class UserInputProcessor {
     }
 
     /**
-     * Returns as an enum the type of command issued by the user.
+     * Returns whether a type of command reads or changes the <code>TaskList</code>, so that Duke knows to wait for it
+     * to be loaded.
      * 
-     * @param userInputString The user's input command
-     * @return The type of command issued by the user
-     */
-    private static UserInputType identifyUserInputType(String userInputString) {
-        if (userInputString.toLowerCase().startsWith("bye")) {
-            return UserInputType.Bye;
-        } else if (userInputString.toLowerCase().startsWith("list")) {
-            return UserInputType.List;
-        } else if (userInputString.toLowerCase().startsWith("done")) {
-            return UserInputType.Done;
-        } else if (userInputString.toLowerCase().startsWith("deletenote")) {
-            return UserInputType.DeleteNote;
-        } else if (userInputString.toLowerCase().startsWith("delete")) {
-            return UserInputType.Delete;
-        } else if (userInputString.toLowerCase().startsWith("nukenote")) {
-            return UserInputType.NukeNote;
-        } else if (userInputString.toLowerCase().startsWith("nuke")) {
-            return UserInputType.Nuke;
-        } else if (userInputString.toLowerCase().startsWith("find")) {
-            return UserInputType.Find;
-        } else if (userInputString.toLowerCase().startsWith("todo")) {
-            return UserInputType.ToDo;
-        } else if (userInputString.toLowerCase().startsWith("deadline")) {
-            return UserInputType.Deadline;
-        } else if (userInputString.toLowerCase().startsWith("event")) {
-            return UserInputType.Event;
-        } else if (userInputString.toLowerCase().startsWith("notelist")) {
-            return UserInputType.NoteList;
-        } else if (userInputString.toLowerCase().startsWith("note")) {
-            return UserInputType.NewNote;
-        } else {
-            return UserInputType.Invalid;
+     * @param commandType The type of the user's input command, as told by <code>DukeParsedCommand.identify</code>
+     * @return <code>true</code> if the command uses the <code>TaskList</code>
+     */
+    public static boolean needsTaskList(DukeCommandType commandType) {
+        switch (commandType) {
+        case List:
+        case More:
+        case Done:
+        case Undone:
+        case Delete:
+        case Nuke:
+        case Find:
+        case ToDo:
+        case Deadline:
+        case Event:
+        case Agenda:
+        case Upcoming:
+        case Overdue:
+        case Run:
+        case Import:
+            return true;
+            //Fallthrough
+        default:
+            return false;
+            //Fallthrough
         }
     }
 
-    //Used to identify the type of command issued by the User
-    private static enum UserInputType {
-        Bye, List, Done, Delete, Nuke, Find, ToDo, Deadline, Event, NewNote, DeleteNote, NoteList, NukeNote, Invalid
+    /**
+     * Returns whether a type of command reads or changes the <code>NoteList</code>, so that Duke knows to wait for it
+     * to be loaded.
+     * 
+     * @param commandType The type of the user's input command, as told by <code>DukeParsedCommand.identify</code>
+     * @return <code>true</code> if the command uses the <code>NoteList</code>
+     */
+    public static boolean needsNoteList(DukeCommandType commandType) {
+        switch (commandType) {
+        case NewNote:
+        case DeleteNote:
+        case NoteList:
+        case NukeNote:
+        case More:
+        case Run:
+            return true;
+            //Fallthrough
+        default:
+            return false;
+            //Fallthrough
+        }
+    }
+
+    /**
+     * A listing shown a page at a time, remembering which page comes next. The matching positions of a search are
+     * kept with the generation of the <code>TaskList</code> they were found in, and found again if it has changed.
+     */
+    private static class PageCursor {
+        private final DukeCommandType listing;
+        private final int pageSize;
+        private final String searchTerm;
+        private final boolean isWordSearch;
+        private int[] matchingPositions;
+        private long matchingGeneration;
+        private int nextPage = 1;
+
+        /**
+         * Creates a new <code>PageCursor</code> over a listing.
+         * 
+         * @param listing The command whose listing is shown, which is <code>List</code>, <code>Find</code> or
+         *     <code>NoteList</code>
+         * @param pageSize The number of entries on each page
+         * @param searchTerm The term searched for, if the listing is of a search
+         * @param isWordSearch Whether the search is for whole words joined by <code>AND</code> and <code>OR</code>
+         */
+        private PageCursor(DukeCommandType listing, int pageSize, String searchTerm, boolean isWordSearch) {
+            this.listing = listing;
+            this.pageSize = pageSize;
+            this.searchTerm = searchTerm;
+            this.isWordSearch = isWordSearch;
+        }
     }
 
     /**
@@ -117,85 +239,138 @@ public class UserInputProcessor {
     }
 
     /**
-     * Displays the entire <code>TaskList</code>.
+     * Displays a page of the <code>TaskList</code>, the first page of <code>DEFAULT_PAGE_SIZE</code>
+     * <code>Tasks</code> unless the user gives a page and a page size.
      * 
+     * @param parsedCommand The user's input command
      * @param tasks The <code>TaskList</code> to be displayed
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the page or page size is not a number, or the page does not exist
      */
-    private static DukeReply processListCase(TaskList tasks) {
+    private DukeReply processListCase(DukeParsedCommand parsedCommand, TaskList tasks) throws DukeException {
+        int page = parseCount(parsedCommand, 1, 1);
+        int pageSize = parseCount(parsedCommand, 2, DEFAULT_PAGE_SIZE);
+
         if (tasks.isEmpty()) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
             return new DukeReply(false, false, false, DukeUi.FEEDBACK_EMPTY_LIST);
         } else {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
-            return new DukeReply(false, false, false, tasks.toString());
+            pageCursor = new PageCursor(DukeCommandType.List, pageSize, null, false);
+            return showPage(page, tasks, null);
         }
     }
 
     /**
-     * Marks a <code>Task</code> as done at the specified index.
+     * Displays the next page of the listing shown last by a <code>list</code>, <code>find</code> or
+     * <code>notelist</code> command.
      * 
-     * @param userInputString The user's input command
+     * @param tasks The <code>TaskList</code>
+     * @param notes The <code>NoteList</code>
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the page cannot be shown
+     */
+    private DukeReply processMoreCase(TaskList tasks, NoteList notes) throws DukeException {
+        if (pageCursor == null || pageCursor.nextPage > getPageCount(pageCursor, tasks, notes)) {
+            pageCursor = null;
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+            return new DukeReply(false, false, false, DukeUi.FEEDBACK_NO_MORE);
+        }
+
+        return showPage(pageCursor.nextPage, tasks, notes);
+    }
+
+    /**
+     * Marks the <code>Tasks</code> at the specified indexes as done, which may be given as ranges, such as
+     * <code>done 1-200,305</code>.
+     * 
+     * @param parsedCommand The user's input command
      * @param tasks The <code>TaskList</code> to be deleted from
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
      * @throws DukeException If the user's input lacks an index,
      *     or if the index does not exist in the <code>TaskList</code>
      */
-    private static DukeReply processDoneCase(String userInputString, TaskList tasks) throws DukeException {
-        String indexString = "";
-
-        try {
-            String [] splitString = userInputString.split(" ");
-
-            checkCommandIncludesIndex(splitString, "done");
-            indexString = splitString[1];
-            int userSpecifiedIndex = Integer.parseInt(splitString[1]);
-    
-            Task newlyFinishedTask = tasks.markAsDone(userSpecifiedIndex);
+    private static DukeReply processDoneCase(DukeParsedCommand parsedCommand, TaskList tasks) throws DukeException {
+        int[] userSpecifiedIndexes = parseIndexes(parsedCommand, "done", tasks.size());
+        if (userSpecifiedIndexes.length > 1) {
+            tasks.markAsDone(userSpecifiedIndexes);
 
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
 
-            return new DukeReply(false, true, false, 
-                String.format(DukeUi.FEEDBACK_TASK_DONE, newlyFinishedTask.toString(), tasks.size())); 
-        } catch (NumberFormatException e) {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
-        
-            throw new DukeException(
-                String.format(DukeUi.ERROR_NOT_NUMBER, indexString));
+            return new DukeReply(false, true, false, String.format(DukeUi.FEEDBACK_TASKS_DONE,
+                userSpecifiedIndexes.length, getChangedTasksAsString(tasks, userSpecifiedIndexes)));
         }
+
+        int userSpecifiedIndex = userSpecifiedIndexes[0];
+        tasks.markAsDone(userSpecifiedIndex);
+        Task newlyFinishedTask = tasks.getTaskAt(userSpecifiedIndex);
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+
+        return new DukeReply(false, true, false, 
+            String.format(DukeUi.FEEDBACK_TASK_DONE, newlyFinishedTask.toString(), tasks.size()));
     }
 
     /**
-     * Deletes a <code>Task</code> from the <code>TaskList</code> at the specified index.
+     * Marks the <code>Tasks</code> at the specified indexes as not done, which may be given as ranges.
      * 
-     * @param userInputString The user's input command
-     * @param tasks The <code>TaskList</code> to be deleted from
+     * @param parsedCommand The user's input command
+     * @param tasks The <code>TaskList</code> holding the <code>Task</code>
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
      * @throws DukeException If the user's input lacks an index,
      *     or if the index does not exist in the <code>TaskList</code>
      */
-    private static DukeReply processDeleteCase(String userInputString, TaskList tasks) throws DukeException {
-        String indexString = "";
+    private static DukeReply processUndoneCase(DukeParsedCommand parsedCommand, TaskList tasks) throws DukeException {
+        int[] userSpecifiedIndexes = parseIndexes(parsedCommand, "undone", tasks.size());
+        if (userSpecifiedIndexes.length > 1) {
+            tasks.markAsUndone(userSpecifiedIndexes);
 
-        try {
-            String [] splitString = userInputString.split(" ");
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
 
-            checkCommandIncludesIndex(splitString, "delete");
-            indexString = splitString[1];
-            int userSpecifiedIndex = Integer.parseInt(splitString[1]);
+            return new DukeReply(false, true, false, String.format(DukeUi.FEEDBACK_TASKS_UNDONE,
+                userSpecifiedIndexes.length, getChangedTasksAsString(tasks, userSpecifiedIndexes)));
+        }
 
-            Task newlyDeletedTask = tasks.deleteAt(userSpecifiedIndex);
+        int userSpecifiedIndex = userSpecifiedIndexes[0];
+        tasks.markAsUndone(userSpecifiedIndex);
+        Task reopenedTask = tasks.getTaskAt(userSpecifiedIndex);
 
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
 
-            return new DukeReply(false, true, false, 
-                String.format(DukeUi.FEEDBACK_TASK_DELETE, newlyDeletedTask.toString(), tasks.size()));         
-        } catch (NumberFormatException e) {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+        return new DukeReply(false, true, false,
+            String.format(DukeUi.FEEDBACK_TASK_UNDONE, reopenedTask.toString()));
+    }
 
-            throw new DukeException(
-                String.format(DukeUi.ERROR_NOT_NUMBER, indexString));
+    /**
+     * Deletes the <code>Tasks</code> from the <code>TaskList</code> at the specified indexes, which may be given as
+     * ranges, such as <code>delete 3-90</code>. Several <code>Tasks</code> are deleted together, and listed in one
+     * reply.
+     * 
+     * @param parsedCommand The user's input command
+     * @param tasks The <code>TaskList</code> to be deleted from
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the user's input lacks an index,
+     *     or if the index does not exist in the <code>TaskList</code>
+     */
+    private static DukeReply processDeleteCase(DukeParsedCommand parsedCommand, TaskList tasks) throws DukeException {
+        int[] userSpecifiedIndexes = parseIndexes(parsedCommand, "delete", tasks.size());
+        if (userSpecifiedIndexes.length > 1) {
+            //The Tasks are listed before they are deleted, at the positions the user gave
+            String deletedTasks = getChangedTasksAsString(tasks, userSpecifiedIndexes);
+            tasks.deleteAt(userSpecifiedIndexes);
+
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+
+            return new DukeReply(false, true, false, String.format(DukeUi.FEEDBACK_TASKS_DELETE,
+                userSpecifiedIndexes.length, deletedTasks, tasks.size()));
         }
+
+        int userSpecifiedIndex = userSpecifiedIndexes[0];
+        Task newlyDeletedTask = tasks.deleteAt(userSpecifiedIndex);
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+
+        return new DukeReply(false, true, false, 
+            String.format(DukeUi.FEEDBACK_TASK_DELETE, newlyDeletedTask.toString(), tasks.size()));
     }
 
     /**
@@ -212,20 +387,30 @@ public class UserInputProcessor {
     }
 
     /**
-     * Searches for all the <code>Tasks</code> containing the specified searchTerm.
+     * Searches for all the <code>Tasks</code> containing the specified searchTerm, and displays the first page of
+     * them. A searchTerm after <code>FIND_WORDS_FLAG</code> is searched for as whole words instead.
      * 
      * @param userInputString The user's input command
      * @param tasks The <code>TaskList</code> to be searched through
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the page cannot be shown
      */
-    private static DukeReply processFindCase(String userInputString, TaskList tasks) {
+    private DukeReply processFindCase(String userInputString, TaskList tasks) throws DukeException {
         String searchTerm = userInputString.substring(4).trim();
-        String matchingTasksAsString = tasks.getMatchingTasksAsString(searchTerm);
+        boolean isWordSearch = searchTerm.split("\\s+", 2)[0].equals(FIND_WORDS_FLAG);
+        if (isWordSearch) {
+            searchTerm = searchTerm.substring(FIND_WORDS_FLAG.length()).trim();
+        }
+        pageCursor = new PageCursor(DukeCommandType.Find, DEFAULT_PAGE_SIZE, searchTerm, isWordSearch);
 
-        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+        if (getEntryCount(pageCursor, tasks, null) == 0) {
+            pageCursor = null;
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+            return new DukeReply(false, true, false,
+                String.format(DukeUi.FEEDBACK_FIND, DukeUi.FEEDBACK_FIND_NOTHING));
+        }
 
-        return new DukeReply(false, true, false, 
-            String.format(DukeUi.FEEDBACK_FIND, matchingTasksAsString));
+        return showPage(1, tasks, null);
     }
 
     /**
@@ -267,7 +452,8 @@ public class UserInputProcessor {
     }
 
     /**
-     * Creates and adds a new <code>EventTask</code> to the <code>TaskList</code>.
+     * Creates and adds a new <code>EventTask</code> to the <code>TaskList</code>, and points out any scheduled
+     * events it clashes with.
      * 
      * @param userInputString The user's input command
      * @param tasks The <code>TaskList</code> to be added to
@@ -275,14 +461,105 @@ public class UserInputProcessor {
      * @throws DukeException When the user's input is incomplete, lacks a description or includes an invalid date
      */
     private static DukeReply processEventCase(String userInputString, TaskList tasks) throws DukeException {
-        Task newlyAddedTask = TextToTaskTranslator.translateEventTask(userInputString);
+        EventTask newlyAddedTask = (EventTask) TextToTaskTranslator.translateEventTask(userInputString);
         
         tasks.add(newlyAddedTask);
 
         GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
 
-        return new DukeReply(false, true, false,
-            String.format(DukeUi.FEEDBACK_TASK_ADDED, newlyAddedTask.toString(), tasks.size()));
+        String reply = String.format(DukeUi.FEEDBACK_TASK_ADDED, newlyAddedTask.toString(), tasks.size());
+        DukeDuration eventDuration = newlyAddedTask.getEventDuration();
+
+        if (eventDuration.isScheduled()) {
+            //The new event is at the end of the list, and does not clash with itself
+            int[] clashingPositions = tasks.getEventPositions(eventDuration.getStartEpochMinute(),
+                                                              eventDuration.getEndEpochMinute());
+            int[] otherPositions = Arrays.stream(clashingPositions)
+                                         .filter(position -> position != tasks.size())
+                                         .toArray();
+
+            if (otherPositions.length > 0) {
+                GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+                reply += String.format(DukeUi.FEEDBACK_EVENT_CLASH, tasks.getTasksAtPositionsAsString(otherPositions));
+            }
+        }
+
+        return new DukeReply(false, true, false, reply);
+    }
+
+    /**
+     * Displays the next <code>DeadlineTasks</code> that are not done yet and not overdue, soonest first.
+     * 
+     * @param parsedCommand The user's input command
+     * @param tasks The <code>TaskList</code> to be searched through
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the number of deadlines asked for is not a number, or is below 1
+     */
+    private static DukeReply processUpcomingCase(DukeParsedCommand parsedCommand, TaskList tasks) throws DukeException {
+        int count = parseCount(parsedCommand, 1, DEFAULT_UPCOMING_COUNT);
+        int[] deadlinePositions = tasks.getUpcomingDeadlinePositions(getNowEpochMinute(), count);
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+
+        if (deadlinePositions.length == 0) {
+            return new DukeReply(false, false, false, DukeUi.FEEDBACK_UPCOMING_NOTHING);
+        }
+
+        return new DukeReply(false, false, false,
+            String.format(DukeUi.FEEDBACK_UPCOMING, tasks.getTasksAtPositionsAsString(deadlinePositions)));
+    }
+
+    /**
+     * Displays the <code>DeadlineTasks</code> that are not done yet but are overdue, longest overdue first.
+     * 
+     * @param tasks The <code>TaskList</code> to be searched through
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     */
+    private static DukeReply processOverdueCase(TaskList tasks) {
+        int[] deadlinePositions = tasks.getOverdueDeadlinePositions(getNowEpochMinute());
+
+        if (deadlinePositions.length == 0) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+            return new DukeReply(false, false, false, DukeUi.FEEDBACK_OVERDUE_NOTHING);
+        }
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+        return new DukeReply(false, false, false,
+            String.format(DukeUi.FEEDBACK_OVERDUE, tasks.getTasksAtPositionsAsString(deadlinePositions)));
+    }
+
+    /**
+     * Returns the current minute, as deadlines are compared against it.
+     * 
+     * @return The current minute, packed by <code>DukeBinaryCodec.toEpochMinute</code>
+     */
+    private static long getNowEpochMinute() {
+        return DukeBinaryCodec.toEpochMinute(new DukeDateTime(LocalDate.now(), LocalTime.now()));
+    }
+
+    /**
+     * Displays the scheduled <code>EventTasks</code> taking up any time in a range, in order of their starts.
+     * 
+     * @param userInputString The user's input command
+     * @param tasks The <code>TaskList</code> to be searched through
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the user's input lacks a starting date or includes an invalid date
+     */
+    private static DukeReply processAgendaCase(String userInputString, TaskList tasks) throws DukeException {
+        DukeDuration agendaDuration = TextToTaskTranslator.translateAgendaDuration(userInputString);
+        int[] eventPositions = tasks.getEventPositions(agendaDuration.getStartEpochMinute(),
+                                                       agendaDuration.getEndEpochMinute());
+
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+
+        if (eventPositions.length == 0) {
+            return new DukeReply(false, false, false,
+                String.format(DukeUi.FEEDBACK_AGENDA_NOTHING, agendaDuration.toString()));
+        }
+
+        return new DukeReply(false, false, false,
+            String.format(DukeUi.FEEDBACK_AGENDA, agendaDuration.toString(),
+                          tasks.getTasksAtPositionsAsString(eventPositions)));
     }
 
     /**
@@ -303,51 +580,57 @@ public class UserInputProcessor {
     }
 
     /**
-     * Deletes a note from the <code>NoteList</code>.
+     * Deletes the notes from the <code>NoteList</code> at the specified indexes, which may be given as ranges.
      * 
-     * @param userInputString The user's input command
+     * @param parsedCommand The user's input command
      * @param notes The <code>NoteList</code> to be deleted from
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
      * @throws DukeException If the chosen index does not exist in the <code>NoteList</code>
      */
-    private static DukeReply processDeleteNoteCase(String userInputString, NoteList notes) throws DukeException {
-        String indexString = "";
+    private static DukeReply processDeleteNoteCase(DukeParsedCommand parsedCommand,
+                                                   NoteList notes) throws DukeException {
+        int[] userSpecifiedIndexes = parseIndexes(parsedCommand, "delete note", notes.size());
+        if (userSpecifiedIndexes.length > 1) {
+            StringBuilder sb = new StringBuilder();
+            notes.appendPositions(sb, userSpecifiedIndexes, 0, MAX_CHANGED_SHOWN);
+            String deletedNotes = finishChangedList(sb, userSpecifiedIndexes.length);
+            notes.deleteAt(userSpecifiedIndexes);
 
-        try {
-            String [] splitString = userInputString.split(" ");
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
 
-            checkCommandIncludesIndex(splitString, "delete note");
-            indexString = splitString[1];
-            int userSpecifiedIndex = Integer.parseInt(splitString[1]);
+            return new DukeReply(false, false, true, String.format(DukeUi.FEEDBACK_NOTES_DELETE,
+                userSpecifiedIndexes.length, deletedNotes, notes.size()));
+        }
 
-            String newlyDeletedNote = notes.deleteAt(userSpecifiedIndex);
+        int userSpecifiedIndex = userSpecifiedIndexes[0];
+        String newlyDeletedNote = notes.deleteAt(userSpecifiedIndex);
 
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
 
-            return new DukeReply(false, false, true,
-                String.format(DukeUi.FEEDBACK_NOTE_DELETE, newlyDeletedNote, notes.size()));         
-        } catch (NumberFormatException e) {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
-            throw new DukeException(
-                String.format(DukeUi.ERROR_NOT_NUMBER, indexString));
-        }        
+        return new DukeReply(false, false, true,
+            String.format(DukeUi.FEEDBACK_NOTE_DELETE, newlyDeletedNote, notes.size()));
     }
 
     /**
-     * Displays the entire <code>NoteList</code>.
+     * Displays a page of the <code>NoteList</code>, the first page of <code>DEFAULT_PAGE_SIZE</code> notes unless the
+     * user gives a page and a page size.
      * 
-     * @param userInputString The user's input command
+     * @param parsedCommand The user's input command
      * @param notes The <code>NoteList</code> to be displayed
      * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the page or page size is not a number, or the page does not exist
      */
-    private static DukeReply processNoteListCase(String userInputString, NoteList notes) {
+    private DukeReply processNoteListCase(DukeParsedCommand parsedCommand, NoteList notes) throws DukeException {
+        int page = parseCount(parsedCommand, 1, 1);
+        int pageSize = parseCount(parsedCommand, 2, DEFAULT_PAGE_SIZE);
+
         if (notes.isEmpty()) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
             return new DukeReply(false, false, false, DukeUi.FEEDBACK_EMPTY_NOTE_LIST);
         } else {
-            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
-            return new DukeReply(false, false, false, notes.toString());
-        }       
+            pageCursor = new PageCursor(DukeCommandType.NoteList, pageSize, null, false);
+            return showPage(page, null, notes);
+        }
     }
 
     /**
@@ -362,19 +645,283 @@ public class UserInputProcessor {
         GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Wink);
         return new DukeReply(false, false, true, DukeUi.FEEDBACK_NUKE_NOTE);        
     }
+
+    /**
+     * Imports the <code>Tasks</code> in a CSV or iCalendar file into the <code>TaskList</code>, skipping the entries
+     * that cannot be made into <code>Tasks</code>.
+     * 
+     * @param userInputString The user's input command
+     * @param tasks The <code>TaskList</code> to be added to
+     * @return A <code>DukeReply</code> containing Duke's response and instructions for changing state
+     * @throws DukeException If the command does not include a path, or the file cannot be opened or has no column
+     *     for the descriptions of the <code>Tasks</code>
+     */
+    private DukeReply processImportCase(String userInputString, TaskList tasks) throws DukeException {
+        String path = userInputString.substring("import".length()).trim();
+        if (path.isEmpty()) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, "import"));
+        }
+
+        DukeTaskSource source;
+        try {
+            source = DukeTaskImporter.open(Paths.get(path));
+        } catch (NoSuchFileException | InvalidPathException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_IMPORT_MISSING, path));
+        } catch (IOException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_IMPORT_UNREADABLE, path, e.getMessage()));
+        }
+
+        DukeTaskImporter importer = new DukeTaskImporter(tasks, persistenceWriter);
+        importer.importFrom(source);
+
+        boolean isClean = importer.getErrorCount() == 0 && importer.isComplete();
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(isClean ? DukeImageChoice.Wink : DukeImageChoice.Sweat);
+        return new DukeReply(false, true, false, importer.getSummary(path));
+    }
     
     /**
-     * Checks if the user command includes an index and throws an exception is not. 
+     * Reads the indexes following the keyword of the user's command, throwing an exception if there are none. Each
+     * is a single index or a range of them, such as <code>400-410</code>, separated by commas or spaces.
      * 
-     * @param splitString The <code>String</code> array
+     * @param parsedCommand The user's input command
      * @param commandType The type of user command causing this check
-     * @throws DukeException If the command does not include an index
+     * @param listSize The number of elements in the list the indexes are in
+     * @return The indexes, in ascending order without repeats
+     * @throws DukeException If the command does not include an index, an index is not a number or does not exist in
+     *     the list, or a range goes backwards
      */
-    private static void checkCommandIncludesIndex(String [] splitString, String commandType) throws DukeException {
-        if (splitString.length == 1) {
+    private static int[] parseIndexes(DukeParsedCommand parsedCommand, String commandType,
+                                      int listSize) throws DukeException {
+        BitSet indexes = new BitSet();
+
+        for (int i = 1; i < parsedCommand.getWordCount(); i++) {
+            String word = parsedCommand.getWord(i);
+            for (int start = 0; start < word.length(); ) {
+                int end = word.indexOf(',', start);
+                end = (end < 0) ? word.length() : end;
+                if (end > start) {
+                    addIndexRange(indexes, word.substring(start, end), listSize);
+                }
+                start = end + 1;
+            }
+        }
+
+        if (indexes.isEmpty()) {
             GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
             throw new DukeException(
                 String.format(DukeUi.ERROR_INCOMPLETE_COMMAND, commandType));
         }
+
+        return indexes.stream().toArray();
+    }
+
+    /**
+     * Adds a single index, or a range of indexes such as <code>3-90</code>, to a set of indexes.
+     * 
+     * @param indexes The set of indexes
+     * @param range The index or range
+     * @param listSize The number of elements in the list the indexes are in
+     * @throws DukeException If an index is not a number or does not exist in the list, or the range goes backwards
+     */
+    private static void addIndexRange(BitSet indexes, String range, int listSize) throws DukeException {
+        //A dash after the first character splits a range, so that a negative index is still read as one number
+        int dash = range.indexOf('-', 1);
+        int first = parseListIndex((dash < 0) ? range : range.substring(0, dash), listSize);
+        int last = (dash < 0) ? first : parseListIndex(range.substring(dash + 1), listSize);
+
+        if (last < first) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_BACKWARDS_RANGE, range));
+        }
+
+        indexes.set(first, last + 1);
+    }
+
+    /**
+     * Reads an index, checking that it exists in the list.
+     * 
+     * @param number The index as written by the user
+     * @param listSize The number of elements in the list
+     * @return The one-indexed index
+     * @throws DukeException If the index is not a number, or does not exist in the list
+     */
+    private static int parseListIndex(String number, int listSize) throws DukeException {
+        int index;
+        try {
+            index = Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_NOT_NUMBER, number));
+        }
+
+        if (index < 1) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(DukeUi.ERROR_LIST_INDEX_SMALL);
+        }
+
+        if (index > listSize) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+            throw new DukeException(String.format(DukeUi.ERROR_LIST_INDEX_BIG, index));
+        }
+
+        return index;
+    }
+
+    /**
+     * Lists the <code>Tasks</code> at some positions, as the reply to a command changing them all at once. Only the
+     * first few are listed, and the rest are counted.
+     * 
+     * @param tasks The <code>TaskList</code> holding the <code>Tasks</code>
+     * @param positions The one-indexed positions of the <code>Tasks</code>
+     * @return The list of the <code>Tasks</code>
+     */
+    private static String getChangedTasksAsString(TaskList tasks, int[] positions) {
+        StringBuilder sb = new StringBuilder();
+        tasks.appendPositions(sb, positions, 0, MAX_CHANGED_SHOWN);
+        return finishChangedList(sb, positions.length);
+    }
+
+    /**
+     * Finishes a list of the first few elements changed by a command, counting the elements left out of it.
+     * 
+     * @param sb The list, with one line for each element listed
+     * @param changedCount The number of elements changed
+     * @return The finished list
+     */
+    private static String finishChangedList(StringBuilder sb, int changedCount) {
+        if (changedCount > MAX_CHANGED_SHOWN) {
+            sb.append(String.format(DukeUi.FEEDBACK_CHANGED_MORE, changedCount - MAX_CHANGED_SHOWN));
+        } else {
+            sb.setLength(sb.length() - 1);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Reads an optional count of at least 1 from the user's input command, such as a page or a page size.
+     * 
+     * @param parsedCommand The user's input command
+     * @param i The position of the count among the words
+     * @param defaultCount The count to use if the command stops before it
+     * @return The count
+     * @throws DukeException If the count is not a number, or is below 1
+     */
+    private static int parseCount(DukeParsedCommand parsedCommand, int i, int defaultCount) throws DukeException {
+        if (parsedCommand.getWordCount() <= i) {
+            return defaultCount;
+        }
+
+        int count;
+        try {
+            count = parsedCommand.getWordAsInt(i);
+        } catch (NumberFormatException e) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(String.format(DukeUi.ERROR_NOT_NUMBER, parsedCommand.getWord(i)));
+        }
+
+        if (count < 1) {
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Sweat);
+            throw new DukeException(DukeUi.ERROR_LIST_INDEX_SMALL);
+        }
+
+        return count;
+    }
+
+    /**
+     * Renders a page of the listing of the current <code>PageCursor</code> into the reused
+     * <code>StringBuilder</code>, reading only the entries on the page, and moves the cursor past it. A listing that
+     * fits on one page is shown just as it always has been; otherwise the page ends with a line telling where it is.
+     * 
+     * @param page The one-indexed page
+     * @param tasks The <code>TaskList</code>, if the listing is of <code>Tasks</code>
+     * @param notes The <code>NoteList</code>, if the listing is of notes
+     * @return A <code>DukeReply</code> containing the page
+     * @throws DukeException If the page does not exist
+     */
+    private DukeReply showPage(int page, TaskList tasks, NoteList notes) throws DukeException {
+        PageCursor cursor = pageCursor;
+        int entryCount = getEntryCount(cursor, tasks, notes);
+        int pageCount = getPageCount(cursor, tasks, notes);
+
+        if (page > pageCount) {
+            pageCursor = null;
+            GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+            throw new DukeException(String.format(DukeUi.ERROR_PAGE_BIG, page, pageCount));
+        }
+
+        int from = (int) Math.min((long) (page - 1) * cursor.pageSize, entryCount);
+        int to = (int) Math.min((long) page * cursor.pageSize, entryCount);
+        pageBuilder.setLength(0);
+
+        switch (cursor.listing) {
+        case List:
+            tasks.appendPage(pageBuilder, from, to - from);
+            break;
+        case Find:
+            tasks.appendPositions(pageBuilder, cursor.matchingPositions, from, to - from);
+            break;
+        default:
+            notes.appendPage(pageBuilder, from, to - from);
+            break;
+        }
+
+        if (pageCount > 1) {
+            pageBuilder.append(String.format(DukeUi.FEEDBACK_PAGE, page, pageCount, from + 1, to, entryCount));
+            pageBuilder.append((page < pageCount) ? DukeUi.FEEDBACK_PAGE_MORE : "");
+        }
+
+        cursor.nextPage = page + 1;
+        GlobalDukeImageChoiceBuffer.setDukeImageChoice(DukeImageChoice.Smile);
+
+        if (cursor.listing == DukeCommandType.Find) {
+            return new DukeReply(false, true, false, String.format(DukeUi.FEEDBACK_FIND, pageBuilder));
+        }
+
+        return new DukeReply(false, false, false, pageBuilder.toString());
+    }
+
+    /**
+     * Returns the number of entries in the listing of a <code>PageCursor</code>, which is kept by the lists
+     * themselves and so is found in O(1) time, apart from the first time the matches of a search are counted.
+     * 
+     * @param cursor The <code>PageCursor</code>
+     * @param tasks The <code>TaskList</code>, if the listing is of <code>Tasks</code>
+     * @param notes The <code>NoteList</code>, if the listing is of notes
+     * @return The number of entries
+     */
+    private static int getEntryCount(PageCursor cursor, TaskList tasks, NoteList notes) {
+        switch (cursor.listing) {
+        case List:
+            return tasks.size();
+            //Fallthrough
+        case Find:
+            if (cursor.matchingPositions == null || cursor.matchingGeneration != tasks.getGeneration()) {
+                cursor.matchingPositions = cursor.isWordSearch ? tasks.getPositionsMatchingQuery(cursor.searchTerm)
+                                                                : tasks.getMatchingPositions(cursor.searchTerm);
+                cursor.matchingGeneration = tasks.getGeneration();
+            }
+            return cursor.matchingPositions.length;
+            //Fallthrough
+        default:
+            return notes.size();
+            //Fallthrough
+        }
+    }
+
+    /**
+     * Returns the number of pages in the listing of a <code>PageCursor</code>, which is at least 1.
+     * 
+     * @param cursor The <code>PageCursor</code>
+     * @param tasks The <code>TaskList</code>, if the listing is of <code>Tasks</code>
+     * @param notes The <code>NoteList</code>, if the listing is of notes
+     * @return The number of pages
+     */
+    private static int getPageCount(PageCursor cursor, TaskList tasks, NoteList notes) {
+        int entryCount = getEntryCount(cursor, tasks, notes);
+        return Math.max(1, (int) (((long) entryCount + cursor.pageSize - 1) / cursor.pageSize));
     }
 }
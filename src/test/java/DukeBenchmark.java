@@ -0,0 +1,1132 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.ref.Reference;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for Duke's storage and commands, run through <code>gradle benchmark</code>. Each benchmark is named on
+ * the command line, for example <code>gradle benchmark -Pbenchmarks=checkpoint</code>, and all of them are run if none
+ * are named. Results are printed as plain tables.
+ */
+public class DukeBenchmark {
+    private static final int[] LIST_SIZES = { 1_000, 10_000, 100_000, 1_000_000 };
+
+    /**
+     * Runs the named benchmarks, or all of them.
+     * 
+     * @param args The names of the benchmarks to run
+     * @throws Exception If a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        String[] benchmarks = (args.length == 0)
+                              ? new String[] { "checkpoint", "startup", "compression", "index", "find", "delete",
+                                              "heap", "status", "recurring", "page", "render",
+                                              "dispatch", "translate", "script", "bulk", "import" }
+                              : args;
+
+        for (String benchmark : benchmarks) {
+            switch (benchmark) {
+            case "checkpoint":
+                benchmarkCheckpoints();
+                break;
+            case "startup":
+                benchmarkStartup();
+                break;
+            case "compression":
+                benchmarkCompression();
+                break;
+            case "index":
+                benchmarkIndex();
+                break;
+            case "find":
+                benchmarkFind();
+                break;
+            case "delete":
+                benchmarkDelete();
+                break;
+            case "heap":
+                benchmarkHeap();
+                break;
+            case "status":
+                benchmarkStatus();
+                break;
+            case "recurring":
+                benchmarkRecurring();
+                break;
+            case "page":
+                benchmarkPage();
+                break;
+            case "render":
+                benchmarkRender();
+                break;
+            case "dispatch":
+                benchmarkDispatch();
+                break;
+            case "translate":
+                benchmarkTranslate();
+                break;
+            case "script":
+                benchmarkScript();
+                break;
+            case "bulk":
+                benchmarkBulk();
+                break;
+            case "import":
+                benchmarkImport();
+                break;
+            default:
+                System.out.println("Unknown benchmark " + benchmark);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Compares the cost of saving a small change through the journal with writing a full checkpoint, as the list
+     * grows. The cost of a delta should stay flat while the cost of a full checkpoint grows with the list.
+     * 
+     * @throws IOException If saving fails
+     * @throws ClassNotFoundException If loading fails
+     */
+    private static void benchmarkCheckpoints() throws IOException, ClassNotFoundException {
+        final int deltaRepetitions = 200;
+        final int rangeLength = 100;
+        Random random = new Random(163417L);
+
+        System.out.println("== checkpoint: save cost against list size ==");
+        System.out.printf("%10s %16s %16s %22s%n", "tasks", "full (ms)", "1 done (ms)", "100 deleted (ms)");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+                TaskList tasks = createTaskList(listSize);
+
+                long start = System.nanoTime();
+                DukeStoreFile.write(new File(saveDirectory.toFile(), "Duke.store"), tasks, new NoteList(), false);
+                double fullMillis = (System.nanoTime() - start) / 1e6;
+
+                tasks = dukeSaveLoad.attemptLoadTaskList();
+                NoteList notes = dukeSaveLoad.attemptLoadNoteList();
+
+                start = System.nanoTime();
+                for (int i = 0; i < deltaRepetitions; i++) {
+                    tasks.markAsDone(random.nextInt(tasks.size()) + 1);
+                    dukeSaveLoad.attemptSave(tasks, notes);
+                }
+                double doneMillis = (System.nanoTime() - start) / 1e6 / deltaRepetitions;
+
+                start = System.nanoTime();
+                int rangeStart = random.nextInt(tasks.size() - rangeLength) + 1;
+                for (int i = 0; i < rangeLength; i++) {
+                    tasks.deleteAt(rangeStart);
+                }
+                dukeSaveLoad.attemptSave(tasks, notes);
+                double rangeMillis = (System.nanoTime() - start) / 1e6;
+
+                System.out.printf("%10d %16.3f %16.3f %22.3f%n", listSize, fullMillis, doneMillis, rangeMillis);
+            } catch (DukeException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Measures how soon Duke can greet the user, which is when its window can first be shown, against how long
+     * loading the saved lists takes in full. Also measures how soon the first command using the <code>TaskList</code>
+     * is answered, and how soon every saved <code>Task</code> has been decoded in the background.
+     * 
+     * @throws IOException If saving or loading fails
+     * @throws ClassNotFoundException If loading fails
+     */
+    private static void benchmarkStartup() throws IOException, ClassNotFoundException {
+        System.out.println("== startup: time to first frame against list size ==");
+        System.out.printf("%10s %16s %16s %18s %18s%n", "tasks", "full load (ms)", "greeting (ms)", "first done (ms)",
+                          "all decoded (ms)");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                createSaveFiles(saveDirectory.toFile(), listSize);
+
+                long start = System.nanoTime();
+                DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+                TaskList tasks = dukeSaveLoad.attemptLoadTaskList();
+                dukeSaveLoad.attemptLoadNoteList();
+                for (Task task : tasks.snapshotIterable()) {
+                    task.getDescription();
+                }
+                double fullLoadMillis = (System.nanoTime() - start) / 1e6;
+
+                start = System.nanoTime();
+                Duke duke = new Duke(saveDirectory.toFile());
+                duke.sayHi();
+                double greetingMillis = (System.nanoTime() - start) / 1e6;
+
+                duke.getResponse("done " + (listSize / 2));
+                double firstDoneMillis = (System.nanoTime() - start) / 1e6;
+
+                duke.awaitLoaded();
+                double allDecodedMillis = (System.nanoTime() - start) / 1e6;
+                duke.close();
+
+                System.out.printf("%10d %16.3f %16.3f %18.3f %18.3f%n", listSize, fullLoadMillis, greetingMillis,
+                                  firstDoneMillis, allDecodedMillis);
+            } catch (DukeException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Compares the size of a <code>DukePagedTaskFile</code> and a <code>DukeCompressedTaskFile</code> of the same
+     * list, and how long each takes to read a single <code>Task</code> and to search for a missing term once opened.
+     * 
+     * @throws IOException If saving or loading fails
+     */
+    private static void benchmarkCompression() throws IOException {
+        Random random = new Random(163417L);
+
+        System.out.println("== compression: paged against compressed snapshots ==");
+        System.out.printf("%10s %12s %14s %14s %14s %14s %14s%n", "tasks", "format", "size (KiB)", "open (ms)",
+                          "1 read (ms)", "find (ms)", "found");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                TaskList tasks = createTaskList(listSize);
+                File pagedFile = new File(saveDirectory.toFile(), "paged.tl");
+                File compressedFile = new File(saveDirectory.toFile(), "compressed.tl");
+                DukePagedTaskFile.write(pagedFile, tasks);
+                DukeCompressedTaskFile.write(compressedFile, tasks);
+
+                for (File file : new File[] { pagedFile, compressedFile }) {
+                    boolean isCompressed = file == compressedFile;
+                    long start = System.nanoTime();
+                    DukeTaskFile taskFile = isCompressed ? DukeCompressedTaskFile.open(file)
+                                                         : DukePagedTaskFile.open(file);
+                    double openMillis = (System.nanoTime() - start) / 1e6;
+
+                    start = System.nanoTime();
+                    taskFile.readTask(random.nextInt(listSize));
+                    double readMillis = (System.nanoTime() - start) / 1e6;
+
+                    TaskList openedTasks = new TaskList(taskFile);
+                    start = System.nanoTime();
+                    String found = openedTasks.getMatchingTasksAsString("zebra");
+                    double findMillis = (System.nanoTime() - start) / 1e6;
+
+                    System.out.printf("%10d %12s %14d %14.3f %14.3f %14.3f %14b%n", listSize,
+                                      isCompressed ? "compressed" : "paged", file.length() / 1024, openMillis,
+                                      readMillis, findMillis, !found.equals(DukeUi.FEEDBACK_FIND_NOTHING));
+                }
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Measures how long building, saving and mapping a <code>DukeTaskIndex</code> take, and compares searching a
+     * freshly loaded <code>TaskList</code> by a linear scan with searching it through the trigram index, for a term
+     * that matches one <code>Task</code>, for one that matches in the middle of words, and for one that matches none.
+     * 
+     * @throws IOException If saving or loading fails
+     */
+    private static void benchmarkIndex() throws IOException {
+        final String[] searchTerms = { "number 4242", "mber 424", "zebra" };
+
+        System.out.println("== index: searching a saved list with and without its index ==");
+        System.out.printf("%10s %12s %12s %12s %14s %16s %18s%n", "tasks", "build (ms)", "size (KiB)", "open (ms)",
+                          "term", "scan find (ms)", "trigram find (ms)");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                TaskList tasks = createTaskList(listSize);
+                File pagedFile = new File(saveDirectory.toFile(), "paged.tl");
+                File indexFile = new File(saveDirectory.toFile(), "paged.index");
+                DukePagedTaskFile.write(pagedFile, tasks);
+
+                long start = System.nanoTime();
+                DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable()).write(indexFile);
+                double buildMillis = (System.nanoTime() - start) / 1e6;
+
+                start = System.nanoTime();
+                DukeTaskIndex index = DukeTaskIndex.open(indexFile);
+                double openMillis = (System.nanoTime() - start) / 1e6;
+
+                for (String searchTerm : searchTerms) {
+                    TaskList scannedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+                    start = System.nanoTime();
+                    scannedTasks.getMatchingTasksAsString(searchTerm);
+                    double scanMillis = (System.nanoTime() - start) / 1e6;
+
+                    TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+                    indexedTasks.useSavedTaskIndex(index);
+                    start = System.nanoTime();
+                    indexedTasks.getMatchingTasksAsString(searchTerm);
+                    double indexMillis = (System.nanoTime() - start) / 1e6;
+
+                    System.out.printf("%10d %12.3f %12d %12.3f %14s %16.3f %18.3f%n", listSize, buildMillis,
+                                      indexFile.length() / 1024, openMillis, searchTerm, scanMillis, indexMillis);
+                }
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Measures how long searches joining tokens with <code>AND</code> and <code>OR</code> take, both on a list built in
+     * memory, which is searched through its <code>DukeTokenIndex</code>, and on a saved list searched through the
+     * token index of its <code>DukeTaskIndex</code>. Each search is timed over many repetitions, after the first.
+     * 
+     * @throws IOException If saving or loading fails
+     */
+    private static void benchmarkFind() throws IOException {
+        final String[] searchTerms = { "number AND 4242", "4242 OR 77777", "task AND zebra" };
+        final int repetitions = 50;
+
+        System.out.println("== find: token searches through the inverted indexes ==");
+        System.out.printf("%10s %18s %18s %18s%n", "tasks", "search", "in memory (ms)", "saved (ms)");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                TaskList tasks = createTaskList(listSize);
+                File pagedFile = new File(saveDirectory.toFile(), "paged.tl");
+                DukePagedTaskFile.write(pagedFile, tasks);
+
+                TaskList savedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+                savedTasks.useSavedTaskIndex(DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable()));
+
+                for (String searchTerm : searchTerms) {
+                    System.out.printf("%10d %18s %18.3f %18.3f%n", listSize, searchTerm,
+                                      timeSearch(tasks, searchTerm, repetitions),
+                                      timeSearch(savedTasks, searchTerm, repetitions));
+                }
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Measures how long deleting from the front of a list and marking a <code>Task</code> in its middle as done take,
+     * as the list grows. Both should only grow with the logarithm of the size of the list.
+     * 
+     * @throws DukeException If a change cannot be made
+     */
+    private static void benchmarkDelete() throws DukeException {
+        System.out.println("== delete: positional changes through the position index ==");
+        System.out.printf("%10s %18s %18s%n", "tasks", "delete 1 (us)", "done middle (us)");
+
+        for (int listSize : LIST_SIZES) {
+            TaskList tasks = createTaskList(listSize);
+            int repetitions = listSize / 2;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                tasks.deleteAt(1);
+            }
+            double deleteTime = (System.nanoTime() - start) / 1e3 / repetitions;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                tasks.markAsDone(tasks.size() / 2);
+            }
+            double doneTime = (System.nanoTime() - start) / 1e3 / repetitions;
+
+            System.out.printf("%10d %18.3f %18.3f%n", listSize, deleteTime, doneTime);
+        }
+    }
+
+    /**
+     * Compares the heap taken up per <code>Task</code> by <code>Task</code> objects with that taken up by
+     * <code>DukeTaskColumns</code>, and by a whole <code>TaskList</code> with its indexes, for a mix of to-dos,
+     * deadlines and events. Also counts the garbage collections made while building the list, listing it and
+     * searching it.
+     */
+    private static void benchmarkHeap() {
+        System.out.println("== heap: bytes per task and garbage collections ==");
+        System.out.printf("%10s %16s %16s %16s %10s %10s%n", "tasks", "objects (B)", "columns (B)",
+                          "task list (B)", "gc count", "gc (ms)");
+
+        for (int listSize : LIST_SIZES) {
+            double objectBytes = (double) measureHeap(() -> {
+                List<Task> objects = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    objects.add(createMixedTask(i));
+                }
+                return objects;
+            }) / listSize;
+
+            double columnBytes = (double) measureHeap(() -> {
+                DukeTaskColumns columns = new DukeTaskColumns(0, listSize);
+                for (int i = 0; i < listSize; i++) {
+                    columns.set(i, createMixedTask(i));
+                }
+                return columns;
+            }) / listSize;
+
+            long[] collections = new long[2];
+            double listBytes = (double) measureHeap(() -> {
+                long[] collectionsBefore = getGarbageCollections();
+                TaskList tasks = new TaskList();
+                for (int i = 0; i < listSize; i++) {
+                    tasks.add(createMixedTask(i));
+                }
+                tasks.drainChanges();
+                tasks.toString();
+                tasks.getMatchingTasksAsString("ab");
+
+                long[] collectionsAfter = getGarbageCollections();
+                collections[0] = collectionsAfter[0] - collectionsBefore[0];
+                collections[1] = collectionsAfter[1] - collectionsBefore[1];
+                return tasks;
+            }) / listSize;
+
+            System.out.printf("%10d %16.1f %16.1f %16.1f %10d %10d%n", listSize, objectBytes, columnBytes, listBytes,
+                              collections[0], collections[1]);
+        }
+    }
+
+    /**
+     * Measures the heap allocated by marking <code>Tasks</code> as done and as not done again, both along a run of
+     * neighbouring <code>Tasks</code>, whose changes are journalled as one growing range, and at random positions,
+     * each of which is journalled as an entry of its own.
+     * 
+     * @throws DukeException If a change cannot be made
+     */
+    private static void benchmarkStatus() throws DukeException {
+        final int repetitions = 100_000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        System.out.println("== status: heap allocated per status change ==");
+        System.out.printf("%10s %20s %20s%n", "tasks", "run (B/change)", "random (B/change)");
+
+        for (int listSize : LIST_SIZES) {
+            TaskList tasks = createTaskList(listSize);
+            int[] randomIndexes = new Random(listSize).ints(repetitions, 1, listSize + 1).toArray();
+
+            //Marks every Task once beforehand, so that the columns have already grown to hold them all
+            for (int i = 1; i <= listSize; i++) {
+                tasks.markAsDone(i);
+                tasks.markAsUndone(i);
+            }
+            tasks.drainChanges();
+
+            long start = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < repetitions; i++) {
+                tasks.markAsDone(i % listSize + 1);
+            }
+            for (int i = 0; i < repetitions; i++) {
+                tasks.markAsUndone(i % listSize + 1);
+            }
+            double runBytes = (double) (threads.getThreadAllocatedBytes(threadId) - start) / (2 * repetitions);
+            tasks.drainChanges();
+
+            start = threads.getThreadAllocatedBytes(threadId);
+            for (int index : randomIndexes) {
+                tasks.markAsDone(index);
+                tasks.markAsUndone(index);
+            }
+            double randomBytes = (double) (threads.getThreadAllocatedBytes(threadId) - start) / (2 * repetitions);
+            tasks.drainChanges();
+
+            System.out.printf("%10d %20.2f %20.2f%n", listSize, runBytes, randomBytes);
+        }
+    }
+
+    /**
+     * Compares the heap and the save file taken up by a list of recurring <code>Tasks</code> and notes, which repeat a
+     * few descriptions, with those taken up by a list of the same size whose descriptions are all different but just
+     * as long. Repeated descriptions are held and written only once, so the recurring list should take up less of
+     * both.
+     * 
+     * @throws IOException If saving fails
+     */
+    private static void benchmarkRecurring() throws IOException {
+        final int recurringDescriptions = 50;
+
+        System.out.println("== recurring: heap and save file with repeated descriptions ==");
+        System.out.printf("%10s %12s %12s %16s %16s%n", "tasks", "distinct", "notes", "heap (B/task)", "store (KiB)");
+
+        for (int listSize : LIST_SIZES) {
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                for (int distinctDescriptions : new int[] { recurringDescriptions, listSize }) {
+                    int noteCount = listSize / 10;
+                    double heapBytes = (double) measureHeap(() -> new Object[] {
+                        createRepeatingTaskList(listSize, distinctDescriptions),
+                        createRepeatingNoteList(noteCount, distinctDescriptions)
+                    }) / listSize;
+
+                    File storeFile = new File(saveDirectory.toFile(), "Duke.store");
+                    DukeStoreFile.write(storeFile, createRepeatingTaskList(listSize, distinctDescriptions),
+                                        createRepeatingNoteList(noteCount, distinctDescriptions), false);
+
+                    System.out.printf("%10d %12d %12d %16.1f %16.1f%n", listSize, distinctDescriptions, noteCount,
+                                      heapBytes, storeFile.length() / 1024.0);
+                }
+            } finally {
+                deleteRecursively(saveDirectory);
+            }
+        }
+    }
+
+    /**
+     * Compares the time taken and heap allocated by rendering a whole list, as <code>list</code> used to, with
+     * rendering its first and its last page of 50 <code>Tasks</code>.
+     * 
+     * @throws DukeException If a page cannot be shown
+     */
+    private static void benchmarkPage() throws DukeException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        UserInputProcessor processor = new UserInputProcessor();
+        NoteList notes = new NoteList();
+
+        System.out.println("== page: rendering a whole list against one page ==");
+        System.out.printf("%10s %14s %14s %14s %14s %14s %14s%n", "tasks", "whole (ms)", "whole (KiB)",
+                          "first (ms)", "first (KiB)", "last (ms)", "last (KiB)");
+
+        for (int listSize : LIST_SIZES) {
+            TaskList tasks = createTaskList(listSize);
+            String[] commands = { null, "list", "list " + ((listSize + 49) / 50) };
+            double[] results = new double[commands.length * 2];
+
+            for (int i = 0; i < commands.length; i++) {
+                long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                String reply = (commands[i] == null) ? tasks.toString()
+                                                     : processor.processUserInput(commands[i], tasks, notes)
+                                                                .dukeReplyString;
+                results[i * 2] = (System.nanoTime() - start) / 1e6;
+                results[i * 2 + 1] = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1024.0;
+                Reference.reachabilityFence(reply);
+            }
+
+            System.out.printf("%10d %14.3f %14.1f %14.3f %14.1f %14.3f %14.1f%n", listSize, results[0], results[1],
+                              results[2], results[3], results[4], results[5]);
+        }
+    }
+
+    /**
+     * Compares the time taken and heap allocated by showing a list for the first time with showing it again unchanged,
+     * and with showing it again after one <code>Task</code> on it has been marked as done, for the whole list and
+     * for its first page.
+     * 
+     * @throws DukeException If a page cannot be shown
+     */
+    private static void benchmarkRender() throws DukeException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        UserInputProcessor processor = new UserInputProcessor();
+        NoteList notes = new NoteList();
+        final int repetitions = 1_000;
+
+        System.out.println("== render: showing a list again, unchanged and after marking one task as done ==");
+        System.out.printf("%10s %14s %14s %14s %14s %14s %14s%n", "tasks", "whole (ms)", "again (ms)",
+                          "page (us)", "again (us)", "again (B)", "changed (us)");
+
+        for (int listSize : LIST_SIZES) {
+            TaskList tasks = createTaskList(listSize);
+
+            long start = System.nanoTime();
+            String whole = tasks.toString();
+            double wholeMillis = (System.nanoTime() - start) / 1e6;
+            start = System.nanoTime();
+            whole = tasks.toString();
+            double wholeAgainMillis = (System.nanoTime() - start) / 1e6;
+            Reference.reachabilityFence(whole);
+
+            start = System.nanoTime();
+            processor.processUserInput("list", tasks, notes);
+            double pageMicros = (System.nanoTime() - start) / 1e3;
+
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                processor.processUserInput("list", tasks, notes);
+            }
+            double pageAgainMicros = (System.nanoTime() - start) / 1e3 / repetitions;
+            double pageAgainBytes = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore)
+                                    / (double) repetitions;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                if (i % 2 == 0) {
+                    tasks.markAsDone(1 + i % 50);
+                } else {
+                    tasks.markAsUndone(1 + (i - 1) % 50);
+                }
+                processor.processUserInput("list", tasks, notes);
+            }
+            double changedMicros = (System.nanoTime() - start) / 1e3 / repetitions;
+
+            System.out.printf("%10d %14.3f %14.3f %14.1f %14.1f %14.0f %14.1f%n", listSize, wholeMillis,
+                              wholeAgainMillis, pageMicros, pageAgainMicros, pageAgainBytes, changedMicros);
+        }
+    }
+
+    /**
+     * Compares the time taken and heap allocated by telling apart a mix of commands and reading their numbers, as
+     * <code>UserInputProcessor</code> used to by lower-casing each command once for every keyword tried and splitting
+     * it into words, with a reused <code>DukeParsedCommand</code>.
+     */
+    private static void benchmarkDispatch() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        String[] commands = {
+            "list 2 50", "done 17", "DELETE 3", "deletenote 4", "note buy milk", "upcoming 5", "find book", "Overdue",
+            "more", "nukenote"
+        };
+        final int repetitions = 2_000_000;
+        DukeParsedCommand command = new DukeParsedCommand();
+        long checksum = 0;
+
+        System.out.println("== dispatch: telling commands apart and reading their numbers ==");
+        System.out.printf("%20s %14s %14s%n", "dispatcher", "time (ns)", "heap (B)");
+
+        for (int round = 0; round < 2; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                String input = commands[i % commands.length];
+                DukeCommandType type = identifyByLowerCasing(input);
+                checksum += type.ordinal();
+                if (takesNumbers(type)) {
+                    String[] words = input.trim().split(" +");
+                    for (int j = 1; j < words.length; j++) {
+                        checksum += Integer.parseInt(words[j]);
+                    }
+                }
+            }
+            printPerCommand("lower-casing", start, allocatedBefore, repetitions, threads, threadId);
+
+            allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                command.parse(commands[i % commands.length]);
+                checksum += command.getType().ordinal();
+                if (takesNumbers(command.getType())) {
+                    for (int j = 1; j < command.getWordCount(); j++) {
+                        checksum += command.getWordAsInt(j);
+                    }
+                }
+            }
+            printPerCommand("parsed command", start, allocatedBefore, repetitions, threads, threadId);
+        }
+
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    /**
+     * Prints the time taken and heap allocated for each command by one way of reading commands.
+     * 
+     * @param name The name of the way the commands were read
+     * @param start When the commands started being dispatched, by <code>System.nanoTime</code>
+     * @param allocatedBefore The bytes allocated by this thread beforehand
+     * @param repetitions The number of commands dispatched
+     * @param threads The bean measuring allocation
+     * @param threadId The id of this thread
+     */
+    private static void printPerCommand(String name, long start, long allocatedBefore, int repetitions,
+                                      com.sun.management.ThreadMXBean threads, long threadId) {
+        double nanos = (System.nanoTime() - start) / (double) repetitions;
+        double bytes = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / (double) repetitions;
+        System.out.printf("%20s %14.1f %14.1f%n", name, nanos, bytes);
+    }
+
+    /**
+     * Identifies a command as <code>UserInputProcessor</code> used to, lower-casing it again for every keyword tried.
+     * 
+     * @param input The command
+     * @return The type of the command
+     */
+    private static DukeCommandType identifyByLowerCasing(String input) {
+        String[] keywords = {
+            "bye", "list", "done", "undone", "deletenote", "delete", "nukenote", "nuke", "find", "todo", "deadline",
+            "event", "agenda", "upcoming", "overdue", "notelist", "note", "more"
+        };
+
+        for (String keyword : keywords) {
+            if (input.toLowerCase().startsWith(keyword)) {
+                return DukeParsedCommand.identify(keyword);
+            }
+        }
+
+        return DukeCommandType.Invalid;
+    }
+
+    /**
+     * Measures the time taken and heap allocated by creating <code>DeadlineTasks</code> and <code>EventTasks</code>
+     * from the user's commands, which reads their dates and times.
+     * 
+     * @throws DukeException If a command cannot be read
+     */
+    private static void benchmarkTranslate() throws DukeException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        String[] deadlines = {
+            "deadline return book /by 2/12/2019 1800", "deadline essay /by 31/1/20", "deadline call mum /by 0930",
+            "deadline tax return /by 30/04/2021 2359"
+        };
+        String[] events = {
+            "event project meeting /at 2/12/2019 1400 to 2/12/2019 1600", "event camp /at 1/6/20 to 5/6/20",
+            "event lunch /at 1200 to 1300", "event exam /at 14/5/2021 0900"
+        };
+        final int repetitions = 500_000;
+        long checksum = 0;
+
+        System.out.println("== translate: creating deadlines and events from commands ==");
+        System.out.printf("%20s %14s %14s%n", "command", "time (ns)", "heap (B)");
+
+        for (int round = 0; round < 2; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += TextToTaskTranslator.translateDeadlineTask(deadlines[i % deadlines.length])
+                                                .getDescription().length();
+            }
+            printPerCommand("deadline", start, allocatedBefore, repetitions, threads, threadId);
+
+            allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += TextToTaskTranslator.translateEventTask(events[i % events.length])
+                                                .getDescription().length();
+            }
+            printPerCommand("event", start, allocatedBefore, repetitions, threads, threadId);
+        }
+
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    /**
+     * Compares the number of lines run each second when a script of new <code>Tasks</code> is typed in a line at a
+     * time, which saves each line on its own, with running it as a script saved once at its end, or every 1000 lines.
+     * The time taken counts until every change is saved.
+     * 
+     * @throws IOException If saving fails
+     */
+    private static void benchmarkScript() throws IOException {
+        final int checkpointLines = 1000;
+
+        System.out.println("== script: lines run each second, until saved ==");
+        System.out.printf("%10s %16s %16s %18s%n", "lines", "one by one", "script", "script (1000)");
+
+        for (int lineCount : new int[] { 1_000, 10_000, 100_000 }) {
+            StringBuilder script = new StringBuilder();
+            for (int i = 0; i < lineCount; i++) {
+                script.append(createCommand(i)).append('\n');
+            }
+
+            Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+            try {
+                Duke duke = new Duke(saveDirectory.toFile());
+                duke.awaitLoaded();
+                long start = System.nanoTime();
+                for (int i = 0; i < lineCount; i++) {
+                    duke.getResponse(createCommand(i));
+                }
+                duke.close();
+                double oneByOne = lineCount * 1e9 / (System.nanoTime() - start);
+                deleteRecursively(saveDirectory);
+
+                double[] scripted = new double[2];
+                for (int run = 0; run < scripted.length; run++) {
+                    saveDirectory = Files.createTempDirectory("duke-benchmark");
+                    duke = new Duke(saveDirectory.toFile());
+                    duke.awaitLoaded();
+                    System.setProperty(DukeScriptRunner.CHECKPOINT_LINES_PROPERTY,
+                                       Integer.toString((run == 0) ? 0 : checkpointLines));
+                    start = System.nanoTime();
+                    duke.runScript(new BufferedReader(new StringReader(script.toString())), (reply, line) -> { });
+                    duke.close();
+                    scripted[run] = lineCount * 1e9 / (System.nanoTime() - start);
+                    deleteRecursively(saveDirectory);
+                }
+
+                System.out.printf("%10d %16.0f %16.0f %18.0f%n", lineCount, oneByOne, scripted[0], scripted[1]);
+            } finally {
+                System.clearProperty(DukeScriptRunner.CHECKPOINT_LINES_PROPERTY);
+                if (Files.exists(saveDirectory)) {
+                    deleteRecursively(saveDirectory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares deleting every other <code>Task</code> in the first half of a list, and then every <code>Task</code>
+     * left in it, with one command for each index against one command for each step, counting the journal entries
+     * each leaves to be saved.
+     * 
+     * @throws DukeException If a command fails
+     */
+    private static void benchmarkBulk() throws DukeException {
+        UserInputProcessor processor = new UserInputProcessor();
+        NoteList notes = new NoteList();
+
+        System.out.println("== bulk: deleting many Tasks, one command each or one command ==");
+        System.out.printf("%10s %16s %10s %16s %10s%n", "tasks", "one each (ms)", "entries", "one range (ms)",
+                          "entries");
+
+        for (int listSize : LIST_SIZES) {
+            int half = listSize / 2;
+            StringBuilder everyOther = new StringBuilder("delete ");
+            for (int index = 1; index <= half; index += 2) {
+                everyOther.append(index).append(',');
+            }
+            String[] bulkCommands = { everyOther.toString(), "delete 1-" + (listSize - half / 2) };
+
+            long[] times = new long[2];
+            int[] entries = new int[2];
+            for (int run = 0; run < 2; run++) {
+                TaskList tasks = createTaskList(listSize);
+                tasks.drainChanges();
+
+                long start = System.nanoTime();
+                if (run == 0) {
+                    //Deleting from the back keeps the indexes still to come where they were
+                    for (int index = (half - 1) / 2 * 2 + 1; index >= 1; index -= 2) {
+                        processor.processUserInput("delete " + index, tasks, notes);
+                    }
+                    for (int index = tasks.size(); index >= 1; index--) {
+                        processor.processUserInput("delete " + index, tasks, notes);
+                    }
+                } else {
+                    for (String bulkCommand : bulkCommands) {
+                        processor.processUserInput(bulkCommand, tasks, notes);
+                    }
+                }
+                times[run] = System.nanoTime() - start;
+                entries[run] = tasks.drainChanges().size();
+            }
+
+            System.out.printf("%10d %16.1f %10d %16.1f %10d%n", listSize, times[0] / 1e6, entries[0], times[1] / 1e6,
+                              entries[1]);
+        }
+    }
+
+    /**
+     * Compares the number of <code>Tasks</code> added each second by importing a CSV or iCalendar file of them with
+     * running a script of the commands adding the same <code>Tasks</code>. The time taken counts until every
+     * <code>Task</code> is saved.
+     * 
+     * @throws IOException If the files cannot be written, or saving fails
+     */
+    private static void benchmarkImport() throws IOException {
+        System.out.println("== import: Tasks added each second, until saved ==");
+        System.out.printf("%10s %16s %16s %16s%n", "tasks", "script", "csv", "ics");
+
+        for (int taskCount : new int[] { 1_000, 10_000, 100_000 }) {
+            Path fileDirectory = Files.createTempDirectory("duke-benchmark");
+            Path scriptFile = fileDirectory.resolve("tasks.txt");
+            Path csvFile = fileDirectory.resolve("tasks.csv");
+            Path icsFile = fileDirectory.resolve("tasks.ics");
+
+            try (BufferedWriter script = Files.newBufferedWriter(scriptFile);
+                 BufferedWriter csv = Files.newBufferedWriter(csvFile);
+                 BufferedWriter ics = Files.newBufferedWriter(icsFile)) {
+                csv.write("description,by,start,end\n");
+                ics.write("BEGIN:VCALENDAR\r\n");
+                for (int i = 0; i < taskCount; i++) {
+                    script.write(createCommand(i));
+                    script.write('\n');
+                    writeImportEntry(i, csv, ics);
+                }
+                ics.write("END:VCALENDAR\r\n");
+            }
+
+            double[] tasksPerSecond = new double[3];
+            String[] commands = { "run " + scriptFile, "import " + csvFile, "import " + icsFile };
+            for (int run = 0; run < commands.length; run++) {
+                Path saveDirectory = Files.createTempDirectory("duke-benchmark");
+                try {
+                    Duke duke = new Duke(saveDirectory.toFile());
+                    duke.awaitLoaded();
+                    long start = System.nanoTime();
+                    duke.getResponse(commands[run]);
+                    duke.close();
+                    tasksPerSecond[run] = taskCount * 1e9 / (System.nanoTime() - start);
+                } finally {
+                    deleteRecursively(saveDirectory);
+                }
+            }
+
+            deleteRecursively(fileDirectory);
+            System.out.printf("%10d %16.0f %16.0f %16.0f%n", taskCount, tasksPerSecond[0], tasksPerSecond[1],
+                              tasksPerSecond[2]);
+        }
+    }
+
+    /**
+     * Writes the <code>Task</code> added by <code>createCommand</code> as a CSV record and an iCalendar component.
+     * 
+     * @param i The number of the <code>Task</code>
+     * @param csv The CSV file
+     * @param ics The iCalendar file
+     * @throws IOException If the files cannot be written
+     */
+    private static void writeImportEntry(int i, BufferedWriter csv, BufferedWriter ics) throws IOException {
+        String date = String.format("%04d%02d%02d", 2000 + i / 336 % 100, i / 28 % 12 + 1, i % 28 + 1);
+        String hour = String.format("%02d", i / 33_600 % 24);
+
+        switch (i % 3) {
+        case 0:
+            csv.write("read chapter " + i + ",,,\n");
+            ics.write("BEGIN:VTODO\r\nSUMMARY:read chapter " + i + "\r\nEND:VTODO\r\n");
+            break;
+        case 1:
+            csv.write("hand in report " + i + "," + date + "T1800,,\n");
+            ics.write("BEGIN:VTODO\r\nSUMMARY:hand in report " + i + "\r\nDUE:" + date + "T180000\r\n"
+                      + "END:VTODO\r\n");
+            break;
+        default:
+            csv.write("meeting " + i + ",," + date + "T" + hour + "00," + date + "T" + hour + "59\n");
+            ics.write("BEGIN:VEVENT\r\nSUMMARY:meeting " + i + "\r\nDTSTART:" + date + "T" + hour + "0000\r\n"
+                      + "DTEND:" + date + "T" + hour + "5900\r\nEND:VEVENT\r\n");
+            break;
+        }
+    }
+
+    /**
+     * Creates a command adding a <code>ToDoTask</code>, <code>DeadlineTask</code> or <code>EventTask</code>, as a
+     * script from another tool might. Each event is given an hour of its own, so that none of them clash.
+     * 
+     * @param i The number of the command
+     * @return The command
+     */
+    private static String createCommand(int i) {
+        String date = (i % 28 + 1) + "/" + (i / 28 % 12 + 1) + "/" + (2000 + i / 336 % 100);
+        String hour = String.format("%02d", i / 33_600 % 24);
+
+        switch (i % 3) {
+        case 0:
+            return "todo read chapter " + i;
+            //Fallthrough
+        case 1:
+            return "deadline hand in report " + i + " /by " + date + " 1800";
+            //Fallthrough
+        default:
+            return "event meeting " + i + " /at " + date + " " + hour + "00 to " + date + " " + hour + "59";
+            //Fallthrough
+        }
+    }
+
+    /**
+     * Returns whether a type of command is followed by numbers, such as an index or a page.
+     * 
+     * @param type The type of command
+     * @return <code>true</code> if the command is followed by numbers
+     */
+    private static boolean takesNumbers(DukeCommandType type) {
+        return type == DukeCommandType.List || type == DukeCommandType.Done || type == DukeCommandType.Delete
+               || type == DukeCommandType.DeleteNote || type == DukeCommandType.Upcoming;
+    }
+
+    /**
+     * Returns one of a mix of to-dos, deadlines and events.
+     * 
+     * @param i The number of the <code>Task</code>
+     * @return The <code>Task</code>
+     */
+    private static Task createMixedTask(int i) {
+        DukeDateTime dateTime = new DukeDateTime(LocalDate.of(2019, 1, 1).plusDays(i % 365),
+                                                 LocalTime.of(i % 24, i % 60));
+
+        switch (i % 3) {
+        case 0:
+            return new ToDoTask("benchmark task number " + i);
+        case 1:
+            return new DeadlineTask("benchmark deadline number " + i, dateTime, i % 2 == 0);
+        default:
+            return new EventTask("benchmark event number " + i, new DukeDuration(dateTime, dateTime));
+        }
+    }
+
+    /**
+     * Returns how much more heap is in use, after collecting garbage, while holding on to what something creates
+     * than once it is let go. Measuring against the heap in use afterwards rather than beforehand leaves out whatever
+     * was left over from earlier measurements.
+     * 
+     * @param creator Creates what is to be measured
+     * @return The heap taken up by what was created, in bytes
+     */
+    private static long measureHeap(Supplier<Object> creator) {
+        Object created = creator.get();
+        long heldHeap = getUsedHeap();
+
+        Reference.reachabilityFence(created);
+        created = null;
+        return heldHeap - getUsedHeap();
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage.
+     * 
+     * @return The heap in use, in bytes
+     */
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the number of garbage collections made so far, and the time they took, across every collector.
+     * 
+     * @return The number of collections and their time in milliseconds
+     */
+    private static long[] getGarbageCollections() {
+        long[] collections = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections[0] += Math.max(collector.getCollectionCount(), 0);
+            collections[1] += Math.max(collector.getCollectionTime(), 0);
+        }
+
+        return collections;
+    }
+
+    /**
+     * Returns the average time a search of whole words takes, not counting a first search made beforehand.
+     * 
+     * @param tasks The <code>TaskList</code> to search
+     * @param searchTerm The search
+     * @param repetitions The number of searches to average over
+     * @return The average time of a search, in milliseconds
+     */
+    private static double timeSearch(TaskList tasks, String searchTerm, int repetitions) {
+        tasks.getTasksMatchingQueryAsString(searchTerm);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            tasks.getTasksMatchingQueryAsString(searchTerm);
+        }
+
+        return (System.nanoTime() - start) / 1e6 / repetitions;
+    }
+
+    /**
+     * Saves a <code>TaskList</code> of the given size and a <code>NoteList</code> a tenth of that size, with some
+     * changes to the <code>TaskList</code> in the journal, and the index of the saved <code>TaskList</code>.
+     * 
+     * @param saveDirectory The directory to save in
+     * @param listSize The number of <code>Tasks</code>
+     * @throws IOException If saving fails
+     * @throws DukeException If a change cannot be made
+     */
+    private static void createSaveFiles(File saveDirectory, int listSize) throws IOException, DukeException {
+        final int journalLength = 500;
+        DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory);
+        TaskList tasks = createTaskList(listSize);
+        NoteList notes = new NoteList();
+
+        for (int i = 0; i < listSize / 10; i++) {
+            notes.add("benchmark note number " + i);
+        }
+        notes.drainChanges();
+
+        DukeStoreFile.write(new File(saveDirectory, "Duke.store"), tasks, notes, false);
+        DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable()).write(new File(saveDirectory,
+                                                                                          "Duke.index"));
+        for (int i = 1; i <= journalLength; i++) {
+            tasks.markAsDone(i * 2);
+        }
+        dukeSaveLoad.attemptSave(tasks, notes);
+    }
+
+    /**
+     * Returns a <code>TaskList</code> of the given size, with no pending changes.
+     * 
+     * @param size The number of <code>Tasks</code>
+     * @return The <code>TaskList</code>
+     */
+    private static TaskList createTaskList(int size) {
+        TaskList tasks = new TaskList();
+
+        for (int i = 0; i < size; i++) {
+            tasks.add(new ToDoTask("benchmark task number " + i));
+        }
+
+        tasks.drainChanges();
+        return tasks;
+    }
+
+    /**
+     * Returns a <code>TaskList</code> of to-dos and deadlines that repeat a number of descriptions, all of the same
+     * length, with no pending changes.
+     * 
+     * @param size The number of <code>Tasks</code>
+     * @param distinctDescriptions The number of different descriptions
+     * @return The <code>TaskList</code>
+     */
+    private static TaskList createRepeatingTaskList(int size, int distinctDescriptions) {
+        TaskList tasks = new TaskList();
+
+        for (int i = 0; i < size; i++) {
+            String description = String.format("weekly review %07d", i % distinctDescriptions);
+            DukeDateTime dateTime = new DukeDateTime(LocalDate.of(2019, 1, 1).plusDays(i % 365), null);
+            tasks.add((i % 2 == 0) ? new ToDoTask(description) : new DeadlineTask(description, dateTime));
+        }
+
+        tasks.drainChanges();
+        return tasks;
+    }
+
+    /**
+     * Returns a <code>NoteList</code> that repeats a number of notes, all of the same length, with no pending changes.
+     * 
+     * @param size The number of notes
+     * @param distinctNotes The number of different notes
+     * @return The <code>NoteList</code>
+     */
+    private static NoteList createRepeatingNoteList(int size, int distinctNotes) {
+        NoteList notes = new NoteList();
+
+        for (int i = 0; i < size; i++) {
+            notes.add(String.format("agenda for standup %07d", i % distinctNotes));
+        }
+
+        notes.drainChanges();
+        return notes;
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     * 
+     * @param directory The directory to be deleted
+     * @throws IOException When an IOException occurs
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
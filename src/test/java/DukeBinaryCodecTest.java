@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeBinaryCodecTest {
+    @Test
+    public void testTaskRoundTrip() throws IOException {
+        DukeDateTime dateOnly = new DukeDateTime(LocalDate.of(2019, 9, 16), null);
+        DukeDateTime timeOnly = new DukeDateTime(null, LocalTime.of(23, 59));
+        DukeDateTime both = new DukeDateTime(LocalDate.of(1969, 12, 31), LocalTime.of(0, 1));
+
+        Task[] tasks = {
+            new ToDoTask("eat borgar", true),
+            new DeadlineTask("beat orgar", timeOnly),
+            new EventTask("mee siam", new DukeDuration(dateOnly, both), true),
+            new EventTask("no time given", new DukeDuration(new DukeDateTime(null, null),
+                                                             new DukeDateTime(null, null)))
+        };
+
+        for (Task task : tasks) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DukeBinaryCodec.writeTask(new DataOutputStream(bytes), task);
+            assertEquals(task.toString(), DukeBinaryCodec.readTask(ByteBuffer.wrap(bytes.toByteArray())).toString());
+        }
+    }
+
+    @Test
+    public void testVarLongRoundTrip() throws IOException {
+        long[] values = { 0, 1, -1, 63, -64, 64, 27_000_000L, Long.MAX_VALUE, Long.MIN_VALUE };
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long value : values) {
+            DukeBinaryCodec.writeVarLong(out, value);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        for (long value : values) {
+            assertEquals(value, DukeBinaryCodec.readVarLong(in));
+        }
+    }
+
+    @Test
+    public void testNoteListSalvagesIntactBlocks() throws IOException {
+        NoteList notes = new NoteList();
+        for (int i = 0; i < 200; i++) {
+            notes.add("note " + i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DukeBinaryCodec.writeNoteList(new DataOutputStream(bytes), notes);
+        byte[] saved = bytes.toByteArray();
+
+        //Damages a note in the second of the four blocks
+        saved[saved.length / 3] ^= 0x55;
+
+        NoteList salvagedNotes = DukeBinaryCodec.readNoteList(ByteBuffer.wrap(saved));
+        assertEquals(200 - 64 + 1, salvagedNotes.size());
+        assertEquals(notes.getGeneration(), salvagedNotes.getGeneration());
+    }
+
+    @Test
+    public void testCompressedNoteListRoundTrip() throws IOException {
+        NoteList notes = new NoteList();
+        for (int i = 0; i < 200; i++) {
+            notes.add("buy more milk before " + i);
+        }
+
+        ByteArrayOutputStream uncompressedBytes = new ByteArrayOutputStream();
+        DukeBinaryCodec.writeNoteList(new DataOutputStream(uncompressedBytes), notes);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DukeBinaryCodec.writeNoteList(new DataOutputStream(bytes), notes, true);
+
+        NoteList readNotes = DukeBinaryCodec.readNoteList(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(notes.toString(), readNotes.toString());
+        assertEquals(notes.getGeneration(), readNotes.getGeneration());
+        assertTrue(bytes.size() < uncompressedBytes.size());
+    }
+
+    @Test
+    public void testRepeatedNotesAreWrittenOnce() throws IOException {
+        NoteList notes = new NoteList();
+        for (int i = 0; i < 200; i++) {
+            notes.add((i % 2 == 0) ? "standup" : "weekly review");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DukeBinaryCodec.writeNoteList(new DataOutputStream(bytes), notes);
+        byte[] saved = bytes.toByteArray();
+
+        NoteList readNotes = DukeBinaryCodec.readNoteList(ByteBuffer.wrap(saved));
+        assertEquals(notes.toString(), readNotes.toString());
+        assertTrue(saved.length < 200 * "standup".length());
+
+        //Damages the first block of notes, after the file header and the header block, which every later note refers
+        //back to
+        saved[24] ^= 0x55;
+
+        NoteList salvagedNotes = DukeBinaryCodec.readNoteList(ByteBuffer.wrap(saved));
+        assertEquals(200 - 64 + 1, salvagedNotes.size());
+        for (String note : salvagedNotes) {
+            assertEquals("Forgive Me >__<", note);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukeJournalTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testAppendedEntriesAreReadBack() throws IOException {
+        File journalFile = new File(saveDirectory.toFile(), "TaskList.tlj");
+
+        DukeJournal journal = new DukeJournal(journalFile);
+        journal.append(List.of(DukeJournalEntry.taskAdded(1, new ToDoTask("read book")),
+                               DukeJournalEntry.noteAdded(1, "buy milk")));
+        journal.append(List.of(DukeJournalEntry.taskMarkedAsDone(2, 1)));
+        assertEquals(3, journal.getEntryCount());
+
+        List<DukeJournalEntry> entries = new DukeJournal(journalFile).readEntries();
+        assertEquals(3, entries.size());
+        assertEquals(DukeJournalEntryType.TaskAdded, entries.get(0).type);
+        assertEquals(new ToDoTask("read book").toString(), entries.get(0).task.toString());
+        assertEquals("buy milk", entries.get(1).note);
+        assertEquals(DukeJournalEntryType.TaskMarkedAsDone, entries.get(2).type);
+        assertEquals(2, entries.get(2).generation);
+        assertEquals(1, entries.get(2).index);
+    }
+
+    @Test
+    public void testTornEntryIsCutOff() throws IOException {
+        File journalFile = new File(saveDirectory.toFile(), "TaskList.tlj");
+
+        DukeJournal journal = new DukeJournal(journalFile);
+        journal.append(List.of(DukeJournalEntry.taskAdded(1, new ToDoTask("read book"))));
+        long completeLength = journalFile.length();
+        journal.append(List.of(DukeJournalEntry.taskAdded(2, new ToDoTask("return book"))));
+
+        //Duke was killed partway through the second append
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(journalFile, "rw")) {
+            randomAccessFile.setLength(journalFile.length() - 3);
+        }
+
+        DukeJournal reopenedJournal = new DukeJournal(journalFile);
+        List<DukeJournalEntry> entries = reopenedJournal.readEntries();
+        assertEquals(1, entries.size());
+        assertEquals(new ToDoTask("read book").toString(), entries.get(0).task.toString());
+        assertEquals(completeLength, journalFile.length());
+
+        //Later appends are readable after the cut
+        reopenedJournal.append(List.of(DukeJournalEntry.noteAdded(1, "buy milk")));
+        assertEquals(2, new DukeJournal(journalFile).readEntries().size());
+    }
+
+    @Test
+    public void testUncommittedEntriesAreDiscarded() throws IOException {
+        File journalFile = new File(saveDirectory.toFile(), "Duke.journal");
+        File committedJournalFile = new File(saveDirectory.toFile(), "Duke.journal.committed");
+        byte[] encodedEntry = DukeJournal.encode(List.of(DukeJournalEntry.taskAdded(2, new ToDoTask("return book"))));
+
+        //Duke was killed before the entries appended in parts were committed
+        DukeJournal journal = new DukeJournal(journalFile);
+        journal.append(List.of(DukeJournalEntry.taskAdded(1, new ToDoTask("read book"))));
+        journal.appendEncoded(encodedEntry, 1, false);
+        journal.appendEncoded(encodedEntry, 1, false);
+        assertEquals(1, journal.getEntryCount());
+        assertEquals(1, new DukeJournal(journalFile).readEntries().size());
+
+        DukeJournal committedJournal = new DukeJournal(committedJournalFile);
+        committedJournal.appendEncoded(encodedEntry, 1, false);
+        committedJournal.appendEncoded(encodedEntry, 1, false);
+        committedJournal.appendEncoded(new byte[0], 0, true);
+        assertEquals(2, committedJournal.getEntryCount());
+        assertEquals(2, new DukeJournal(committedJournalFile).readEntries().size());
+    }
+}
@@ -0,0 +1,76 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukePagedTaskFileTest {
+    //Enough Tasks for their records to fill more than one block
+    private static final int TASK_COUNT = 200;
+
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testSavedTasksAreReadBack() throws IOException {
+        File file = new File(saveDirectory.toFile(), "TaskList.tl");
+        TaskList tasks = createTasks();
+
+        DukePagedTaskFile.write(file, tasks);
+        TaskList loadedTasks = new TaskList(DukePagedTaskFile.open(file));
+
+        assertEquals(TASK_COUNT, loadedTasks.size());
+        assertEquals(tasks.toString(), loadedTasks.toString());
+    }
+
+    @Test
+    public void testDamagedBlockIsReplacedByPlaceholders() throws IOException {
+        File file = new File(saveDirectory.toFile(), "TaskList.tl");
+        TaskList tasks = createTasks();
+        DukePagedTaskFile.write(file, tasks);
+
+        //Damages the first Task's record, in the first block of records
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(DukePagedTaskFile.HEADER_SIZE + 16);
+            int damagedByte = randomAccessFile.read();
+            randomAccessFile.seek(DukePagedTaskFile.HEADER_SIZE + 16);
+            randomAccessFile.write(damagedByte ^ 0xFF);
+        }
+
+        List<Task> savedTasks = listTasks(tasks);
+        List<Task> loadedTasks = listTasks(new TaskList(DukePagedTaskFile.open(file)));
+        int recordsPerBlock = DukePagedTaskFile.BLOCK_SIZE / DukePagedTaskFile.RECORD_SIZE;
+
+        assertEquals(TASK_COUNT, loadedTasks.size());
+        assertEquals(new ToDoTask("Forgive Me >__<").toString(), loadedTasks.get(0).toString());
+        assertEquals(new ToDoTask("Forgive Me >__<").toString(), loadedTasks.get(recordsPerBlock - 1).toString());
+        assertEquals(savedTasks.get(recordsPerBlock).toString(), loadedTasks.get(recordsPerBlock).toString());
+        assertEquals(savedTasks.get(TASK_COUNT - 1).toString(), loadedTasks.get(TASK_COUNT - 1).toString());
+    }
+
+    private static TaskList createTasks() {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= TASK_COUNT; i++) {
+            DukeDateTime dateTime = new DukeDateTime(LocalDate.of(2019, 12, 1 + i % 28), LocalTime.of(i % 24, 0));
+            tasks.add((i % 2 == 0) ? new DeadlineTask("return book " + i, dateTime, i % 3 == 0)
+                                   : new ToDoTask("read chapter " + i));
+        }
+        tasks.drainChanges();
+        return tasks;
+    }
+
+    private static List<Task> listTasks(TaskList tasks) {
+        List<Task> taskList = new ArrayList<>();
+        for (Task task : tasks) {
+            taskList.add(task);
+        }
+        return taskList;
+    }
+}
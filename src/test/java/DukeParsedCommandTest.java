@@ -0,0 +1,32 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeParsedCommandTest {
+    @Test
+    public void testKeywordsAreMatchedWithoutCase() {
+        assertEquals(DukeCommandType.DeleteNote, DukeParsedCommand.identify("DeleteNote 3"));
+        assertEquals(DukeCommandType.Delete, DukeParsedCommand.identify("delete 3"));
+        assertEquals(DukeCommandType.NoteList, DukeParsedCommand.identify("NOTELIST"));
+        assertEquals(DukeCommandType.NewNote, DukeParsedCommand.identify("note to self"));
+        assertEquals(DukeCommandType.Undone, DukeParsedCommand.identify("unDone 1"));
+        assertEquals(DukeCommandType.Invalid, DukeParsedCommand.identify(" list"));
+        assertEquals(DukeCommandType.Invalid, DukeParsedCommand.identify(""));
+        assertEquals(DukeCommandType.Invalid, DukeParsedCommand.identify("zzz"));
+    }
+
+    @Test
+    public void testWordsAreSplitOnce() {
+        DukeParsedCommand command = new DukeParsedCommand();
+        command.parse("list   2\t50 ");
+        assertEquals(DukeCommandType.List, command.getType());
+        assertEquals(3, command.getWordCount());
+        assertEquals(2, command.getWordAsInt(1));
+        assertEquals(50, command.getWordAsInt(2));
+
+        command.parse("done 1 2 3 4 5 6 7 8 9 10");
+        assertEquals(11, command.getWordCount());
+        assertEquals(10, command.getWordAsInt(10));
+        assertEquals("done", command.getWord(0));
+    }
+}
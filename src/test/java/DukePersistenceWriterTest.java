@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukePersistenceWriterTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testSubmittedChangesAreSavedAndReloaded() throws Exception {
+        DukePersistenceWriter persistenceWriter = new DukePersistenceWriter(new DukeSaveLoad(saveDirectory.toFile()));
+        persistenceWriter.start();
+
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        tasks.add(new ToDoTask("read book"));
+        notes.add("buy milk");
+        persistenceWriter.submitChanges(tasks.drainChanges(), notes.drainChanges());
+        tasks.add(new ToDoTask("return book"));
+        tasks.markAsDone(1);
+        persistenceWriter.submitChanges(tasks.drainChanges(), notes.drainChanges());
+        persistenceWriter.close();
+
+        DukeSaveLoad reopenedSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        assertEquals(tasks.toString(), reopenedSaveLoad.attemptLoadTaskList().toString());
+        assertEquals(notes.toString(), reopenedSaveLoad.attemptLoadNoteList().toString());
+    }
+
+    @Test
+    public void testFailedWriteIsRetriedAndReportedOnce() throws Exception {
+        int[] remainingFailures = {1};
+        DukeSaveLoad failingSaveLoad = new DukeSaveLoad(saveDirectory.toFile()) {
+            @Override
+            public void saveEncodedChanges(byte[] encodedChanges, int changeCount, boolean isCommitted)
+                    throws IOException {
+                synchronized (remainingFailures) {
+                    if (remainingFailures[0] > 0) {
+                        remainingFailures[0]--;
+                        throw new IOException("No space left on device");
+                    }
+                }
+
+                super.saveEncodedChanges(encodedChanges, changeCount, isCommitted);
+            }
+        };
+        //Changes are only written when flushed, so that each write is known to fail or succeed
+        DukePersistenceWriter persistenceWriter = new DukePersistenceWriter(failingSaveLoad, 60_000, 100);
+        persistenceWriter.start();
+
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        tasks.add(new ToDoTask("read book"));
+        persistenceWriter.submitChanges(tasks.drainChanges(), notes.drainChanges());
+        assertThrows(IOException.class, persistenceWriter::flush);
+
+        //The failed changes are kept, and written along with the next ones
+        tasks.add(new ToDoTask("return book"));
+        persistenceWriter.submitChanges(tasks.drainChanges(), notes.drainChanges());
+        persistenceWriter.flush();
+        persistenceWriter.close();
+
+        assertEquals(tasks.toString(), new DukeSaveLoad(saveDirectory.toFile()).attemptLoadTaskList().toString());
+    }
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DukePositionIndexTest {
+    @Test
+    public void testMatchesList() {
+        Random random = new Random(163417L);
+        DukePositionIndex index = new DukePositionIndex(100);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < 100; row++) {
+            rows.add(row);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            if (rows.isEmpty() || random.nextInt(3) == 0) {
+                rows.add(index.addRow());
+            } else {
+                int position = random.nextInt(rows.size());
+                assertEquals((int) rows.get(position), index.getRow(position));
+                index.removeRow(rows.remove(position));
+            }
+
+            assertEquals(rows.size(), index.size());
+        }
+
+        for (int position = 0; position < rows.size(); position++) {
+            assertEquals((int) rows.get(position), index.getRow(position));
+            assertEquals(position, index.getPosition(rows.get(position)));
+        }
+
+        assertEquals(-1, index.getPosition(index.getRowCount()));
+    }
+
+    @Test
+    public void testRemovingManyRowsMatchesList() {
+        for (int removedCount : new int[] { 3, 600 }) {
+            DukePositionIndex index = new DukePositionIndex(1000);
+            List<Integer> rows = new ArrayList<>();
+            for (int row = 0; row < 1000; row++) {
+                rows.add(row);
+            }
+
+            int[] removedRows = new Random(removedCount).ints(0, 1000).distinct().limit(removedCount).toArray();
+            for (int row : removedRows) {
+                rows.remove((Integer) row);
+            }
+            index.removeRows(removedRows);
+            assertEquals(rows.size(), index.size());
+
+            rows.add(index.addRow());
+            for (int position = 0; position < rows.size(); position++) {
+                assertEquals((int) rows.get(position), index.getRow(position));
+                assertEquals(position, index.getPosition(rows.get(position)));
+            }
+        }
+    }
+}
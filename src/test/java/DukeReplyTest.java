@@ -1,4 +1,8 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
 
 import org.junit.jupiter.api.Test;
 
@@ -9,4 +13,89 @@ public class DukeReplyTest {
         assertEquals(true, dukeReply.shouldExitLoop);
         assertEquals(false, dukeReply.shouldSaveTaskList);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testListingsArePaged() throws DukeException {
+        UserInputProcessor processor = new UserInputProcessor();
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        for (int i = 1; i <= 7; i++) {
+            tasks.add(new ToDoTask("read chapter " + i));
+        }
+
+        assertEquals(tasks.toString(), processor.processUserInput("list", tasks, notes).dukeReplyString);
+        assertEquals("4.[T][X] read chapter 4\n5.[T][X] read chapter 5\n6.[T][X] read chapter 6\n"
+                     + String.format(DukeUi.FEEDBACK_PAGE, 2, 3, 4, 6, 7) + DukeUi.FEEDBACK_PAGE_MORE,
+                     processor.processUserInput("list 2 3", tasks, notes).dukeReplyString);
+
+        //Each processor pages through its own listing
+        assertEquals(DukeUi.FEEDBACK_NO_MORE,
+                     new UserInputProcessor().processUserInput("more", tasks, notes).dukeReplyString);
+        assertEquals("7.[T][X] read chapter 7\n" + String.format(DukeUi.FEEDBACK_PAGE, 3, 3, 7, 7, 7),
+                     processor.processUserInput("more", tasks, notes).dukeReplyString);
+        assertEquals(DukeUi.FEEDBACK_NO_MORE,
+                     processor.processUserInput("more", tasks, notes).dukeReplyString);
+
+        for (int i = 0; i < 60; i++) {
+            tasks.add(new ToDoTask("read chapter " + i));
+        }
+        processor.processUserInput("find chapter", tasks, notes);
+        tasks.deleteAt(1);
+
+        //The search is made again, since the list has changed since the first page
+        String secondPage = processor.processUserInput("more", tasks, notes).dukeReplyString;
+        assertTrue(secondPage.contains("\n51.[T][X] read chapter 44\n"));
+        assertTrue(secondPage.endsWith(String.format(DukeUi.FEEDBACK_PAGE, 2, 2, 51, 66, 66)));
+    }
+
+    @Test
+    public void testShownListsFollowChanges() throws DukeException {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDoTask("eat borgar"));
+        tasks.add(new DeadlineTask("beat orgar", new DukeDateTime(LocalDate.of(2019, 9, 6), null)));
+        tasks.add(new ToDoTask("mee siam"));
+        assertEquals(tasks.toString(), tasks.toString());
+
+        tasks.markAsDone(2);
+        tasks.deleteAt(1);
+        assertEquals("1.[D][O] beat orgar (by 06/09/2019)\n2.[T][X] mee siam\n", tasks.toString());
+
+        tasks.markAsUndone(1);
+        assertEquals("1.[D][X] beat orgar (by 06/09/2019)\n", tasks.getTasksAtPositionsAsString(new int[] {1}));
+    }
+
+    @Test
+    public void testRangesAreChangedTogether() throws DukeException {
+        UserInputProcessor processor = new UserInputProcessor();
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        for (int i = 1; i <= 30; i++) {
+            tasks.add(new ToDoTask("read chapter " + i));
+            notes.add("note " + i);
+        }
+        tasks.drainChanges();
+        notes.drainChanges();
+
+        assertEquals(String.format(DukeUi.FEEDBACK_TASKS_DONE, 4, "2.[T][O] read chapter 2\n3.[T][O] read chapter 3\n"
+                                   + "4.[T][O] read chapter 4\n10.[T][O] read chapter 10"),
+                     processor.processUserInput("done 2-4, 10,3", tasks, notes).dukeReplyString);
+        assertEquals(2, tasks.drainChanges().size());
+
+        assertEquals(String.format(DukeUi.ERROR_LIST_INDEX_BIG, 90),
+                     assertThrows(DukeException.class,
+                         () -> processor.processUserInput("delete 3-90", tasks, notes)).getMessage());
+        assertEquals(String.format(DukeUi.ERROR_BACKWARDS_RANGE, "5-3"),
+                     assertThrows(DukeException.class,
+                         () -> processor.processUserInput("delete 5-3", tasks, notes)).getMessage());
+        assertEquals(30, tasks.size());
+
+        String reply = processor.processUserInput("delete 1-25", tasks, notes).dukeReplyString;
+        assertTrue(reply.endsWith("20.[T][X] read chapter 20\n...and 5 more.\nYou've got 5 task(s) on your list."));
+        assertEquals("1.[T][X] read chapter 26\n", tasks.getTasksAtPositionsAsString(new int[] {1}));
+        assertEquals(1, tasks.drainChanges().size());
+
+        processor.processUserInput("deletenote 2-29", tasks, notes);
+        assertEquals("1.note 1\n2.note 30\n", notes.toString());
+        assertEquals(1, notes.drainChanges().size());
+    }
+}
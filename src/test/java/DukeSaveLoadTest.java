@@ -0,0 +1,108 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukeSaveLoadTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testSealedJournalReplayedOverItsRollupChangesNothing() throws Exception {
+        DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        tasks.add(new ToDoTask("read book"));
+        tasks.add(new ToDoTask("return book"));
+        tasks.add(new ToDoTask("buy book"));
+        notes.add("buy milk");
+        dukeSaveLoad.attemptSave(tasks, notes);
+        tasks.deleteAt(1);
+        tasks.markAsDone(1);
+        notes.add("buy bread");
+        dukeSaveLoad.attemptSave(tasks, notes);
+
+        //A rollup wrote the new snapshot, but Duke was killed before the sealed journal was deleted
+        Files.move(saveDirectory.resolve("Duke.journal"), saveDirectory.resolve("Duke.journal.sealed"));
+        DukeStoreFile.write(new File(saveDirectory.toFile(), "Duke.store"), tasks, notes, false);
+
+        for (int i = 0; i < 2; i++) {
+            DukeSaveLoad reopenedSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+            assertEquals(tasks.toString(), reopenedSaveLoad.attemptLoadTaskList().toString());
+            assertEquals(notes.toString(), reopenedSaveLoad.attemptLoadNoteList().toString());
+        }
+    }
+
+    @Test
+    public void testSnapshotIsWrittenBesideTheStoreItWasLoadedFrom() throws Exception {
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        tasks.add(new ToDoTask("read book"));
+        notes.add("buy milk");
+        DukeStoreFile.write(new File(saveDirectory.toFile(), "Duke.store"), tasks, notes, false);
+
+        DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        TaskList loadedTasks = dukeSaveLoad.attemptLoadTaskList();
+        NoteList loadedNotes = dukeSaveLoad.attemptLoadNoteList();
+
+        //Enough changes to be saved as a new snapshot, while the loaded list still reads from the old one
+        for (int i = 1; i <= 1001; i++) {
+            loadedTasks.add(new ToDoTask("read chapter " + i));
+        }
+        dukeSaveLoad.attemptSave(loadedTasks, loadedNotes);
+
+        assertTrue(Files.exists(saveDirectory.resolve("Duke.store.1")));
+        assertTrue(Files.exists(saveDirectory.resolve("Duke.index.1")));
+        assertEquals(new ToDoTask("read book").toString(), loadedTasks.getTaskAt(1).toString());
+
+        DukeSaveLoad reopenedSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        assertEquals(loadedTasks.toString(), reopenedSaveLoad.attemptLoadTaskList().toString());
+        assertEquals(loadedNotes.toString(), reopenedSaveLoad.attemptLoadNoteList().toString());
+    }
+
+    @Test
+    public void testLegacySaveFilesAreMovedIntoTheStore() throws Exception {
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+
+        //An older version of Duke kept each list in a snapshot and journal of its own
+        tasks.add(new ToDoTask("read book"));
+        tasks.add(new ToDoTask("return book"));
+        tasks.drainChanges();
+        DukePagedTaskFile.write(saveDirectory.resolve("TaskList.tl").toFile(), tasks);
+        tasks.markAsDone(2);
+        tasks.add(new ToDoTask("buy book"));
+        new DukeJournal(saveDirectory.resolve("TaskList.tlj").toFile()).append(tasks.drainChanges());
+
+        notes.add("buy milk");
+        notes.drainChanges();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(
+                saveDirectory.resolve("NoteList.nl").toFile()))) {
+            DukeBinaryCodec.writeNoteList(out, notes);
+        }
+        notes.add("call home");
+        new DukeJournal(saveDirectory.resolve("NoteList.nlj").toFile()).append(notes.drainChanges());
+
+        DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        assertEquals(tasks.toString(), dukeSaveLoad.attemptLoadTaskList().toString());
+        assertEquals(notes.toString(), dukeSaveLoad.attemptLoadNoteList().toString());
+
+        for (String legacyFileName : new String[] {"TaskList.tl", "TaskList.tlj", "NoteList.nl", "NoteList.nlj"}) {
+            assertFalse(Files.exists(saveDirectory.resolve(legacyFileName)));
+        }
+        assertTrue(Files.exists(saveDirectory.resolve("Duke.store")));
+
+        //The lists are loaded from the store alone from then on
+        DukeSaveLoad reopenedSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        assertEquals(tasks.toString(), reopenedSaveLoad.attemptLoadTaskList().toString());
+        assertEquals(notes.toString(), reopenedSaveLoad.attemptLoadNoteList().toString());
+    }
+}
@@ -0,0 +1,43 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukeScriptRunnerTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testScriptIsRunUntilByeAndSavedOnce() throws IOException {
+        DukeSaveLoad dukeSaveLoad = new DukeSaveLoad(saveDirectory.toFile());
+        DukePersistenceWriter persistenceWriter = new DukePersistenceWriter(dukeSaveLoad);
+        persistenceWriter.start();
+
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        DukeScriptRunner scriptRunner = new DukeScriptRunner(tasks, notes, persistenceWriter, 0);
+        List<Integer> repliedLines = new ArrayList<>();
+        String script = "todo read book\n\n# a comment\ntodo\nnote buy milk\nrun other.txt\nbye\ntodo never\n";
+
+        scriptRunner.run(new BufferedReader(new StringReader(script)), (reply, line) -> repliedLines.add(line));
+        persistenceWriter.close();
+
+        assertEquals(List.of(1, 4, 5, 6, 7), repliedLines);
+        assertEquals(5, scriptRunner.getLineCount());
+        assertEquals(2, scriptRunner.getErrorCount());
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.drainChanges().isEmpty());
+
+        String summary = scriptRunner.getSummary("tasks.txt");
+        assertTrue(summary.contains("saved everything 1 time(s)"));
+        assertTrue(summary.contains("'bye' on line 7"));
+        assertTrue(summary.contains("Line 4: ") && summary.contains("Line 6: "));
+    }
+}
@@ -0,0 +1,46 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukeStartupLoaderTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testSavedListsAreLoadedInTheBackground() throws Exception {
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        for (int i = 1; i <= 50; i++) {
+            tasks.add(new ToDoTask("read chapter " + i));
+        }
+        notes.add("buy milk");
+        new DukeSaveLoad(saveDirectory.toFile()).attemptSave(tasks, notes);
+
+        DukeStartupLoader startupLoader = new DukeStartupLoader(new DukeSaveLoad(saveDirectory.toFile()));
+        startupLoader.start();
+
+        NoteList loadedNotes = startupLoader.awaitNoteList();
+        TaskList loadedTasks = startupLoader.awaitTaskList();
+        startupLoader.awaitPrewarm();
+
+        assertEquals(notes.toString(), loadedNotes.toString());
+        assertEquals(tasks.toString(), loadedTasks.toString());
+        assertTrue(loadedTasks.drainChanges().isEmpty());
+
+        //Waiting again hands over the same lists
+        assertTrue(startupLoader.awaitTaskList() == loadedTasks);
+    }
+
+    @Test
+    public void testNothingSavedLoadsEmptyLists() throws Exception {
+        DukeStartupLoader startupLoader = new DukeStartupLoader(new DukeSaveLoad(saveDirectory.toFile()));
+        startupLoader.start();
+
+        assertEquals(0, startupLoader.awaitTaskList().size());
+        assertEquals(0, startupLoader.awaitNoteList().size());
+        startupLoader.awaitPrewarm();
+    }
+}
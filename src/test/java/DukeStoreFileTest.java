@@ -0,0 +1,38 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DukeStoreFileTest {
+    @TempDir
+    Path saveDirectory;
+
+    @Test
+    public void testSavedListsAreReadBack() throws IOException {
+        File file = new File(saveDirectory.toFile(), "Duke.store");
+        TaskList tasks = new TaskList();
+        NoteList notes = new NoteList();
+        tasks.add(new ToDoTask("read book", true));
+        tasks.add(new DeadlineTask("return book", new DukeDateTime(LocalDate.of(2019, 12, 2), LocalTime.of(18, 0))));
+        notes.add("buy milk");
+        notes.add("buy milk");
+        notes.add("call home");
+
+        for (boolean isCompressed : new boolean[] {false, true}) {
+            DukeStoreFile.write(file, tasks, notes, isCompressed);
+
+            DukeStoreFile store = DukeStoreFile.open(file);
+            TaskList loadedTasks = store.readTaskList();
+            NoteList loadedNotes = store.readNoteList();
+            assertEquals(tasks.toString(), loadedTasks.toString());
+            assertEquals(tasks.getGeneration(), loadedTasks.getGeneration());
+            assertEquals(notes.toString(), loadedNotes.toString());
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeStringPoolTest {
+    @Test
+    public void testRepeatedStringsShareOneCopy() {
+        DukeStringPool pool = new DukeStringPool();
+        int standup = pool.acquire("standup");
+        int review = pool.acquire("weekly review");
+
+        assertEquals(standup, pool.acquire("standup"));
+        assertEquals(2, pool.getReferenceCount(standup));
+        assertEquals(2, pool.size());
+        assertEquals("standup".length() + "weekly review".length(), pool.getByteCount());
+
+        pool.release(standup);
+        assertEquals("standup", pool.getString(standup));
+        pool.release(standup);
+        assertEquals(0, pool.getReferenceCount(standup));
+        assertEquals(1, pool.size());
+
+        assertEquals(standup, pool.acquire("caf\u00e9"));
+        assertEquals("caf\u00e9", pool.getString(standup));
+        assertTrue(pool.contains(review, "review".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(pool.contains(review, "standup".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testDroppedStringsAreCleared() {
+        DukeStringPool pool = new DukeStringPool();
+        int[] handles = new int[1000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = pool.acquire("recurring task " + i);
+        }
+
+        for (int i = 0; i < handles.length; i += 2) {
+            pool.release(handles[i]);
+        }
+
+        for (int i = 0; i < handles.length; i++) {
+            pool.acquire("another task " + i);
+        }
+
+        for (int i = 1; i < handles.length; i += 2) {
+            assertEquals("recurring task " + i, pool.getString(handles[i]));
+            assertEquals(handles[i], pool.acquire("recurring task " + i));
+        }
+        assertEquals(1500, pool.size());
+    }
+}
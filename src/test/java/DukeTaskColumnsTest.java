@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeTaskColumnsTest {
+    @Test
+    public void testColumnsHoldTasks() {
+        DukeDateTime dateOnly = new DukeDateTime(LocalDate.of(2019, 9, 16), null);
+        DukeDateTime both = new DukeDateTime(LocalDate.of(1969, 12, 31), LocalTime.of(0, 1));
+        Task[] tasks = {
+            new ToDoTask("eat borgar", true),
+            new DeadlineTask("beat orgar", both),
+            new EventTask("mee siam", new DukeDuration(dateOnly, both), true),
+            new ToDoTask("caf\u00e9 \u00fcber alles")
+        };
+
+        DukeTaskColumns columns = new DukeTaskColumns(5, 2);
+        for (int i = 0; i < tasks.length; i++) {
+            columns.set(5 + i, tasks[i]);
+        }
+
+        for (int i = 0; i < tasks.length; i++) {
+            assertEquals(tasks[i].toString(), columns.getTask(5 + i).toString());
+        }
+
+        assertFalse(columns.contains(4));
+        assertFalse(columns.contains(9));
+        assertTrue(columns.descriptionContains(8, "\u00fcber".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(columns.descriptionContains(6, "borgar".getBytes(StandardCharsets.UTF_8)));
+
+        columns.setDone(6, true);
+        assertEquals("[D][O] beat orgar (by 31/12/1969 0001)", columns.getTask(6).toString());
+    }
+
+    @Test
+    public void testReplacedDescriptionsAreCleared() {
+        DukeTaskColumns columns = new DukeTaskColumns();
+        for (int i = 0; i < 2000; i++) {
+            columns.set(i % 10, new ToDoTask("task number " + i));
+        }
+
+        columns.remove(3);
+        assertFalse(columns.contains(3));
+
+        DukeTaskColumns copy = new DukeTaskColumns();
+        copy.copyRow(9, columns);
+        for (int row = 0; row < 10; row++) {
+            assertEquals(row != 3, columns.contains(row));
+        }
+        assertEquals("[T][X] task number 1999", copy.getTask(9).toString());
+        assertEquals("[T][X] task number 1990", columns.getTask(0).toString());
+    }
+}
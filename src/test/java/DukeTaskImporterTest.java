@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+public class DukeTaskImporterTest {
+    @Test
+    public void testCsvRecordsAreImportedAndBadOnesSkipped() throws IOException, DukeException {
+        String csv = "Title,Due,Start,End,Completed\r\n"
+                     + "read book,,,,yes\r\n"
+                     + "\"return book, quickly\",2019-12-02 18:00,,,\r\n"
+                     + "\"project\nmeeting\",,2/12/2019 1400,2/12/2019 1600,\r\n"
+                     + ",2019-12-03,,,\r\n"
+                     + "essay,2019-13-40,,,\r\n";
+        TaskList tasks = new TaskList();
+        DukeTaskImporter importer = new DukeTaskImporter(tasks);
+
+        importer.importFrom(new DukeCsvTaskSource(new BufferedReader(new StringReader(csv)), "tasks.csv"));
+
+        assertEquals(3, importer.getImportedCount());
+        assertEquals(2, importer.getErrorCount());
+        assertEquals(3, tasks.size());
+        assertEquals(3, tasks.drainChanges().size());
+        assertEquals(new ToDoTask("read book", true).toString(), tasks.getTaskAt(1).toString());
+        assertTrue(tasks.getTaskAt(2) instanceof DeadlineTask
+                   && tasks.getTaskAt(2).toString().contains("return book, quickly"));
+        assertTrue(tasks.getTaskAt(3) instanceof EventTask
+                   && tasks.getTaskAt(3).toString().contains("project meeting"));
+
+        String summary = importer.getSummary("tasks.csv");
+        assertTrue(summary.contains("Line 6: ") && summary.contains("Line 7: "));
+    }
+
+    @Test
+    public void testIcsComponentsAreImported() throws IOException, DukeException {
+        String ics = "BEGIN:VCALENDAR\r\n"
+                     + "BEGIN:VEVENT\r\n"
+                     + "SUMMARY:Team\r\n"
+                     + "  lunch\\, at noon\r\n"
+                     + "DTSTART;TZID=\"Asia/Singapore\":20191202T120000\r\n"
+                     + "DTEND:20191202T130000Z\r\n"
+                     + "BEGIN:VALARM\r\n"
+                     + "SUMMARY:Reminder\r\n"
+                     + "END:VALARM\r\n"
+                     + "END:VEVENT\r\n"
+                     + "BEGIN:VTODO\r\n"
+                     + "SUMMARY:Submit report\r\n"
+                     + "DUE;VALUE=DATE:20191205\r\n"
+                     + "STATUS:COMPLETED\r\n"
+                     + "END:VTODO\r\n"
+                     + "BEGIN:VTODO\r\n"
+                     + "END:VTODO\r\n"
+                     + "END:VCALENDAR\r\n";
+        TaskList tasks = new TaskList();
+        DukeTaskImporter importer = new DukeTaskImporter(tasks);
+
+        importer.importFrom(new DukeIcsTaskSource(new BufferedReader(new StringReader(ics))));
+
+        assertEquals(2, importer.getImportedCount());
+        assertEquals(1, importer.getErrorCount());
+        assertTrue(tasks.getTaskAt(1) instanceof EventTask
+                   && tasks.getTaskAt(1).toString().contains("Team lunch, at noon"));
+        assertTrue(tasks.getTaskAt(2) instanceof DeadlineTask && tasks.getTaskAt(2).isDone());
+        assertTrue(importer.getSummary("calendar.ics").contains("Line 16: "));
+    }
+
+    @Test
+    public void testTimesWithOffsetsAreConvertedToLocalTime() throws DukeException {
+        LocalDateTime utcNoon = OffsetDateTime.of(2019, 12, 2, 13, 0, 0, 0, ZoneOffset.UTC)
+                                              .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        DukeDateTime expected = new DukeDateTime(utcNoon.toLocalDate(), utcNoon.toLocalTime());
+
+        assertEquals(expected.toString(), DukeTaskImporter.parseDateTime("20191202T130000Z").toString());
+        assertEquals(expected.toString(), DukeTaskImporter.parseDateTime("2019-12-02T21:00:00.000+08:00").toString());
+        assertEquals(expected.toString(), DukeTaskImporter.parseDateTime("2019-12-02 08:00-0500").toString());
+        assertEquals(new DukeDateTime(LocalDate.of(2019, 12, 2), LocalTime.of(13, 0)).toString(),
+                     DukeTaskImporter.parseDateTime("20191202T130000").toString());
+    }
+
+    @Test
+    public void testImportStoppedBeforeTheFirstLineIsIncomplete() {
+        DukeTaskImporter importer = new DukeTaskImporter(new TaskList());
+
+        importer.importFrom(new DukeTaskSource() {
+            @Override
+            public Task next() throws IOException {
+                throw new IOException("Input/output error");
+            }
+
+            @Override
+            public int getLineNumber() {
+                return 0;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        assertFalse(importer.isComplete());
+        assertEquals(0, importer.getImportedCount());
+        assertTrue(importer.getSummary("tasks.csv").contains("Input/output error"));
+    }
+}
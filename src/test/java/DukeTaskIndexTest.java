@@ -0,0 +1,233 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeTaskIndexTest {
+    @Test
+    public void testIndexedSearchMatchesFullSearch() throws IOException, DukeException {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDoTask("read book"));
+        tasks.add(new ToDoTask("return  book to library"));
+        tasks.add(new ToDoTask("bookkeeping"));
+        tasks.add(new ToDoTask("eat borgar"));
+        tasks.add(new ToDoTask("mee siam \u00e9clair"));
+
+        File pagedFile = Files.createTempFile("duke-index", ".tl").toFile();
+        File indexFile = Files.createTempFile("duke-index", ".idx").toFile();
+        try {
+            DukePagedTaskFile.write(pagedFile, tasks);
+            DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable()).write(indexFile);
+
+            TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            assertTrue(indexedTasks.useSavedTaskIndex(DukeTaskIndex.open(indexFile)));
+            indexedTasks.deleteAt(4);
+            indexedTasks.add(new ToDoTask("book a borgar"));
+            tasks.deleteAt(4);
+            tasks.add(new ToDoTask("book a borgar"));
+
+            for (String searchTerm : new String[] { "book", "ook", "d b", "n  b", "k t", "borgar", "\u00e9cl", " ", "",
+                                                    "zebra", "ok a bo", "turn  book" }) {
+                assertEquals(tasks.getMatchingTasksAsString(searchTerm),
+                             indexedTasks.getMatchingTasksAsString(searchTerm), searchTerm);
+            }
+        } finally {
+            pagedFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void testTokenQueries() throws IOException, DukeException {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDoTask("Read book"));
+        tasks.add(new ToDoTask("return book to library"));
+        tasks.add(new ToDoTask("bookkeeping"));
+        tasks.add(new ToDoTask("eat borgar"));
+
+        File pagedFile = Files.createTempFile("duke-index", ".tl").toFile();
+        File indexFile = Files.createTempFile("duke-index", ".idx").toFile();
+        try {
+            DukePagedTaskFile.write(pagedFile, tasks);
+            DukeTaskIndex.build(tasks.getGeneration(), tasks.snapshotIterable()).write(indexFile);
+
+            TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            TaskList unindexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            assertTrue(indexedTasks.useSavedTaskIndex(DukeTaskIndex.open(indexFile)));
+
+            for (TaskList list : new TaskList[] { tasks, indexedTasks, unindexedTasks }) {
+                list.deleteAt(2);
+                list.add(new ToDoTask("book a borgar"));
+                list.add(new ToDoTask("read-book again"));
+                list.deleteAt(5);
+                list.markAsDone(1);
+            }
+
+            String[][] expectedResults = {
+                { "book AND read", "1.[T][O] Read book\n" },
+                { "book OR bookkeeping", "1.[T][O] Read book\n2.[T][X] bookkeeping\n"
+                                         + "4.[T][X] book a borgar\n" },
+                { "BORGAR book OR library", "4.[T][X] book a borgar\n" },
+                { "AND again", DukeUi.FEEDBACK_FIND_NOTHING },
+                { "OR", DukeUi.FEEDBACK_FIND_NOTHING }
+            };
+
+            for (String[] expectedResult : expectedResults) {
+                for (TaskList list : new TaskList[] { tasks, indexedTasks, unindexedTasks }) {
+                    assertEquals(expectedResult[1], list.getTasksMatchingQueryAsString(expectedResult[0]),
+                                 expectedResult[0]);
+                }
+            }
+        } finally {
+            pagedFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void testPlainSearchIgnoresJoiningWords() throws DukeException {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDoTask("FAQ AND Answers"));
+        tasks.add(new ToDoTask("fix ORDER OR RETURN bug"));
+        tasks.add(new ToDoTask("read book"));
+
+        assertEquals("1.[T][X] FAQ AND Answers\n", tasks.getMatchingTasksAsString("Q AND A"));
+        assertEquals("2.[T][X] fix ORDER OR RETURN bug\n", tasks.getMatchingTasksAsString("OR"));
+        assertEquals("2.[T][X] fix ORDER OR RETURN bug\n", tasks.getMatchingTasksAsString("ER OR RE"));
+        assertEquals(DukeUi.FEEDBACK_FIND_NOTHING, tasks.getTasksMatchingQueryAsString("Q AND A"));
+    }
+
+    @Test
+    public void testDeadlinePositions() throws IOException, DukeException {
+        DukeDateTime early = new DukeDateTime(LocalDate.of(2020, 1, 1), LocalTime.of(9, 0));
+        DukeDateTime late = new DukeDateTime(LocalDate.of(2020, 1, 2), null);
+
+        TaskList tasks = new TaskList();
+        tasks.add(new DeadlineTask("late", late));
+        tasks.add(new ToDoTask("no deadline"));
+        tasks.add(new DeadlineTask("early", early));
+        tasks.add(new DeadlineTask("undated", new DukeDateTime(null, LocalTime.of(8, 0))));
+
+        File pagedFile = Files.createTempFile("duke-index", ".tl").toFile();
+        try {
+            DukePagedTaskFile.write(pagedFile, tasks);
+
+            TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            assertTrue(indexedTasks.useSavedTaskIndex(indexedTasks.buildSavedTaskIndex()));
+            indexedTasks.add(new DeadlineTask("also early", early));
+            indexedTasks.deleteAt(2);
+
+            assertEquals("[2, 4, 1]", Arrays.toString(indexedTasks.getDeadlinePositions(Long.MIN_VALUE,
+                                                                                         Long.MAX_VALUE)));
+            assertEquals("[1]", Arrays.toString(indexedTasks.getDeadlinePositions(
+                DukeBinaryCodec.toEpochMinute(early) + 1, Long.MAX_VALUE)));
+        } finally {
+            pagedFile.delete();
+        }
+    }
+
+    @Test
+    public void testPendingDeadlinePositions() throws IOException, DukeException {
+        LocalDate day = LocalDate.of(2020, 1, 5);
+
+        TaskList tasks = new TaskList();
+        tasks.add(new DeadlineTask("past", new DukeDateTime(day.minusDays(4), LocalTime.of(10, 0))));
+        tasks.add(new DeadlineTask("done past", new DukeDateTime(day.minusDays(4), LocalTime.of(9, 0)), true));
+        tasks.add(new DeadlineTask("today", new DukeDateTime(day, null)));
+        tasks.add(new ToDoTask("no deadline"));
+        tasks.add(new DeadlineTask("future", new DukeDateTime(day.plusDays(5), LocalTime.NOON)));
+
+        File pagedFile = Files.createTempFile("duke-index", ".tl").toFile();
+        try {
+            DukePagedTaskFile.write(pagedFile, tasks);
+
+            TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            TaskList unindexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            assertTrue(indexedTasks.useSavedTaskIndex(indexedTasks.buildSavedTaskIndex()));
+
+            long now = DukeBinaryCodec.toEpochMinute(new DukeDateTime(day, LocalTime.NOON));
+            for (TaskList list : new TaskList[] { tasks, indexedTasks, unindexedTasks }) {
+                list.add(new DeadlineTask("added soon", new DukeDateTime(day, LocalTime.of(18, 0))));
+                list.add(new DeadlineTask("added past", new DukeDateTime(day.minusDays(5), null)));
+                list.markAsDone(5);
+                list.deleteAt(4);
+
+                assertEquals("[6, 1]", Arrays.toString(list.getOverdueDeadlinePositions(now)));
+                assertEquals("[5, 3]", Arrays.toString(list.getUpcomingDeadlinePositions(now, 5)));
+                assertEquals("[5]", Arrays.toString(list.getUpcomingDeadlinePositions(now, 1)));
+
+                list.markAsDone(5);
+                list.markAsDone(1);
+                assertEquals("[6]", Arrays.toString(list.getOverdueDeadlinePositions(now)));
+                assertEquals("[3]", Arrays.toString(list.getUpcomingDeadlinePositions(now, 5)));
+
+                list.drainChanges();
+                list.markAsUndone(2);
+                list.markAsUndone(3);
+                list.markAsUndone(4);
+                list.markAsUndone(5);
+                assertEquals("[6, 2]", Arrays.toString(list.getOverdueDeadlinePositions(now)));
+                assertEquals("[5, 3, 4]", Arrays.toString(list.getUpcomingDeadlinePositions(now, 5)));
+
+                List<DukeJournalEntry> changes = list.drainChanges();
+                assertEquals(1, changes.size());
+                assertEquals(DukeJournalEntryType.TaskRangeMarkedUndone, changes.get(0).type);
+                assertEquals(4, changes.get(0).count);
+
+                list.markAsDone(2);
+                list.deleteAt(4);
+                assertEquals("[5]", Arrays.toString(list.getOverdueDeadlinePositions(now)));
+                assertEquals("[4, 3]", Arrays.toString(list.getUpcomingDeadlinePositions(now, 5)));
+            }
+        } finally {
+            pagedFile.delete();
+        }
+    }
+
+    @Test
+    public void testEventPositions() throws IOException, DukeException {
+        LocalDate firstDay = LocalDate.of(2020, 1, 1);
+        LocalDate secondDay = LocalDate.of(2020, 1, 2);
+
+        TaskList tasks = new TaskList();
+        tasks.add(new EventTask("camp", new DukeDuration(new DukeDateTime(firstDay, null),
+                                                         new DukeDateTime(firstDay.plusDays(2), null))));
+        tasks.add(new EventTask("talk", new DukeDuration(new DukeDateTime(secondDay, LocalTime.of(14, 0)),
+                                                         new DukeDateTime(null, LocalTime.of(16, 0)))));
+        tasks.add(new ToDoTask("not an event"));
+        tasks.add(new EventTask("lunch", new DukeDuration(new DukeDateTime(firstDay.plusDays(4), LocalTime.NOON),
+                                                          new DukeDateTime(null, null))));
+        tasks.add(new EventTask("someday", new DukeDuration(new DukeDateTime(null, null),
+                                                            new DukeDateTime(null, null))));
+
+        File pagedFile = Files.createTempFile("duke-index", ".tl").toFile();
+        try {
+            DukePagedTaskFile.write(pagedFile, tasks);
+
+            TaskList indexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            TaskList unindexedTasks = new TaskList(DukePagedTaskFile.open(pagedFile));
+            assertTrue(indexedTasks.useSavedTaskIndex(indexedTasks.buildSavedTaskIndex()));
+
+            for (TaskList list : new TaskList[] { tasks, indexedTasks, unindexedTasks }) {
+                list.add(new EventTask("meeting", new DukeDuration(new DukeDateTime(secondDay, LocalTime.of(15, 0)),
+                                                                   new DukeDateTime(null, LocalTime.of(17, 0)))));
+                list.deleteAt(4);
+
+                long from = DukeBinaryCodec.toEpochMinute(new DukeDateTime(secondDay, LocalTime.of(15, 30)));
+                assertEquals("[1, 2, 5]", Arrays.toString(list.getEventPositions(from, from + 15)));
+                assertEquals("[1, 5]", Arrays.toString(list.getEventPositions(from + 60, from + 90)));
+                assertEquals("[]", Arrays.toString(list.getEventPositions(from + 2 * 24 * 60, Long.MAX_VALUE)));
+            }
+        } finally {
+            pagedFile.delete();
+        }
+    }
+}
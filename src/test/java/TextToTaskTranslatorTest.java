@@ -0,0 +1,35 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class TextToTaskTranslatorTest {
+    @Test
+    public void testDatesAndTimesAreRead() throws DukeException {
+        assertEquals("[D][X] return book (by 02/12/2019 1800)",
+                     TextToTaskTranslator.translateDeadlineTask("deadline return book /by 2/12/2019 1800").toString());
+        assertEquals("[D][X] essay (by 31/01/2020)",
+                     TextToTaskTranslator.translateDeadlineTask("deadline  essay /by 31/1/20 ").toString());
+        assertEquals("[E][X] camp (at 01/06/2020 to 05/06/2020 0900)",
+                     TextToTaskTranslator.translateEventTask("event camp /at 1/6/20 to 5/6/20 0900").toString());
+
+        //Neither a year of 3 digits nor a time after a '/' is read
+        assertEquals("[D][X] x (by Unspecified Time)",
+                     TextToTaskTranslator.translateDeadlineTask("deadline x /by 1/2/201 /1800").toString());
+        assertEquals("[E][X] x (at Unspecified Time)",
+                     TextToTaskTranslator.translateEventTask("event x /at 1/1/19 /at 2/1/19").toString());
+    }
+
+    @Test
+    public void testInvalidDatesAndTimesAreRejected() {
+        assertEquals(String.format(DukeUi.ERROR_DAY_BIG, "Februrary"),
+                     assertThrows(DukeException.class, () -> TextToTaskTranslator.translateDeadlineTask(
+                         "deadline x /by 29/2/2019")).getMessage());
+        assertEquals(DukeUi.ERROR_HOURS_OOB,
+                     assertThrows(DukeException.class, () -> TextToTaskTranslator.translateEventTask(
+                         "event x /at 2400")).getMessage());
+        assertEquals(DukeUi.ERROR_NO_DESCRIPTION,
+                     assertThrows(DukeException.class, () -> TextToTaskTranslator.translateDeadlineTask(
+                         "deadline /by/by")).getMessage());
+    }
+}